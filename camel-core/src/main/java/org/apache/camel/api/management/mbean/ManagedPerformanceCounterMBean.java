@@ -59,6 +59,18 @@ public interface ManagedPerformanceCounterMBean extends ManagedCounterMBean {
     @ManagedAttribute(description = "Delta Processing Time [milliseconds]")
     long getDeltaProcessingTime() throws Exception;
 
+    @ManagedAttribute(description = "50th Percentile (Median) Processing Time [milliseconds] (requires extended statistics level)")
+    long getP50ProcessingTime() throws Exception;
+
+    @ManagedAttribute(description = "99th Percentile Processing Time [milliseconds] (requires extended statistics level)")
+    long getP99ProcessingTime() throws Exception;
+
+    @ManagedAttribute(description = "99.9th Percentile Processing Time [milliseconds] (requires extended statistics level)")
+    long getP999ProcessingTime() throws Exception;
+
+    @ManagedAttribute(description = "Whether the percentiles of the processing time is recorded")
+    boolean isPercentileStatisticsEnabled();
+
     @ManagedAttribute(description = "Last Exchange Completed Timestamp")
     Date getLastExchangeCompletedTimestamp();
 
@@ -26,4 +26,10 @@ public interface ManagedSplitterMBean extends ManagedMulticastMBean {
     @ManagedAttribute(description = "Expression of how to split the message body, such as as-is, using a tokenizer, or using an xpath.")
     String getExpression();
 
+    @ManagedAttribute(description = "Maximum number of sub messages split ahead which has not yet been aggregated when using parallel processing (0 is no limit)")
+    Integer getLookAhead();
+
+    @ManagedAttribute(description = "Current number of sub messages split ahead which has not yet been aggregated when using parallel processing with a look ahead")
+    Integer getPendingExchanges();
+
 }
\ No newline at end of file
@@ -55,6 +55,24 @@ public interface ManagedStreamCachingStrategyMBean extends ManagedServiceMBean {
     @ManagedAttribute(description = "Buffer size in bytes to use when coping between buffers")
     int getBufferSize();
 
+    @ManagedAttribute(description = "Number of free buffers to keep in the pool of buffers shared by the in-memory stream caches (0 = not in use)")
+    int getBufferPoolSize();
+
+    @ManagedAttribute(description = "Whether the pool of buffers uses direct (off heap) buffers")
+    boolean isBufferPoolDirect();
+
+    @ManagedAttribute(description = "Number of free buffers in the pool of buffers")
+    int getBufferPoolAvailable();
+
+    @ManagedAttribute(description = "Number of buffers from the pool of buffers currently used by in-memory stream caches")
+    int getBufferPoolInUse();
+
+    @ManagedAttribute(description = "Number of times a buffer has been acquired from the pool of buffers")
+    long getBufferPoolAcquiredCounter();
+
+    @ManagedAttribute(description = "Number of buffers allocated because the pool of buffers was empty")
+    long getBufferPoolAllocatedCounter();
+
     @ManagedAttribute(description = "Whether to remove spool directory when stopping")
     void setRemoveSpoolDirectoryWhenStopping(boolean remove);
 
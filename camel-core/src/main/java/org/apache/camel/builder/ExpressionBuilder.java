@@ -62,6 +62,7 @@ import org.apache.camel.support.ExpressionAdapter;
 import org.apache.camel.support.TokenPairExpressionIterator;
 import org.apache.camel.support.TokenXMLExpressionIterator;
 import org.apache.camel.support.XMLTokenExpressionIterator;
+import org.apache.camel.util.ByteTokenIterator;
 import org.apache.camel.util.CamelContextHelper;
 import org.apache.camel.util.ExchangeHelper;
 import org.apache.camel.util.FileUtil;
@@ -1558,6 +1559,11 @@ public final class ExpressionBuilder {
             public Object evaluate(Exchange exchange) {
                 String text = simpleExpression(token).evaluate(exchange, String.class);
                 Object value = expression.evaluate(exchange, Object.class);
+                // a literal token can be split without using regular expressions
+                ByteTokenIterator iterator = ObjectHelper.getByteTokenIterator(exchange, value, text);
+                if (iterator != null) {
+                    return iterator;
+                }
                 Scanner scanner = ObjectHelper.getScanner(exchange, value);
                 scanner.useDelimiter(text);
                 return scanner;
@@ -1678,7 +1684,10 @@ public final class ExpressionBuilder {
                 } else if (parts <= 0) {
                     throw new RuntimeExchangeException("Group must be a positive number, was: " + parts, exchange);
                 }
-                if (token != null) {
+                if (it instanceof ByteTokenIterator && token != null && token.equals(((ByteTokenIterator) it).getToken())) {
+                    // the parts can be grouped without decoding and encoding each part
+                    return ((ByteTokenIterator) it).group(parts, skipFirst);
+                } else if (token != null) {
                     return new GroupTokenIterator(exchange, it, token, parts, skipFirst);
                 } else {
                     return new GroupIterator(exchange, it, parts, skipFirst);
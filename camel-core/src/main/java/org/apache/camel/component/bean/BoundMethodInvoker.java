@@ -0,0 +1,122 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.bean;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+import org.apache.camel.util.ObjectHelper;
+
+/**
+ * Invokes a bean {@link Method} using a {@link MethodHandle} which is bound once, instead of using
+ * reflection on every invocation.
+ * <p/>
+ * The arguments must match the parameter types of the method exactly (primitive parameters must be given
+ * a non <tt>null</tt> value of its wrapper type), which can be checked using {@link #canInvoke(Object[])}.
+ * When the arguments do not match then the method should be invoked using reflection, which reports the
+ * problem the same way as before.
+ */
+public final class BoundMethodInvoker {
+
+    private static final MethodType INVOKER_TYPE = MethodType.methodType(Object.class, Object.class, Object[].class);
+
+    private final Method method;
+    private final MethodHandle handle;
+    private final Class<?>[] parameterTypes;
+    private final boolean[] primitives;
+
+    private BoundMethodInvoker(Method method, MethodHandle handle) {
+        this.method = method;
+        this.handle = handle;
+        // use the wrapper types as the arguments are always objects
+        Class<?>[] types = method.getParameterTypes();
+        this.parameterTypes = new Class<?>[types.length];
+        this.primitives = new boolean[types.length];
+        for (int i = 0; i < types.length; i++) {
+            this.primitives[i] = types[i].isPrimitive();
+            this.parameterTypes[i] = primitives[i] ? ObjectHelper.convertPrimitiveTypeToWrapperType(types[i]) : types[i];
+        }
+    }
+
+    /**
+     * Binds the given method.
+     *
+     * @param method the method
+     * @return the bound invoker, or <tt>null</tt> if the method cannot be bound, such as when the method is not accessible
+     */
+    public static BoundMethodInvoker bind(Method method) {
+        try {
+            MethodHandle handle = MethodHandles.lookup().unreflect(method).asFixedArity();
+            if (Modifier.isStatic(method.getModifiers())) {
+                // add the bean instance as a parameter which is not in use
+                handle = MethodHandles.dropArguments(handle, 0, Object.class);
+            }
+            handle = handle.asSpreader(Object[].class, method.getParameterTypes().length).asType(INVOKER_TYPE);
+            return new BoundMethodInvoker(method, handle);
+        } catch (IllegalAccessException e) {
+            return null;
+        }
+    }
+
+    public Method getMethod() {
+        return method;
+    }
+
+    /**
+     * Whether the arguments can be used to invoke the bound method.
+     *
+     * @param arguments the arguments, may be <tt>null</tt> if the method has no parameters
+     * @return <tt>true</tt> if the arguments matches the parameter types
+     */
+    public boolean canInvoke(Object[] arguments) {
+        int size = arguments != null ? arguments.length : 0;
+        if (size != parameterTypes.length) {
+            return false;
+        }
+        for (int i = 0; i < size; i++) {
+            Object value = arguments[i];
+            if (value == null) {
+                if (primitives[i]) {
+                    return false;
+                }
+            } else if (!parameterTypes[i].isInstance(value)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Invokes the bound method.
+     *
+     * @param pojo      the bean instance, not in use for static methods
+     * @param arguments the arguments, may be <tt>null</tt> if the method has no parameters
+     * @return the result of the method, or <tt>null</tt> if the method is void
+     * @throws Throwable is thrown as-is from the invoked method
+     */
+    public Object invoke(Object pojo, Object[] arguments) throws Throwable {
+        return (Object) handle.invokeExact(pojo, arguments);
+    }
+
+    @Override
+    public String toString() {
+        return "BoundMethodInvoker[" + method + "]";
+    }
+}
@@ -81,6 +81,8 @@ public class MethodInfo {
     private RecipientList recipientList;
     private RoutingSlip routingSlip;
     private DynamicRouter dynamicRouter;
+    private volatile BoundMethodInvoker boundMethod;
+    private volatile boolean boundMethodResolved;
 
     /**
      * Adapter to invoke the method which has been annotated with the @DynamicRouter
@@ -477,6 +479,17 @@ public class MethodInfo {
     }
 
     protected Object invoke(Method mth, Object pojo, Object[] arguments, Exchange exchange) throws InvocationTargetException {
+        // use the method handle which is bound once, which is faster than reflection
+        BoundMethodInvoker invoker = mth == method ? getBoundMethod() : null;
+        if (invoker != null && (pojo != null || isStaticMethod()) && invoker.canInvoke(arguments)) {
+            try {
+                return invoker.invoke(pojo, arguments);
+            } catch (Throwable e) {
+                // wrap as invocation target exception to be handled the same as reflection
+                throw new InvocationTargetException(e);
+            }
+        }
+
         try {
             return mth.invoke(pojo, arguments);
         } catch (IllegalAccessException e) {
@@ -486,6 +499,22 @@ public class MethodInfo {
         }
     }
 
+    /**
+     * Gets the {@link BoundMethodInvoker} for the method, which is bound on first use.
+     *
+     * @return the invoker, or <tt>null</tt> if the method cannot be bound and reflection must be used
+     */
+    protected BoundMethodInvoker getBoundMethod() {
+        if (!boundMethodResolved) {
+            boundMethod = BoundMethodInvoker.bind(method);
+            boundMethodResolved = true;
+            if (boundMethod == null) {
+                LOG.debug("Cannot bind method: {} and will use reflection instead", method);
+            }
+        }
+        return boundMethod;
+    }
+
     protected Expression[] createParameterExpressions() {
         final int size = parameters.size();
         LOG.trace("Creating parameters expression for {} parameters", size);
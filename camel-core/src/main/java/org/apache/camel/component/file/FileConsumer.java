@@ -32,6 +32,7 @@ import java.util.stream.Collectors;
 import org.apache.camel.Exchange;
 import org.apache.camel.Message;
 import org.apache.camel.Processor;
+import org.apache.camel.support.SynchronizationAdapter;
 import org.apache.camel.util.FileUtil;
 import org.apache.camel.util.ObjectHelper;
 
@@ -42,6 +43,7 @@ public class FileConsumer extends GenericFileConsumer<File> {
 
     private String endpointPath;
     private Set<String> extendedAttributes;
+    private FileWatchIndex watchIndex;
 
     public FileConsumer(FileEndpoint endpoint, Processor processor, GenericFileOperations<File> operations) {
         super(endpoint, processor, operations);
@@ -54,12 +56,30 @@ public class FileConsumer extends GenericFileConsumer<File> {
                 extendedAttributes.add(attribute);
             }
         }
+
+        if (endpoint.isUseWatchService()) {
+            this.watchIndex = new FileWatchIndex(endpointPath, endpoint.isRecursive(), endpoint.getMinDepth(), endpoint.getMaxDepth(),
+            dir -> isValidFile(asGenericFile(endpointPath, dir, endpoint.getCharset(), false), true, null));
+        }
     }
 
     @Override
     protected boolean pollDirectory(String fileName, List<GenericFile<File>> fileList, int depth) {
         log.trace("pollDirectory from fileName: {}", fileName);
 
+        if (watchIndex != null && depth == 0) {
+            List<File> pendingFiles;
+            try {
+                pendingFiles = watchIndex.pendingFiles();
+            } catch (IOException e) {
+                throw new GenericFileOperationFailedException("Cannot watch directory: " + fileName, e);
+            }
+            // if the directory does not exist then let the regular poll handle it
+            if (pendingFiles != null) {
+                return pollPendingFiles(pendingFiles, fileList);
+            }
+        }
+
         depth++;
 
         File directory = new File(fileName);
@@ -120,37 +140,7 @@ public class FileConsumer extends GenericFileConsumer<File> {
                     log.trace("Adding valid file: {}", file);
                     // matched file so add
                     if (extendedAttributes != null) {
-                        Path path = file.toPath();
-                        Map<String, Object> allAttributes = new HashMap<>();
-                        for (String attribute : extendedAttributes) {
-                            try {
-                                String prefix = null;
-                                if (attribute.endsWith(":*")) {
-                                    prefix = attribute.substring(0, attribute.length() - 1);
-                                } else if (attribute.equals("*")) {
-                                    prefix = "basic:";
-                                }
-
-                                if (ObjectHelper.isNotEmpty(prefix)) {
-                                    Map<String, Object> attributes = Files.readAttributes(path, attribute);
-                                    if (attributes != null) {
-                                        for (Map.Entry<String, Object> entry : attributes.entrySet()) {
-                                            allAttributes.put(prefix + entry.getKey(), entry.getValue());
-                                        }
-                                    }
-                                } else if (!attribute.contains(":")) {
-                                    allAttributes.put("basic:" + attribute, Files.getAttribute(path, attribute));
-                                } else {
-                                    allAttributes.put(attribute, Files.getAttribute(path, attribute));
-                                }
-                            } catch (IOException e) {
-                                if (log.isDebugEnabled()) {
-                                    log.debug("Unable to read attribute {} on file {}", attribute, file, e);
-                                }
-                            }
-                        }
-
-                        gf.setExtendedAttributes(allAttributes);
+                        updateExtendedAttributes(file, gf);
                     }
 
                     fileList.add(gf);
@@ -162,8 +152,97 @@ public class FileConsumer extends GenericFileConsumer<File> {
         return true;
     }
 
+    /**
+     * Polls the files pending in the watch index, instead of listing the directory.
+     */
+    private boolean pollPendingFiles(List<File> pendingFiles, List<GenericFile<File>> fileList) {
+        if (getEndpoint().isPreSort()) {
+            Collections.sort(pendingFiles);
+        }
+
+        for (File file : pendingFiles) {
+            // check if we can continue polling in files
+            if (!canPollMoreFiles(fileList)) {
+                return false;
+            }
+
+            // the file may have been deleted or replaced with a directory since it was changed
+            if (!file.isFile()) {
+                watchIndex.remove(file);
+                continue;
+            }
+
+            GenericFile<File> gf = asGenericFile(endpointPath, file, getEndpoint().getCharset(), getEndpoint().isProbeContentType());
+            if (endpoint.getInProgressRepository().contains(gf.getAbsoluteFilePath())) {
+                // keep the file pending as it may not be completed when its done being processed
+                continue;
+            }
+
+            boolean valid = isValidFile(gf, false, null);
+            if (valid) {
+                log.trace("Adding valid file: {}", file);
+                if (extendedAttributes != null) {
+                    updateExtendedAttributes(file, gf);
+                }
+                fileList.add(gf);
+            }
+
+            // a valid file is kept pending until its exchange is processed, as the poll may be limited by
+            // max messages per poll or stopped, otherwise the file is not polled again unless its changed,
+            // however keep waiting for the done file if the file is not done yet
+            if (!valid && endpoint.getDoneFileName() == null) {
+                watchIndex.remove(file);
+            }
+        }
+
+        return true;
+    }
+
+    private void updateExtendedAttributes(File file, GenericFile<File> gf) {
+        Path path = file.toPath();
+        Map<String, Object> allAttributes = new HashMap<>();
+        for (String attribute : extendedAttributes) {
+            try {
+                String prefix = null;
+                if (attribute.endsWith(":*")) {
+                    prefix = attribute.substring(0, attribute.length() - 1);
+                } else if (attribute.equals("*")) {
+                    prefix = "basic:";
+                }
+
+                if (ObjectHelper.isNotEmpty(prefix)) {
+                    Map<String, Object> attributes = Files.readAttributes(path, attribute);
+                    if (attributes != null) {
+                        for (Map.Entry<String, Object> entry : attributes.entrySet()) {
+                            allAttributes.put(prefix + entry.getKey(), entry.getValue());
+                        }
+                    }
+                } else if (!attribute.contains(":")) {
+                    allAttributes.put("basic:" + attribute, Files.getAttribute(path, attribute));
+                } else {
+                    allAttributes.put(attribute, Files.getAttribute(path, attribute));
+                }
+            } catch (IOException e) {
+                if (log.isDebugEnabled()) {
+                    log.debug("Unable to read attribute {} on file {}", attribute, file, e);
+                }
+            }
+        }
+
+        gf.setExtendedAttributes(allAttributes);
+    }
+
     @Override
     protected boolean isMatched(GenericFile<File> file, String doneFileName, List<File> files) {
+        if (files == null) {
+            // the directory was not listed when polling the files pending in the watch index
+            if (new File(doneFileName).exists()) {
+                return true;
+            }
+            log.trace("Done file: {} does not exist", doneFileName);
+            return false;
+        }
+
         String onlyName = FileUtil.stripPath(doneFileName);
         // the done file name must be among the files
         for (File f : files) {
@@ -254,6 +333,58 @@ public class FileConsumer extends GenericFileConsumer<File> {
         }
     }
 
+    @Override
+    protected boolean processExchange(Exchange exchange) {
+        if (watchIndex == null) {
+            return super.processExchange(exchange);
+        }
+
+        File file = removeFromWatchIndex(exchange);
+        boolean started = super.processExchange(exchange);
+        if (!started) {
+            watchIndex.retry(file);
+        }
+        return started;
+    }
+
+    @Override
+    protected boolean customProcessExchange(Exchange exchange, Processor processor) {
+        if (watchIndex == null) {
+            return super.customProcessExchange(exchange, processor);
+        }
+
+        File file = removeFromWatchIndex(exchange);
+        boolean started = super.customProcessExchange(exchange, processor);
+        if (!started) {
+            watchIndex.retry(file);
+        }
+        return started;
+    }
+
+    /**
+     * The file is no longer pending in the watch index when its exchange is processed, however it
+     * must be polled again if it was not processed, as there may be no more changes to the file.
+     */
+    private File removeFromWatchIndex(Exchange exchange) {
+        final File file = (File) exchange.getProperty(FileComponent.FILE_EXCHANGE_FILE, GenericFile.class).getFile();
+        watchIndex.remove(file);
+        exchange.addOnCompletion(new SynchronizationAdapter() {
+            @Override
+            public void onFailure(Exchange exchange) {
+                watchIndex.retry(file);
+            }
+        });
+        return file;
+    }
+
+    @Override
+    protected void doStop() throws Exception {
+        if (watchIndex != null) {
+            watchIndex.stop();
+        }
+        super.doStop();
+    }
+
     @Override
     public FileEndpoint getEndpoint() {
         return (FileEndpoint) super.getEndpoint();
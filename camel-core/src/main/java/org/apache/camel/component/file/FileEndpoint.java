@@ -61,6 +61,8 @@ public class FileEndpoint extends GenericFileEndpoint<File> {
     private boolean probeContentType;
     @UriParam(label = "consumer,advanced")
     private String extendedAttributes;
+    @UriParam(label = "consumer,advanced")
+    private boolean useWatchService;
     @UriParam(label = "producer,advanced")
     private String chmod;
     @UriParam(label = "producer,advanced")
@@ -280,6 +282,21 @@ public class FileEndpoint extends GenericFileEndpoint<File> {
         this.extendedAttributes = extendedAttributes;
     }
 
+    public boolean isUseWatchService() {
+        return useWatchService;
+    }
+
+    /**
+     * Whether the consumer should use the JDK WatchService to keep an index of the new and changed files in the directory,
+     * instead of listing all the files in the directory on every poll. This is faster for directories with many files.
+     * The directory is listed when the consumer starts, and again if the WatchService may have lost changes.
+     * Files which are not accepted by the filters are only polled again when they are changed.
+     * Notice on some platforms such as Mac OS X the WatchService is slow to notice changes.
+     */
+    public void setUseWatchService(boolean useWatchService) {
+        this.useWatchService = useWatchService;
+    }
+
     /**
      * Chmod value must be between 000 and 777; If there is a leading digit like in 0755 we will ignore it.
      */
@@ -17,16 +17,17 @@
 package org.apache.camel.component.file;
 
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
 import java.io.Writer;
 import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.channels.SeekableByteChannel;
 import java.nio.charset.Charset;
 import java.nio.file.Files;
-import java.nio.file.StandardCopyOption;
 import java.nio.file.StandardOpenOption;
 import java.nio.file.attribute.PosixFilePermission;
 import java.nio.file.attribute.PosixFilePermissions;
@@ -246,10 +247,11 @@ public class FileOperations implements GenericFileOperations<File> {
             }
         }
 
-        // we can write the file by 3 different techniques
+        // we can write the file by 4 different techniques
         // 1. write file to file
         // 2. rename a file from a local work path
-        // 3. write stream to file
+        // 3. write file channel to file
+        // 4. write stream to file
         try {
 
             // is there an explicit charset configured we must write the file as
@@ -328,10 +330,21 @@ public class FileOperations implements GenericFileOperations<File> {
                 // buffer the reader
                 in = IOHelper.buffered(in);
                 writeFileByReaderWithCharset(in, file, charset);
+            } else if (exchange.getIn().getBody() instanceof FileChannel) {
+                writeFileByChannel((FileChannel) exchange.getIn().getBody(), file);
             } else {
                 // fallback and use stream based
                 InputStream in = exchange.getIn().getMandatoryBody(InputStream.class);
-                writeFileByStream(in, file);
+                if (in instanceof FileInputStream) {
+                    // the stream is reading a file so we can transfer from its channel
+                    try {
+                        writeFileByChannel(((FileInputStream) in).getChannel(), file);
+                    } finally {
+                        IOHelper.close(in, file.getName(), LOG);
+                    }
+                } else {
+                    writeFileByStream(in, file);
+                }
             }
 
             // try to keep last modified timestamp if configured to do so
@@ -430,7 +443,35 @@ public class FileOperations implements GenericFileOperations<File> {
     }
 
     private void writeFileByFile(File source, File target) throws IOException {
-        Files.copy(source.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        try (FileChannel in = FileChannel.open(source.toPath(), StandardOpenOption.READ)) {
+            writeFileByChannel(in, target);
+        }
+    }
+
+    /**
+     * Writes the remaining content of the channel (from its current position) to the file using
+     * {@link FileChannel#transferTo(long, long, java.nio.channels.WritableByteChannel)}, which allows the
+     * operating system to copy the content without copying it through the heap (such as sendfile on Linux).
+     */
+    private void writeFileByChannel(FileChannel in, File target) throws IOException {
+        try (FileChannel out = prepareOutputFileChannel(target)) {
+            LOG.debug("Using FileChannel to transfer file: {}", target);
+            long position = in.position();
+            long size = in.size();
+            while (position < size) {
+                long transferred = in.transferTo(position, size - position, out);
+                if (transferred <= 0) {
+                    // the source may have been truncated in the meantime
+                    long current = in.size();
+                    if (current >= size) {
+                        throw new IOException("Cannot transfer file to: " + target + " at position: " + position);
+                    }
+                    size = current;
+                }
+                position += transferred;
+            }
+            in.position(position);
+        }
     }
 
     private void writeFileByStream(InputStream in, File target) throws IOException {
@@ -487,11 +528,11 @@ public class FileOperations implements GenericFileOperations<File> {
      * Creates and prepares the output file channel. Will position itself in correct position if the file is writable
      * eg. it should append or override any existing content.
      */
-    private SeekableByteChannel prepareOutputFileChannel(File target) throws IOException {
+    private FileChannel prepareOutputFileChannel(File target) throws IOException {
         if (endpoint.getFileExist() == GenericFileExist.Append) {
-            SeekableByteChannel out = Files.newByteChannel(target.toPath(), StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            FileChannel out = FileChannel.open(target.toPath(), StandardOpenOption.CREATE, StandardOpenOption.APPEND);
             return out.position(out.size());
         }
-        return Files.newByteChannel(target.toPath(), StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.CREATE);
+        return FileChannel.open(target.toPath(), StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.CREATE);
     }
 }
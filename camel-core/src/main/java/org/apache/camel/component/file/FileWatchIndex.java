@@ -0,0 +1,202 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.file;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+import org.apache.camel.util.IOHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An in-memory index of the files in a directory which are pending to be polled by the {@link FileConsumer},
+ * when using the <tt>useWatchService</tt> option.
+ * <p/>
+ * The index is kept up to date using the JDK {@link WatchService}, so only files which are created or changed
+ * are added to the index, instead of listing the entire directory on every poll. The directory is scanned using
+ * a {@link DirectoryStream} when the index is started, and again if the watch service overflows and may have lost events.
+ */
+final class FileWatchIndex {
+
+    private static final Logger LOG = LoggerFactory.getLogger(FileWatchIndex.class);
+
+    private final Path root;
+    private final boolean recursive;
+    private final int minDepth;
+    private final int maxDepth;
+    private final Predicate<File> directoryFilter;
+    private final Map<WatchKey, Path> keys = new HashMap<>();
+    // the files pending to be polled in the order they were created or changed
+    private final Set<Path> pending = new LinkedHashSet<>();
+    private WatchService watchService;
+
+    FileWatchIndex(String directory, boolean recursive, int minDepth, int maxDepth, Predicate<File> directoryFilter) {
+        this.root = Paths.get(directory);
+        this.recursive = recursive;
+        this.minDepth = minDepth;
+        this.maxDepth = maxDepth;
+        this.directoryFilter = directoryFilter;
+    }
+
+    /**
+     * Gets the files pending to be polled, which starts watching the directory if not already started.
+     *
+     * @return the pending files, or <tt>null</tt> if the directory does not exist
+     */
+    synchronized List<File> pendingFiles() throws IOException {
+        if (watchService == null) {
+            if (!Files.isDirectory(root)) {
+                return null;
+            }
+            watchService = root.getFileSystem().newWatchService();
+            scan();
+        } else {
+            processEvents();
+        }
+
+        List<File> answer = new ArrayList<>(pending.size());
+        for (Path path : pending) {
+            answer.add(path.toFile());
+        }
+        return answer;
+    }
+
+    /**
+     * The file has been polled, so it is no longer pending until it is changed again.
+     */
+    synchronized void remove(File file) {
+        pending.remove(file.toPath());
+    }
+
+    /**
+     * The file was not processed, so it should be polled again.
+     */
+    synchronized void retry(File file) {
+        if (watchService != null && file.exists()) {
+            pending.add(file.toPath());
+        }
+    }
+
+    synchronized void stop() {
+        IOHelper.close(watchService, "watchService", LOG);
+        watchService = null;
+        keys.clear();
+        pending.clear();
+    }
+
+    private void processEvents() throws IOException {
+        boolean overflow = false;
+        WatchKey key;
+        try {
+            while ((key = watchService.poll()) != null) {
+                Path dir = keys.get(key);
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    WatchEvent.Kind<?> kind = event.kind();
+                    if (kind == OVERFLOW || dir == null) {
+                        overflow = true;
+                        continue;
+                    }
+                    Path path = dir.resolve((Path) event.context());
+                    int depth = root.relativize(path).getNameCount();
+                    if (kind == ENTRY_DELETE) {
+                        pending.remove(path);
+                    } else if (Files.isDirectory(path)) {
+                        // a new directory may already contain files before we are watching it
+                        if (kind == ENTRY_CREATE && recursive && depth < maxDepth && !keys.containsValue(path)
+                            && directoryFilter.test(path.toFile())) {
+                            scanDirectory(path, depth);
+                        }
+                    } else if (depth >= minDepth) {
+                        pending.add(path);
+                    }
+                }
+                if (!key.reset()) {
+                    // the directory is no longer accessible (such as deleted)
+                    keys.remove(key);
+                    if (root.equals(dir)) {
+                        overflow = true;
+                    }
+                }
+            }
+        } catch (ClosedWatchServiceException e) {
+            overflow = true;
+        }
+
+        if (overflow) {
+            LOG.debug("Events may have been lost watching directory: {}. Scanning the directory.", root);
+            rescan();
+        }
+    }
+
+    private void rescan() throws IOException {
+        IOHelper.close(watchService, "watchService", LOG);
+        watchService = null;
+        keys.clear();
+        pending.clear();
+        // if the directory does not exist then start again when its created
+        if (Files.isDirectory(root)) {
+            watchService = root.getFileSystem().newWatchService();
+            scan();
+        }
+    }
+
+    private void scan() throws IOException {
+        scanDirectory(root, 0);
+        LOG.debug("Scanned directory: {} with {} files pending", root, pending.size());
+    }
+
+    /**
+     * Watches and scans the directory, where the directory is watched before its scanned
+     * so no files are lost in the meantime.
+     */
+    private void scanDirectory(Path dir, int depth) throws IOException {
+        keys.put(dir.register(watchService, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE), dir);
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir)) {
+            for (Path path : stream) {
+                if (!Files.isDirectory(path)) {
+                    if (depth + 1 >= minDepth) {
+                        pending.add(path);
+                    }
+                } else if (recursive && depth + 1 < maxDepth && directoryFilter.test(path.toFile())) {
+                    scanDirectory(path, depth + 1);
+                }
+            }
+        }
+    }
+
+}
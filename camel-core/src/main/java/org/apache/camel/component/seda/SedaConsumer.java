@@ -16,6 +16,7 @@
  */
 package org.apache.camel.component.seda;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CountDownLatch;
@@ -54,6 +55,10 @@ import org.slf4j.LoggerFactory;
  * @version 
  */
 public class SedaConsumer extends ServiceSupport implements Consumer, Runnable, ShutdownAware, Suspendable {
+    /**
+     * Marker set by {@link SedaProducer} on the exchanges it hands over to the queue without waiting for them to complete.
+     */
+    static final String HANDOVER = "CamelSedaHandover";
     private static final Logger LOG = LoggerFactory.getLogger(SedaConsumer.class);
 
     private final AtomicInteger taskCount = new AtomicInteger();
@@ -65,11 +70,13 @@ public class SedaConsumer extends ServiceSupport implements Consumer, Runnable,
     private ExecutorService executor;
     private ExceptionHandler exceptionHandler;
     private final int pollTimeout;
+    private final int pollBatchSize;
 
     public SedaConsumer(SedaEndpoint endpoint, Processor processor) {
         this.endpoint = endpoint;
         this.processor = AsyncProcessorConverterHelper.convert(processor);
         this.pollTimeout = endpoint.getPollTimeout();
+        this.pollBatchSize = endpoint.getPollBatchSize();
         this.exceptionHandler = new LoggingExceptionHandler(endpoint.getCamelContext(), getClass());
     }
 
@@ -162,6 +169,8 @@ public class SedaConsumer extends ServiceSupport implements Consumer, Runnable,
 
     protected void doRun() {
         BlockingQueue<Exchange> queue = endpoint.getQueue();
+        // the exchanges drained from the queue in batch mode, which is reused by this consumer thread
+        List<Exchange> batch = pollBatchSize > 1 ? new ArrayList<Exchange>(pollBatchSize - 1) : null;
         // loop while we are allowed, or if we are stopping loop until the queue is empty
         while (queue != null && isRunAllowed()) {
 
@@ -203,24 +212,19 @@ public class SedaConsumer extends ServiceSupport implements Consumer, Runnable,
                     LOG.trace("Polled queue {} with timeout {} ms. -> {}", new Object[]{ObjectHelper.getIdentityHashCode(queue), pollTimeout, exchange});
                 }
                 if (exchange != null) {
-                    try {
-                        // send a new copied exchange with new camel context
-                        Exchange newExchange = prepareExchange(exchange);
-                        // process the exchange
-                        sendToConsumers(newExchange);
-                        // copy the message back
-                        if (newExchange.hasOut()) {
-                            exchange.setOut(newExchange.getOut().copy());
-                        } else {
-                            exchange.setIn(newExchange.getIn());
+                    processPolledExchange(exchange);
+                    if (batch != null) {
+                        // take the exchanges already waiting on the queue in one go, and process them in this wakeup
+                        int size = queue.drainTo(batch, pollBatchSize - 1);
+                        LOG.trace("Drained {} exchanges from queue", size);
+                        try {
+                            for (int i = 0; i < batch.size(); i++) {
+                                exchange = batch.get(i);
+                                processPolledExchange(exchange);
+                            }
+                        } finally {
+                            batch.clear();
                         }
-                        // log exception if an exception occurred and was not handled
-                        if (newExchange.getException() != null) {
-                            exchange.setException(newExchange.getException());
-                            getExceptionHandler().handleException("Error processing exchange", exchange, exchange.getException());
-                        }
-                    } catch (Exception e) {
-                        getExceptionHandler().handleException("Error processing exchange", exchange, e);
                     }
                 } else if (shutdownPending && queue.isEmpty()) {
                     LOG.trace("Shutdown is pending, so this consumer thread is breaking out because the task queue is empty.");
@@ -240,6 +244,57 @@ public class SedaConsumer extends ServiceSupport implements Consumer, Runnable,
         }
     }
 
+    /**
+     * Processes the exchange polled from the queue.
+     *
+     * @param exchange the exchange from the queue
+     */
+    protected void processPolledExchange(Exchange exchange) {
+        try {
+            if (isHandedOver(exchange)) {
+                // the producer does not wait for the exchange so we can process the exchange from the queue as-is
+                exchange.setFromEndpoint(endpoint);
+                exchange.setFromRouteId(null);
+                sendToConsumers(exchange);
+                if (exchange.getException() != null) {
+                    getExceptionHandler().handleException("Error processing exchange", exchange, exchange.getException());
+                }
+                return;
+            }
+
+            // send a new copied exchange with new camel context
+            Exchange newExchange = prepareExchange(exchange);
+            // process the exchange
+            sendToConsumers(newExchange);
+            // copy the message back
+            if (newExchange.hasOut()) {
+                exchange.setOut(newExchange.getOut().copy());
+            } else {
+                exchange.setIn(newExchange.getIn());
+            }
+            // log exception if an exception occurred and was not handled
+            if (newExchange.getException() != null) {
+                exchange.setException(newExchange.getException());
+                getExceptionHandler().handleException("Error processing exchange", exchange, exchange.getException());
+            }
+        } catch (Exception e) {
+            getExceptionHandler().handleException("Error processing exchange", exchange, e);
+        }
+    }
+
+    /**
+     * Whether the exchange has been handed over from a producer which does not wait for the exchange to complete,
+     * and which is using the same {@link org.apache.camel.CamelContext}, so no copy of the exchange is needed.
+     *
+     * @param exchange the exchange from the queue
+     * @return <tt>true</tt> if the exchange can be processed without a copy
+     */
+    protected boolean isHandedOver(Exchange exchange) {
+        // always remove the marker so its not carried along
+        Object handover = exchange.removeProperty(HANDOVER);
+        return handover != null && exchange.getContext() == endpoint.getCamelContext();
+    }
+
     /**
      * Strategy to prepare exchange for being processed by this consumer
      *
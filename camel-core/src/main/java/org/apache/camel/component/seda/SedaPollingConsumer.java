@@ -38,7 +38,7 @@ public class SedaPollingConsumer extends PollingConsumerSupport implements IsSin
     @Override
     public Exchange receive() {
         try {
-            return getEndpoint().getQueue().take();
+            return received(getEndpoint().getQueue().take());
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
             throw ObjectHelper.wrapRuntimeCamelException(e);
@@ -47,19 +47,27 @@ public class SedaPollingConsumer extends PollingConsumerSupport implements IsSin
 
     @Override
     public Exchange receiveNoWait() {
-        return getEndpoint().getQueue().poll();
+        return received(getEndpoint().getQueue().poll());
     }
 
     @Override
     public Exchange receive(long timeout) {
         try {
-            return getEndpoint().getQueue().poll(timeout, TimeUnit.MILLISECONDS);
+            return received(getEndpoint().getQueue().poll(timeout, TimeUnit.MILLISECONDS));
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
             throw ObjectHelper.wrapRuntimeCamelException(e);
         }
     }
 
+    private static Exchange received(Exchange exchange) {
+        if (exchange != null) {
+            // remove the marker from the producer as its only used by the seda consumer
+            exchange.removeProperty(SedaConsumer.HANDOVER);
+        }
+        return exchange;
+    }
+
     @Override
     protected void doStart() throws Exception {
         // noop
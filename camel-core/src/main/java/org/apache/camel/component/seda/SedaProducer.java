@@ -233,6 +233,8 @@ public class SedaProducer extends DefaultAsyncProducer {
         // handover the completion so its the copy which performs that, as we do not wait
         if (copy) {
             target = prepareCopy(exchange, true);
+            // mark the copy so the consumer knows it can process the copy without copying it again
+            target.setProperty(SedaConsumer.HANDOVER, Boolean.TRUE);
         }
 
         log.trace("Adding Exchange to queue: {}", target);
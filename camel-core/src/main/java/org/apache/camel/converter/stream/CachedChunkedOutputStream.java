@@ -0,0 +1,172 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.converter.stream;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.camel.converter.stream.FileInputStreamCache.TempFileManager;
+
+/**
+ * An {@link OutputStream} which stores the content in a list of fixed size chunks acquired from a
+ * {@link StreamCacheBufferPool}, and which is capable of returning a {@link ChunkedInputStreamCache} view of the chunks.
+ * <p/>
+ * The content is never copied when growing the stream, and the chunks are shared by the stream caches,
+ * until the chunks are returned to the pool using {@link #release()}.
+ */
+public final class CachedChunkedOutputStream extends OutputStream {
+
+    private final StreamCacheBufferPool pool;
+    private final List<ByteBuffer> chunks = new ArrayList<ByteBuffer>();
+    private ByteBuffer current;
+    private long count;
+    private volatile boolean released;
+
+    public CachedChunkedOutputStream(StreamCacheBufferPool pool) {
+        this.pool = pool;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        ensureChunk().put((byte) b);
+        count++;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        if (off < 0 || len < 0 || off + len > b.length) {
+            throw new IndexOutOfBoundsException();
+        }
+        while (len > 0) {
+            ByteBuffer chunk = ensureChunk();
+            int n = Math.min(len, chunk.remaining());
+            chunk.put(b, off, n);
+            off += n;
+            len -= n;
+            count += n;
+        }
+    }
+
+    /**
+     * Writes the content to the given stream, chunk by chunk.
+     */
+    public void writeTo(OutputStream os) throws IOException {
+        writeTo(os, 0, count);
+    }
+
+    /**
+     * The number of bytes written
+     */
+    public long size() {
+        return count;
+    }
+
+    public boolean isReleased() {
+        return released;
+    }
+
+    /**
+     * Returns the chunks to the pool, after which the content can no longer be read.
+     */
+    public synchronized void release() {
+        if (released) {
+            return;
+        }
+        released = true;
+        for (ByteBuffer chunk : chunks) {
+            pool.release(chunk);
+        }
+        chunks.clear();
+        current = null;
+    }
+
+    /**
+     * Creates a new {@link ChunkedInputStreamCache} view of the chunks
+     */
+    ChunkedInputStreamCache newStreamCache(TempFileManager tempFileManager) throws IOException {
+        checkReleased();
+        return new ChunkedInputStreamCache(this, tempFileManager, count);
+    }
+
+    @Override
+    public String toString() {
+        return "CachedChunkedOutputStream[size: " + count + ", chunks: " + chunks.size() + "]";
+    }
+
+    int getChunkSize() {
+        return pool.getChunkSize();
+    }
+
+    /**
+     * Gets a read only view of the chunk with the given index, limited to the bytes which are written to the chunk.
+     */
+    ByteBuffer view(int index) {
+        ByteBuffer chunk = chunks.get(index);
+        ByteBuffer answer = chunk.duplicate();
+        answer.flip();
+        return answer;
+    }
+
+    /**
+     * Writes the content from the given position until the given end position to the stream.
+     */
+    void writeTo(OutputStream os, long position, long end) throws IOException {
+        checkReleased();
+        int chunkSize = pool.getChunkSize();
+        byte[] buffer = null;
+        while (position < end) {
+            ByteBuffer chunk = chunks.get((int) (position / chunkSize));
+            int offset = (int) (position % chunkSize);
+            int n = (int) Math.min(chunkSize - offset, end - position);
+            if (chunk.hasArray()) {
+                os.write(chunk.array(), chunk.arrayOffset() + offset, n);
+            } else {
+                // direct chunks must be copied to the heap
+                if (buffer == null) {
+                    buffer = new byte[(int) Math.min(chunkSize, end - position)];
+                }
+                ByteBuffer view = chunk.duplicate();
+                view.position(offset);
+                for (int remaining = n; remaining > 0;) {
+                    int len = Math.min(remaining, buffer.length);
+                    view.get(buffer, 0, len);
+                    os.write(buffer, 0, len);
+                    remaining -= len;
+                }
+            }
+            position += n;
+        }
+    }
+
+    void checkReleased() throws IOException {
+        if (released) {
+            throw new IOException("The chunks of the stream cache has been released");
+        }
+    }
+
+    private ByteBuffer ensureChunk() throws IOException {
+        checkReleased();
+        if (current == null || !current.hasRemaining()) {
+            current = pool.acquire();
+            chunks.add(current);
+        }
+        return current;
+    }
+}
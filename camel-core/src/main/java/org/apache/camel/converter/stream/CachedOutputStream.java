@@ -64,7 +64,14 @@ public class CachedOutputStream extends OutputStream {
         tempFileManager = new TempFileManager(closedOnCompletion);
         tempFileManager.addExchange(exchange);
         this.strategy = exchange.getContext().getStreamCachingStrategy();
-        currentStream = new CachedByteArrayOutputStream(strategy.getBufferSize());
+        StreamCacheBufferPool pool = strategy.getBufferPool();
+        if (pool != null) {
+            CachedChunkedOutputStream chunked = new CachedChunkedOutputStream(pool);
+            tempFileManager.setChunkedOutputStream(chunked);
+            currentStream = chunked;
+        } else {
+            currentStream = new CachedByteArrayOutputStream(strategy.getBufferSize());
+        }
     }
 
     public void flush() throws IOException {
@@ -75,6 +82,7 @@ public class CachedOutputStream extends OutputStream {
         currentStream.close();
         // need to clean up the temp file this time
         if (!closedOnCompletion) {
+            tempFileManager.releaseChunks();
             tempFileManager.closeFileInputStreams();
             tempFileManager.cleanUpTempFile();
         }
@@ -98,7 +106,7 @@ public class CachedOutputStream extends OutputStream {
 
     public void write(byte[] b, int off, int len) throws IOException {
         this.totalLength += len;
-        if (inMemory && currentStream instanceof ByteArrayOutputStream && strategy.shouldSpoolCache(totalLength)) {
+        if (inMemory && strategy.shouldSpoolCache(totalLength)) {
             pageToFileStream();
         }
         currentStream.write(b, off, len);
@@ -106,7 +114,7 @@ public class CachedOutputStream extends OutputStream {
 
     public void write(byte[] b) throws IOException {
         this.totalLength += b.length;
-        if (inMemory && currentStream instanceof ByteArrayOutputStream && strategy.shouldSpoolCache(totalLength)) {
+        if (inMemory && strategy.shouldSpoolCache(totalLength)) {
             pageToFileStream();
         }
         currentStream.write(b);
@@ -114,7 +122,7 @@ public class CachedOutputStream extends OutputStream {
 
     public void write(int b) throws IOException {
         this.totalLength++;
-        if (inMemory && currentStream instanceof ByteArrayOutputStream && strategy.shouldSpoolCache(totalLength)) {
+        if (inMemory && strategy.shouldSpoolCache(totalLength)) {
             pageToFileStream();
         }
         currentStream.write(b);
@@ -146,8 +154,11 @@ public class CachedOutputStream extends OutputStream {
         if (inMemory) {
             if (currentStream instanceof CachedByteArrayOutputStream) {
                 return ((CachedByteArrayOutputStream) currentStream).newInputStreamCache();
+            } else if (currentStream instanceof CachedChunkedOutputStream) {
+                return ((CachedChunkedOutputStream) currentStream).newStreamCache(tempFileManager);
             } else {
-                throw new IllegalStateException("CurrentStream should be an instance of CachedByteArrayOutputStream but is: " + currentStream.getClass().getName());
+                throw new IllegalStateException("CurrentStream should be an instance of CachedByteArrayOutputStream or CachedChunkedOutputStream but is: "
+                    + currentStream.getClass().getName());
             }
         } else {
             return tempFileManager.newStreamCache();
@@ -157,11 +168,18 @@ public class CachedOutputStream extends OutputStream {
 
     private void pageToFileStream() throws IOException {
         flush();
-        ByteArrayOutputStream bout = (ByteArrayOutputStream)currentStream;
+        OutputStream memory = currentStream;
         try {
             // creates an tmp file and a file output stream
             currentStream = tempFileManager.createOutputStream(strategy);
-            bout.writeTo(currentStream);
+            if (memory instanceof CachedChunkedOutputStream) {
+                CachedChunkedOutputStream chunked = (CachedChunkedOutputStream) memory;
+                chunked.writeTo(currentStream);
+                // the chunks are no longer needed
+                chunked.release();
+            } else {
+                ((ByteArrayOutputStream) memory).writeTo(currentStream);
+            }
         } finally {
             // ensure flag is flipped to file based
             inMemory = false;
@@ -0,0 +1,148 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.converter.stream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+import org.apache.camel.Exchange;
+import org.apache.camel.StreamCache;
+import org.apache.camel.converter.stream.FileInputStreamCache.TempFileManager;
+
+/**
+ * A {@link StreamCache} for caching using in-memory chunks from a {@link StreamCacheBufferPool}.
+ * <p/>
+ * The chunks are shared by the copies of the stream cache, and are returned to the pool when all
+ * the exchanges using the stream cache are completed.
+ */
+public final class ChunkedInputStreamCache extends InputStream implements StreamCache {
+
+    private final CachedChunkedOutputStream chunks;
+    private final TempFileManager tempFileManager;
+    private final long length;
+    private final int chunkSize;
+    private final ByteBuffer[] views;
+    private long position;
+    private long mark;
+
+    ChunkedInputStreamCache(CachedChunkedOutputStream chunks, TempFileManager tempFileManager, long length) {
+        this.chunks = chunks;
+        this.tempFileManager = tempFileManager;
+        this.length = length;
+        this.chunkSize = chunks.getChunkSize();
+        this.views = new ByteBuffer[(int) ((length + chunkSize - 1) / chunkSize)];
+    }
+
+    @Override
+    public int read() throws IOException {
+        chunks.checkReleased();
+        if (position >= length) {
+            return -1;
+        }
+        ByteBuffer view = view(position);
+        int answer = view.get((int) (position % chunkSize)) & 0xff;
+        position++;
+        return answer;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        chunks.checkReleased();
+        if (off < 0 || len < 0 || off + len > b.length) {
+            throw new IndexOutOfBoundsException();
+        }
+        if (len == 0) {
+            return 0;
+        }
+        if (position >= length) {
+            return -1;
+        }
+        int answer = 0;
+        while (answer < len && position < length) {
+            ByteBuffer view = view(position);
+            int offset = (int) (position % chunkSize);
+            int n = (int) Math.min(len - answer, Math.min(chunkSize - offset, length - position));
+            view.position(offset);
+            view.get(b, off + answer, n);
+            answer += n;
+            position += n;
+        }
+        return answer;
+    }
+
+    @Override
+    public long skip(long n) {
+        long answer = Math.max(0, Math.min(n, length - position));
+        position += answer;
+        return answer;
+    }
+
+    @Override
+    public int available() {
+        return (int) Math.min(Integer.MAX_VALUE, length - position);
+    }
+
+    @Override
+    public boolean markSupported() {
+        return true;
+    }
+
+    @Override
+    public synchronized void mark(int readlimit) {
+        mark = position;
+    }
+
+    @Override
+    public synchronized void reset() {
+        position = mark;
+    }
+
+    @Override
+    public void close() {
+        // the chunks are returned to the pool when the exchanges are completed
+    }
+
+    public void writeTo(OutputStream os) throws IOException {
+        chunks.writeTo(os, position, length);
+    }
+
+    public StreamCache copy(Exchange exchange) throws IOException {
+        chunks.checkReleased();
+        tempFileManager.addExchange(exchange);
+        return new ChunkedInputStreamCache(chunks, tempFileManager, length);
+    }
+
+    public boolean inMemory() {
+        return true;
+    }
+
+    public long length() {
+        return length;
+    }
+
+    private ByteBuffer view(long position) {
+        int index = (int) (position / chunkSize);
+        ByteBuffer answer = views[index];
+        if (answer == null) {
+            answer = chunks.view(index);
+            views[index] = answer;
+        }
+        return answer;
+    }
+}
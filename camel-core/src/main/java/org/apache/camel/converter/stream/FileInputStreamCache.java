@@ -162,6 +162,8 @@ public final class FileInputStreamCache extends InputStream implements StreamCac
         private File tempFile;
         private OutputStream outputStream; // file output stream
         private CipherPair ciphers;
+        // the in-memory chunks when using the buffer pool
+        private CachedChunkedOutputStream chunkedOutputStream;
         
         // there can be several input streams, for example in the multi-cast, or wiretap parallel processing
         private List<FileInputStreamCache> fileInputStreamCaches;
@@ -198,6 +200,7 @@ public final class FileInputStreamCache extends InputStream implements StreamCac
                         if (actualExchanges == 0) {
                             // only one exchange (one thread) left, therefore we must not synchronize the following lines of code
                             try {                              
+                                releaseChunks();
                                 closeFileInputStreams();
                                 if (outputStream != null) {
                                     outputStream.close();
@@ -292,6 +295,17 @@ public final class FileInputStreamCache extends InputStream implements StreamCac
             }
         }
         
+        void setChunkedOutputStream(CachedChunkedOutputStream chunkedOutputStream) {
+            this.chunkedOutputStream = chunkedOutputStream;
+        }
+
+        void releaseChunks() {
+            // return the chunks to the buffer pool
+            if (chunkedOutputStream != null) {
+                chunkedOutputStream.release();
+            }
+        }
+
         File getTempFile() {
             return tempFile;
         }
@@ -0,0 +1,135 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.converter.stream;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A pool of fixed size byte buffers (chunks) which is shared by the in-memory stream caches, when the
+ * {@link org.apache.camel.spi.StreamCachingStrategy#setBufferPoolSize(int) bufferPoolSize} option is in use.
+ * <p/>
+ * The stream caches acquire the chunks they need from the pool, and return the chunks when the exchanges
+ * using the stream cache are completed. This avoids allocating and growing large byte arrays for each
+ * stream cache. If the pool is empty then a new chunk is allocated, and if the pool is full when a chunk
+ * is returned then the chunk is discarded, so the pool keeps at most its size of free chunks.
+ */
+public final class StreamCacheBufferPool {
+
+    private final int chunkSize;
+    private final int size;
+    private final boolean direct;
+    private final BlockingQueue<ByteBuffer> free;
+    private final AtomicInteger inUse = new AtomicInteger();
+    private final AtomicLong acquiredCounter = new AtomicLong();
+    private final AtomicLong allocatedCounter = new AtomicLong();
+
+    /**
+     * Creates a pool.
+     *
+     * @param chunkSize the size in bytes of each chunk
+     * @param size      the maximum number of free chunks to keep in the pool
+     * @param direct    whether to use direct (off heap) byte buffers for the chunks
+     */
+    public StreamCacheBufferPool(int chunkSize, int size, boolean direct) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("ChunkSize must be a positive number, was: " + chunkSize);
+        }
+        if (size < 1) {
+            throw new IllegalArgumentException("Size must be a positive number, was: " + size);
+        }
+        this.chunkSize = chunkSize;
+        this.size = size;
+        this.direct = direct;
+        this.free = new ArrayBlockingQueue<ByteBuffer>(size);
+    }
+
+    /**
+     * Acquires a chunk from the pool, or allocates a new chunk if the pool is empty.
+     *
+     * @return an empty chunk, which must be returned using {@link #release(ByteBuffer)}
+     */
+    public ByteBuffer acquire() {
+        ByteBuffer answer = free.poll();
+        if (answer == null) {
+            answer = direct ? ByteBuffer.allocateDirect(chunkSize) : ByteBuffer.allocate(chunkSize);
+            allocatedCounter.incrementAndGet();
+        }
+        acquiredCounter.incrementAndGet();
+        inUse.incrementAndGet();
+        return answer;
+    }
+
+    /**
+     * Returns the chunk to the pool.
+     */
+    public void release(ByteBuffer chunk) {
+        inUse.decrementAndGet();
+        chunk.clear();
+        // discard the chunk if the pool is full
+        free.offer(chunk);
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public boolean isDirect() {
+        return direct;
+    }
+
+    /**
+     * Number of free chunks in the pool
+     */
+    public int getAvailable() {
+        return free.size();
+    }
+
+    /**
+     * Number of chunks currently used by stream caches
+     */
+    public int getInUse() {
+        return inUse.get();
+    }
+
+    /**
+     * Number of times a chunk has been acquired
+     */
+    public long getAcquiredCounter() {
+        return acquiredCounter.get();
+    }
+
+    /**
+     * Number of chunks which has been allocated, because the pool was empty
+     */
+    public long getAllocatedCounter() {
+        return allocatedCounter.get();
+    }
+
+    @Override
+    public String toString() {
+        return "StreamCacheBufferPool[chunkSize=" + chunkSize + ", size=" + size + ", direct=" + direct
+            + ", available=" + getAvailable() + ", inUse=" + getInUse() + "]";
+    }
+}
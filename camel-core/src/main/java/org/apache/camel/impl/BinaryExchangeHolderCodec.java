@@ -0,0 +1,313 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.util.CamelObjectInputStream;
+import org.apache.camel.util.IOHelper;
+
+/**
+ * A compact binary codec for {@link DefaultExchangeHolder} which can be used instead of Java serialization
+ * when persisting exchanges, such as by the persistent aggregation repositories.
+ * <p/>
+ * Bodies of type <tt>byte[]</tt> and {@link String} are stored as raw bytes, and header and property values
+ * are stored as length prefixed values with a type tag. Any other value is stored using Java serialization.
+ * The encoded data can optionally be compressed.
+ * <p/>
+ * Use {@link #isEncoded(byte[])} to tell data encoded by this codec apart from data stored using Java serialization,
+ * which allows repositories to read data stored before switching codec.
+ *
+ * @version
+ */
+public final class BinaryExchangeHolderCodec {
+
+    private static final byte MAGIC = (byte) 0xCB;
+    private static final byte VERSION = 1;
+    private static final byte FLAG_COMPRESSED = 1;
+
+    private static final byte NULL = 0;
+    private static final byte STRING = 1;
+    private static final byte BYTES = 2;
+    private static final byte INTEGER = 3;
+    private static final byte LONG = 4;
+    private static final byte BOOLEAN = 5;
+    private static final byte DOUBLE = 6;
+    private static final byte FLOAT = 7;
+    private static final byte SHORT = 8;
+    private static final byte BYTE = 9;
+    private static final byte CHARACTER = 10;
+    private static final byte DATE = 11;
+    private static final byte OBJECT = 12;
+
+    private BinaryExchangeHolderCodec() {
+        // Utility class
+    }
+
+    /**
+     * Whether the given data is encoded by this codec.
+     *
+     * @param data the data
+     * @return <tt>true</tt> if encoded by this codec, <tt>false</tt> for other data such as Java serialized data
+     */
+    public static boolean isEncoded(byte[] data) {
+        return data != null && data.length >= 3 && data[0] == MAGIC && data[1] == VERSION;
+    }
+
+    /**
+     * Encodes the holder.
+     *
+     * @param holder   the holder
+     * @param compress whether to compress the encoded data
+     * @return the encoded data
+     * @throws IOException is thrown if error encoding
+     */
+    public static byte[] encode(DefaultExchangeHolder holder, boolean compress) throws IOException {
+        // size the buffer up front to avoid copying large bodies while growing the buffer
+        ByteArrayOutputStream bos = new ByteArrayOutputStream(256 + sizeHint(holder.getInBody()) + sizeHint(holder.getOutBody()));
+        bos.write(MAGIC);
+        bos.write(VERSION);
+        bos.write(compress ? FLAG_COMPRESSED : 0);
+
+        Deflater deflater = null;
+        OutputStream target = bos;
+        if (compress) {
+            deflater = new Deflater(Deflater.BEST_SPEED);
+            target = new DeflaterOutputStream(bos, deflater);
+        }
+        try {
+            DataOutputStream out = new DataOutputStream(target);
+            writeString(out, holder.getExchangeId());
+            writeValue(out, holder.getInBody());
+            writeValue(out, holder.getOutBody());
+            writeValue(out, holder.getInFaultFlag());
+            writeValue(out, holder.getOutFaultFlag());
+            writeMap(out, holder.getInHeaders());
+            writeMap(out, holder.getOutHeaders());
+            writeMap(out, holder.getProperties());
+            writeValue(out, holder.getException());
+            out.close();
+        } finally {
+            if (deflater != null) {
+                deflater.end();
+            }
+        }
+        return bos.toByteArray();
+    }
+
+    /**
+     * Decodes data encoded by {@link #encode(DefaultExchangeHolder, boolean)}.
+     *
+     * @param camelContext the camel context, used for loading the classes of Java serialized values
+     * @param data         the encoded data
+     * @return the holder
+     * @throws IOException            is thrown if error decoding
+     * @throws ClassNotFoundException is thrown if the class of a Java serialized value cannot be found
+     */
+    public static DefaultExchangeHolder decode(CamelContext camelContext, byte[] data) throws IOException, ClassNotFoundException {
+        if (!isEncoded(data)) {
+            throw new IOException("Data is not encoded by " + BinaryExchangeHolderCodec.class.getSimpleName());
+        }
+
+        InputStream source = new ByteArrayInputStream(data, 3, data.length - 3);
+        if ((data[2] & FLAG_COMPRESSED) != 0) {
+            source = new InflaterInputStream(source);
+        }
+        DataInputStream in = new DataInputStream(source);
+        try {
+            DefaultExchangeHolder holder = new DefaultExchangeHolder();
+            holder.setExchangeId(readString(in));
+            holder.setInBody(readValue(camelContext, in));
+            holder.setOutBody(readValue(camelContext, in));
+            holder.setInFaultFlag((Boolean) readValue(camelContext, in));
+            holder.setOutFaultFlag((Boolean) readValue(camelContext, in));
+            holder.setInHeaders(readMap(camelContext, in));
+            holder.setOutHeaders(readMap(camelContext, in));
+            holder.setProperties(readMap(camelContext, in));
+            holder.setException((Exception) readValue(camelContext, in));
+            return holder;
+        } finally {
+            IOHelper.close(in);
+        }
+    }
+
+    private static int sizeHint(Object body) {
+        if (body instanceof String) {
+            return ((String) body).length();
+        } else if (body instanceof byte[]) {
+            return ((byte[]) body).length;
+        }
+        return 0;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+        } else {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = readBytes(in);
+        return bytes != null ? new String(bytes, StandardCharsets.UTF_8) : null;
+    }
+
+    private static byte[] readBytes(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return bytes;
+    }
+
+    private static void writeMap(DataOutputStream out, Map<String, Object> map) throws IOException {
+        if (map == null) {
+            out.writeInt(-1);
+            return;
+        }
+        out.writeInt(map.size());
+        for (Map.Entry<String, Object> entry : map.entrySet()) {
+            writeString(out, entry.getKey());
+            writeValue(out, entry.getValue());
+        }
+    }
+
+    private static Map<String, Object> readMap(CamelContext camelContext, DataInputStream in) throws IOException, ClassNotFoundException {
+        int size = in.readInt();
+        if (size < 0) {
+            return null;
+        }
+        Map<String, Object> map = new LinkedHashMap<String, Object>(size * 4 / 3 + 1);
+        for (int i = 0; i < size; i++) {
+            String key = readString(in);
+            map.put(key, readValue(camelContext, in));
+        }
+        return map;
+    }
+
+    private static void writeValue(DataOutputStream out, Object value) throws IOException {
+        if (value == null) {
+            out.writeByte(NULL);
+        } else if (value instanceof String) {
+            out.writeByte(STRING);
+            writeString(out, (String) value);
+        } else if (value instanceof byte[]) {
+            byte[] bytes = (byte[]) value;
+            out.writeByte(BYTES);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        } else if (value instanceof Integer) {
+            out.writeByte(INTEGER);
+            out.writeInt((Integer) value);
+        } else if (value instanceof Long) {
+            out.writeByte(LONG);
+            out.writeLong((Long) value);
+        } else if (value instanceof Boolean) {
+            out.writeByte(BOOLEAN);
+            out.writeBoolean((Boolean) value);
+        } else if (value instanceof Double) {
+            out.writeByte(DOUBLE);
+            out.writeDouble((Double) value);
+        } else if (value instanceof Float) {
+            out.writeByte(FLOAT);
+            out.writeFloat((Float) value);
+        } else if (value instanceof Short) {
+            out.writeByte(SHORT);
+            out.writeShort((Short) value);
+        } else if (value instanceof Byte) {
+            out.writeByte(BYTE);
+            out.writeByte((Byte) value);
+        } else if (value instanceof Character) {
+            out.writeByte(CHARACTER);
+            out.writeChar((Character) value);
+        } else if (value.getClass() == Date.class) {
+            out.writeByte(DATE);
+            out.writeLong(((Date) value).getTime());
+        } else {
+            // any other value is stored using Java serialization
+            ByteArrayOutputStream bos = new ByteArrayOutputStream();
+            ObjectOutputStream oos = new ObjectOutputStream(bos);
+            oos.writeObject(value);
+            oos.close();
+            out.writeByte(OBJECT);
+            out.writeInt(bos.size());
+            bos.writeTo(out);
+        }
+    }
+
+    private static Object readValue(CamelContext camelContext, DataInputStream in) throws IOException, ClassNotFoundException {
+        byte tag = in.readByte();
+        switch (tag) {
+        case NULL:
+            return null;
+        case STRING:
+            return readString(in);
+        case BYTES:
+            return readBytes(in);
+        case INTEGER:
+            return in.readInt();
+        case LONG:
+            return in.readLong();
+        case BOOLEAN:
+            return in.readBoolean();
+        case DOUBLE:
+            return in.readDouble();
+        case FLOAT:
+            return in.readFloat();
+        case SHORT:
+            return in.readShort();
+        case BYTE:
+            return in.readByte();
+        case CHARACTER:
+            return in.readChar();
+        case DATE:
+            return new Date(in.readLong());
+        case OBJECT:
+            byte[] bytes = readBytes(in);
+            ObjectInputStream ois = new CamelObjectInputStream(new ByteArrayInputStream(bytes), camelContext);
+            try {
+                return ois.readObject();
+            } finally {
+                IOHelper.close(ois);
+            }
+        default:
+            throw new IOException("Unknown value type: " + tag);
+        }
+    }
+
+}
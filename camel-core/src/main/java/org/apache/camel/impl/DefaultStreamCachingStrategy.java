@@ -28,6 +28,7 @@ import org.apache.camel.CamelContextAware;
 import org.apache.camel.Exchange;
 import org.apache.camel.Message;
 import org.apache.camel.StreamCache;
+import org.apache.camel.converter.stream.StreamCacheBufferPool;
 import org.apache.camel.spi.StreamCachingStrategy;
 import org.apache.camel.util.FilePathResolver;
 import org.apache.camel.util.FileUtil;
@@ -60,6 +61,9 @@ public class DefaultStreamCachingStrategy extends org.apache.camel.support.Servi
     private SpoolUsedHeapMemoryLimit spoolUsedHeapMemoryLimit;
     private String spoolChiper;
     private int bufferSize = IOHelper.DEFAULT_BUFFER_SIZE;
+    private int bufferPoolSize;
+    private boolean bufferPoolDirect;
+    private volatile StreamCacheBufferPool bufferPool;
     private boolean removeSpoolDirectoryWhenStopping = true;
     private final UtilizationStatistics statistics = new UtilizationStatistics();
     private final Set<SpoolRule> spoolRules = new LinkedHashSet<SpoolRule>();
@@ -133,6 +137,26 @@ public class DefaultStreamCachingStrategy extends org.apache.camel.support.Servi
         this.bufferSize = bufferSize;
     }
 
+    public int getBufferPoolSize() {
+        return bufferPoolSize;
+    }
+
+    public void setBufferPoolSize(int bufferPoolSize) {
+        this.bufferPoolSize = bufferPoolSize;
+    }
+
+    public boolean isBufferPoolDirect() {
+        return bufferPoolDirect;
+    }
+
+    public void setBufferPoolDirect(boolean bufferPoolDirect) {
+        this.bufferPoolDirect = bufferPoolDirect;
+    }
+
+    public StreamCacheBufferPool getBufferPool() {
+        return bufferPool;
+    }
+
     public boolean isRemoveSpoolDirectoryWhenStopping() {
         return removeSpoolDirectoryWhenStopping;
     }
@@ -310,6 +334,11 @@ public class DefaultStreamCachingStrategy extends org.apache.camel.support.Servi
             }
         }
 
+        if (bufferPoolSize > 0) {
+            bufferPool = new StreamCacheBufferPool(this.bufferSize, bufferPoolSize, bufferPoolDirect);
+            LOG.debug("Using buffer pool: {}", bufferPool);
+        }
+
         LOG.debug("StreamCaching configuration {}", this.toString());
 
         if (spoolDirectory != null) {
@@ -331,6 +360,8 @@ public class DefaultStreamCachingStrategy extends org.apache.camel.support.Servi
         }
 
         statistics.reset();
+        // any chunks in use are garbage collected when the stream caches are no longer in use
+        bufferPool = null;
     }
 
     @Override
@@ -341,6 +372,7 @@ public class DefaultStreamCachingStrategy extends org.apache.camel.support.Servi
             + ", spoolThreshold=" + spoolThreshold
             + ", spoolUsedHeapMemoryThreshold=" + spoolUsedHeapMemoryThreshold
             + ", bufferSize=" + bufferSize
+            + ", bufferPoolSize=" + bufferPoolSize
             + ", anySpoolRules=" + anySpoolRules + "]";
     }
 
@@ -102,6 +102,7 @@ public class SimpleLanguage extends LanguageSupport implements StaticService {
     private static final SimpleLanguage SIMPLE = new SimpleLanguage();
 
     boolean allowEscape = true;
+    boolean compiled;
 
     // use caches to avoid re-parsing the same expressions over and over again
     private LRUCache<String, Expression> cacheExpression;
@@ -113,6 +114,23 @@ public class SimpleLanguage extends LanguageSupport implements StaticService {
     public SimpleLanguage() {
     }
 
+    public boolean isCompiled() {
+        return compiled;
+    }
+
+    /**
+     * Whether to compile the supported functions of the expressions, instead of interpreting them on every evaluation.
+     * <p/>
+     * Currently OGNL property paths on the message body such as <tt>${body.address.zip}</tt> are compiled, by binding
+     * the getter methods at first use, instead of invoking the methods using the bean component. Any function that
+     * cannot be compiled is interpreted as usual.
+     * <p/>
+     * This option must be set before any expressions is created, as the created expressions are cached.
+     */
+    public void setCompiled(boolean compiled) {
+        this.compiled = compiled;
+    }
+
     @Override
     @SuppressWarnings("unchecked")
     public void start() throws Exception {
@@ -159,6 +177,7 @@ public class SimpleLanguage extends LanguageSupport implements StaticService {
             if (answer == null) {
                 // use the new parser
                 SimplePredicateParser parser = new SimplePredicateParser(expression, allowEscape, cacheExpression);
+                parser.setCompiled(compiled);
                 answer = parser.parsePredicate();
             }
             if (cachePredicate != null && answer != null) {
@@ -183,6 +202,7 @@ public class SimpleLanguage extends LanguageSupport implements StaticService {
             if (answer == null) {
                 // use the new parser
                 SimpleExpressionParser parser = new SimpleExpressionParser(expression, allowEscape, cacheExpression);
+                parser.setCompiled(compiled);
                 answer = parser.parseExpression();
             }
             if (cacheExpression != null && answer != null) {
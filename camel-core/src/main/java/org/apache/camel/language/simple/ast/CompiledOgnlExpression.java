@@ -0,0 +1,208 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.language.simple.ast;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.List;
+
+import org.apache.camel.Exchange;
+import org.apache.camel.Expression;
+import org.apache.camel.language.bean.RuntimeBeanExpressionException;
+import org.apache.camel.support.ExpressionAdapter;
+import org.apache.camel.util.ObjectHelper;
+import org.apache.camel.util.OgnlHelper;
+
+/**
+ * A compiled variant of a simple language OGNL expression such as <tt>${body.address.zip}</tt>.
+ * <p/>
+ * Only OGNL paths which consists of property names (with optional null safe operators) can be compiled.
+ * Each property is bound at first use to a {@link MethodHandle} of the getter method on the actual type
+ * of the value, which is then reused as long as the value is of the same type. This avoids the bean component
+ * to introspect the bean and bind the method on every evaluation.
+ * <p/>
+ * If a property cannot be resolved as a getter, or an intermediate value is <tt>null</tt> without the
+ * null safe operator in use, then the interpreted expression is used as fallback, so the same result
+ * (or exception) is returned as when not compiled.
+ */
+public final class CompiledOgnlExpression extends ExpressionAdapter {
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private final Expression root;
+    private final Expression fallback;
+    private final String ognl;
+    private final String[] names;
+    private final boolean[] nullSafe;
+    private final Binding[] bindings;
+
+    private CompiledOgnlExpression(Expression root, Expression fallback, String ognl, String[] names, boolean[] nullSafe) {
+        this.root = root;
+        this.fallback = fallback;
+        this.ognl = ognl;
+        this.names = names;
+        this.nullSafe = nullSafe;
+        this.bindings = new Binding[names.length];
+    }
+
+    /**
+     * Compiles the OGNL expression.
+     *
+     * @param root     the expression that evaluates the value to invoke the OGNL path on, such as the message body
+     * @param fallback the interpreted expression to use as fallback
+     * @param ognl     the OGNL path, such as <tt>.address.zip</tt>
+     * @return the compiled expression, or <tt>null</tt> if the OGNL path is not supported and cannot be compiled
+     */
+    public static Expression compile(Expression root, Expression fallback, String ognl) {
+        if (ObjectHelper.isEmpty(ognl) || !OgnlHelper.isValidOgnlExpression(ognl)) {
+            return null;
+        }
+        List<String> methods = OgnlHelper.splitOgnl(ognl);
+        if (methods.isEmpty()) {
+            return null;
+        }
+
+        String[] names = new String[methods.size()];
+        boolean[] nullSafe = new boolean[methods.size()];
+        for (int i = 0; i < methods.size(); i++) {
+            String method = methods.get(i);
+            nullSafe[i] = OgnlHelper.isNullSafeOperator(method);
+            String name = OgnlHelper.removeLeadingOperators(method);
+            // only plain property names is supported (no method parameters or index lookups)
+            if (!isJavaIdentifier(name)) {
+                return null;
+            }
+            names[i] = name;
+        }
+        return new CompiledOgnlExpression(root, fallback, ognl, names, nullSafe);
+    }
+
+    public Object evaluate(Exchange exchange) {
+        Object value = root.evaluate(exchange, Object.class);
+        if (value == null) {
+            return null;
+        }
+
+        for (int i = 0; i < names.length; i++) {
+            if (value == null) {
+                if (nullSafe[i]) {
+                    return null;
+                }
+                // let the interpreted expression report the problem
+                return fallback.evaluate(exchange, Object.class);
+            }
+
+            Class<?> type = value.getClass();
+            Binding binding = bindings[i];
+            if (binding == null || binding.type != type) {
+                // bind the getter for this type (last type seen wins)
+                binding = new Binding(type, resolveGetter(type, names[i]));
+                bindings[i] = binding;
+            }
+            if (binding.handle == null) {
+                // not a getter so let the interpreted expression evaluate the entire path
+                return fallback.evaluate(exchange, Object.class);
+            }
+
+            try {
+                value = (Object) binding.handle.invokeExact(value);
+            } catch (Throwable e) {
+                throw new RuntimeBeanExpressionException(exchange, type.getName(), names[i], e);
+            }
+        }
+
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return "compiledOgnl(" + root + ", " + ognl + ")";
+    }
+
+    private static boolean isJavaIdentifier(String name) {
+        if (ObjectHelper.isEmpty(name) || !Character.isJavaIdentifierStart(name.charAt(0))) {
+            return false;
+        }
+        for (int i = 1; i < name.length(); i++) {
+            if (!Character.isJavaIdentifierPart(name.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Resolves the getter in the same order as the bean component when using shorthand method names,
+     * which is the method with the given name, and then the JavaBean getter.
+     */
+    private static MethodHandle resolveGetter(Class<?> type, String name) {
+        String suffix = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+        Method method = findNoArgMethod(type, name);
+        if (method == null) {
+            method = findNoArgMethod(type, "get" + suffix);
+        }
+        if (method == null) {
+            method = findNoArgMethod(type, "is" + suffix);
+            if (method != null && method.getReturnType() != boolean.class && method.getReturnType() != Boolean.class) {
+                method = null;
+            }
+        }
+        if (method == null) {
+            return null;
+        }
+
+        try {
+            if (!Modifier.isPublic(method.getDeclaringClass().getModifiers())) {
+                // public method declared on a non public class (such as an anonymous class)
+                method.setAccessible(true);
+            }
+            return MethodHandles.lookup().unreflect(method).asType(GETTER_TYPE);
+        } catch (Exception e) {
+            // cannot access the method so use the interpreted expression instead
+            return null;
+        }
+    }
+
+    private static Method findNoArgMethod(Class<?> type, String name) {
+        try {
+            Method method = type.getMethod(name);
+            if (method.getReturnType() == void.class || Modifier.isStatic(method.getModifiers())) {
+                return null;
+            }
+            return method;
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    /**
+     * The getter bound to a given type.
+     */
+    private static final class Binding {
+        private final Class<?> type;
+        private final MethodHandle handle;
+
+        private Binding(Class<?> type, MethodHandle handle) {
+            this.type = type;
+            this.handle = handle;
+        }
+    }
+
+}
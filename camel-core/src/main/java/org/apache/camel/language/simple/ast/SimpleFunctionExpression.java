@@ -33,6 +33,7 @@ public class SimpleFunctionExpression extends LiteralExpression {
 
     // use caches to avoid re-parsing the same expressions over and over again
     private LRUCache<String, Expression> cacheExpression;
+    private boolean compiled;
 
     @Deprecated
     public SimpleFunctionExpression(SimpleToken token) {
@@ -44,6 +45,12 @@ public class SimpleFunctionExpression extends LiteralExpression {
         this.cacheExpression = cacheExpression;
     }
 
+    public SimpleFunctionExpression(SimpleToken token, LRUCache<String, Expression> cacheExpression, boolean compiled) {
+        super(token);
+        this.cacheExpression = cacheExpression;
+        this.compiled = compiled;
+    }
+
     /**
      * Creates a Camel {@link Expression} based on this model.
      *
@@ -310,7 +317,15 @@ public class SimpleFunctionExpression extends LiteralExpression {
             if (invalid) {
                 throw new SimpleParserException("Valid syntax: ${body.OGNL} was: " + function, token.getIndex());
             }
-            return ExpressionBuilder.bodyOgnlExpression(remainder);
+            Expression answer = ExpressionBuilder.bodyOgnlExpression(remainder);
+            if (compiled) {
+                // use the compiled expression if the ognl path is supported
+                Expression exp = CompiledOgnlExpression.compile(ExpressionBuilder.bodyExpression(), answer, remainder);
+                if (exp != null) {
+                    answer = exp;
+                }
+            }
+            return answer;
         }
 
         // headerAs
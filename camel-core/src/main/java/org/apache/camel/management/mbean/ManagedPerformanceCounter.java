@@ -23,6 +23,7 @@ import org.apache.camel.Exchange;
 import org.apache.camel.api.management.ManagedResource;
 import org.apache.camel.api.management.PerformanceCounter;
 import org.apache.camel.api.management.mbean.ManagedPerformanceCounterMBean;
+import org.apache.camel.spi.ManagementAgent;
 import org.apache.camel.spi.ManagementStrategy;
 import org.apache.camel.util.ExchangeHelper;
 
@@ -43,6 +44,7 @@ public abstract class ManagedPerformanceCounter extends ManagedCounter implement
     private Statistic lastProcessingTime;
     private Statistic deltaProcessingTime;
     private Statistic meanProcessingTime;
+    private StatisticHistogram processingTimeHistogram;
     private Statistic firstExchangeCompletedTimestamp;
     private String firstExchangeCompletedExchangeId;
     private Statistic firstExchangeFailureTimestamp;
@@ -70,6 +72,12 @@ public abstract class ManagedPerformanceCounter extends ManagedCounter implement
         this.deltaProcessingTime = new StatisticDelta();
         this.meanProcessingTime = new StatisticValue();
 
+        // the percentiles of the processing time is only recorded with the extended statistics level
+        ManagementAgent agent = strategy != null ? strategy.getManagementAgent() : null;
+        if (agent != null && agent.getStatisticsLevel() != null && agent.getStatisticsLevel().isExtended()) {
+            this.processingTimeHistogram = new StatisticHistogram();
+        }
+
         this.firstExchangeCompletedTimestamp = new StatisticValue();
         this.firstExchangeFailureTimestamp = new StatisticValue();
         this.lastExchangeCompletedTimestamp = new StatisticValue();
@@ -91,6 +99,9 @@ public abstract class ManagedPerformanceCounter extends ManagedCounter implement
         lastProcessingTime.reset();
         deltaProcessingTime.reset();
         meanProcessingTime.reset();
+        if (processingTimeHistogram != null) {
+            processingTimeHistogram.reset();
+        }
         firstExchangeCompletedTimestamp.reset();
         firstExchangeCompletedExchangeId = null;
         firstExchangeFailureTimestamp.reset();
@@ -149,6 +160,22 @@ public abstract class ManagedPerformanceCounter extends ManagedCounter implement
         return deltaProcessingTime.getValue();
     }
 
+    public long getP50ProcessingTime() throws Exception {
+        return processingTimeHistogram != null ? processingTimeHistogram.getValueAtPercentile(50) : 0;
+    }
+
+    public long getP99ProcessingTime() throws Exception {
+        return processingTimeHistogram != null ? processingTimeHistogram.getValueAtPercentile(99) : 0;
+    }
+
+    public long getP999ProcessingTime() throws Exception {
+        return processingTimeHistogram != null ? processingTimeHistogram.getValueAtPercentile(99.9) : 0;
+    }
+
+    public boolean isPercentileStatisticsEnabled() {
+        return processingTimeHistogram != null;
+    }
+
     public Date getLastExchangeCompletedTimestamp() {
         long value = lastExchangeCompletedTimestamp.getValue();
         return value > 0 ? new Date(value) : null;
@@ -215,6 +242,9 @@ public abstract class ManagedPerformanceCounter extends ManagedCounter implement
         totalProcessingTime.updateValue(time);
         lastProcessingTime.updateValue(time);
         deltaProcessingTime.updateValue(time);
+        if (processingTimeHistogram != null) {
+            processingTimeHistogram.updateValue(time);
+        }
 
         long now = System.currentTimeMillis();
         if (!firstExchangeCompletedTimestamp.isUpdated()) {
@@ -275,6 +305,13 @@ public abstract class ManagedPerformanceCounter extends ManagedCounter implement
         sb.append(String.format(" lastProcessingTime=\"%s\"", lastProcessingTime.getValue()));
         sb.append(String.format(" deltaProcessingTime=\"%s\"", deltaProcessingTime.getValue()));
         sb.append(String.format(" meanProcessingTime=\"%s\"", meanProcessingTime.getValue()));
+        if (processingTimeHistogram != null) {
+            // use the same snapshot so the percentiles are consistent
+            StatisticHistogram.Snapshot snapshot = processingTimeHistogram.snapshot();
+            sb.append(String.format(" p50ProcessingTime=\"%s\"", snapshot.getValueAtPercentile(50)));
+            sb.append(String.format(" p99ProcessingTime=\"%s\"", snapshot.getValueAtPercentile(99)));
+            sb.append(String.format(" p999ProcessingTime=\"%s\"", snapshot.getValueAtPercentile(99.9)));
+        }
 
         if (fullStats) {
             sb.append(String.format(" startTimestamp=\"%s\"", dateAsString(startTimestamp.getTime())));
@@ -48,4 +48,14 @@ public class ManagedSplitter extends ManagedMulticast implements ManagedSplitter
     public String getExpression() {
         return getDefinition().getExpression().getExpression();
     }
+
+    @Override
+    public Integer getLookAhead() {
+        return processor.getLookAhead();
+    }
+
+    @Override
+    public Integer getPendingExchanges() {
+        return processor.getPendingExchanges();
+    }
 }
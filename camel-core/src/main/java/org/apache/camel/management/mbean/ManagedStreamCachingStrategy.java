@@ -19,6 +19,7 @@ package org.apache.camel.management.mbean;
 import org.apache.camel.CamelContext;
 import org.apache.camel.api.management.ManagedResource;
 import org.apache.camel.api.management.mbean.ManagedStreamCachingStrategyMBean;
+import org.apache.camel.converter.stream.StreamCacheBufferPool;
 import org.apache.camel.spi.StreamCachingStrategy;
 
 @ManagedResource(description = "Managed StreamCachingStrategy")
@@ -85,6 +86,34 @@ public class ManagedStreamCachingStrategy extends ManagedService implements Mana
         return streamCachingStrategy.getBufferSize();
     }
 
+    public int getBufferPoolSize() {
+        return streamCachingStrategy.getBufferPoolSize();
+    }
+
+    public boolean isBufferPoolDirect() {
+        return streamCachingStrategy.isBufferPoolDirect();
+    }
+
+    public int getBufferPoolAvailable() {
+        StreamCacheBufferPool pool = streamCachingStrategy.getBufferPool();
+        return pool != null ? pool.getAvailable() : 0;
+    }
+
+    public int getBufferPoolInUse() {
+        StreamCacheBufferPool pool = streamCachingStrategy.getBufferPool();
+        return pool != null ? pool.getInUse() : 0;
+    }
+
+    public long getBufferPoolAcquiredCounter() {
+        StreamCacheBufferPool pool = streamCachingStrategy.getBufferPool();
+        return pool != null ? pool.getAcquiredCounter() : 0;
+    }
+
+    public long getBufferPoolAllocatedCounter() {
+        StreamCacheBufferPool pool = streamCachingStrategy.getBufferPool();
+        return pool != null ? pool.getAllocatedCounter() : 0;
+    }
+
     public void setRemoveSpoolDirectoryWhenStopping(boolean remove) {
         streamCachingStrategy.setRemoveSpoolDirectoryWhenStopping(remove);
     }
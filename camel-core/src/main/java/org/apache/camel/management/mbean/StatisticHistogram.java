@@ -0,0 +1,209 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.management.mbean;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A statistic which records the distribution of the updated values, so the percentiles such as the median and
+ * the 99th percentile can be calculated.
+ * <p/>
+ * The values are counted in log-linear buckets (as in HdrHistogram), where values below 128 are counted exactly and
+ * larger values with a precision of 1/64 of the value. Values above the highest trackable value are counted
+ * in the last bucket. The counts are striped by the updating thread, so updating the value does not create any objects
+ * and threads does not contend on the same counter when they update with the same value.
+ * <p/>
+ * The percentiles are calculated from a {@link Snapshot} of the counts, which is taken without stopping the threads
+ * updating the value. The snapshot of an interval can be calculated using {@link Snapshot#since(Snapshot)}.
+ */
+public class StatisticHistogram extends Statistic {
+
+    /**
+     * The default highest trackable value, which is one hour in millis.
+     */
+    public static final long DEFAULT_HIGHEST_TRACKABLE_VALUE = 60 * 60 * 1000L;
+
+    private static final int SUB_BUCKET_BITS = 6;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_STRIPES = 4;
+
+    private final long highestTrackableValue;
+    private final int length;
+    private final AtomicLongArray[] stripes;
+    private final int mask;
+
+    public StatisticHistogram() {
+        this(DEFAULT_HIGHEST_TRACKABLE_VALUE);
+    }
+
+    public StatisticHistogram(long highestTrackableValue) {
+        if (highestTrackableValue < 1) {
+            throw new IllegalArgumentException("HighestTrackableValue must be a positive number, was: " + highestTrackableValue);
+        }
+        this.highestTrackableValue = highestTrackableValue;
+        this.length = index(highestTrackableValue) + 1;
+        int count = Integer.highestOneBit(Math.min(Runtime.getRuntime().availableProcessors(), MAX_STRIPES));
+        this.stripes = new AtomicLongArray[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new AtomicLongArray(length);
+        }
+        this.mask = count - 1;
+    }
+
+    public void updateValue(long newValue) {
+        int index = newValue > highestTrackableValue ? length - 1 : index(newValue);
+        stripes[(int) Thread.currentThread().getId() & mask].getAndIncrement(index);
+    }
+
+    /**
+     * The number of values recorded
+     */
+    public long getValue() {
+        long answer = 0;
+        for (AtomicLongArray stripe : stripes) {
+            for (int i = 0; i < length; i++) {
+                answer += stripe.get(i);
+            }
+        }
+        return answer;
+    }
+
+    @Override
+    public boolean isUpdated() {
+        return getValue() > 0;
+    }
+
+    public void reset() {
+        for (AtomicLongArray stripe : stripes) {
+            for (int i = 0; i < length; i++) {
+                stripe.set(i, 0);
+            }
+        }
+    }
+
+    public long getHighestTrackableValue() {
+        return highestTrackableValue;
+    }
+
+    /**
+     * Gets the value at the given percentile.
+     *
+     * @param percentile the percentile between 0 and 100, such as 99.9
+     * @return the value, or 0 if no values has been recorded
+     */
+    public long getValueAtPercentile(double percentile) {
+        return snapshot().getValueAtPercentile(percentile);
+    }
+
+    /**
+     * Takes a snapshot of the recorded values.
+     */
+    public Snapshot snapshot() {
+        long[] counts = new long[length];
+        for (AtomicLongArray stripe : stripes) {
+            for (int i = 0; i < length; i++) {
+                counts[i] += stripe.get(i);
+            }
+        }
+        return new Snapshot(counts);
+    }
+
+    @Override
+    public String toString() {
+        return "" + getValue();
+    }
+
+    static int index(long value) {
+        if (value < 2 * SUB_BUCKETS) {
+            return value < 0 ? 0 : (int) value;
+        }
+        // the exponent is chosen so the sub bucket (the top bits of the value) is between 64 and 127
+        int exponent = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> exponent);
+        return exponent * SUB_BUCKETS + subBucket;
+    }
+
+    static long highestEquivalentValue(int index) {
+        if (index < 2 * SUB_BUCKETS) {
+            return index;
+        }
+        int exponent = index / SUB_BUCKETS - 1;
+        long subBucket = index - exponent * SUB_BUCKETS;
+        return ((subBucket + 1) << exponent) - 1;
+    }
+
+    /**
+     * A snapshot of the recorded values of the histogram.
+     */
+    public static final class Snapshot {
+
+        private final long[] counts;
+        private final long count;
+
+        private Snapshot(long[] counts) {
+            this.counts = counts;
+            long total = 0;
+            for (long c : counts) {
+                total += c;
+            }
+            this.count = total;
+        }
+
+        /**
+         * The number of values in the snapshot
+         */
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * Gets the value at the given percentile, which is the highest value that is counted in the same bucket
+         * as the value at the percentile.
+         *
+         * @param percentile the percentile between 0 and 100, such as 99.9
+         * @return the value, or 0 if there is no values in the snapshot
+         */
+        public long getValueAtPercentile(double percentile) {
+            if (count == 0) {
+                return 0;
+            }
+            double fraction = Math.min(Math.max(percentile, 0), 100) / 100;
+            long rank = Math.max(1, (long) Math.ceil(fraction * count));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return highestEquivalentValue(i);
+                }
+            }
+            return highestEquivalentValue(counts.length - 1);
+        }
+
+        /**
+         * Gets a snapshot of the values recorded since the given earlier snapshot of the same histogram.
+         */
+        public Snapshot since(Snapshot earlier) {
+            long[] answer = new long[counts.length];
+            for (int i = 0; i < counts.length; i++) {
+                // the histogram may have been reset in the meantime
+                answer[i] = Math.max(0, counts[i] - earlier.counts[i]);
+            }
+            return new Snapshot(answer);
+        }
+    }
+
+}
@@ -85,6 +85,8 @@ public class AggregateDefinition extends ProcessorDefinition<AggregateDefinition
     private Boolean parallelProcessing;
     @XmlAttribute
     private Boolean optimisticLocking;
+    @XmlAttribute @Metadata(defaultValue = "1")
+    private Integer lockStripes;
     @XmlAttribute
     private String executorServiceRef;
     @XmlAttribute
@@ -106,6 +108,8 @@ public class AggregateDefinition extends ProcessorDefinition<AggregateDefinition
     @XmlAttribute @Metadata(defaultValue = "1000")
     private Long completionTimeoutCheckerInterval = 1000L;
     @XmlAttribute
+    private Boolean completionTimeoutTimingWheel;
+    @XmlAttribute
     private Boolean completionFromBatchConsumer;
     @XmlAttribute
     @Deprecated
@@ -229,6 +233,9 @@ public class AggregateDefinition extends ProcessorDefinition<AggregateDefinition
         if (getOptimisticLocking() != null) {
             answer.setOptimisticLocking(getOptimisticLocking());
         }
+        if (getLockStripes() != null) {
+            answer.setLockStripes(getLockStripes());
+        }
         if (getCompletionPredicate() != null) {
             Predicate predicate = getCompletionPredicate().createPredicate(routeContext);
             answer.setCompletionPredicate(predicate);
@@ -288,6 +295,9 @@ public class AggregateDefinition extends ProcessorDefinition<AggregateDefinition
         if (getCompletionTimeoutCheckerInterval() != null) {
             answer.setCompletionTimeoutCheckerInterval(getCompletionTimeoutCheckerInterval());
         }
+        if (getCompletionTimeoutTimingWheel() != null) {
+            answer.setCompletionTimeoutTimingWheel(getCompletionTimeoutTimingWheel());
+        }
         return answer;
     }
 
@@ -501,6 +511,14 @@ public class AggregateDefinition extends ProcessorDefinition<AggregateDefinition
         this.completionTimeoutCheckerInterval = completionTimeoutCheckerInterval;
     }
 
+    public Boolean getCompletionTimeoutTimingWheel() {
+        return completionTimeoutTimingWheel;
+    }
+
+    public void setCompletionTimeoutTimingWheel(Boolean completionTimeoutTimingWheel) {
+        this.completionTimeoutTimingWheel = completionTimeoutTimingWheel;
+    }
+
     public ExpressionSubElementDefinition getCompletionPredicate() {
         return completionPredicate;
     }
@@ -557,6 +575,14 @@ public class AggregateDefinition extends ProcessorDefinition<AggregateDefinition
         this.optimisticLocking = optimisticLocking;
     }
 
+    public Integer getLockStripes() {
+        return lockStripes;
+    }
+
+    public void setLockStripes(Integer lockStripes) {
+        this.lockStripes = lockStripes;
+    }
+
     public Boolean getParallelProcessing() {
         return parallelProcessing;
     }
@@ -830,6 +856,19 @@ public class AggregateDefinition extends ProcessorDefinition<AggregateDefinition
         return this;
     }
 
+    /**
+     * Whether the background task that checks for timeouts should keep the timeouts in a timing wheel.
+     * <p/>
+     * By default the timeout checker scans all the correlation keys every time it runs, which is costly when there are
+     * many correlation keys. The timing wheel only checks the correlation keys which timeout since the last run.
+     *
+     * @return the builder
+     */
+    public AggregateDefinition completionTimeoutTimingWheel() {
+        setCompletionTimeoutTimingWheel(true);
+        return this;
+    }
+
     /**
      * Sets the AggregationStrategy to use with a fluent builder.
      */
@@ -1033,6 +1072,18 @@ public class AggregateDefinition extends ProcessorDefinition<AggregateDefinition
         return this;
     }
 
+    /**
+     * Number of locks used to guard the correlation groups when not using optimistic locking.
+     * By default a single lock is used, which means only one incoming exchange is aggregated at any time.
+     * Setting a higher number hashes the correlation keys to the locks, so exchanges for different correlation keys
+     * can be aggregated in parallel. The aggregationRepository must be thread safe when accessing different
+     * correlation keys concurrently. Cannot be used together with completionFromBatchConsumer.
+     */
+    public AggregateDefinition lockStripes(int lockStripes) {
+        setLockStripes(lockStripes);
+        return this;
+    }
+
     /**
      * Allows to configure retry settings when using optimistic locking.
      */
@@ -77,6 +77,8 @@ public class MulticastDefinition extends OutputDefinition<MulticastDefinition> i
     private Boolean parallelAggregate;
     @XmlAttribute
     private Boolean stopOnAggregateException;
+    @XmlAttribute
+    private Integer parallelWindow;
 
     public MulticastDefinition() {
     }
@@ -211,6 +213,23 @@ public class MulticastDefinition extends OutputDefinition<MulticastDefinition> i
         return this;
     }
 
+    /**
+     * When parallel processing is enabled, then the messages are processed using the asynchronous routing engine
+     * with at most the given number of messages in flight at the same time. A thread from the thread pool is only used to
+     * start each message, and the messages are aggregated as they complete, so no thread is blocked waiting
+     * for a message which is processed asynchronously. The replies are aggregated in order unless streaming is enabled.
+     * <p/>
+     * This option cannot be combined with timeout, which uses a thread per message instead.
+     * The default value is <tt>0</tt> which is not using a window.
+     *
+     * @param parallelWindow the maximum number of messages in flight
+     * @return the builder
+     */
+    public MulticastDefinition parallelWindow(int parallelWindow) {
+        setParallelWindow(parallelWindow);
+        return this;
+    }
+
     /**
      * If enabled then Camel will process replies out-of-order, eg in the order they come back.
      * If disabled, Camel will process replies in the same order as defined by the multicast.
@@ -345,6 +364,9 @@ public class MulticastDefinition extends OutputDefinition<MulticastDefinition> i
 
         MulticastProcessor answer = new MulticastProcessor(routeContext.getCamelContext(), list, strategy, isParallelProcessing,
                                       threadPool, shutdownThreadPool, isStreaming, isStopOnException, timeout, onPrepare, isShareUnitOfWork, isParallelAggregate, isStopOnAggregateException);
+        if (getParallelWindow() != null) {
+            answer.setParallelWindow(getParallelWindow());
+        }
         return answer;
     }
 
@@ -408,6 +430,14 @@ public class MulticastDefinition extends OutputDefinition<MulticastDefinition> i
         this.streaming = streaming;
     }
 
+    public Integer getParallelWindow() {
+        return parallelWindow;
+    }
+
+    public void setParallelWindow(Integer parallelWindow) {
+        this.parallelWindow = parallelWindow;
+    }
+
     public Boolean getStopOnException() {
         return stopOnException;
     }
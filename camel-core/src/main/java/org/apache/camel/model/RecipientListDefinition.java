@@ -86,6 +86,8 @@ public class RecipientListDefinition<Type extends ProcessorDefinition<Type>> ext
     private Boolean parallelAggregate;
     @XmlAttribute
     private Boolean stopOnAggregateException;
+    @XmlAttribute
+    private Integer parallelWindow;
 
     public RecipientListDefinition() {
     }
@@ -146,6 +148,9 @@ public class RecipientListDefinition<Type extends ProcessorDefinition<Type>> ext
         if (getTimeout() != null) {
             answer.setTimeout(getTimeout());
         }
+        if (getParallelWindow() != null) {
+            answer.setParallelWindow(getParallelWindow());
+        }
 
         boolean shutdownThreadPool = ProcessorDefinitionHelper.willCreateNewThreadPool(routeContext, this, isParallelProcessing);
         ExecutorService threadPool = ProcessorDefinitionHelper.getConfiguredExecutorService(routeContext, "RecipientList", this, isParallelProcessing);
@@ -340,6 +345,23 @@ public class RecipientListDefinition<Type extends ProcessorDefinition<Type>> ext
         return this;
     }
 
+    /**
+     * When parallel processing is enabled, then the recipients are processed using the asynchronous routing engine
+     * with at most the given number of recipients in flight at the same time. A thread from the thread pool is only used to
+     * start each recipient, and the recipients are aggregated as they complete, so no thread is blocked waiting
+     * for a recipient which is processed asynchronously. The replies are aggregated in order unless streaming is enabled.
+     * <p/>
+     * This option cannot be combined with timeout, which uses a thread per recipient instead.
+     * The default value is <tt>0</tt> which is not using a window.
+     *
+     * @param parallelWindow the maximum number of recipients in flight
+     * @return the builder
+     */
+    public RecipientListDefinition<Type> parallelWindow(int parallelWindow) {
+        setParallelWindow(parallelWindow);
+        return this;
+    }
+
     /**
      * If enabled then Camel will process replies out-of-order, eg in the order they come back.
      * If disabled, Camel will process replies in the same order as defined by the recipient list.
@@ -544,6 +566,14 @@ public class RecipientListDefinition<Type extends ProcessorDefinition<Type>> ext
         this.ignoreInvalidEndpoints = ignoreInvalidEndpoints;
     }
 
+    public Integer getParallelWindow() {
+        return parallelWindow;
+    }
+
+    public void setParallelWindow(Integer parallelWindow) {
+        this.parallelWindow = parallelWindow;
+    }
+
     public Boolean getStopOnException() {
         return stopOnException;
     }
@@ -74,6 +74,10 @@ public class SplitDefinition extends ExpressionNode implements ExecutorServiceAw
     private Boolean parallelAggregate;
     @XmlAttribute
     private Boolean stopOnAggregateException;
+    @XmlAttribute
+    private Integer parallelWindow;
+    @XmlAttribute
+    private Integer lookAhead;
 
     public SplitDefinition() {
     }
@@ -122,6 +126,12 @@ public class SplitDefinition extends ExpressionNode implements ExecutorServiceAw
         Splitter answer = new Splitter(routeContext.getCamelContext(), exp, childProcessor, aggregationStrategy,
                             isParallelProcessing, threadPool, shutdownThreadPool, isStreaming, isStopOnException(),
                             timeout, onPrepare, isShareUnitOfWork, isParallelAggregate, isStopOnAggregateException);
+        if (getParallelWindow() != null) {
+            answer.setParallelWindow(getParallelWindow());
+        }
+        if (getLookAhead() != null) {
+            answer.setLookAhead(getLookAhead());
+        }
         return answer;
     }
 
@@ -249,6 +259,38 @@ public class SplitDefinition extends ExpressionNode implements ExecutorServiceAw
         return this;
     }
 
+    /**
+     * When parallel processing is enabled, then the sub messages are processed using the asynchronous routing engine
+     * with at most the given number of sub messages in flight at the same time. A thread from the thread pool is only used to
+     * start each sub message, and the sub messages are aggregated as they complete, so no thread is blocked waiting
+     * for a sub message which is processed asynchronously. The sub messages are aggregated in order unless streaming is enabled.
+     * <p/>
+     * This option cannot be combined with timeout, which uses a thread per sub message instead.
+     * The default value is <tt>0</tt> which is not using a window.
+     *
+     * @param parallelWindow the maximum number of sub messages in flight
+     * @return the builder
+     */
+    public SplitDefinition parallelWindow(int parallelWindow) {
+        setParallelWindow(parallelWindow);
+        return this;
+    }
+
+    /**
+     * When parallel processing is enabled, then the splitter takes at most the given number of sub messages ahead
+     * which has not yet been aggregated. The splitter pauses splitting the original message until the pending
+     * sub messages has been aggregated, which means splitting a big message in streaming mode uses a bounded amount of memory.
+     * <p/>
+     * The default value is <tt>0</tt> which is no limit.
+     *
+     * @param lookAhead the maximum number of pending sub messages
+     * @return the builder
+     */
+    public SplitDefinition lookAhead(int lookAhead) {
+        setLookAhead(lookAhead);
+        return this;
+    }
+
     /**
      * When in streaming mode, then the splitter splits the original message on-demand, and each splitted
      * message is processed one by one. This reduces memory usage as the splitter do not split all the messages first,
@@ -416,6 +458,22 @@ public class SplitDefinition extends ExpressionNode implements ExecutorServiceAw
         this.stopOnAggregateException = stopOnAggregateException;
     }
 
+    public Integer getParallelWindow() {
+        return parallelWindow;
+    }
+
+    public void setParallelWindow(Integer parallelWindow) {
+        this.parallelWindow = parallelWindow;
+    }
+
+    public Integer getLookAhead() {
+        return lookAhead;
+    }
+
+    public void setLookAhead(Integer lookAhead) {
+        this.lookAhead = lookAhead;
+    }
+
     public Boolean getStopOnException() {
         return stopOnException;
     }
@@ -21,6 +21,7 @@ import java.util.concurrent.ScheduledExecutorService;
 import javax.xml.bind.annotation.XmlAccessType;
 import javax.xml.bind.annotation.XmlAccessorType;
 import javax.xml.bind.annotation.XmlAttribute;
+import javax.xml.bind.annotation.XmlElement;
 import javax.xml.bind.annotation.XmlRootElement;
 import javax.xml.bind.annotation.XmlTransient;
 
@@ -29,6 +30,7 @@ import org.apache.camel.Processor;
 import org.apache.camel.builder.ExpressionBuilder;
 import org.apache.camel.model.language.ExpressionDefinition;
 import org.apache.camel.processor.Throttler;
+import org.apache.camel.processor.TokenBucketThrottler;
 import org.apache.camel.spi.Metadata;
 import org.apache.camel.spi.RouteContext;
 
@@ -55,6 +57,12 @@ public class ThrottleDefinition extends ExpressionNode implements ExecutorServic
     private Boolean callerRunsWhenRejected;
     @XmlAttribute
     private Boolean rejectExecution;
+    @XmlAttribute
+    private Boolean tokenBucket;
+    @XmlAttribute @Metadata(defaultValue = "1000")
+    private Integer maximumBuckets;
+    @XmlElement(name = "correlationExpression")
+    private ExpressionSubElementDefinition correlationExpression;
     
     public ThrottleDefinition() {
     }
@@ -82,6 +90,12 @@ public class ThrottleDefinition extends ExpressionNode implements ExecutorServic
         Processor childProcessor = this.createChildProcessor(routeContext, true);
 
         boolean async = getAsyncDelayed() != null && getAsyncDelayed();
+        boolean bucket = getTokenBucket() != null && getTokenBucket();
+        if (getCorrelationExpression() != null && !bucket) {
+            throw new IllegalArgumentException("CorrelationExpression can only be used with TokenBucket enabled on " + this);
+        }
+        // the token bucket always schedule the delayed exchanges
+        async |= bucket;
         boolean shutdownThreadPool = ProcessorDefinitionHelper.willCreateNewThreadPool(routeContext, this, async);
         ScheduledExecutorService threadPool = ProcessorDefinitionHelper.getConfiguredScheduledExecutorService(routeContext, "Throttle", this, async);
         
@@ -95,7 +109,19 @@ public class ThrottleDefinition extends ExpressionNode implements ExecutorServic
         }
 
         boolean reject = getRejectExecution() != null && getRejectExecution();
-        Throttler answer = new Throttler(routeContext.getCamelContext(), childProcessor, maxRequestsExpression, period, threadPool, shutdownThreadPool, reject);
+        Throttler answer;
+        if (bucket) {
+            TokenBucketThrottler tbt = new TokenBucketThrottler(routeContext.getCamelContext(), childProcessor, maxRequestsExpression, period, threadPool, shutdownThreadPool, reject);
+            if (getCorrelationExpression() != null) {
+                tbt.setCorrelationExpression(getCorrelationExpression().createExpression(routeContext));
+            }
+            if (getMaximumBuckets() != null) {
+                tbt.setMaximumBuckets(getMaximumBuckets());
+            }
+            answer = tbt;
+        } else {
+            answer = new Throttler(routeContext.getCamelContext(), childProcessor, maxRequestsExpression, period, threadPool, shutdownThreadPool, reject);
+        }
 
         answer.setAsyncDelayed(async);
         if (getCallerRunsWhenRejected() == null) {
@@ -175,6 +201,47 @@ public class ThrottleDefinition extends ExpressionNode implements ExecutorServic
         return this;
     }
 
+    /**
+     * Whether to throttle using a token bucket, instead of a rolling window of permits.
+     * <p/>
+     * The token bucket is lock-free, and the exchanges exceeding the rate are scheduled to continue routing
+     * when their token is due, so no thread is blocked while an exchange is throttled.
+     * The bucket holds up to the maximum requests per period, which allows a burst of that size.
+     *
+     * @return the builder
+     */
+    public ThrottleDefinition tokenBucket() {
+        setTokenBucket(true);
+        return this;
+    }
+
+    /**
+     * The expression to evaluate the correlation key, where each correlation key is throttled by its own token bucket.
+     * <p/>
+     * This requires token bucket to be enabled.
+     *
+     * @param correlationExpression the correlation expression
+     * @return the builder
+     */
+    public ThrottleDefinition correlationExpression(Expression correlationExpression) {
+        setCorrelationExpression(new ExpressionSubElementDefinition(correlationExpression));
+        return this;
+    }
+
+    /**
+     * The maximum number of token buckets to keep when using a correlation expression, where the least recently used bucket
+     * is discarded. A discarded bucket starts full if its correlation key is used again.
+     * <p/>
+     * Is by default <tt>1000</tt>
+     *
+     * @param maximumBuckets the maximum number of buckets
+     * @return the builder
+     */
+    public ThrottleDefinition maximumBuckets(int maximumBuckets) {
+        setMaximumBuckets(maximumBuckets);
+        return this;
+    }
+
     /**
      * To use a custom thread pool (ScheduledExecutorService) by the throttler.
      *
@@ -256,4 +323,28 @@ public class ThrottleDefinition extends ExpressionNode implements ExecutorServic
     public void setRejectExecution(Boolean rejectExecution) {
         this.rejectExecution = rejectExecution;
     }
+
+    public Boolean getTokenBucket() {
+        return tokenBucket;
+    }
+
+    public void setTokenBucket(Boolean tokenBucket) {
+        this.tokenBucket = tokenBucket;
+    }
+
+    public Integer getMaximumBuckets() {
+        return maximumBuckets;
+    }
+
+    public void setMaximumBuckets(Integer maximumBuckets) {
+        this.maximumBuckets = maximumBuckets;
+    }
+
+    public ExpressionSubElementDefinition getCorrelationExpression() {
+        return correlationExpression;
+    }
+
+    public void setCorrelationExpression(ExpressionSubElementDefinition correlationExpression) {
+        this.correlationExpression = correlationExpression;
+    }
 }
@@ -91,6 +91,10 @@ public class CsvDataFormat extends DataFormatDefinition {
     @XmlAttribute
     private Boolean useMaps;
     @XmlAttribute
+    private Boolean useRecordViews;
+    @XmlAttribute
+    private Integer batchSize;
+    @XmlAttribute
     private String recordConverterRef;
 
     public CsvDataFormat() {
@@ -187,6 +191,12 @@ public class CsvDataFormat extends DataFormatDefinition {
         if (useMaps != null) {
             setProperty(camelContext, dataFormat, "useMaps", useMaps);
         }
+        if (useRecordViews != null) {
+            setProperty(camelContext, dataFormat, "useRecordViews", useRecordViews);
+        }
+        if (batchSize != null) {
+            setProperty(camelContext, dataFormat, "batchSize", batchSize);
+        }
         if (ObjectHelper.isNotEmpty(recordConverterRef)) {
             Object recordConverter = CamelContextHelper.mandatoryLookup(camelContext, recordConverterRef);
             setProperty(camelContext, dataFormat, "recordConverter", recordConverter);
@@ -444,6 +454,28 @@ public class CsvDataFormat extends DataFormatDefinition {
         this.useMaps = useMaps;
     }
 
+    public Boolean getUseRecordViews() {
+        return useRecordViews;
+    }
+
+    /**
+     * Whether the unmarshalling should produce read-only views over the parsed lines instead of copying the values into new lists or maps.
+     */
+    public void setUseRecordViews(Boolean useRecordViews) {
+        this.useRecordViews = useRecordViews;
+    }
+
+    public Integer getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * When lazy loading, the number of lines to group into a list for each iteration instead of returning the lines one by one.
+     */
+    public void setBatchSize(Integer batchSize) {
+        this.batchSize = batchSize;
+    }
+
     public String getRecordConverterRef() {
         return recordConverterRef;
     }
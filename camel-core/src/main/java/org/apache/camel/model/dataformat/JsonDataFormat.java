@@ -82,6 +82,10 @@ public class JsonDataFormat extends DataFormatDefinition {
     private Boolean allowUnmarshallType;
     @XmlAttribute
     private String timezone;
+    @XmlAttribute
+    private Boolean lazyLoad;
+    @XmlAttribute
+    private String jsonPointer;
     
     public JsonDataFormat() {
         super("json");
@@ -353,6 +357,33 @@ public class JsonDataFormat extends DataFormatDefinition {
         this.timezone = timezone;
     }
 
+    public Boolean getLazyLoad() {
+        return lazyLoad;
+    }
+
+    /**
+     * Whether the unmarshalling should produce an iterator that reads the JSON
+     * values on the fly instead of reading the entire document at once. Use
+     * this together with the streaming mode of the splitter to process large
+     * JSON arrays. This option is only supported by Jackson.
+     */
+    public void setLazyLoad(Boolean lazyLoad) {
+        this.lazyLoad = lazyLoad;
+    }
+
+    public String getJsonPointer() {
+        return jsonPointer;
+    }
+
+    /**
+     * A JSON Pointer such as /data/items to select the value inside the JSON
+     * document to unmarshal, for example a nested array to iterate with
+     * lazyLoad. This option is only supported by Jackson.
+     */
+    public void setJsonPointer(String jsonPointer) {
+        this.jsonPointer = jsonPointer;
+    }
+
     @Override
     public String getDataFormatName() {
         // json data format is special as the name can be from different bundles
@@ -440,6 +471,12 @@ public class JsonDataFormat extends DataFormatDefinition {
         if (allowUnmarshallType != null) {
             setProperty(camelContext, dataFormat, "allowUnmarshallType", allowUnmarshallType);
         }
+        if (lazyLoad != null) {
+            setProperty(camelContext, dataFormat, "lazyLoad", lazyLoad);
+        }
+        if (jsonPointer != null) {
+            setProperty(camelContext, dataFormat, "jsonPointer", jsonPointer);
+        }
         // if we have the unmarshal type, but no permission set, then use it to
         // be allowed
         if (permissions == null && unmarshalType != null) {
@@ -83,7 +83,12 @@ import org.slf4j.LoggerFactory;
 public class CamelInternalProcessor extends DelegateAsyncProcessor {
 
     private static final Logger LOG = LoggerFactory.getLogger(CamelInternalProcessor.class);
+    private static final CamelInternalProcessorAdvice<?>[] NO_ADVICES = new CamelInternalProcessorAdvice<?>[0];
     private final List<CamelInternalProcessorAdvice> advices = new ArrayList<CamelInternalProcessorAdvice>();
+    // the sorted advices precomputed as an array, and whether any of them keeps state, so routing does not need to
+    // iterate the list or allocate an array for the states of the advices when none of them keeps state
+    private volatile CamelInternalProcessorAdvice<?>[] adviceArray = NO_ADVICES;
+    private volatile boolean statefulAdvices;
 
     public CamelInternalProcessor() {
     }
@@ -101,6 +106,13 @@ public class CamelInternalProcessor extends DelegateAsyncProcessor {
         advices.add(advice);
         // ensure advices are sorted so they are in the order we want
         advices.sort(OrderedComparator.get());
+
+        boolean stateful = false;
+        for (CamelInternalProcessorAdvice<?> task : advices) {
+            stateful |= task.hasState();
+        }
+        statefulAdvices = stateful;
+        adviceArray = advices.toArray(new CamelInternalProcessorAdvice<?>[advices.size()]);
     }
 
     /**
@@ -140,23 +152,26 @@ public class CamelInternalProcessor extends DelegateAsyncProcessor {
             return true;
         }
 
-        // optimise to use object array for states
-        final Object[] states = new Object[advices.size()];
-        // optimise for loop using index access to avoid creating iterator object
-        for (int i = 0; i < advices.size(); i++) {
-            CamelInternalProcessorAdvice task = advices.get(i);
-            try {
-                Object state = task.before(exchange);
-                states[i] = state;
-            } catch (Throwable e) {
-                exchange.setException(e);
-                callback.done(true);
-                return true;
+        final CamelInternalProcessorAdvice<?>[] tasks = adviceArray;
+        if (tasks.length > 0) {
+            // optimise to only use object array for states if any of the advices keeps state
+            final Object[] states = statefulAdvices ? new Object[tasks.length] : null;
+            for (int i = 0; i < tasks.length; i++) {
+                try {
+                    Object state = tasks[i].before(exchange);
+                    if (states != null) {
+                        states[i] = state;
+                    }
+                } catch (Throwable e) {
+                    exchange.setException(e);
+                    callback.done(true);
+                    return true;
+                }
             }
-        }
 
-        // create internal callback which will execute the advices in reverse order when done
-        callback = new InternalCallback(states, exchange, callback);
+            // create internal callback which will execute the advices in reverse order when done
+            callback = new InternalCallback(tasks, states, exchange, callback);
+        }
 
         // UNIT_OF_WORK_PROCESS_SYNC is @deprecated and we should remove it from Camel 3.0
         Object synchronous = exchange.removeProperty(Exchange.UNIT_OF_WORK_PROCESS_SYNC);
@@ -226,11 +241,13 @@ public class CamelInternalProcessor extends DelegateAsyncProcessor {
      */
     private final class InternalCallback implements AsyncCallback {
 
+        private final CamelInternalProcessorAdvice<?>[] tasks;
         private final Object[] states;
         private final Exchange exchange;
         private final AsyncCallback callback;
 
-        private InternalCallback(Object[] states, Exchange exchange, AsyncCallback callback) {
+        private InternalCallback(CamelInternalProcessorAdvice<?>[] tasks, Object[] states, Exchange exchange, AsyncCallback callback) {
+            this.tasks = tasks;
             this.states = states;
             this.exchange = exchange;
             this.callback = callback;
@@ -244,9 +261,11 @@ public class CamelInternalProcessor extends DelegateAsyncProcessor {
 
             // we should call after in reverse order
             try {
-                for (int i = advices.size() - 1; i >= 0; i--) {
-                    CamelInternalProcessorAdvice task = advices.get(i);
-                    Object state = states[i];
+                for (int i = tasks.length - 1; i >= 0; i--) {
+                    // the state is the value returned by the before method of the same advice
+                    @SuppressWarnings("unchecked")
+                    CamelInternalProcessorAdvice<Object> task = (CamelInternalProcessorAdvice<Object>) tasks[i];
+                    Object state = states != null ? states[i] : null;
                     try {
                         task.after(exchange, state);
                     } catch (Throwable e) {
@@ -306,6 +325,11 @@ public class CamelInternalProcessor extends DelegateAsyncProcessor {
             this.route = route;
         }
 
+        @Override
+        public boolean hasState() {
+            return false;
+        }
+
         @Override
         public Object before(Exchange exchange) throws Exception {
             UnitOfWork uow = exchange.getUnitOfWork();
@@ -444,6 +468,11 @@ public class CamelInternalProcessor extends DelegateAsyncProcessor {
             this.id = id;
         }
 
+        @Override
+        public boolean hasState() {
+            return false;
+        }
+
         @Override
         public Object before(Exchange exchange) throws Exception {
             inflightRepository.add(exchange, id);
@@ -486,6 +515,11 @@ public class CamelInternalProcessor extends DelegateAsyncProcessor {
             return true;
         }
 
+        @Override
+        public boolean hasState() {
+            return false;
+        }
+
         @Override
         public Object before(Exchange exchange) throws Exception {
             // invoke begin
@@ -549,6 +583,11 @@ public class CamelInternalProcessor extends DelegateAsyncProcessor {
             this.first = first;
         }
 
+        @Override
+        public boolean hasState() {
+            return false;
+        }
+
         @Override
         public Object before(Exchange exchange) throws Exception {
             if (backlogTracer.shouldTrace(processorDefinition, exchange)) {
@@ -846,6 +885,11 @@ public class CamelInternalProcessor extends DelegateAsyncProcessor {
             this.delay = delay;
         }
 
+        @Override
+        public boolean hasState() {
+            return false;
+        }
+
         @Override
         public Object before(Exchange exchange) throws Exception {
             try {
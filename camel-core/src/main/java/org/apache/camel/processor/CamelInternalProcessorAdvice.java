@@ -46,4 +46,17 @@ public interface CamelInternalProcessorAdvice<T> {
      * @throws Exception is thrown if error during the call.
      */
     void after(Exchange exchange, T data) throws Exception;
+
+    /**
+     * Whether this advice keeps state between the {@link #before(org.apache.camel.Exchange)} and
+     * {@link #after(org.apache.camel.Exchange, Object)} methods.
+     * <p/>
+     * Advices which always returns <tt>null</tt> from the before method can return <tt>false</tt>, which allows the
+     * routing engine to not keep the state during routing, when none of the advices keeps state.
+     *
+     * @return <tt>true</tt> (default) if this advice keeps state, <tt>false</tt> if not.
+     */
+    default boolean hasState() {
+        return true;
+    }
 }
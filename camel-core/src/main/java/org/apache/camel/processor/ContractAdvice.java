@@ -56,6 +56,11 @@ public class ContractAdvice implements CamelInternalProcessorAdvice {
         this.contract = contract;
     }
     
+    @Override
+    public boolean hasState() {
+        return false;
+    }
+
     @Override
     public Object before(Exchange exchange) throws Exception {
         if (!(exchange.getIn() instanceof DataTypeAware)) {
@@ -19,6 +19,7 @@ package org.apache.camel.processor;
 import java.io.Closeable;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -34,6 +35,9 @@ import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.apache.camel.AsyncCallback;
 import org.apache.camel.AsyncProcessor;
@@ -161,6 +165,9 @@ public class MulticastProcessor extends ServiceSupport implements AsyncProcessor
     private final long timeout;
     private final ConcurrentMap<PreparedErrorHandler, Processor> errorHandlers = new ConcurrentHashMap<PreparedErrorHandler, Processor>();
     private final boolean shareUnitOfWork;
+    private int parallelWindow;
+    private int lookAhead;
+    private final AtomicInteger pendingExchanges = new AtomicInteger();
 
     public MulticastProcessor(CamelContext camelContext, Collection<Processor> processors) {
         this(camelContext, processors, null);
@@ -243,7 +250,11 @@ public class MulticastProcessor extends ServiceSupport implements AsyncProcessor
             if (isParallelProcessing()) {
                 // ensure an executor is set when running in parallel
                 ObjectHelper.notNull(executorService, "executorService", this);
-                doProcessParallel(exchange, result, pairs, isStreaming(), callback);
+                if (parallelWindow > 0 && timeout <= 0) {
+                    sync = doProcessParallelAsync(exchange, result, pairs, callback);
+                } else {
+                    doProcessParallel(exchange, result, pairs, isStreaming(), callback);
+                }
             } else {
                 sync = doProcessSequential(exchange, result, pairs, callback);
             }
@@ -285,6 +296,8 @@ public class MulticastProcessor extends ServiceSupport implements AsyncProcessor
 
         final AtomicInteger total = new AtomicInteger(0);
         final Iterator<ProcessorExchangePair> it = pairs.iterator();
+        // limit the number of sub exchanges taken from the iterator which has not yet been aggregated
+        final LookAheadWindow window = lookAhead > 0 ? new LookAheadWindow() : null;
 
         if (it.hasNext()) {
             // when parallel then aggregate on the fly
@@ -297,16 +310,20 @@ public class MulticastProcessor extends ServiceSupport implements AsyncProcessor
             // while we submit new tasks, and those tasks complete concurrently
             // this allows us to optimize work and reduce memory consumption
             final AggregateOnTheFlyTask aggregateOnTheFlyTask = new AggregateOnTheFlyTask(result, original, total, completion, running,
-                    aggregationOnTheFlyDone, allTasksSubmitted, executionException);
+                    aggregationOnTheFlyDone, allTasksSubmitted, executionException, window);
             final AtomicBoolean aggregationTaskSubmitted = new AtomicBoolean();
 
             LOG.trace("Starting to submit parallel tasks");
             
             try {
-                while (it.hasNext()) {
+                // wait for room in the window before taking the next sub exchange from the iterator
+                while ((window == null || window.acquire()) && it.hasNext()) {
                     final ProcessorExchangePair pair = it.next();
                     // in case the iterator returns null then continue to next
                     if (pair == null) {
+                        if (window != null) {
+                            window.release();
+                        }
                         continue;
                     }
     
@@ -372,6 +389,9 @@ public class MulticastProcessor extends ServiceSupport implements AsyncProcessor
             // wait for aggregation to be done
             LOG.debug("Waiting for on-the-fly aggregation to complete aggregating {} responses for exchangeId: {}", total.get(), original.getExchangeId());
             aggregationOnTheFlyDone.await();
+            if (window != null) {
+                window.close();
+            }
 
             // did we fail for whatever reason, if so throw that caused exception
             if (executionException.get() != null) {
@@ -386,6 +406,24 @@ public class MulticastProcessor extends ServiceSupport implements AsyncProcessor
         LOG.debug("Done parallel processing {} exchanges", total);
     }
 
+    /**
+     * Processes the sub exchanges in parallel using the asynchronous routing engine, where at most
+     * the {@link #getParallelWindow() parallel window} number of sub exchanges are in flight.
+     * <p/>
+     * The sub exchanges are started using the executor service, and the callback of each sub exchange aggregates
+     * the sub exchange and then starts the next sub exchange. This means no thread is waiting for the sub exchanges
+     * to complete, and a sub exchange which is processed asynchronously (such as calling a remote service using
+     * a non blocking client) does not use any thread while in flight.
+     *
+     * @return <tt>false</tt> as the multicast is always completed asynchronously
+     */
+    protected boolean doProcessParallelAsync(Exchange original, AtomicExchange result, Iterable<ProcessorExchangePair> pairs,
+                                             AsyncCallback callback) {
+        LOG.trace("Starting to process parallel tasks using a window of {}", parallelWindow);
+        new ParallelWindowTask(original, result, pairs, callback).drive();
+        return false;
+    }
+
     /**
      * Boss worker to control aggregate on-the-fly for completed tasks when using parallel processing.
      * <p/>
@@ -407,11 +445,12 @@ public class MulticastProcessor extends ServiceSupport implements AsyncProcessor
         private final CountDownLatch aggregationOnTheFlyDone;
         private final AtomicBoolean allTasksSubmitted;
         private final AtomicException executionException;
+        private final LookAheadWindow window;
 
         private AggregateOnTheFlyTask(AtomicExchange result, Exchange original, AtomicInteger total,
                                       CompletionService<Exchange> completion, AtomicBoolean running,
                                       CountDownLatch aggregationOnTheFlyDone, AtomicBoolean allTasksSubmitted,
-                                      AtomicException executionException) {
+                                      AtomicException executionException, LookAheadWindow window) {
             this.result = result;
             this.original = original;
             this.total = total;
@@ -420,6 +459,7 @@ public class MulticastProcessor extends ServiceSupport implements AsyncProcessor
             this.aggregationOnTheFlyDone = aggregationOnTheFlyDone;
             this.allTasksSubmitted = allTasksSubmitted;
             this.executionException = executionException;
+            this.window = window;
         }
 
         public void run() {
@@ -437,6 +477,10 @@ public class MulticastProcessor extends ServiceSupport implements AsyncProcessor
                 // must signal we are done so the latch can open and let the other thread continue processing
                 LOG.debug("Signaling we are done aggregating on the fly for exchangeId: {}", original.getExchangeId());
                 LOG.trace("Aggregate on the fly task done for exchangeId: {}", original.getExchangeId());
+                if (window != null) {
+                    // let the submitting thread continue if its waiting for room in the window
+                    window.close();
+                }
                 aggregationOnTheFlyDone.countDown();
             }
         }
@@ -489,6 +533,10 @@ public class MulticastProcessor extends ServiceSupport implements AsyncProcessor
                 } else {
                     // there is a result to aggregate
                     Exchange subExchange = future.get();
+                    if (window != null) {
+                        // make room for the next sub exchange
+                        window.release();
+                    }
 
                     // Decide whether to continue with the multicast or not; similar logic to the Pipeline
                     Integer number = getExchangeIndex(subExchange);
@@ -618,6 +666,291 @@ public class MulticastProcessor extends ServiceSupport implements AsyncProcessor
         }
     }
 
+    /**
+     * Limits the number of sub exchanges which has been taken from the iterator, but not yet taken for aggregation,
+     * when using parallel processing with a {@link #getLookAhead() look ahead}.
+     * <p/>
+     * The thread submitting the sub exchanges waits for room in the window, before it takes the next sub exchange
+     * from the iterator. This means that the memory used is bounded when splitting a big message in streaming mode.
+     */
+    private final class LookAheadWindow {
+
+        private final Lock lock = new ReentrantLock();
+        private final Condition notFull = lock.newCondition();
+        private int pending;
+        private boolean closed;
+
+        /**
+         * Waits for room in the window.
+         *
+         * @return <tt>true</tt> if there is room for the next sub exchange, <tt>false</tt> if the window is closed
+         */
+        boolean acquire() throws InterruptedException {
+            lock.lock();
+            try {
+                while (pending >= lookAhead && !closed) {
+                    notFull.await();
+                }
+                if (closed) {
+                    return false;
+                }
+                pending++;
+                pendingExchanges.incrementAndGet();
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void release() {
+            lock.lock();
+            try {
+                if (!closed && pending > 0) {
+                    pending--;
+                    pendingExchanges.decrementAndGet();
+                    notFull.signal();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void close() {
+            lock.lock();
+            try {
+                if (!closed) {
+                    closed = true;
+                    pendingExchanges.addAndGet(-pending);
+                    pending = 0;
+                    notFull.signalAll();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Drives the sub exchanges when using parallel processing with a parallel window.
+     * <p/>
+     * Only one thread at a time submits new sub exchanges, which is the thread calling {@link #drive()}
+     * when no other thread is driving. A thread calling while another thread is driving makes the driving thread
+     * check again, so the sub exchanges completed in the meantime are replaced by new sub exchanges.
+     * When not streaming then the completed sub exchanges are aggregated in the same order as they were submitted,
+     * where a sub exchange is counted as in flight until its aggregated, so the window also limits
+     * the number of completed sub exchanges waiting for an earlier sub exchange.
+     */
+    private final class ParallelWindowTask {
+
+        private final Exchange original;
+        private final AtomicExchange result;
+        private final Iterable<ProcessorExchangePair> pairs;
+        private final Iterator<ProcessorExchangePair> it;
+        private final AsyncCallback callback;
+        private final AtomicInteger wip = new AtomicInteger();
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicBoolean done = new AtomicBoolean();
+        private final AtomicException failure = new AtomicException();
+        // the sub exchanges waiting to be aggregated in order, by their index
+        private final Map<Integer, Exchange> completed = new HashMap<Integer, Exchange>();
+        private volatile boolean allSubmitted;
+        private int total;
+        private int nextIndex;
+
+        private ParallelWindowTask(Exchange original, AtomicExchange result, Iterable<ProcessorExchangePair> pairs, AsyncCallback callback) {
+            this.original = original;
+            this.result = result;
+            this.pairs = pairs;
+            this.it = pairs.iterator();
+            this.callback = callback;
+        }
+
+        void drive() {
+            if (wip.getAndIncrement() != 0) {
+                // another thread is driving
+                return;
+            }
+            int missed = 1;
+            do {
+                submit();
+                if (inFlight.get() == 0 && (allSubmitted || failure.get() != null) && done.compareAndSet(false, true)) {
+                    Exception e = failure.get();
+                    if (e != null) {
+                        LOG.debug("Parallel processing failed due {}", e.getMessage());
+                        original.setException(e);
+                        doDone(original, null, pairs, callback, false, false);
+                    } else {
+                        LOG.debug("Done parallel processing {} exchanges", total);
+                        doDone(original, result.get(), pairs, callback, false, true);
+                    }
+                }
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void submit() {
+            try {
+                while (!done.get() && failure.get() == null && !allSubmitted && inFlight.get() < parallelWindow) {
+                    if (!it.hasNext()) {
+                        LOG.trace("Signaling that all {} tasks has been submitted.", total);
+                        allSubmitted = true;
+                        break;
+                    }
+                    ProcessorExchangePair pair = it.next();
+                    // in case the iterator returns null then continue to next
+                    if (pair == null) {
+                        continue;
+                    }
+                    updateNewExchange(pair.getExchange(), total, pairs, it);
+                    total++;
+                    inFlight.incrementAndGet();
+                    start(pair);
+                }
+            } catch (Throwable e) {
+                // The methods it.hasNext and it.next can throw RuntimeExceptions when custom iterators are implemented.
+                if (e instanceof Exception) {
+                    failure.set((Exception) e);
+                } else {
+                    failure.set(ObjectHelper.wrapRuntimeCamelException(e));
+                }
+            }
+        }
+
+        private void start(final ProcessorExchangePair pair) {
+            try {
+                executorService.submit(new Runnable() {
+                    public void run() {
+                        process(pair);
+                    }
+                });
+            } catch (Throwable e) {
+                // such as the task was rejected
+                pair.getExchange().setException(e);
+                completed(pair.getExchange());
+            }
+        }
+
+        private void process(final ProcessorExchangePair pair) {
+            final Exchange exchange = pair.getExchange();
+            final Producer producer = pair.getProducer();
+
+            TracedRouteNodes traced = exchange.getUnitOfWork() != null ? exchange.getUnitOfWork().getTracedRouteNodes() : null;
+
+            try {
+                // prepare tracing starting from a new block
+                if (traced != null) {
+                    traced.pushBlock();
+                }
+
+                StopWatch sw = null;
+                if (producer != null) {
+                    boolean sending = EventHelper.notifyExchangeSending(exchange.getContext(), exchange, producer.getEndpoint());
+                    if (sending) {
+                        sw = new StopWatch();
+                    }
+                }
+
+                // compute time taken if sending to another endpoint
+                final StopWatch watch = sw;
+
+                // let the prepared process it, remember to begin the exchange pair
+                AsyncProcessor async = AsyncProcessorConverterHelper.convert(pair.getProcessor());
+                pair.begin();
+                async.process(exchange, new AsyncCallback() {
+                    public void done(boolean doneSync) {
+                        // we are done with the exchange pair
+                        pair.done();
+
+                        // okay we are done, so notify the exchange was sent
+                        if (producer != null && watch != null) {
+                            long timeTaken = watch.taken();
+                            Endpoint endpoint = producer.getEndpoint();
+                            // emit event that the exchange was sent to the endpoint
+                            EventHelper.notifyExchangeSent(exchange.getContext(), exchange, endpoint, timeTaken);
+                        }
+
+                        completed(exchange);
+                    }
+                });
+            } catch (Throwable e) {
+                exchange.setException(e);
+                completed(exchange);
+            } finally {
+                // pop the block so by next round we have the same staring point and thus the tracing looks accurate
+                if (traced != null) {
+                    traced.popBlock();
+                }
+            }
+        }
+
+        private void completed(Exchange subExchange) {
+            if (done.get()) {
+                // we have stopped so the sub exchange is not aggregated
+                inFlight.decrementAndGet();
+                return;
+            }
+
+            // Decide whether to continue with the multicast or not; similar logic to the Pipeline
+            Integer number = getExchangeIndex(subExchange);
+            boolean continueProcessing = PipelineHelper.continueProcessing(subExchange, "Parallel processing failed for number " + number, LOG);
+            if (stopOnException && !continueProcessing) {
+                inFlight.decrementAndGet();
+                if (done.compareAndSet(false, true)) {
+                    if (subExchange.getException() != null) {
+                        // wrap in exception to explain where it failed
+                        CamelExchangeException cause = new CamelExchangeException("Parallel processing failed for number " + number, subExchange, subExchange.getException());
+                        subExchange.setException(cause);
+                    }
+                    // we want to stop on exception and an exception or failure occurred
+                    // so we should set the failed exchange as the result and be done (without waiting for the other tasks)
+                    LOG.debug("Stopping parallel processing due stopOnException.");
+                    result.set(subExchange);
+                    doDone(original, subExchange, pairs, callback, false, true);
+                }
+                return;
+            }
+
+            if (streaming) {
+                // aggregate in the order they are completed
+                aggregate(subExchange, number);
+                inFlight.decrementAndGet();
+            } else {
+                // aggregate in the order they are submitted
+                synchronized (completed) {
+                    completed.put(number, subExchange);
+                    Exchange next;
+                    while ((next = completed.remove(nextIndex)) != null) {
+                        aggregate(next, nextIndex);
+                        nextIndex++;
+                        inFlight.decrementAndGet();
+                    }
+                }
+            }
+
+            // submit the next sub exchanges (or be done)
+            drive();
+        }
+
+        private void aggregate(Exchange subExchange, Integer number) {
+            try {
+                if (parallelAggregate) {
+                    doAggregateInternal(getAggregationStrategy(subExchange), result, subExchange);
+                } else {
+                    doAggregate(getAggregationStrategy(subExchange), result, subExchange);
+                }
+            } catch (Throwable e) {
+                if (isStopOnAggregateException()) {
+                    failure.set(e instanceof Exception ? (Exception) e : ObjectHelper.wrapRuntimeCamelException(e));
+                } else {
+                    // wrap in exception to explain where it failed
+                    CamelExchangeException cex = new CamelExchangeException("Parallel processing failed for number " + number, subExchange, e);
+                    subExchange.setException(cex);
+                    LOG.debug(cex.getMessage(), cex);
+                }
+            }
+        }
+    }
+
     protected boolean doProcessSequential(Exchange original, AtomicExchange result, Iterable<ProcessorExchangePair> pairs, AsyncCallback callback) throws Exception {
         AtomicInteger total = new AtomicInteger();
         Iterator<ProcessorExchangePair> it = pairs.iterator();
@@ -1334,6 +1667,38 @@ public class MulticastProcessor extends ServiceSupport implements AsyncProcessor
         return shareUnitOfWork;
     }
 
+    /**
+     * The maximum number of sub exchanges in flight when using parallel processing with the asynchronous routing engine,
+     * or <tt>0</tt> to process each sub exchange using a thread from the thread pool.
+     */
+    public int getParallelWindow() {
+        return parallelWindow;
+    }
+
+    public void setParallelWindow(int parallelWindow) {
+        this.parallelWindow = parallelWindow;
+    }
+
+    /**
+     * The maximum number of sub exchanges taken ahead from the iterator which has not yet been aggregated
+     * when using parallel processing, or <tt>0</tt> for no limit.
+     */
+    public int getLookAhead() {
+        return lookAhead;
+    }
+
+    public void setLookAhead(int lookAhead) {
+        this.lookAhead = lookAhead;
+    }
+
+    /**
+     * The current number of sub exchanges taken ahead from the iterator which has not yet been aggregated
+     * when using parallel processing with a look ahead.
+     */
+    public int getPendingExchanges() {
+        return pendingExchanges.get();
+    }
+
     public List<Processor> next() {
         if (!hasNext()) {
             return null;
@@ -62,6 +62,7 @@ public class RecipientList extends ServiceSupport implements AsyncProcessor, IdA
     private boolean parallelProcessing;
     private boolean parallelAggregate;
     private boolean stopOnAggregateException;
+    private int parallelWindow;
     private boolean stopOnException;
     private boolean ignoreInvalidEndpoints;
     private boolean streaming;
@@ -158,6 +159,7 @@ public class RecipientList extends ServiceSupport implements AsyncProcessor, IdA
             }
         };
         rlp.setIgnoreInvalidEndpoints(isIgnoreInvalidEndpoints());
+        rlp.setParallelWindow(getParallelWindow());
 
         // start the service
         try {
@@ -260,6 +262,14 @@ public class RecipientList extends ServiceSupport implements AsyncProcessor, IdA
         this.stopOnAggregateException = stopOnAggregateException;
     }
 
+    public int getParallelWindow() {
+        return parallelWindow;
+    }
+
+    public void setParallelWindow(int parallelWindow) {
+        this.parallelWindow = parallelWindow;
+    }
+
     public boolean isStopOnException() {
         return stopOnException;
     }
@@ -67,6 +67,7 @@ public class SharedCamelInternalProcessor {
 
     private static final Logger LOG = LoggerFactory.getLogger(SharedCamelInternalProcessor.class);
     private final List<CamelInternalProcessorAdvice> advices = new ArrayList<CamelInternalProcessorAdvice>();
+    private final boolean statefulAdvices;
 
     public SharedCamelInternalProcessor(CamelInternalProcessorAdvice... advices) {
         if (advices != null) {
@@ -74,6 +75,11 @@ public class SharedCamelInternalProcessor {
             // ensure advices are sorted so they are in the order we want
             this.advices.sort(OrderedComparator.get());
         }
+        boolean stateful = false;
+        for (CamelInternalProcessorAdvice<?> task : this.advices) {
+            stateful |= task.hasState();
+        }
+        this.statefulAdvices = stateful;
     }
 
     /**
@@ -125,14 +131,16 @@ public class SharedCamelInternalProcessor {
             return true;
         }
 
-        // optimise to use object array for states
-        final Object[] states = new Object[advices.size()];
+        // optimise to only use object array for states if any of the advices keeps state
+        final Object[] states = statefulAdvices ? new Object[advices.size()] : null;
         // optimise for loop using index access to avoid creating iterator object
         for (int i = 0; i < advices.size(); i++) {
             CamelInternalProcessorAdvice task = advices.get(i);
             try {
                 Object state = task.before(exchange);
-                states[i] = state;
+                if (states != null) {
+                    states[i] = state;
+                }
             } catch (Throwable e) {
                 exchange.setException(e);
                 callback.done(true);
@@ -236,7 +244,7 @@ public class SharedCamelInternalProcessor {
             try {
                 for (int i = advices.size() - 1; i >= 0; i--) {
                     CamelInternalProcessorAdvice task = advices.get(i);
-                    Object state = states[i];
+                    Object state = states != null ? states[i] : null;
                     try {
                         task.after(exchange, state);
                     } catch (Throwable e) {
@@ -0,0 +1,300 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.processor;
+
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.camel.AsyncCallback;
+import org.apache.camel.CamelContext;
+import org.apache.camel.Exchange;
+import org.apache.camel.Expression;
+import org.apache.camel.Processor;
+import org.apache.camel.RuntimeExchangeException;
+import org.apache.camel.util.LRUCacheFactory;
+import org.apache.camel.util.ObjectHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A <a href="http://camel.apache.org/throttler.html">Throttler</a> which uses a token bucket
+ * per correlation key, instead of the rolling window of permits used by {@link Throttler}.
+ * <p/>
+ * Each bucket holds up to maxRequestsPerPeriod tokens, and is refilled at the rate of maxRequestsPerPeriod
+ * tokens per timePeriodMillis. The bucket is a single atomic timestamp (the time when the bucket is full again)
+ * which is updated using compare and set, so the throttler is lock-free and does not keep any permits.
+ * <p/>
+ * An exchange which has to wait for a token reserves the token up front, and is scheduled to continue routing
+ * on the scheduled thread pool when the token is due. This means no thread is blocked while the exchange is
+ * waiting, and a few threads can throttle a high number of exchanges over many correlation keys.
+ * Transacted exchanges are the exception, as they must continue on the same thread, so the thread is blocked
+ * while waiting.
+ * <p/>
+ * When a correlation expression is configured, then each correlation key has its own bucket. The buckets are
+ * kept in a LRU cache with the given maximum number of buckets, where an evicted bucket starts full again
+ * if the correlation key is used later.
+ *
+ * @version
+ */
+public class TokenBucketThrottler extends Throttler {
+
+    private final Logger log = LoggerFactory.getLogger(TokenBucketThrottler.class);
+    private final ScheduledExecutorService scheduler;
+    private final TokenBucket bucket = new TokenBucket();
+
+    private volatile int throttleRate;
+    private Expression correlationExpression;
+    private int maximumBuckets = 1000;
+    private Map<Object, TokenBucket> buckets;
+
+    public TokenBucketThrottler(final CamelContext camelContext, final Processor processor, final Expression maxRequestsPerPeriodExpression,
+                                final long timePeriodMillis, final ScheduledExecutorService scheduler, final boolean shutdownScheduler,
+                                final boolean rejectExecution) {
+        super(camelContext, processor, maxRequestsPerPeriodExpression, timePeriodMillis, scheduler, shutdownScheduler, rejectExecution);
+        this.scheduler = scheduler;
+    }
+
+    @Override
+    public boolean process(final Exchange exchange, final AsyncCallback callback) {
+        try {
+            if (!isRunAllowed()) {
+                throw new RejectedExecutionException("Run is not allowed");
+            }
+
+            int rate = calculateRate(exchange);
+            long delay = getBucket(exchange).reserve(rate, TimeUnit.MILLISECONDS.toNanos(getTimePeriodMillis()), isRejectExecution());
+            if (delay < 0) {
+                throw new ThrottlerRejectedExecutionException("Exceeded the max throttle rate of "
+                        + rate + " within " + getTimePeriodMillis() + "ms");
+            }
+
+            if (delay == 0) {
+                log.trace("No throttling applied to exchangeId: {}", exchange.getExchangeId());
+            } else if (exchange.isTransacted()) {
+                // a transacted exchange must continue on the same thread
+                log.trace("Throttled for {}ns, exchangeId: {}", delay, exchange.getExchangeId());
+                TimeUnit.NANOSECONDS.sleep(delay);
+            } else {
+                return processDelayed(exchange, callback, delay);
+            }
+
+            if (processor != null) {
+                return processor.process(exchange, callback);
+            }
+            callback.done(true);
+            return true;
+
+        } catch (final InterruptedException e) {
+            // determine if we can still run, or the camel context is forcing a shutdown
+            boolean forceShutdown = exchange.getContext().getShutdownStrategy().forceShutdown(this);
+            if (forceShutdown) {
+                String msg = "Run not allowed as ShutdownStrategy is forcing shutting down, will reject executing exchange: " + exchange;
+                log.debug(msg);
+                exchange.setException(new RejectedExecutionException(msg, e));
+            } else {
+                exchange.setException(e);
+            }
+            callback.done(true);
+            return true;
+        } catch (final Throwable t) {
+            exchange.setException(t);
+            callback.done(true);
+            return true;
+        }
+    }
+
+    /**
+     * Schedules the exchange to continue routing when its token is due. If the scheduler rejects the task
+     * and isCallerRunsWhenRejected() is enabled, then the current thread waits for the token instead.
+     */
+    protected boolean processDelayed(final Exchange exchange, final AsyncCallback callback, final long delay) throws Exception {
+        try {
+            log.debug("Throttle rate exceeded, so scheduling exchangeId: {} to continue in {}ns", exchange.getExchangeId(), delay);
+            scheduler.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    if (processor == null) {
+                        callback.done(false);
+                        return;
+                    }
+                    // we are continuing asynchronously so the callback must be called with false
+                    processor.process(exchange, new AsyncCallback() {
+                        @Override
+                        public void done(boolean doneSync) {
+                            callback.done(false);
+                        }
+                    });
+                }
+            }, delay, TimeUnit.NANOSECONDS);
+            return false;
+        } catch (final RejectedExecutionException e) {
+            if (isCallerRunsWhenRejected()) {
+                log.debug("Scheduler rejected the exchange so it will wait in the current thread, exchangeId: {}", exchange.getExchangeId());
+                TimeUnit.NANOSECONDS.sleep(delay);
+                if (processor != null) {
+                    return processor.process(exchange, callback);
+                }
+                callback.done(true);
+                return true;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Evaluates the maxRequestsPerPeriodExpression, where the last known rate is used if the expression is evaluated as null.
+     */
+    protected int calculateRate(final Exchange exchange) throws Exception {
+        Integer newThrottle = getMaximumRequestsPerPeriodExpression().evaluate(exchange, Integer.class);
+        if (newThrottle == null) {
+            int rate = throttleRate;
+            if (rate == 0) {
+                throw new RuntimeExchangeException("The maxRequestsPerPeriodExpression was evaluated as null: " + getMaximumRequestsPerPeriodExpression(), exchange);
+            }
+            return rate;
+        }
+        if (newThrottle <= 0) {
+            throw new IllegalStateException("The maximumRequestsPerPeriod must be a positive number, was: " + newThrottle);
+        }
+        if (newThrottle != throttleRate) {
+            log.debug("Throttle rate changed from {} to {}, triggered by ExchangeId: {}", throttleRate, newThrottle, exchange.getExchangeId());
+            throttleRate = newThrottle;
+        }
+        return newThrottle;
+    }
+
+    protected TokenBucket getBucket(final Exchange exchange) {
+        if (correlationExpression == null) {
+            return bucket;
+        }
+        Object key = correlationExpression.evaluate(exchange, Object.class);
+        if (key == null) {
+            return bucket;
+        }
+        TokenBucket answer = buckets.get(key);
+        if (answer == null) {
+            // only lock when creating a new bucket so two threads do not create a bucket for the same key
+            synchronized (buckets) {
+                answer = buckets.get(key);
+                if (answer == null) {
+                    answer = new TokenBucket();
+                    buckets.put(key, answer);
+                }
+            }
+        }
+        return answer;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void doStart() throws Exception {
+        ObjectHelper.notNull(scheduler, "executorService", this);
+        if (correlationExpression != null && buckets == null) {
+            buckets = LRUCacheFactory.newLRUCache(16, maximumBuckets, false);
+        }
+        super.doStart();
+    }
+
+    @Override
+    protected void doStop() throws Exception {
+        super.doStop();
+        if (buckets != null) {
+            buckets.clear();
+        }
+    }
+
+    /**
+     * A token bucket using the generic cell rate algorithm, where the state is the time when the bucket is full again.
+     */
+    static final class TokenBucket {
+        private final AtomicLong fullAt = new AtomicLong(System.nanoTime());
+
+        /**
+         * Reserves a token.
+         *
+         * @param rate           the number of tokens per period (and the size of the bucket)
+         * @param periodNanos    the period in nanos
+         * @param rejectIfEmpty  whether to not reserve a token if the bucket is empty
+         * @return the delay in nanos until the token is due, <tt>0</tt> if the token is available now,
+         *         or <tt>-1</tt> if the bucket is empty and <tt>rejectIfEmpty</tt> is enabled
+         */
+        long reserve(int rate, long periodNanos, boolean rejectIfEmpty) {
+            long interval = Math.max(1, periodNanos / rate);
+            long burst = periodNanos - interval;
+            while (true) {
+                long current = fullAt.get();
+                long now = System.nanoTime();
+                long start = current - now > 0 ? current : now;
+                long delay = start - burst - now;
+                if (delay > 0 && rejectIfEmpty) {
+                    return -1;
+                }
+                if (fullAt.compareAndSet(current, start + interval)) {
+                    return delay > 0 ? delay : 0;
+                }
+            }
+        }
+    }
+
+    @Override
+    public int getCurrentMaximumRequestsPerPeriod() {
+        return throttleRate;
+    }
+
+    public Expression getCorrelationExpression() {
+        return correlationExpression;
+    }
+
+    /**
+     * Sets the expression to evaluate the key of the bucket to use, where each key is throttled by its own bucket.
+     */
+    public void setCorrelationExpression(Expression correlationExpression) {
+        this.correlationExpression = correlationExpression;
+    }
+
+    public int getMaximumBuckets() {
+        return maximumBuckets;
+    }
+
+    /**
+     * Sets the maximum number of buckets to keep when using a correlation expression.
+     */
+    public void setMaximumBuckets(int maximumBuckets) {
+        this.maximumBuckets = maximumBuckets;
+    }
+
+    /**
+     * Gets the current number of buckets when using a correlation expression.
+     */
+    public int getBucketsSize() {
+        return buckets != null ? buckets.size() : 0;
+    }
+
+    @Override
+    public String getTraceLabel() {
+        return "throttle[" + getMaximumRequestsPerPeriodExpression() + " per: " + getTimePeriodMillis() + " using token bucket]";
+    }
+
+    @Override
+    public String toString() {
+        return "TokenBucketThrottler[requests: " + getMaximumRequestsPerPeriodExpression() + " per: " + getTimePeriodMillis() + " (ms) to: "
+                + getProcessor() + "]";
+    }
+}
@@ -58,6 +58,7 @@ import org.apache.camel.spi.ShutdownAware;
 import org.apache.camel.spi.ShutdownPrepared;
 import org.apache.camel.spi.Synchronization;
 import org.apache.camel.support.DefaultTimeoutMap;
+import org.apache.camel.support.HashedWheelTimeoutMap;
 import org.apache.camel.support.LoggingExceptionHandler;
 import org.apache.camel.support.ServiceSupport;
 import org.apache.camel.util.AsyncProcessorHelper;
@@ -92,6 +93,8 @@ public class AggregateProcessor extends ServiceSupport implements AsyncProcessor
     private static final Logger LOG = LoggerFactory.getLogger(AggregateProcessor.class);
 
     private final Lock lock = new ReentrantLock();
+    // when lock striping is enabled each correlation key is guarded by one of these locks
+    private Lock[] stripedLocks;
     private final AtomicBoolean aggregateRepositoryWarned = new AtomicBoolean();
     private final CamelContext camelContext;
     private final Processor processor;
@@ -196,6 +199,7 @@ public class AggregateProcessor extends ServiceSupport implements AsyncProcessor
     private Integer closeCorrelationKeyOnCompletion;
     private boolean parallelProcessing;
     private boolean optimisticLocking;
+    private int lockStripes = 1;
 
     // different ways to have completion triggered
     private boolean eagerCheckCompletion;
@@ -211,6 +215,7 @@ public class AggregateProcessor extends ServiceSupport implements AsyncProcessor
     private boolean forceCompletionOnStop;
     private boolean completeAllOnStop;
     private long completionTimeoutCheckerInterval = 1000;
+    private boolean completionTimeoutTimingWheel;
 
     private ProducerTemplate deadLetterProducerTemplate;
 
@@ -343,13 +348,15 @@ public class AggregateProcessor extends ServiceSupport implements AsyncProcessor
             // when memory based then its fast using synchronized, but if the aggregation repository is IO
             // bound such as JPA etc then concurrent aggregation per correlation key could
             // improve performance as we can run aggregation repository get/add in parallel
+            // when lock striping is enabled then independent correlation keys can be aggregated in parallel
             List<Exchange> aggregated = null;
-            lock.lock();
+            Lock keyLock = getLockForKey(key);
+            keyLock.lock();
             try {
                 aggregated = doAggregation(key, copy);
 
             } finally {
-                lock.unlock();
+                keyLock.unlock();
             }
             // we are completed so do that work outside the lock
             if (aggregated != null) {
@@ -822,6 +829,56 @@ public class AggregateProcessor extends ServiceSupport implements AsyncProcessor
         timeoutMap.put(key, exchange.getExchangeId(), timeout);
     }
 
+    /**
+     * Gets the lock which guards the given correlation key.
+     * <p/>
+     * When lock striping is not in use then all correlation keys share the same lock.
+     *
+     * @param key the correlation key
+     * @return the lock to use
+     */
+    protected Lock getLockForKey(String key) {
+        Lock[] locks = stripedLocks;
+        if (locks == null) {
+            return lock;
+        }
+        // spread the hash code bits as the lock stripes is a power of two
+        int hash = key.hashCode();
+        hash ^= hash >>> 16;
+        return locks[hash & (locks.length - 1)];
+    }
+
+    /**
+     * Acquires the lock of every correlation key, which is needed by tasks which operate on all the groups
+     * such as the completion timeout checker and force completion.
+     * <p/>
+     * The locks are always acquired in the same order to avoid deadlocks.
+     */
+    private void lockAll() {
+        Lock[] locks = stripedLocks;
+        if (locks == null) {
+            lock.lock();
+        } else {
+            for (Lock stripe : locks) {
+                stripe.lock();
+            }
+        }
+    }
+
+    /**
+     * Releases the locks acquired by {@link #lockAll()}
+     */
+    private void unlockAll() {
+        Lock[] locks = stripedLocks;
+        if (locks == null) {
+            lock.unlock();
+        } else {
+            for (int i = locks.length - 1; i >= 0; i--) {
+                locks[i].unlock();
+            }
+        }
+    }
+
     /**
      * Current number of closed correlation keys in the memory cache
      */
@@ -942,6 +999,14 @@ public class AggregateProcessor extends ServiceSupport implements AsyncProcessor
         this.completionTimeoutCheckerInterval = completionTimeoutCheckerInterval;
     }
 
+    public boolean isCompletionTimeoutTimingWheel() {
+        return completionTimeoutTimingWheel;
+    }
+
+    public void setCompletionTimeoutTimingWheel(boolean completionTimeoutTimingWheel) {
+        this.completionTimeoutTimingWheel = completionTimeoutTimingWheel;
+    }
+
     public ExceptionHandler getExceptionHandler() {
         return exceptionHandler;
     }
@@ -966,6 +1031,23 @@ public class AggregateProcessor extends ServiceSupport implements AsyncProcessor
         this.optimisticLocking = optimisticLocking;
     }
 
+    public int getLockStripes() {
+        return lockStripes;
+    }
+
+    /**
+     * Sets the number of locks used to guard the correlation groups. By default a single lock is used,
+     * which means that only one incoming exchange is aggregated at any given time.
+     * <p/>
+     * When using more than one lock then the correlation keys are hashed to the locks, which allows exchanges
+     * for different correlation keys to be aggregated in parallel. The value is rounded up to the nearest power of two.
+     * This requires the {@link AggregationRepository} to be thread safe when accessing different correlation keys
+     * concurrently, which the default {@link MemoryAggregationRepository} is.
+     */
+    public void setLockStripes(int lockStripes) {
+        this.lockStripes = lockStripes;
+    }
+
     public AggregationRepository getAggregationRepository() {
         return aggregationRepository;
     }
@@ -1077,6 +1159,43 @@ public class AggregateProcessor extends ServiceSupport implements AsyncProcessor
         }
     }
 
+    /**
+     * Completes the aggregated exchange for the correlation key as the completion timeout triggered.
+     */
+    private boolean onTimeoutEviction(String key, String exchangeId) {
+        LOG.debug("Completion timeout triggered for correlation key: {}", key);
+
+        boolean inProgress = inProgressCompleteExchanges.contains(exchangeId);
+        if (inProgress) {
+            LOG.trace("Aggregated exchange with id: {} is already in progress.", exchangeId);
+            return true;
+        }
+
+        // get the aggregated exchange
+        boolean evictionStolen = false;
+        Exchange answer = aggregationRepository.get(camelContext, key);
+        if (answer == null) {
+            evictionStolen = true;
+        } else {
+            // indicate it was completed by timeout
+            answer.setProperty(Exchange.AGGREGATED_COMPLETED_BY, "timeout");
+            try {
+                answer = onCompletion(key, answer, answer, true);
+                if (answer != null) {
+                    onSubmitCompletion(key, answer);
+                }
+            } catch (OptimisticLockingAggregationRepository.OptimisticLockingException e) {
+                evictionStolen = true;
+            }
+        }
+
+        if (optimisticLocking && evictionStolen) {
+            LOG.debug("Another Camel instance has already successfully correlated or processed this timeout eviction "
+                      + "for exchange with id: {} and correlation id: {}", exchangeId, key);
+        }
+        return true;
+    }
+
     /**
      * Background task that looks for aggregated exchanges which is triggered by completion timeouts.
      */
@@ -1091,50 +1210,52 @@ public class AggregateProcessor extends ServiceSupport implements AsyncProcessor
         public void purge() {
             // must acquire the shared aggregation lock to be able to purge
             if (!optimisticLocking) {
-                lock.lock();
+                lockAll();
             }
             try {
                 super.purge();
             } finally {
                 if (!optimisticLocking) {
-                    lock.unlock();
+                    unlockAll();
                 }
             }
         }
 
         @Override
         public boolean onEviction(String key, String exchangeId) {
-            log.debug("Completion timeout triggered for correlation key: {}", key);
+            return onTimeoutEviction(key, exchangeId);
+        }
+    }
 
-            boolean inProgress = inProgressCompleteExchanges.contains(exchangeId);
-            if (inProgress) {
-                LOG.trace("Aggregated exchange with id: {} is already in progress.", exchangeId);
-                return true;
-            }
+    /**
+     * The timeout map using a timing wheel, which is used when there are many correlation keys.
+     */
+    private final class AggregationTimingWheelTimeoutMap extends HashedWheelTimeoutMap<String, String> {
 
-            // get the aggregated exchange
-            boolean evictionStolen = false;
-            Exchange answer = aggregationRepository.get(camelContext, key);
-            if (answer == null) {
-                evictionStolen = true;
-            } else {
-                // indicate it was completed by timeout
-                answer.setProperty(Exchange.AGGREGATED_COMPLETED_BY, "timeout");
-                try {
-                    answer = onCompletion(key, answer, answer, true);
-                    if (answer != null) {
-                        onSubmitCompletion(key, answer);
-                    }
-                } catch (OptimisticLockingAggregationRepository.OptimisticLockingException e) {
-                    evictionStolen = true;
+        private AggregationTimingWheelTimeoutMap(ScheduledExecutorService executor, long requestMapPollTimeMillis) {
+            // do NOT use locking on the timeout map as this aggregator has its own shared lock we will use instead,
+            // however with lock stripes the entries are put and removed under different locks, and the wheel is not thread-safe
+            super(executor, requestMapPollTimeMillis, optimisticLocking || lockStripes > 1);
+        }
+
+        @Override
+        public void purge() {
+            // must acquire the shared aggregation lock to be able to purge
+            if (!optimisticLocking) {
+                lockAll();
+            }
+            try {
+                super.purge();
+            } finally {
+                if (!optimisticLocking) {
+                    unlockAll();
                 }
             }
+        }
 
-            if (optimisticLocking && evictionStolen) {
-                LOG.debug("Another Camel instance has already successfully correlated or processed this timeout eviction "
-                          + "for exchange with id: {} and correlation id: {}", exchangeId, key);
-            }
-            return true;
+        @Override
+        public boolean onEviction(String key, String exchangeId) {
+            return onTimeoutEviction(key, exchangeId);
         }
     }
 
@@ -1158,7 +1279,7 @@ public class AggregateProcessor extends ServiceSupport implements AsyncProcessor
             if (keys != null && !keys.isEmpty()) {
                 // must acquire the shared aggregation lock to be able to trigger interval completion
                 if (!optimisticLocking) {
-                    lock.lock();
+                    lockAll();
                 }
                 try {
                     for (String key : keys) {
@@ -1185,7 +1306,7 @@ public class AggregateProcessor extends ServiceSupport implements AsyncProcessor
                     }
                 } finally {
                     if (!optimisticLocking) {
-                        lock.unlock();
+                        unlockAll();
                     }
                 }
             }
@@ -1225,7 +1346,7 @@ public class AggregateProcessor extends ServiceSupport implements AsyncProcessor
                     return;
                 }
                 if (!optimisticLocking) {
-                    lock.lock();
+                    lockAll();
                 }
                 try {
                     // consider in progress if it was in progress before we did the scan, or currently after we did the scan
@@ -1291,7 +1412,7 @@ public class AggregateProcessor extends ServiceSupport implements AsyncProcessor
                     }
                 } finally {
                     if (!optimisticLocking) {
-                        lock.unlock();
+                        unlockAll();
                     }
                 }
             }
@@ -1345,6 +1466,22 @@ public class AggregateProcessor extends ServiceSupport implements AsyncProcessor
                 throw new IllegalArgumentException("Optimistic locking cannot be enabled without using an AggregationRepository that implements OptimisticLockingAggregationRepository");
             }
             LOG.info("Optimistic locking is enabled");
+        } else if (lockStripes > 1) {
+            if (isCompletionFromBatchConsumer()) {
+                // batch consumer completion spans across all the correlation keys so we must use a single lock
+                LOG.warn("Lock striping cannot be used together with completionFromBatchConsumer, will use a single lock");
+                stripedLocks = null;
+            } else {
+                int stripes = Integer.highestOneBit(lockStripes - 1) << 1;
+                Lock[] locks = new Lock[stripes];
+                for (int i = 0; i < stripes; i++) {
+                    locks[i] = new ReentrantLock();
+                }
+                stripedLocks = locks;
+                LOG.info("Using lock striping with {} locks", stripes);
+            }
+        } else {
+            stripedLocks = null;
         }
 
         ServiceHelper.startServices(aggregationStrategy, processor, aggregationRepository);
@@ -1403,7 +1540,11 @@ public class AggregateProcessor extends ServiceSupport implements AsyncProcessor
                 shutdownTimeoutCheckerExecutorService = true;
             }
             // check for timed out aggregated messages once every second
-            timeoutMap = new AggregationTimeoutMap(getTimeoutCheckerExecutorService(), getCompletionTimeoutCheckerInterval());
+            if (isCompletionTimeoutTimingWheel()) {
+                timeoutMap = new AggregationTimingWheelTimeoutMap(getTimeoutCheckerExecutorService(), getCompletionTimeoutCheckerInterval());
+            } else {
+                timeoutMap = new AggregationTimeoutMap(getTimeoutCheckerExecutorService(), getCompletionTimeoutCheckerInterval());
+            }
             // fill in existing timeout values from the aggregation repository, for example if a restart occurred, then we
             // need to re-establish the timeout map so timeout can trigger
             restoreTimeoutMapFromAggregationRepository();
@@ -1511,8 +1652,9 @@ public class AggregateProcessor extends ServiceSupport implements AsyncProcessor
         // must acquire the shared aggregation lock to be able to trigger force completion
         int total = 0;
 
+        Lock keyLock = getLockForKey(key);
         if (!optimisticLocking) {
-            lock.lock();
+            keyLock.lock();
         }
         try {
             Exchange exchange = aggregationRepository.get(camelContext, key);
@@ -1528,7 +1670,7 @@ public class AggregateProcessor extends ServiceSupport implements AsyncProcessor
             }
         } finally {
             if (!optimisticLocking) {
-                lock.unlock(); 
+                keyLock.unlock();
             }
         }
         LOG.trace("Completed force completion of group {}", key);
@@ -1557,7 +1699,7 @@ public class AggregateProcessor extends ServiceSupport implements AsyncProcessor
         if (keys != null && !keys.isEmpty()) {
             // must acquire the shared aggregation lock to be able to trigger force completion
             if (!optimisticLocking) {
-                lock.lock(); 
+                lockAll();
             }
             total = keys.size();
             try {
@@ -1575,7 +1717,7 @@ public class AggregateProcessor extends ServiceSupport implements AsyncProcessor
                 }
             } finally {
                 if (!optimisticLocking) {
-                    lock.unlock();
+                    unlockAll();
                 }
             }
         }
@@ -0,0 +1,319 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.processor.idempotent;
+
+import java.util.Arrays;
+
+import org.apache.camel.api.management.ManagedAttribute;
+import org.apache.camel.api.management.ManagedOperation;
+import org.apache.camel.api.management.ManagedResource;
+import org.apache.camel.spi.IdempotentRepository;
+import org.apache.camel.support.ServiceSupport;
+
+/**
+ * A memory based implementation of {@link org.apache.camel.spi.IdempotentRepository} which uses
+ * far less memory than {@link MemoryIdempotentRepository} for a large number of keys.
+ * <p/>
+ * Instead of the keys, only a 64-bit hash of each key is stored in an open addressing hash table of primitive longs,
+ * which uses between 32 and 56 bytes per key (depending on how the cache size fits the table) regardless of the length
+ * of the keys, and does not create any objects per key, so the keys does not add to the garbage collection pauses. The tradeoff is that two different keys may have the
+ * same hash, in which case the second key is regarded as a duplicate. With 64-bit hashes the probability of this
+ * is about <tt>n / 2^64</tt> for each key, where <tt>n</tt> is the number of keys in the repository, for example
+ * 1 in 1.8 trillion with 10 million keys.
+ * <p/>
+ * The repository holds up to the given cache size number of keys, and when full the oldest key is evicted.
+ * Optionally keys can also be evicted when they are older than a given time.
+ *
+ * @see MemoryIdempotentRepository
+ */
+@ManagedResource(description = "Hashed memory based idempotent repository")
+public class HashedMemoryIdempotentRepository extends ServiceSupport implements IdempotentRepository<String> {
+    private static final long EMPTY = 0L;
+
+    private int cacheSize;
+    private long expireAfter;
+
+    // hash table of the key hashes (open addressing with linear probing), and the position of each key in the queue
+    private long[] table;
+    private int[] positions;
+    // the keys in the order they were added, which is used for evicting the oldest keys
+    private long[] queue;
+    private long[] queueTimes;
+    private long head;
+    private long tail;
+    private int size;
+
+    private long hits;
+    private long misses;
+    private long evicted;
+
+    public HashedMemoryIdempotentRepository() {
+        this(1000);
+    }
+
+    public HashedMemoryIdempotentRepository(int cacheSize) {
+        this.cacheSize = cacheSize;
+        init();
+    }
+
+    /**
+     * Creates a new hashed memory based repository with a default of 1000 entries in the cache.
+     */
+    public static IdempotentRepository<String> hashedMemoryIdempotentRepository() {
+        return new HashedMemoryIdempotentRepository();
+    }
+
+    /**
+     * Creates a new hashed memory based repository.
+     *
+     * @param cacheSize  the cache size
+     */
+    public static IdempotentRepository<String> hashedMemoryIdempotentRepository(int cacheSize) {
+        return new HashedMemoryIdempotentRepository(cacheSize);
+    }
+
+    @ManagedOperation(description = "Adds the key to the store")
+    public synchronized boolean add(String key) {
+        long hash = hash(key);
+        expire();
+        if (indexOf(hash) >= 0) {
+            hits++;
+            return false;
+        }
+        misses++;
+
+        if (tail - head == cacheSize) {
+            evictOldest();
+        }
+
+        int position = (int) (tail % cacheSize);
+        queue[position] = hash;
+        if (queueTimes != null) {
+            queueTimes[position] = System.currentTimeMillis();
+        }
+        tail++;
+
+        // evicting may have moved the keys in the table so lookup the free slot again
+        int index = -indexOf(hash) - 1;
+        table[index] = hash;
+        positions[index] = position;
+        size++;
+        return true;
+    }
+
+    @ManagedOperation(description = "Does the store contain the given key")
+    public synchronized boolean contains(String key) {
+        expire();
+        if (indexOf(hash(key)) >= 0) {
+            hits++;
+            return true;
+        } else {
+            misses++;
+            return false;
+        }
+    }
+
+    @ManagedOperation(description = "Remove the key from the store")
+    public synchronized boolean remove(String key) {
+        int index = indexOf(hash(key));
+        if (index < 0) {
+            return false;
+        }
+        // the key remains in the queue, but is skipped when its evicted as its no longer in the table
+        delete(index);
+        return true;
+    }
+
+    public boolean confirm(String key) {
+        // noop
+        return true;
+    }
+
+    @ManagedOperation(description = "Clear the store")
+    public synchronized void clear() {
+        Arrays.fill(table, EMPTY);
+        head = 0;
+        tail = 0;
+        size = 0;
+    }
+
+    @ManagedOperation(description = "Reset the statistics")
+    public synchronized void resetStatistics() {
+        hits = 0;
+        misses = 0;
+        evicted = 0;
+    }
+
+    @ManagedAttribute(description = "The current cache size")
+    public synchronized int getCacheSize() {
+        return size;
+    }
+
+    @ManagedAttribute(description = "The maximum cache size")
+    public int getMaxCacheSize() {
+        return cacheSize;
+    }
+
+    /**
+     * Sets the maximum number of keys in the cache. When the cache is full the oldest key is evicted.
+     * <p/>
+     * Changing the cache size clears the cache. The default is 1000.
+     */
+    public synchronized void setCacheSize(int cacheSize) {
+        this.cacheSize = cacheSize;
+        init();
+    }
+
+    @ManagedAttribute(description = "Time in millis after which keys are evicted")
+    public long getExpireAfter() {
+        return expireAfter;
+    }
+
+    /**
+     * Sets the time in millis after a key was added when the key is evicted. Use 0 or a negative value to turn this off.
+     * <p/>
+     * Changing the expiry time clears the cache. The default is 0.
+     */
+    public synchronized void setExpireAfter(long expireAfter) {
+        this.expireAfter = expireAfter;
+        init();
+    }
+
+    @ManagedAttribute(description = "Number of times a key was found in the cache")
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    @ManagedAttribute(description = "Number of times a key was not found in the cache")
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    @ManagedAttribute(description = "Number of keys evicted from the cache")
+    public synchronized long getEvicted() {
+        return evicted;
+    }
+
+    @Override
+    protected void doStart() throws Exception {
+        // noop
+    }
+
+    @Override
+    protected void doStop() throws Exception {
+        clear();
+    }
+
+    private void init() {
+        if (cacheSize <= 0) {
+            throw new IllegalArgumentException("CacheSize must be a positive number, was: " + cacheSize);
+        }
+        // keep the load factor at or below 0.5 to keep the probe sequences short
+        int capacity = Integer.highestOneBit(Math.max(cacheSize, 2) * 2 - 1) << 1;
+        table = new long[capacity];
+        positions = new int[capacity];
+        queue = new long[cacheSize];
+        queueTimes = expireAfter > 0 ? new long[cacheSize] : null;
+        head = 0;
+        tail = 0;
+        size = 0;
+    }
+
+    private void expire() {
+        if (queueTimes != null) {
+            long oldest = System.currentTimeMillis() - expireAfter;
+            while (head < tail && queueTimes[(int) (head % cacheSize)] <= oldest) {
+                evictOldest();
+            }
+        }
+    }
+
+    private void evictOldest() {
+        int position = (int) (head % cacheSize);
+        head++;
+        int index = indexOf(queue[position]);
+        // the key may have been removed (and added again) in the meantime
+        if (index >= 0 && positions[index] == position) {
+            delete(index);
+            evicted++;
+        }
+    }
+
+    /**
+     * Finds the slot of the hash in the table.
+     *
+     * @return the index of the slot, or <tt>-(index + 1)</tt> of the empty slot where the hash should be inserted if not found
+     */
+    private int indexOf(long hash) {
+        int mask = table.length - 1;
+        int index = slot(hash, mask);
+        while (table[index] != EMPTY) {
+            if (table[index] == hash) {
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+        return -(index + 1);
+    }
+
+    /**
+     * Deletes the slot at the given index, and moves back the following keys in the probe sequence to fill the gap.
+     */
+    private void delete(int index) {
+        int mask = table.length - 1;
+        int gap = index;
+        int next = index;
+        while (true) {
+            next = (next + 1) & mask;
+            long hash = table[next];
+            if (hash == EMPTY) {
+                break;
+            }
+            int home = slot(hash, mask);
+            // the key can fill the gap if its home slot is not cyclically between the gap and its current slot
+            boolean between = gap <= next ? gap < home && home <= next : gap < home || home <= next;
+            if (!between) {
+                table[gap] = hash;
+                positions[gap] = positions[next];
+                gap = next;
+            }
+        }
+        table[gap] = EMPTY;
+        size--;
+    }
+
+    private static int slot(long hash, int mask) {
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    /**
+     * A 64-bit hash of the key (FNV-1a of the characters with the MurmurHash3 finalizer), which is never 0 as that marks an empty slot.
+     */
+    static long hash(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash == EMPTY ? 1L : hash;
+    }
+}
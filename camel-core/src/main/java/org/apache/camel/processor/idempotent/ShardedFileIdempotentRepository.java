@@ -0,0 +1,550 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.processor.idempotent;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.CamelContextAware;
+import org.apache.camel.api.management.ManagedAttribute;
+import org.apache.camel.api.management.ManagedOperation;
+import org.apache.camel.api.management.ManagedResource;
+import org.apache.camel.spi.IdempotentRepository;
+import org.apache.camel.support.ServiceSupport;
+import org.apache.camel.util.FileUtil;
+import org.apache.camel.util.IOHelper;
+import org.apache.camel.util.ObjectHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A file based implementation of {@link org.apache.camel.spi.IdempotentRepository} which scales to a large number of keys.
+ * <p/>
+ * The keys are spread by their hash code over a number of shards, where each shard holds all its keys in memory,
+ * and stores them in an append-only log file in the given directory. Adding a key appends it to the log, and removing
+ * a key appends a tombstone to the log, so the log file is never rewritten when adding or removing keys.
+ * Checking whether a key exists never accesses the file, and never blocks, as the keys are held in a concurrent set.
+ * Adding and removing keys only locks the shard the key belongs to.
+ * <p/>
+ * As removed keys (and keys added again) leave obsolete records in the log, the logs are compacted in the background
+ * (when a {@link CamelContext} has been configured) at the given interval, by rewriting a shard from the keys in memory
+ * when the number of obsolete records exceeds the compaction threshold and the number of keys in the shard.
+ * <p/>
+ * Unlike {@link FileIdempotentRepository} all the keys are kept in memory, and the store is not limited in size.
+ *
+ * @see FileIdempotentRepository
+ */
+@ManagedResource(description = "Sharded file based idempotent repository")
+public class ShardedFileIdempotentRepository extends ServiceSupport implements IdempotentRepository<String>, CamelContextAware {
+    private static final Logger LOG = LoggerFactory.getLogger(ShardedFileIdempotentRepository.class);
+    private static final String SHARD_PREFIX = "shard-";
+    private static final String SHARD_SUFFIX = ".log";
+    private static final char ADD = '+';
+    private static final char REMOVE = '-';
+    private static final char STORE_DELIMITER = '\n';
+
+    private CamelContext camelContext;
+    private File directory;
+    private int shards = 16;
+    private long compactionInterval = 60000;
+    private long compactionThreshold = 1000;
+    private volatile Shard[] store;
+    private ScheduledExecutorService executorService;
+
+    public ShardedFileIdempotentRepository() {
+    }
+
+    public ShardedFileIdempotentRepository(File directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Creates a new sharded file based repository which stores the keys in the given directory.
+     *
+     * @param directory  the directory for the store
+     */
+    public static IdempotentRepository<String> shardedFileIdempotentRepository(File directory) {
+        return new ShardedFileIdempotentRepository(directory);
+    }
+
+    /**
+     * Creates a new sharded file based repository which stores the keys in the given directory.
+     *
+     * @param directory  the directory for the store
+     * @param shards     the number of shards
+     */
+    public static IdempotentRepository<String> shardedFileIdempotentRepository(File directory, int shards) {
+        ShardedFileIdempotentRepository repository = new ShardedFileIdempotentRepository(directory);
+        repository.setShards(shards);
+        return repository;
+    }
+
+    @ManagedOperation(description = "Adds the key to the store")
+    public boolean add(String key) {
+        Shard shard = shardFor(key);
+        // fast check without locking
+        if (shard.keys.contains(key)) {
+            return false;
+        }
+        return shard.add(key);
+    }
+
+    @ManagedOperation(description = "Does the store contain the given key")
+    public boolean contains(String key) {
+        return shardFor(key).keys.contains(key);
+    }
+
+    @ManagedOperation(description = "Remove the key from the store")
+    public boolean remove(String key) {
+        Shard shard = shardFor(key);
+        if (!shard.keys.contains(key)) {
+            return false;
+        }
+        return shard.remove(key);
+    }
+
+    public boolean confirm(String key) {
+        // noop
+        return true;
+    }
+
+    @ManagedOperation(description = "Clear the store (danger this removes all entries)")
+    public void clear() {
+        for (Shard shard : getStore()) {
+            shard.clear();
+        }
+    }
+
+    /**
+     * Compacts the log files of the shards which has more obsolete records than the compaction threshold.
+     *
+     * @return the number of shards compacted
+     */
+    @ManagedOperation(description = "Compacts the log files of the shards which has obsolete entries")
+    public int compact() {
+        int answer = 0;
+        for (Shard shard : getStore()) {
+            if (shard.needsCompaction() && shard.compact()) {
+                answer++;
+            }
+        }
+        return answer;
+    }
+
+    public CamelContext getCamelContext() {
+        return camelContext;
+    }
+
+    public void setCamelContext(CamelContext camelContext) {
+        this.camelContext = camelContext;
+    }
+
+    public File getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Sets the directory where the log files of the shards are stored.
+     */
+    public void setDirectory(File directory) {
+        this.directory = directory;
+    }
+
+    @ManagedAttribute(description = "The directory path for the store")
+    public String getDirectoryPath() {
+        return directory.getPath();
+    }
+
+    @ManagedAttribute(description = "The number of shards")
+    public int getShards() {
+        return shards;
+    }
+
+    /**
+     * Sets the number of shards, which is the number of log files, and the number of locks used when adding and removing keys.
+     * <p/>
+     * The default is 16.
+     */
+    public void setShards(int shards) {
+        this.shards = shards;
+    }
+
+    @ManagedAttribute(description = "Interval in millis for compacting the log files of the shards")
+    public long getCompactionInterval() {
+        return compactionInterval;
+    }
+
+    /**
+     * Sets the interval in millis for compacting the log files of the shards in the background.
+     * This requires a {@link CamelContext} to be configured. Use 0 or a negative value to turn this off.
+     * <p/>
+     * The default is 60000.
+     */
+    public void setCompactionInterval(long compactionInterval) {
+        this.compactionInterval = compactionInterval;
+    }
+
+    @ManagedAttribute(description = "Minimum number of obsolete records in the log file of a shard before its compacted")
+    public long getCompactionThreshold() {
+        return compactionThreshold;
+    }
+
+    /**
+     * Sets the minimum number of obsolete records in the log file of a shard before it is compacted.
+     * A shard is compacted when it has more obsolete records than this threshold and the number of keys in the shard.
+     * <p/>
+     * The default is 1000.
+     */
+    public void setCompactionThreshold(long compactionThreshold) {
+        this.compactionThreshold = compactionThreshold;
+    }
+
+    @ManagedAttribute(description = "The current number of keys in the store")
+    public long getSize() {
+        long answer = 0;
+        Shard[] current = store;
+        if (current != null) {
+            for (Shard shard : current) {
+                answer += shard.keys.size();
+            }
+        }
+        return answer;
+    }
+
+    @Override
+    protected void doStart() throws Exception {
+        ObjectHelper.notNull(directory, "directory", this);
+        if (shards <= 0) {
+            throw new IllegalArgumentException("Shards must be a positive number, was: " + shards);
+        }
+
+        if (!directory.exists()) {
+            LOG.debug("Creating directory for idempotent store: {}", directory);
+            if (!directory.mkdirs()) {
+                throw new IOException("Cannot create directory for idempotent store: " + directory);
+            }
+        }
+
+        store = loadStore();
+
+        if (compactionInterval > 0 && camelContext != null) {
+            executorService = camelContext.getExecutorServiceManager().newSingleThreadScheduledExecutor(this, "ShardedFileIdempotentRepository");
+            executorService.scheduleWithFixedDelay(this::compactInBackground, compactionInterval, compactionInterval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    protected void doStop() throws Exception {
+        if (executorService != null) {
+            camelContext.getExecutorServiceManager().shutdown(executorService);
+            executorService = null;
+        }
+
+        Shard[] current = store;
+        store = null;
+        if (current != null) {
+            for (Shard shard : current) {
+                shard.close();
+            }
+        }
+    }
+
+    /**
+     * Loads the shards from the log files in the directory
+     */
+    protected Shard[] loadStore() throws IOException {
+        Shard[] answer = new Shard[shards];
+        for (int i = 0; i < shards; i++) {
+            answer[i] = new Shard(new File(directory, SHARD_PREFIX + i + SHARD_SUFFIX));
+        }
+
+        // the number of shards may have changed since the store was written, so keys may be in another shard now
+        boolean redistribute = false;
+        File[] files = directory.listFiles((dir, name) -> name.startsWith(SHARD_PREFIX) && name.endsWith(SHARD_SUFFIX));
+        if (files != null) {
+            for (File file : files) {
+                Integer index = shardIndex(file);
+                if (index == null) {
+                    continue;
+                }
+                boolean moved = loadShard(file, answer);
+                redistribute |= moved || index >= shards;
+            }
+        }
+
+        if (redistribute) {
+            LOG.info("Number of shards changed to {}. Rewriting idempotent store: {}", shards, directory);
+            for (Shard shard : answer) {
+                shard.compact();
+            }
+            // and delete the log files of the shards no longer in use
+            for (File file : files) {
+                Integer index = shardIndex(file);
+                if (index != null && index >= shards) {
+                    FileUtil.deleteFile(file);
+                }
+            }
+        }
+
+        for (Shard shard : answer) {
+            shard.open();
+        }
+
+        if (LOG.isDebugEnabled()) {
+            long size = 0;
+            for (Shard shard : answer) {
+                size += shard.keys.size();
+            }
+            LOG.debug("Loaded {} keys in {} shards from idempotent store: {}", size, shards, directory);
+        }
+        return answer;
+    }
+
+    private boolean loadShard(File file, Shard[] target) throws IOException {
+        LOG.trace("Loading shard from idempotent store: {}", file);
+
+        boolean moved = false;
+        BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8));
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty()) {
+                    continue;
+                }
+                char op = line.charAt(0);
+                String key = line.substring(1);
+                Shard shard = target[indexFor(key, target.length)];
+                if (op == ADD) {
+                    shard.keys.add(key);
+                } else if (op == REMOVE) {
+                    shard.keys.remove(key);
+                } else {
+                    LOG.warn("Ignoring invalid entry in idempotent store: {}", file);
+                    continue;
+                }
+                if (shard.file.equals(file)) {
+                    shard.records++;
+                } else {
+                    moved = true;
+                }
+            }
+        } finally {
+            IOHelper.close(reader, "Loading idempotent store", LOG);
+        }
+        return moved;
+    }
+
+    private void compactInBackground() {
+        try {
+            int count = compact();
+            if (count > 0) {
+                LOG.debug("Compacted {} shards of idempotent store: {}", count, directory);
+            }
+        } catch (Throwable e) {
+            LOG.warn("Error compacting idempotent store: " + directory + ". This exception is ignored.", e);
+        }
+    }
+
+    private Shard[] getStore() {
+        Shard[] answer = store;
+        if (answer == null) {
+            throw new IllegalStateException("ShardedFileIdempotentRepository is not started: " + directory);
+        }
+        return answer;
+    }
+
+    private Shard shardFor(String key) {
+        Shard[] current = getStore();
+        return current[indexFor(key, current.length)];
+    }
+
+    private static int indexFor(String key, int size) {
+        int hash = key.hashCode();
+        // spread the hash as keys often differ only in their last characters
+        hash ^= hash >>> 16;
+        return (hash & 0x7fffffff) % size;
+    }
+
+    private static Integer shardIndex(File file) {
+        String name = file.getName();
+        String number = name.substring(SHARD_PREFIX.length(), name.length() - SHARD_SUFFIX.length());
+        try {
+            return Integer.valueOf(number);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static byte[] toRecord(char op, String key) {
+        byte[] data = key.getBytes(StandardCharsets.UTF_8);
+        byte[] answer = new byte[data.length + 2];
+        answer[0] = (byte) op;
+        System.arraycopy(data, 0, answer, 1, data.length);
+        answer[answer.length - 1] = (byte) STORE_DELIMITER;
+        return answer;
+    }
+
+    /**
+     * A shard with its keys in memory and its append-only log file.
+     */
+    private final class Shard {
+        private final File file;
+        private final Set<String> keys = ConcurrentHashMap.newKeySet();
+        private final Lock lock = new ReentrantLock();
+        private FileChannel channel;
+        // number of records in the log file
+        private volatile long records;
+
+        private Shard(File file) {
+            this.file = file;
+        }
+
+        boolean add(String key) {
+            lock.lock();
+            try {
+                if (!keys.add(key)) {
+                    return false;
+                }
+                try {
+                    append(ADD, key);
+                } catch (IOException e) {
+                    keys.remove(key);
+                    throw ObjectHelper.wrapRuntimeCamelException(e);
+                }
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        boolean remove(String key) {
+            lock.lock();
+            try {
+                if (!keys.remove(key)) {
+                    return false;
+                }
+                try {
+                    append(REMOVE, key);
+                } catch (IOException e) {
+                    keys.add(key);
+                    throw ObjectHelper.wrapRuntimeCamelException(e);
+                }
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void clear() {
+            lock.lock();
+            try {
+                keys.clear();
+                channel.truncate(0);
+                records = 0;
+            } catch (IOException e) {
+                throw ObjectHelper.wrapRuntimeCamelException(e);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        boolean needsCompaction() {
+            long obsolete = records - keys.size();
+            return obsolete >= compactionThreshold && obsolete > keys.size();
+        }
+
+        /**
+         * Rewrites the log file with the keys in memory
+         */
+        boolean compact() {
+            lock.lock();
+            try {
+                LOG.debug("Compacting idempotent store: {} with {} records to {} keys", file, records, keys.size());
+                File tmp = new File(file.getPath() + ".tmp");
+                OutputStream os = new BufferedOutputStream(new FileOutputStream(tmp));
+                try {
+                    for (String key : keys) {
+                        os.write(toRecord(ADD, key));
+                    }
+                } finally {
+                    IOHelper.close(os, "Compacting idempotent store", LOG);
+                }
+
+                boolean reopen = channel != null;
+                IOHelper.close(channel);
+                try {
+                    Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                }
+                records = keys.size();
+                if (reopen) {
+                    open();
+                }
+                return true;
+            } catch (IOException e) {
+                LOG.warn("Error compacting idempotent store: " + file + ". This exception is ignored.", e);
+                return false;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void open() throws IOException {
+            channel = new FileOutputStream(file, true).getChannel();
+        }
+
+        void close() {
+            lock.lock();
+            try {
+                IOHelper.close(channel, "Closing idempotent store", LOG);
+                channel = null;
+                keys.clear();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void append(char op, String key) throws IOException {
+            LOG.trace("Appending: {}{} to idempotent store: {}", op, key, file);
+            ByteBuffer buffer = ByteBuffer.wrap(toRecord(op, key));
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            records++;
+        }
+    }
+}
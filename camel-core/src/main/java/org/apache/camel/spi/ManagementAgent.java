@@ -339,7 +339,7 @@ public interface ManagementAgent extends Service {
      * <p/>
      * Default is {@link org.apache.camel.ManagementStatisticsLevel#Default}
      * <p/>
-     * The level can be set to <tt>Extended</tt> to gather additional information
+     * The level can be set to <tt>Extended</tt> to gather additional information, such as the percentiles of the processing time
      *
      * @param level the new level
      */
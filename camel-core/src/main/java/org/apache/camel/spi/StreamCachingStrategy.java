@@ -21,6 +21,7 @@ import java.io.File;
 import org.apache.camel.Exchange;
 import org.apache.camel.StaticService;
 import org.apache.camel.StreamCache;
+import org.apache.camel.converter.stream.StreamCacheBufferPool;
 
 /**
  * Strategy for using <a href="http://camel.apache.org/stream-caching.html">stream caching</a>.
@@ -164,6 +165,35 @@ public interface StreamCachingStrategy extends StaticService {
 
     int getBufferSize();
 
+    /**
+     * Sets the number of free buffers to keep in a pool of buffers shared by the in-memory stream caches.
+     * <p/>
+     * When in use the in-memory stream caches stores the content in a list of buffers of the {@link #getBufferSize()}
+     * from the pool, instead of growing a byte array, and the buffers are returned to the pool when the exchanges
+     * using the stream caches are completed.
+     * <p/>
+     * The default value is <tt>0</tt> which means the pool is not in use.
+     */
+    void setBufferPoolSize(int bufferPoolSize);
+
+    int getBufferPoolSize();
+
+    /**
+     * Sets whether the pool of buffers should use direct (off heap) buffers.
+     * <p/>
+     * This option is default <tt>false</tt>
+     */
+    void setBufferPoolDirect(boolean bufferPoolDirect);
+
+    boolean isBufferPoolDirect();
+
+    /**
+     * Gets the pool of buffers shared by the in-memory stream caches.
+     *
+     * @return the pool, or <tt>null</tt> if the pool is not in use or the strategy is not started
+     */
+    StreamCacheBufferPool getBufferPool();
+
     /**
      * Sets a chiper name to use when spooling to disk to write with encryption.
      * <p/>
@@ -0,0 +1,448 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.support;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.camel.TimeoutMap;
+import org.apache.camel.util.ObjectHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link TimeoutMap} which keeps the entries in a hierarchical hashed timing wheel.
+ * <p/>
+ * The {@link DefaultTimeoutMap} scans all the entries on every purge, which is costly when there are many entries.
+ * This implementation puts each entry in the slot of the wheel for the tick the entry expires, where a tick is
+ * the purge poll time. Each purge advances the wheel one tick at a time, and only visits the entries in the slots
+ * of the passed ticks. Entries which expire beyond the range of the first wheel are kept in a coarser wheel, and
+ * moved down when the finer wheel has turned. This means put, remove and get are O(1) and purge is proportional
+ * to the number of expired entries, not the size of the map.
+ * <p/>
+ * As with {@link DefaultTimeoutMap} an entry is evicted at the first purge after its timeout, and the locking can be
+ * turned off when the caller has its own locking. You must provide a {@link java.util.concurrent.ScheduledExecutorService}
+ * in the constructor which is used to schedule the purge, and invoke {@link #start()} and {@link #stop()}.
+ *
+ * @version 
+ */
+public class HashedWheelTimeoutMap<K, V> extends ServiceSupport implements TimeoutMap<K, V>, Runnable {
+
+    // 256 slots per wheel, and 4 wheels covers 2^32 ticks
+    private static final int WHEEL_BITS = 8;
+    private static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+    private static final int WHEELS = 4;
+
+    protected final Logger log = LoggerFactory.getLogger(getClass());
+
+    private final ConcurrentMap<K, WheelEntry<K, V>> map = new ConcurrentHashMap<K, WheelEntry<K, V>>();
+    private final WheelEntry<K, V>[][] wheels;
+    private final ScheduledExecutorService executor;
+    private volatile ScheduledFuture<?> future;
+    private final long purgePollTime;
+    private final Lock lock = new ReentrantLock();
+    private boolean useLock = true;
+    // the last tick the wheels has been advanced to
+    private long currentTick;
+
+    public HashedWheelTimeoutMap(ScheduledExecutorService executor) {
+        this(executor, 1000);
+    }
+
+    public HashedWheelTimeoutMap(ScheduledExecutorService executor, long requestMapPollTimeMillis) {
+        this(executor, requestMapPollTimeMillis, true);
+    }
+
+    public HashedWheelTimeoutMap(ScheduledExecutorService executor, long requestMapPollTimeMillis, boolean useLock) {
+        ObjectHelper.notNull(executor, "ScheduledExecutorService");
+        if (requestMapPollTimeMillis <= 0) {
+            throw new IllegalArgumentException("RequestMapPollTimeMillis must be a positive value, was: " + requestMapPollTimeMillis);
+        }
+        this.executor = executor;
+        this.purgePollTime = requestMapPollTimeMillis;
+        this.useLock = useLock;
+        // generic arrays cannot be created, so create a raw array which only ever holds entries of this map
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        WheelEntry<K, V>[][] entries = new WheelEntry[WHEELS][WHEEL_SIZE];
+        this.wheels = entries;
+        for (int i = 0; i < WHEELS; i++) {
+            for (int j = 0; j < WHEEL_SIZE; j++) {
+                wheels[i][j] = new WheelEntry<K, V>(null, null, 0);
+            }
+        }
+        this.currentTick = currentTime() / purgePollTime;
+    }
+
+    public V get(K key) {
+        WheelEntry<K, V> entry;
+        if (useLock) {
+            lock.lock();
+        }
+        try {
+            entry = map.get(key);
+            if (entry == null) {
+                return null;
+            }
+            updateExpireTime(entry);
+            schedule(entry);
+        } finally {
+            if (useLock) {
+                lock.unlock();
+            }
+        }
+        return entry.getValue();
+    }
+
+    public V put(K key, V value, long timeoutMillis) {
+        WheelEntry<K, V> entry = new WheelEntry<K, V>(key, value, timeoutMillis);
+        if (useLock) {
+            lock.lock();
+        }
+        try {
+            updateExpireTime(entry);
+            WheelEntry<K, V> result = map.put(key, entry);
+            if (result != null) {
+                result.unlink();
+            }
+            schedule(entry);
+            return result != null ? result.getValue() : null;
+        } finally {
+            if (useLock) {
+                lock.unlock();
+            }
+        }
+    }
+
+    public V putIfAbsent(K key, V value, long timeoutMillis) {
+        WheelEntry<K, V> entry = new WheelEntry<K, V>(key, value, timeoutMillis);
+        if (useLock) {
+            lock.lock();
+        }
+        try {
+            updateExpireTime(entry);
+            //Just make sure we don't override the old entry
+            WheelEntry<K, V> result = map.putIfAbsent(key, entry);
+            if (result == null) {
+                schedule(entry);
+            }
+            return result != null ? result.getValue() : null;
+        } finally {
+            if (useLock) {
+                lock.unlock();
+            }
+        }
+    }
+
+    public V remove(K key) {
+        WheelEntry<K, V> entry;
+
+        if (useLock) {
+            lock.lock();
+        }
+        try {
+            entry = map.remove(key);
+            if (entry != null) {
+                entry.unlink();
+            }
+        } finally {
+            if (useLock) {
+                lock.unlock();
+            }
+        }
+
+        return entry != null ? entry.getValue() : null;
+    }
+
+    public Object[] getKeys() {
+        Object[] keys;
+        if (useLock) {
+            lock.lock();
+        }
+        try {
+            Set<K> keySet = map.keySet();
+            keys = new Object[keySet.size()];
+            keySet.toArray(keys);
+        } finally {
+            if (useLock) {
+                lock.unlock();
+            }
+        }
+        return keys;
+    }
+
+    public int size() {
+        return map.size();
+    }
+
+    /**
+     * The timer task which purges old requests and schedules another poll
+     */
+    public void run() {
+        // only run if allowed
+        if (!isRunAllowed()) {
+            log.trace("Purge task not allowed to run");
+            return;
+        }
+
+        log.trace("Running purge task to see if any entries has been timed out");
+        try {
+            purge();
+        } catch (Throwable t) {
+            // must catch and log exception otherwise the executor will now schedule next run
+            log.warn("Exception occurred during purge task. This exception will be ignored.", t);
+        }
+    }
+
+    public void purge() {
+        log.trace("There are {} in the timeout map", map.size());
+
+        long now = currentTime();
+        long targetTick = now / purgePollTime;
+
+        if (useLock) {
+            lock.lock();
+        }
+        try {
+            if (map.isEmpty()) {
+                // nothing to expire so just catch up with the time
+                currentTick = Math.max(currentTick, targetTick);
+                return;
+            }
+
+            List<WheelEntry<K, V>> vetoed = null;
+            while (currentTick < targetTick) {
+                currentTick++;
+                cascade(currentTick);
+
+                // detach the entries in the slot as the eviction may change the map
+                WheelEntry<K, V> head = wheels[0][(int) (currentTick & WHEEL_MASK)];
+                List<WheelEntry<K, V>> expired = head.detachAll();
+                for (WheelEntry<K, V> entry : expired) {
+                    if (map.get(entry.getKey()) != entry) {
+                        // removed or replaced during the eviction of a previous entry
+                        continue;
+                    }
+                    if (entry.getExpireTime() >= now || entry.tick > currentTick || !isValidForEviction(entry)) {
+                        // not yet expired (such as the time is ahead of the ticks) so schedule it again
+                        if (vetoed == null) {
+                            vetoed = new ArrayList<WheelEntry<K, V>>();
+                        }
+                        vetoed.add(entry);
+                        continue;
+                    }
+                    log.debug("Evicting inactive entry ID: {}", entry);
+                    boolean evict = false;
+                    try {
+                        evict = onEviction(entry.getKey(), entry.getValue());
+                    } catch (Throwable t) {
+                        log.warn("Exception happened during eviction of entry ID {}, won't evict and will continue trying: {}",
+                                entry.getValue(), t);
+                    }
+                    if (evict) {
+                        // only remove the entry if it has not been replaced during the eviction
+                        map.remove(entry.getKey(), entry);
+                    } else {
+                        if (vetoed == null) {
+                            vetoed = new ArrayList<WheelEntry<K, V>>();
+                        }
+                        vetoed.add(entry);
+                    }
+                }
+            }
+
+            if (vetoed != null) {
+                // the kept entries are tried again on the next purge
+                for (WheelEntry<K, V> entry : vetoed) {
+                    if (map.get(entry.getKey()) == entry) {
+                        entry.tick = Math.max(entry.tick, currentTick + 1);
+                        insert(entry);
+                    }
+                }
+            }
+        } finally {
+            if (useLock) {
+                lock.unlock();
+            }
+        }
+    }
+
+    // Properties
+    // -------------------------------------------------------------------------
+
+    public long getPurgePollTime() {
+        return purgePollTime;
+    }
+
+    public ScheduledExecutorService getExecutor() {
+        return executor;
+    }
+
+    // Implementation methods
+    // -------------------------------------------------------------------------
+
+    /**
+     * Moves the entries in the coarser wheels which are due within the range of the finer wheels, when the finer wheels have turned.
+     */
+    private void cascade(long tick) {
+        // cascade the coarsest wheels first so their entries can be moved down more than one wheel
+        for (int level = WHEELS - 1; level > 0; level--) {
+            if ((tick & ((1L << (WHEEL_BITS * level)) - 1)) == 0) {
+                int index = (int) ((tick >>> (WHEEL_BITS * level)) & WHEEL_MASK);
+                for (WheelEntry<K, V> entry : wheels[level][index].detachAll()) {
+                    insert(entry);
+                }
+            }
+        }
+    }
+
+    /**
+     * Computes the tick to expire the entry, and links the entry into the slot for the tick.
+     */
+    private void schedule(WheelEntry<K, V> entry) {
+        entry.unlink();
+        // expire at the first tick after the expire time
+        entry.tick = Math.max(entry.getExpireTime() / purgePollTime + 1, currentTick + 1);
+        insert(entry);
+    }
+
+    private void insert(WheelEntry<K, V> entry) {
+        long delta = entry.tick - currentTick;
+        int level = 0;
+        while (level < WHEELS - 1 && delta >= (1L << (WHEEL_BITS * (level + 1)))) {
+            level++;
+        }
+        long tick = entry.tick;
+        if (level == WHEELS - 1 && delta >= (1L << (WHEEL_BITS * WHEELS))) {
+            // too far ahead so park it in the last slot the coarsest wheel can reach, and it is moved again when cascaded
+            tick = currentTick + (1L << (WHEEL_BITS * WHEELS)) - 1;
+        }
+        int index = (int) ((tick >>> (WHEEL_BITS * level)) & WHEEL_MASK);
+        wheels[level][index].link(entry);
+    }
+
+    /**
+     * A hook to allow derivations to avoid evicting the current entry
+     */
+    protected boolean isValidForEviction(TimeoutMapEntry<K, V> entry) {
+        return true;
+    }
+
+    public boolean onEviction(K key, V value) {
+        return true;
+    }
+
+    protected void updateExpireTime(TimeoutMapEntry<K, V> entry) {
+        long now = currentTime();
+        entry.setExpireTime(entry.getTimeout() + now);
+    }
+
+    protected long currentTime() {
+        return System.currentTimeMillis();
+    }
+
+    @Override
+    protected void doStart() throws Exception {
+        if (executor.isShutdown()) {
+            throw new IllegalStateException("The ScheduledExecutorService is shutdown");
+        }
+        future = executor.scheduleWithFixedDelay(this, 0, purgePollTime, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    protected void doStop() throws Exception {
+        if (future != null) {
+            future.cancel(false);
+            future = null;
+        }
+        // clear map if we stop
+        if (useLock) {
+            lock.lock();
+        }
+        try {
+            map.clear();
+            for (WheelEntry<K, V>[] wheel : wheels) {
+                for (WheelEntry<K, V> head : wheel) {
+                    head.detachAll();
+                }
+            }
+        } finally {
+            if (useLock) {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * An entry which is linked into a slot of a wheel, where the slot itself is an empty entry which is the head of a circular list.
+     */
+    private static final class WheelEntry<K, V> extends TimeoutMapEntry<K, V> {
+        private WheelEntry<K, V> prev;
+        private WheelEntry<K, V> next;
+        private long tick;
+
+        WheelEntry(K key, V value, long timeout) {
+            super(key, value, timeout);
+        }
+
+        void link(WheelEntry<K, V> entry) {
+            if (next == null) {
+                next = this;
+                prev = this;
+            }
+            entry.prev = prev;
+            entry.next = this;
+            prev.next = entry;
+            prev = entry;
+        }
+
+        void unlink() {
+            if (next != null) {
+                prev.next = next;
+                next.prev = prev;
+                prev = null;
+                next = null;
+            }
+        }
+
+        List<WheelEntry<K, V>> detachAll() {
+            List<WheelEntry<K, V>> answer = new ArrayList<WheelEntry<K, V>>();
+            if (next == null) {
+                return answer;
+            }
+            WheelEntry<K, V> entry = next;
+            while (entry != this) {
+                WheelEntry<K, V> following = entry.next;
+                entry.prev = null;
+                entry.next = null;
+                answer.add(entry);
+                entry = following;
+            }
+            next = this;
+            prev = this;
+            return answer;
+        }
+    }
+}
@@ -0,0 +1,327 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A streaming {@link Iterator} which splits the bytes read from a {@link ReadableByteChannel} by a literal token,
+ * which is used instead of {@link java.util.Scanner} to tokenize streams, files and channels when the token is not a regular expression.
+ * <p/>
+ * The bytes are read into a {@link ByteBuffer}, which is scanned for the bytes of the token, and only
+ * the emitted parts are decoded to a String. The parts are the same as returned by a {@link java.util.Scanner} using
+ * the token as delimiter, which means empty parts in between tokens are included, but not an empty first or last part.
+ * Malformed input and unmappable characters are replaced by the replacement character of the charset, as with the scanner.
+ * <p/>
+ * The iterator can also {@link #group(int, boolean) group} a number of parts together, which returns the same
+ * parts as the {@link GroupTokenIterator}, but without decoding and encoding the individual parts.
+ * <p/>
+ * Searching for the bytes of the token requires the token is encoded to the same bytes wherever it occurs, which is
+ * the case for single byte charsets and UTF-8. Use {@link #isSupported(String, Charset)} to check whether
+ * this iterator can be used.
+ */
+public final class ByteTokenIterator implements Iterator<Object>, Closeable {
+
+    static final int DEFAULT_BUFFER_SIZE = 8 * 1024;
+    private static final String REGEX_META_CHARS = "\\^$.|?*+()[]{}";
+
+    private final ReadableByteChannel channel;
+    private final String token;
+    private final Charset charset;
+    private final byte[] delimiter;
+    private ByteBuffer buffer;
+    private byte[] bytes;
+    private final CharsetDecoder decoder;
+    // the buffer holds the bytes between start and limit, which are not yet returned
+    private int start;
+    private int position;
+    private int limit;
+    private boolean eof;
+    private boolean closed;
+    private boolean started;
+    private boolean first = true;
+    private int partStart;
+    private int groupStart;
+    private int groupEnd;
+    private int group = 1;
+    private boolean skipFirst;
+    private String next;
+
+    /**
+     * Creates a new token iterator
+     *
+     * @param channel the channel to read, which is closed when the iterator is done
+     * @param token   the literal token to split by
+     * @param charset the charset of the bytes
+     * @throws IllegalArgumentException is thrown if the token is not supported
+     */
+    public ByteTokenIterator(ReadableByteChannel channel, String token, Charset charset) {
+        this(channel, token, charset, DEFAULT_BUFFER_SIZE);
+    }
+
+    ByteTokenIterator(ReadableByteChannel channel, String token, Charset charset, int bufferSize) {
+        if (!isSupported(token, charset)) {
+            throw new IllegalArgumentException("Token must be a literal token encoded to bytes in charset: " + charset + ", was: " + token);
+        }
+        this.channel = channel;
+        this.token = token;
+        this.charset = charset;
+        this.delimiter = token.getBytes(charset);
+        // use a heap buffer as the iterator is typically short lived, and a direct buffer is expensive to allocate
+        this.buffer = ByteBuffer.allocate(Math.max(bufferSize, delimiter.length));
+        this.bytes = buffer.array();
+        this.decoder = charset.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    }
+
+    /**
+     * Whether the token can be split by this iterator, which requires the token is literal (not a regular expression),
+     * and the charset is a single byte charset or UTF-8.
+     */
+    public static boolean isSupported(String token, Charset charset) {
+        // a whitespace token such as new line is valid
+        if (token == null || token.isEmpty() || charset == null) {
+            return false;
+        }
+        for (int i = 0; i < token.length(); i++) {
+            if (REGEX_META_CHARS.indexOf(token.charAt(i)) != -1) {
+                return false;
+            }
+        }
+        return (StandardCharsets.UTF_8.equals(charset) || charset.newEncoder().maxBytesPerChar() == 1.0f)
+            && charset.newEncoder().canEncode(token);
+    }
+
+    /**
+     * Groups the given number of parts together, which returns the parts including the tokens in between.
+     * <p/>
+     * Must be called before iterating.
+     *
+     * @param group     number of parts to group together
+     * @param skipFirst whether to skip the first part
+     * @return this iterator
+     * @throws IllegalArgumentException is thrown if group is not a positive number
+     */
+    public ByteTokenIterator group(int group, boolean skipFirst) {
+        if (group <= 0) {
+            throw new IllegalArgumentException("Group must be a positive number, was: " + group);
+        }
+        if (started) {
+            throw new IllegalStateException("Cannot group when the iterator has been started");
+        }
+        this.group = group;
+        this.skipFirst = skipFirst;
+        return this;
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public Charset getCharset() {
+        return charset;
+    }
+
+    int getBufferCapacity() {
+        return buffer.capacity();
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null && !closed) {
+            try {
+                next = doNext();
+            } catch (IOException e) {
+                IOHelper.close(this);
+                throw ObjectHelper.wrapRuntimeCamelException(e);
+            }
+            if (next == null) {
+                // auto close
+                IOHelper.close(this);
+            }
+        }
+        return next != null;
+    }
+
+    @Override
+    public Object next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        String answer = next;
+        next = null;
+        return answer;
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException("Remove is not supported by this iterator");
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!closed) {
+            closed = true;
+            channel.close();
+        }
+    }
+
+    private String doNext() throws IOException {
+        if (!started) {
+            started = true;
+            if (skipFirst) {
+                nextPart();
+                start = position;
+            }
+        }
+
+        int count = 0;
+        while (count < group) {
+            int end = nextPart();
+            if (end == -1) {
+                break;
+            }
+            if (count == 0) {
+                groupStart = partStart;
+            }
+            groupEnd = end;
+            count++;
+        }
+        if (count == 0) {
+            return null;
+        }
+        String answer = decode(groupStart, groupEnd);
+        start = position;
+        return answer;
+    }
+
+    /**
+     * Finds the next part, which is kept in the buffer until the group is complete.
+     *
+     * @return the end of the part, where {@link #partStart} is the start of the part, or <tt>-1</tt> if no more parts
+     */
+    private int nextPart() throws IOException {
+        while (true) {
+            int index = indexOfDelimiter(position);
+            if (index == -1 && !eof) {
+                // read more bytes which may compact the buffer, and search again
+                read();
+                continue;
+            }
+            int begin = position;
+            int end;
+            if (index != -1) {
+                end = index;
+                position = index + delimiter.length;
+            } else if (begin < limit) {
+                end = limit;
+                position = limit;
+            } else {
+                // no more parts, as the last part is empty
+                return -1;
+            }
+            if (first) {
+                first = false;
+                if (begin == end) {
+                    // the first part is skipped if empty
+                    start = position;
+                    continue;
+                }
+            }
+            partStart = begin;
+            return end;
+        }
+    }
+
+    /**
+     * Searches the buffer from the given index for the delimiter.
+     *
+     * @return the index of the delimiter, or <tt>-1</tt> if not found
+     */
+    private int indexOfDelimiter(int from) throws IOException {
+        int last = limit - delimiter.length;
+        byte first = delimiter[0];
+        for (int i = from; i <= last; i++) {
+            if (bytes[i] == first && matches(i)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private boolean matches(int index) {
+        for (int j = 1; j < delimiter.length; j++) {
+            if (bytes[index + j] != delimiter[j]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void read() throws IOException {
+        if (start > 0) {
+            // discard the bytes already returned
+            buffer.limit(limit).position(start);
+            buffer.compact();
+            position -= start;
+            partStart -= start;
+            groupStart -= start;
+            groupEnd -= start;
+            limit -= start;
+            start = 0;
+        } else if (limit == buffer.capacity()) {
+            // the part is larger than the buffer
+            ByteBuffer larger = ByteBuffer.allocate(buffer.capacity() * 2);
+            System.arraycopy(bytes, 0, larger.array(), 0, limit);
+            buffer = larger;
+            bytes = larger.array();
+        }
+
+        buffer.limit(buffer.capacity()).position(limit);
+        int n;
+        do {
+            n = channel.read(buffer);
+        } while (n == 0);
+        if (n == -1) {
+            eof = true;
+        } else {
+            limit = buffer.position();
+        }
+    }
+
+    private String decode(int begin, int end) throws IOException {
+        buffer.limit(end).position(begin);
+        try {
+            // malformed input is replaced the same way as the scanner
+            return decoder.decode(buffer).toString();
+        } finally {
+            // the buffer is scanned using absolute positions up to its capacity
+            buffer.limit(buffer.capacity());
+        }
+    }
+
+}
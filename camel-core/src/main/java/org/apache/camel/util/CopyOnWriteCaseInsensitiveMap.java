@@ -0,0 +1,431 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.util;
+
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * A map that uses case insensitive keys, but preserves the original key cases, like {@link CaseInsensitiveMap}.
+ * <p/>
+ * The entries are stored in insertion order in plain arrays together with the case insensitive hash of their keys,
+ * and are looked up using an open addressing hash table of the array positions, so lookup is O(1) and there is
+ * no object per entry.
+ * <p/>
+ * Copying a map using the {@link #CopyOnWriteCaseInsensitiveMap(Map)} constructor is O(1) as the copy shares the
+ * entries with the existing map, until one of the maps is changed, which then copies the entries first.
+ * This makes copying the headers cheap when exchanges are copied, for example in the multicast, splitter and wire tap EIPs.
+ * <p/>
+ * This map is <b>not</b> designed to be thread safe as concurrent access to it is not supposed to be performed
+ * by the Camel routing engine. However the shared entries are never changed, so a map and its copies can be used
+ * by different threads.
+ *
+ * @see CaseInsensitiveMap
+ */
+public class CopyOnWriteCaseInsensitiveMap extends AbstractMap<String, Object> implements Serializable {
+
+    private static final long serialVersionUID = 6413498372654124811L;
+    private static final int INITIAL_CAPACITY = 8;
+
+    private Entries entries;
+    private transient int modCount;
+    private transient Set<Map.Entry<String, Object>> entrySet;
+
+    public CopyOnWriteCaseInsensitiveMap() {
+        entries = new Entries(INITIAL_CAPACITY);
+    }
+
+    public CopyOnWriteCaseInsensitiveMap(Map<? extends String, ?> map) {
+        if (map instanceof CopyOnWriteCaseInsensitiveMap) {
+            // share the entries until one of the maps is changed
+            entries = ((CopyOnWriteCaseInsensitiveMap) map).entries;
+            entries.shared = true;
+        } else {
+            entries = new Entries(Math.max(INITIAL_CAPACITY, map.size()));
+            putAll(map);
+        }
+    }
+
+    @Override
+    public int size() {
+        return entries.size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return entries.size == 0;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key instanceof String && entries.indexOf((String) key, hash((String) key)) >= 0;
+    }
+
+    @Override
+    public Object get(Object key) {
+        if (!(key instanceof String)) {
+            return null;
+        }
+        Entries e = entries;
+        int pos = e.indexOf((String) key, hash((String) key));
+        return pos >= 0 ? e.values[pos] : null;
+    }
+
+    @Override
+    public Object put(String key, Object value) {
+        if (key == null) {
+            throw new NullPointerException("key");
+        }
+        int hash = hash(key);
+        Entries e = entries;
+        int pos = e.indexOf(key, hash);
+        if (pos >= 0) {
+            e = writable();
+            Object answer = e.values[pos];
+            // keep the case of the existing key, as the case insensitive tree map does
+            e.values[pos] = value;
+            return answer;
+        }
+        e = writable();
+        if (e.count == e.keys.length) {
+            e = resize(e);
+        }
+        e.add(key, hash, value);
+        modCount++;
+        return null;
+    }
+
+    @Override
+    public Object remove(Object key) {
+        if (!(key instanceof String)) {
+            return null;
+        }
+        int pos = entries.indexOf((String) key, hash((String) key));
+        if (pos < 0) {
+            return null;
+        }
+        Object answer = entries.values[pos];
+        removeAt(pos);
+        return answer;
+    }
+
+    @Override
+    public void clear() {
+        if (entries.size > 0 || entries.count > 0) {
+            entries = new Entries(INITIAL_CAPACITY);
+            modCount++;
+        }
+    }
+
+    @Override
+    public Set<Map.Entry<String, Object>> entrySet() {
+        if (entrySet == null) {
+            entrySet = new EntrySet();
+        }
+        return entrySet;
+    }
+
+    private void removeAt(int pos) {
+        writable().remove(pos);
+        modCount++;
+    }
+
+    /**
+     * Gets the entries for changing, which copies the entries first if they are shared with another map.
+     */
+    private Entries writable() {
+        Entries e = entries;
+        if (e.shared) {
+            e = e.copy(e.keys.length);
+            entries = e;
+        }
+        return e;
+    }
+
+    private Entries resize(Entries e) {
+        // grow unless there are many removed entries, then its enough to compact them
+        int capacity = e.size * 2 > e.keys.length ? e.keys.length * 2 : e.keys.length;
+        Entries answer = e.compact(capacity);
+        entries = answer;
+        return answer;
+    }
+
+    /**
+     * The case insensitive hash of the key, which uses the same case folding as {@link String#equalsIgnoreCase(String)}.
+     */
+    static int hash(String key) {
+        int h = 0;
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            if (c < 128) {
+                // fast path for ascii characters
+                if (c >= 'A' && c <= 'Z') {
+                    c += 'a' - 'A';
+                }
+            } else {
+                c = Character.toLowerCase(Character.toUpperCase(c));
+            }
+            h = 31 * h + c;
+        }
+        // spread the bits as the hash table uses the lower bits
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * The entries of the map, which can be shared by several maps, and must then not be changed.
+     */
+    private static final class Entries implements Serializable {
+
+        private static final long serialVersionUID = -2174532016423151212L;
+
+        // the entries in insertion order, where removed entries have a null key
+        private final String[] keys;
+        private final Object[] values;
+        private final int[] hashes;
+        // open addressing hash table (linear probing) of the entry positions plus one, where 0 is an empty slot
+        private final int[] table;
+        private int count;
+        private int size;
+        private volatile boolean shared;
+
+        private Entries(int capacity) {
+            keys = new String[capacity];
+            values = new Object[capacity];
+            hashes = new int[capacity];
+            // keep the load factor of the hash table at or below 0.5
+            table = new int[Integer.highestOneBit(capacity * 2 - 1) << 1];
+        }
+
+        private int indexOf(String key, int hash) {
+            int mask = table.length - 1;
+            for (int slot = hash & mask; table[slot] != 0; slot = (slot + 1) & mask) {
+                int pos = table[slot] - 1;
+                if (hashes[pos] == hash) {
+                    String existing = keys[pos];
+                    if (existing == key || key.equalsIgnoreCase(existing)) {
+                        return pos;
+                    }
+                }
+            }
+            return -1;
+        }
+
+        private void add(String key, int hash, Object value) {
+            int pos = count++;
+            keys[pos] = key;
+            values[pos] = value;
+            hashes[pos] = hash;
+            size++;
+            insert(pos);
+        }
+
+        private void insert(int pos) {
+            int mask = table.length - 1;
+            int slot = hashes[pos] & mask;
+            while (table[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = pos + 1;
+        }
+
+        private void remove(int pos) {
+            int mask = table.length - 1;
+            int slot = hashes[pos] & mask;
+            while (table[slot] != pos + 1) {
+                slot = (slot + 1) & mask;
+            }
+            // move back the following positions in the probe sequence to fill the gap
+            int gap = slot;
+            int next = slot;
+            while (true) {
+                next = (next + 1) & mask;
+                int value = table[next];
+                if (value == 0) {
+                    break;
+                }
+                int home = hashes[value - 1] & mask;
+                boolean between = gap <= next ? gap < home && home <= next : gap < home || home <= next;
+                if (!between) {
+                    table[gap] = value;
+                    gap = next;
+                }
+            }
+            table[gap] = 0;
+
+            keys[pos] = null;
+            values[pos] = null;
+            size--;
+            if (size == 0) {
+                // reuse the arrays from the start
+                count = 0;
+            }
+        }
+
+        /**
+         * Copies the entries keeping the positions of the entries.
+         */
+        private Entries copy(int capacity) {
+            Entries answer = new Entries(capacity);
+            System.arraycopy(keys, 0, answer.keys, 0, count);
+            System.arraycopy(values, 0, answer.values, 0, count);
+            System.arraycopy(hashes, 0, answer.hashes, 0, count);
+            if (answer.table.length == table.length) {
+                System.arraycopy(table, 0, answer.table, 0, table.length);
+            } else {
+                for (int pos = 0; pos < count; pos++) {
+                    if (keys[pos] != null) {
+                        answer.insert(pos);
+                    }
+                }
+            }
+            answer.count = count;
+            answer.size = size;
+            return answer;
+        }
+
+        /**
+         * Copies the entries leaving out the removed entries.
+         */
+        private Entries compact(int capacity) {
+            Entries answer = new Entries(capacity);
+            for (int pos = 0; pos < count; pos++) {
+                if (keys[pos] != null) {
+                    answer.add(keys[pos], hashes[pos], values[pos]);
+                }
+            }
+            return answer;
+        }
+
+        @Override
+        public String toString() {
+            return Arrays.toString(Arrays.copyOf(keys, count));
+        }
+    }
+
+    private final class EntrySet extends AbstractSet<Map.Entry<String, Object>> {
+
+        @Override
+        public Iterator<Map.Entry<String, Object>> iterator() {
+            return new EntryIterator();
+        }
+
+        @Override
+        public int size() {
+            return entries.size;
+        }
+
+        @Override
+        public void clear() {
+            CopyOnWriteCaseInsensitiveMap.this.clear();
+        }
+    }
+
+    private final class EntryIterator implements Iterator<Map.Entry<String, Object>> {
+
+        private int next;
+        private int last = -1;
+        private int expectedModCount = modCount;
+
+        @Override
+        public boolean hasNext() {
+            Entries e = entries;
+            while (next < e.count && e.keys[next] == null) {
+                next++;
+            }
+            return next < e.count;
+        }
+
+        @Override
+        public Map.Entry<String, Object> next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            last = next++;
+            return new Entry(last);
+        }
+
+        @Override
+        public void remove() {
+            if (last < 0) {
+                throw new IllegalStateException();
+            }
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            removeAt(last);
+            last = -1;
+            expectedModCount = modCount;
+        }
+    }
+
+    private final class Entry implements Map.Entry<String, Object> {
+
+        private final int pos;
+        private final String key;
+
+        private Entry(int pos) {
+            this.pos = pos;
+            this.key = entries.keys[pos];
+        }
+
+        @Override
+        public String getKey() {
+            return key;
+        }
+
+        @Override
+        public Object getValue() {
+            Entries e = entries;
+            return e.keys[pos] == key ? e.values[pos] : CopyOnWriteCaseInsensitiveMap.this.get(key);
+        }
+
+        @Override
+        public Object setValue(Object value) {
+            return put(key, value);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Map.Entry)) {
+                return false;
+            }
+            Map.Entry<?, ?> other = (Map.Entry<?, ?>) o;
+            return key.equals(other.getKey()) && ObjectHelper.equal(getValue(), other.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            Object value = getValue();
+            return key.hashCode() ^ (value == null ? 0 : value.hashCode());
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + getValue();
+        }
+    }
+}
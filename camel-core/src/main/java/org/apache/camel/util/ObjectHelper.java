@@ -16,8 +16,10 @@
  */
 package org.apache.camel.util;
 
+import java.io.ByteArrayInputStream;
 import java.io.Closeable;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
@@ -29,8 +31,11 @@ import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.net.URL;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.channels.ReadableByteChannel;
 import java.nio.charset.Charset;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -1987,6 +1992,71 @@ public final class ObjectHelper {
         return scanner;
     }
 
+    /**
+     * Creates a {@link ByteTokenIterator} for tokenizing the given value by the literal token,
+     * which is faster than using a {@link Scanner} for streams, files and channels.
+     *
+     * @param exchange  the current exchange
+     * @param value     the value, typically the message IN body
+     * @param token     the token
+     * @return the iterator, or <tt>null</tt> if the value or token is not supported, and a {@link Scanner} should be used instead
+     */
+    public static ByteTokenIterator getByteTokenIterator(Exchange exchange, Object value, String token) {
+        if (value instanceof WrappedFile) {
+            WrappedFile<?> gf = (WrappedFile<?>) value;
+            Object body = gf.getBody();
+            if (body != null) {
+                // we have loaded the file content into the body so use that
+                value = body;
+            } else {
+                // generic file is just a wrapper for the real file so call again with the real file
+                return getByteTokenIterator(exchange, gf.getFile(), token);
+            }
+        }
+        if (!(value instanceof InputStream || value instanceof File || value instanceof ReadableByteChannel)) {
+            return null;
+        }
+
+        // use same charset as the scanner
+        String name = exchange.getProperty(Exchange.CHARSET_NAME, String.class);
+        Charset charset = name != null ? Charset.forName(name) : Charset.defaultCharset();
+        if (!ByteTokenIterator.isSupported(token, charset)) {
+            return null;
+        }
+
+        ReadableByteChannel channel;
+        // size the buffer to the input if its smaller, so splitting small messages does not allocate a large buffer
+        long size = -1;
+        try {
+            if (value instanceof FileInputStream) {
+                FileChannel fileChannel = ((FileInputStream) value).getChannel();
+                size = fileChannel.size() - fileChannel.position();
+                channel = fileChannel;
+            } else if (value instanceof InputStream) {
+                // only a byte array stream knows the remaining bytes, for other streams its only an estimate
+                if (value instanceof ByteArrayInputStream) {
+                    size = ((InputStream) value).available();
+                }
+                channel = Channels.newChannel((InputStream) value);
+            } else if (value instanceof File) {
+                FileChannel fileChannel = FileChannel.open(((File) value).toPath(), StandardOpenOption.READ);
+                size = fileChannel.size();
+                channel = fileChannel;
+            } else {
+                channel = (ReadableByteChannel) value;
+            }
+        } catch (IOException e) {
+            throw new RuntimeCamelException(e);
+        }
+
+        int bufferSize = ByteTokenIterator.DEFAULT_BUFFER_SIZE;
+        if (size >= 0 && size < bufferSize) {
+            // plus one so the end of the input is detected without growing the buffer
+            bufferSize = (int) size + 1;
+        }
+        return new ByteTokenIterator(channel, token, charset, bufferSize);
+    }
+
     public static String getIdentityHashCode(Object object) {
         return "0x" + Integer.toHexString(System.identityHashCode(object));
     }
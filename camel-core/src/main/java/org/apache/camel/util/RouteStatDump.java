@@ -68,6 +68,15 @@ public final class RouteStatDump {
     @XmlAttribute
     private Long meanProcessingTime;
 
+    @XmlAttribute
+    private Long p50ProcessingTime;
+
+    @XmlAttribute
+    private Long p99ProcessingTime;
+
+    @XmlAttribute
+    private Long p999ProcessingTime;
+
     @XmlAttribute
     private Long exchangesInflight;
 
@@ -206,6 +215,30 @@ public final class RouteStatDump {
         this.meanProcessingTime = meanProcessingTime;
     }
 
+    public Long getP50ProcessingTime() {
+        return p50ProcessingTime;
+    }
+
+    public void setP50ProcessingTime(Long p50ProcessingTime) {
+        this.p50ProcessingTime = p50ProcessingTime;
+    }
+
+    public Long getP99ProcessingTime() {
+        return p99ProcessingTime;
+    }
+
+    public void setP99ProcessingTime(Long p99ProcessingTime) {
+        this.p99ProcessingTime = p99ProcessingTime;
+    }
+
+    public Long getP999ProcessingTime() {
+        return p999ProcessingTime;
+    }
+
+    public void setP999ProcessingTime(Long p999ProcessingTime) {
+        this.p999ProcessingTime = p999ProcessingTime;
+    }
+
     public Long getSelfProcessingTime() {
         return selfProcessingTime;
     }
@@ -0,0 +1,326 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.util.concurrent;
+
+import java.util.AbstractQueue;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A bounded multi producer multi consumer {@link BlockingQueue} backed by an array, which does not use locks.
+ * <p/>
+ * Each slot in the array has a sequence number which tells whether the slot is ready to be written by a producer or
+ * read by a consumer (the sequence is even when the slot is free and odd when published, so the two can never be
+ * mistaken for each other, not even with a capacity of one), so producers and consumers only contend on a compare and set of the tail and head positions,
+ * instead of a lock shared by all threads as in {@link java.util.concurrent.LinkedBlockingQueue} and
+ * {@link java.util.concurrent.ArrayBlockingQueue}. Only threads which have to wait because the queue is empty or full
+ * are parked, and they are unparked by the threads which offers or polls the queue.
+ * <p/>
+ * Removing an element from the middle of the queue marks its slot as removed, and the slot is freed when the consumers
+ * reach it, so until then the slot counts in the {@link #size()} of the queue. The iterator is weakly consistent and
+ * does not support removing elements.
+ */
+public class MpmcArrayBlockingQueue<E> extends AbstractQueue<E> implements BlockingQueue<E> {
+
+    // marks the slot of an element which has been removed from the middle of the queue
+    private static final Object REMOVED = new Object();
+
+    private final int capacity;
+    private final AtomicLongArray sequences;
+    private final AtomicReferenceArray<Object> elements;
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+    private final Queue<Thread> waitingConsumers = new ConcurrentLinkedQueue<Thread>();
+    private final Queue<Thread> waitingProducers = new ConcurrentLinkedQueue<Thread>();
+
+    public MpmcArrayBlockingQueue(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be a positive number, was: " + capacity);
+        }
+        this.capacity = capacity;
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, 2L * i);
+        }
+        this.elements = new AtomicReferenceArray<Object>(capacity);
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    @Override
+    public boolean offer(E e) {
+        if (e == null) {
+            throw new NullPointerException();
+        }
+        long pos = tail.get();
+        while (true) {
+            int index = index(pos);
+            long diff = sequences.get(index) - 2 * pos;
+            if (diff == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    elements.lazySet(index, e);
+                    // publish the element to the consumers
+                    sequences.set(index, published(pos));
+                    signal(waitingConsumers);
+                    return true;
+                }
+            } else if (diff < 0) {
+                // the slot has not been read yet since the last round so the queue is full
+                return false;
+            }
+            pos = tail.get();
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E poll() {
+        long pos = head.get();
+        while (true) {
+            int index = index(pos);
+            long diff = sequences.get(index) - published(pos);
+            if (diff == 0) {
+                if (head.compareAndSet(pos, pos + 1)) {
+                    Object e = elements.getAndSet(index, null);
+                    // free the slot for the producers in the next round
+                    sequences.set(index, 2 * (pos + capacity));
+                    signal(waitingProducers);
+                    if (e != REMOVED) {
+                        return (E) e;
+                    }
+                }
+            } else if (diff < 0) {
+                // the slot has not been published yet so the queue is empty
+                return null;
+            }
+            pos = head.get();
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E peek() {
+        long end = tail.get();
+        for (long pos = head.get(); pos < end; pos++) {
+            int index = index(pos);
+            Object e = elements.get(index);
+            if (e != null && e != REMOVED && sequences.get(index) == published(pos)) {
+                return (E) e;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void put(E e) throws InterruptedException {
+        offer(e, Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public boolean offer(E e, long timeout, TimeUnit unit) throws InterruptedException {
+        if (offer(e)) {
+            return true;
+        }
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        Thread current = Thread.currentThread();
+        boolean added = false;
+        waitingProducers.add(current);
+        try {
+            while (true) {
+                // offer again after we are waiting so we do not miss a signal from a consumer
+                added = offer(e);
+                if (added) {
+                    return true;
+                } else if (!park(deadline)) {
+                    return false;
+                }
+                rejoin(waitingProducers, current);
+            }
+        } finally {
+            leave(waitingProducers, current, added && remainingCapacity() == 0);
+        }
+    }
+
+    @Override
+    public E take() throws InterruptedException {
+        return poll(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public E poll(long timeout, TimeUnit unit) throws InterruptedException {
+        E e = poll();
+        if (e != null) {
+            return e;
+        }
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        Thread current = Thread.currentThread();
+        waitingConsumers.add(current);
+        try {
+            while (true) {
+                // poll again after we are waiting so we do not miss a signal from a producer
+                e = poll();
+                if (e != null || !park(deadline)) {
+                    return e;
+                }
+                rejoin(waitingConsumers, current);
+            }
+        } finally {
+            leave(waitingConsumers, current, e != null && isEmpty());
+        }
+    }
+
+    @Override
+    public int remainingCapacity() {
+        return capacity - size();
+    }
+
+    @Override
+    public int drainTo(Collection<? super E> c) {
+        return drainTo(c, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public int drainTo(Collection<? super E> c, int maxElements) {
+        if (c == null) {
+            throw new NullPointerException();
+        }
+        if (c == this) {
+            throw new IllegalArgumentException("Cannot drain to itself");
+        }
+        int count = 0;
+        while (count < maxElements) {
+            E e = poll();
+            if (e == null) {
+                break;
+            }
+            c.add(e);
+            count++;
+        }
+        return count;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        if (o == null) {
+            return false;
+        }
+        long end = tail.get();
+        for (long pos = head.get(); pos < end; pos++) {
+            int index = index(pos);
+            Object e = elements.get(index);
+            // the consumer takes the element with get and set so only one of us can win the element
+            if (e != null && e != REMOVED && sequences.get(index) == published(pos) && o.equals(e)
+                && elements.compareAndSet(index, e, REMOVED)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Iterator<E> iterator() {
+        List<E> answer = new ArrayList<E>();
+        long end = tail.get();
+        for (long pos = head.get(); pos < end; pos++) {
+            int index = index(pos);
+            Object e = elements.get(index);
+            if (e != null && e != REMOVED && sequences.get(index) == published(pos)) {
+                answer.add((E) e);
+            }
+        }
+        return Collections.unmodifiableList(answer).iterator();
+    }
+
+    @Override
+    public int size() {
+        // read the head first so the size is never negative
+        long first = head.get();
+        long size = tail.get() - first;
+        return (int) Math.max(0, Math.min(capacity, size));
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    private int index(long pos) {
+        return (int) (pos % capacity);
+    }
+
+    /**
+     * The sequence of the slot when the element at the given position has been published.
+     */
+    private static long published(long pos) {
+        return 2 * pos + 1;
+    }
+
+    /**
+     * Parks the current thread until signalled or the deadline.
+     *
+     * @return <tt>false</tt> if the deadline has already passed
+     */
+    private boolean park(long deadline) throws InterruptedException {
+        long remaining = deadline - System.nanoTime();
+        if (remaining <= 0) {
+            return false;
+        }
+        LockSupport.parkNanos(this, remaining);
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+        return true;
+    }
+
+    private static void signal(Queue<Thread> waiting) {
+        if (!waiting.isEmpty()) {
+            Thread thread = waiting.poll();
+            if (thread != null) {
+                LockSupport.unpark(thread);
+            }
+        }
+    }
+
+    private static void rejoin(Queue<Thread> waiting, Thread current) {
+        // a signal removes us from the waiting threads, so we must wait again before retrying
+        if (!waiting.contains(current)) {
+            waiting.add(current);
+        }
+    }
+
+    private static void leave(Queue<Thread> waiting, Thread current, boolean done) {
+        // if we were signalled and give up (or there is more for the other waiting threads to do)
+        // then pass the signal on to another waiting thread
+        if (!waiting.remove(current) && !done) {
+            signal(waiting);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.bean;
+
+import org.apache.camel.TestSupport;
+
+/**
+ * @version 
+ */
+public class BoundMethodInvokerTest extends TestSupport {
+
+    public void testInvoke() throws Throwable {
+        BoundMethodInvoker invoker = BoundMethodInvoker.bind(MyBean.class.getMethod("hello", String.class, int.class));
+        assertNotNull(invoker);
+
+        Object[] args = new Object[]{"World", 2};
+        assertTrue(invoker.canInvoke(args));
+        assertEquals("Hello World 2", invoker.invoke(new MyBean(), args));
+    }
+
+    public void testInvokeVoidAndStatic() throws Throwable {
+        MyBean bean = new MyBean();
+        BoundMethodInvoker invoker = BoundMethodInvoker.bind(MyBean.class.getMethod("touch"));
+        assertTrue(invoker.canInvoke(null));
+        assertNull(invoker.invoke(bean, null));
+        assertTrue(bean.touched);
+
+        invoker = BoundMethodInvoker.bind(MyBean.class.getMethod("upper", String.class));
+        assertEquals("CAMEL", invoker.invoke(null, new Object[]{"camel"}));
+    }
+
+    public void testCannotInvoke() throws Exception {
+        BoundMethodInvoker invoker = BoundMethodInvoker.bind(MyBean.class.getMethod("hello", String.class, int.class));
+
+        assertFalse(invoker.canInvoke(null));
+        assertFalse(invoker.canInvoke(new Object[]{"World"}));
+        assertFalse(invoker.canInvoke(new Object[]{"World", null}));
+        assertFalse(invoker.canInvoke(new Object[]{"World", "2"}));
+        assertTrue(invoker.canInvoke(new Object[]{null, 2}));
+    }
+
+    public void testExceptionThrownAsIs() throws Exception {
+        BoundMethodInvoker invoker = BoundMethodInvoker.bind(MyBean.class.getMethod("fail"));
+        try {
+            invoker.invoke(new MyBean(), null);
+            fail("Should have thrown exception");
+        } catch (Throwable e) {
+            assertIsInstanceOf(IllegalStateException.class, e);
+            assertEquals("Forced", e.getMessage());
+        }
+    }
+
+    public static class MyBean {
+        private boolean touched;
+
+        public String hello(String name, int times) {
+            return "Hello " + name + " " + times;
+        }
+
+        public void touch() {
+            touched = true;
+        }
+
+        public void fail() {
+            throw new IllegalStateException("Forced");
+        }
+
+        public static String upper(String s) {
+            return s.toUpperCase();
+        }
+    }
+}
@@ -0,0 +1,181 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.file;
+
+import java.io.File;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.Exchange;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+
+/**
+ * Unit test for the useWatchService=true option.
+ */
+public class FileConsumerUseWatchServiceTest extends ContextTestSupport {
+
+    private final AtomicInteger attempts = new AtomicInteger();
+
+    @Override
+    protected void setUp() throws Exception {
+        deleteDirectory("target/watch");
+        super.setUp();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        super.tearDown();
+        deleteDirectory("target/watch");
+    }
+
+    @Override
+    public boolean isUseRouteBuilder() {
+        return false;
+    }
+
+    public void testExistingAndNewFiles() throws Exception {
+        template.sendBodyAndHeader("file://target/watch/in", "Hello World", Exchange.FILE_NAME, "hello.txt");
+
+        context.addRoutes(new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from("file://target/watch/in?useWatchService=true&recursive=true&initialDelay=0&delay=10")
+                    .convertBodyTo(String.class).to("mock:result");
+            }
+        });
+        context.start();
+
+        MockEndpoint mock = getMockEndpoint("mock:result");
+        mock.expectedBodiesReceived("Hello World");
+        assertMockEndpointsSatisfied();
+
+        // new files and files in new sub directories
+        mock.reset();
+        mock.expectedBodiesReceivedInAnyOrder("Bye World", "Hi World");
+        mock.expectedFileExists("target/watch/in/.camel/bye.txt");
+        mock.expectedFileExists("target/watch/in/sub/.camel/hi.txt");
+
+        template.sendBodyAndHeader("file://target/watch/in", "Bye World", Exchange.FILE_NAME, "bye.txt");
+        template.sendBodyAndHeader("file://target/watch/in", "Hi World", Exchange.FILE_NAME, "sub/hi.txt");
+
+        assertMockEndpointsSatisfied();
+    }
+
+    public void testRetryFailedFile() throws Exception {
+        context.addRoutes(new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from("file://target/watch/retry?useWatchService=true&initialDelay=0&delay=10")
+                    .process(exchange -> {
+                        if (attempts.incrementAndGet() == 1) {
+                            throw new IllegalArgumentException("Forced");
+                        }
+                    })
+                    .convertBodyTo(String.class).to("mock:result");
+            }
+        });
+        context.start();
+
+        MockEndpoint mock = getMockEndpoint("mock:result");
+        mock.expectedBodiesReceived("Hello World");
+
+        // the file is not changed after the failure, but must be polled again
+        template.sendBodyAndHeader("file://target/watch/retry", "Hello World", Exchange.FILE_NAME, "hello.txt");
+
+        assertMockEndpointsSatisfied();
+        assertEquals(2, attempts.get());
+    }
+
+    public void testMaxMessagesPerPoll() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            template.sendBodyAndHeader("file://target/watch/max", "Message " + i, Exchange.FILE_NAME, "file" + i + ".txt");
+        }
+
+        context.addRoutes(new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                // the files which are cut by max messages per poll are not changed again, but must be polled later
+                from("file://target/watch/max?useWatchService=true&noop=true&maxMessagesPerPoll=2&eagerMaxMessagesPerPoll=false"
+                    + "&initialDelay=0&delay=10")
+                    .convertBodyTo(String.class).to("mock:result");
+            }
+        });
+        context.start();
+
+        MockEndpoint mock = getMockEndpoint("mock:result");
+        mock.expectedBodiesReceivedInAnyOrder("Message 0", "Message 1", "Message 2", "Message 3", "Message 4");
+
+        assertMockEndpointsSatisfied();
+
+        // and each file is only processed once
+        mock.reset();
+        mock.expectedMessageCount(0);
+        Thread.sleep(100);
+        assertMockEndpointsSatisfied();
+    }
+
+    public void testEagerMaxMessagesPerPoll() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            template.sendBodyAndHeader("file://target/watch/eager", "Message " + i, Exchange.FILE_NAME, "file" + i + ".txt");
+        }
+
+        context.addRoutes(new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from("file://target/watch/eager?useWatchService=true&noop=true&maxMessagesPerPoll=2&initialDelay=0&delay=10")
+                    .convertBodyTo(String.class).to("mock:result");
+            }
+        });
+        context.start();
+
+        MockEndpoint mock = getMockEndpoint("mock:result");
+        mock.expectedBodiesReceivedInAnyOrder("Message 0", "Message 1", "Message 2", "Message 3", "Message 4");
+
+        assertMockEndpointsSatisfied();
+    }
+
+    public void testDoneFile() throws Exception {
+        context.addRoutes(new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from("file://target/watch/done?useWatchService=true&doneFileName=done&initialDelay=0&delay=10")
+                    .convertBodyTo(String.class).to("mock:result");
+            }
+        });
+        context.start();
+
+        MockEndpoint mock = getMockEndpoint("mock:result");
+        mock.expectedMessageCount(0);
+
+        template.sendBodyAndHeader("file://target/watch/done", "Hello World", Exchange.FILE_NAME, "hello.txt");
+
+        // not consumed as the done file does not exist
+        Thread.sleep(100);
+        assertMockEndpointsSatisfied();
+
+        mock.reset();
+        mock.expectedBodiesReceived("Hello World");
+
+        template.sendBodyAndHeader("file://target/watch/done", "", Exchange.FILE_NAME, "done");
+
+        assertMockEndpointsSatisfied();
+        oneExchangeDone.matchesMockWaitTime();
+        assertFalse("Done file should be deleted", new File("target/watch/done/done").exists());
+    }
+
+}
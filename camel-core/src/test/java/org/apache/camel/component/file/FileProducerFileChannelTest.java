@@ -0,0 +1,92 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.file;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.Exchange;
+
+/**
+ * Unit test for writing file, file channel and file stream bodies, which are transferred using file channels.
+ */
+public class FileProducerFileChannelTest extends ContextTestSupport {
+
+    private File source;
+
+    @Override
+    protected void setUp() throws Exception {
+        deleteDirectory("target/filechannel");
+        super.setUp();
+        template.sendBodyAndHeader("file://target/filechannel/in", "Hello World", Exchange.FILE_NAME, "hello.txt");
+        source = new File("target/filechannel/in/hello.txt");
+    }
+
+    public void testFileBody() throws Exception {
+        template.sendBodyAndHeader("file://target/filechannel/out", source, Exchange.FILE_NAME, "hello.txt");
+        assertFileContent("target/filechannel/out/hello.txt", "Hello World");
+
+        // override existing file
+        template.sendBodyAndHeader("file://target/filechannel/out", source, Exchange.FILE_NAME, "hello.txt");
+        assertFileContent("target/filechannel/out/hello.txt", "Hello World");
+    }
+
+    public void testFileBodyAppend() throws Exception {
+        template.sendBodyAndHeader("file://target/filechannel/out?fileExist=Append", source, Exchange.FILE_NAME, "hello.txt");
+        template.sendBodyAndHeader("file://target/filechannel/out?fileExist=Append", source, Exchange.FILE_NAME, "hello.txt");
+        assertFileContent("target/filechannel/out/hello.txt", "Hello WorldHello World");
+    }
+
+    public void testFileBodyTempFileName() throws Exception {
+        template.sendBodyAndHeader("file://target/filechannel/out?tempFileName=${file:name}.tmp", source, Exchange.FILE_NAME, "hello.txt");
+        assertFileContent("target/filechannel/out/hello.txt", "Hello World");
+        assertFileNotExists("target/filechannel/out/hello.txt.tmp");
+    }
+
+    public void testFileChannelBody() throws Exception {
+        try (FileChannel channel = FileChannel.open(source.toPath(), StandardOpenOption.READ)) {
+            // only the remaining content from the position of the channel is written
+            channel.position(6);
+            template.sendBodyAndHeader("file://target/filechannel/out", channel, Exchange.FILE_NAME, "world.txt");
+            assertEquals(11, channel.position());
+        }
+        assertFileContent("target/filechannel/out/world.txt", "World");
+    }
+
+    public void testFileInputStreamBody() throws Exception {
+        FileInputStream in = new FileInputStream(source);
+        template.sendBodyAndHeader("file://target/filechannel/out", in, Exchange.FILE_NAME, "hello.txt");
+        assertFileContent("target/filechannel/out/hello.txt", "Hello World");
+
+        // the stream is closed after it has been written
+        try {
+            in.read();
+            fail("Should have thrown an exception");
+        } catch (Exception e) {
+            // expected
+        }
+    }
+
+    private void assertFileContent(String name, String expected) {
+        assertFileExists(name);
+        assertEquals(expected, context.getTypeConverter().convertTo(String.class, new File(name)));
+    }
+
+}
@@ -0,0 +1,101 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.seda;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.Exchange;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.apache.camel.impl.SimpleRegistry;
+import org.apache.camel.util.concurrent.MpmcArrayBlockingQueue;
+
+/**
+ * @version
+ */
+public class SedaPollBatchSizeTest extends ContextTestSupport {
+
+    private static final String URI = "seda:start?queueFactory=#mpmcQueueFactory&pollBatchSize=100&concurrentConsumers=2&blockWhenFull=true";
+
+    @Override
+    protected CamelContext createCamelContext() throws Exception {
+        SimpleRegistry registry = new SimpleRegistry();
+        registry.put("mpmcQueueFactory", new MpmcArrayBlockingQueueFactory<Exchange>());
+        return new DefaultCamelContext(registry);
+    }
+
+    public void testPollBatchSize() throws Exception {
+        MockEndpoint mock = getMockEndpoint("mock:result");
+        mock.expectedMessageCount(1000);
+        mock.expectsNoDuplicates(body());
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int t = 0; t < 4; t++) {
+            final int offset = t * 250;
+            executor.submit(() -> {
+                for (int i = 0; i < 250; i++) {
+                    template.sendBody("seda:start", offset + i);
+                }
+            });
+        }
+
+        assertMockEndpointsSatisfied();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+
+        // the exchanges from the producer are routed without a copy, and the marker is removed
+        Exchange exchange = mock.getReceivedExchanges().get(0);
+        assertNull(exchange.getProperty(SedaConsumer.HANDOVER));
+        assertEquals("seda", exchange.getFromRouteId());
+        assertSame(context.getRoute("seda").getEndpoint(), exchange.getFromEndpoint());
+    }
+
+    public void testPollBatchSizeRequestReply() throws Exception {
+        MockEndpoint mock = getMockEndpoint("mock:result");
+        mock.expectedMessageCount(10);
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals("Bye " + i, template.requestBody("seda:start", "" + i));
+        }
+
+        assertMockEndpointsSatisfied();
+    }
+
+    public void testMpmcQueueFactory() throws Exception {
+        SedaEndpoint endpoint = resolveMandatoryEndpoint(URI, SedaEndpoint.class);
+        assertIsInstanceOf(MpmcArrayBlockingQueue.class, endpoint.getQueue());
+        assertEquals(1000, endpoint.getQueue().remainingCapacity());
+        assertEquals(100, endpoint.getPollBatchSize());
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from(URI).routeId("seda")
+                    .to("mock:result")
+                    .transform(simple("Bye ${body}"));
+            }
+        };
+    }
+}
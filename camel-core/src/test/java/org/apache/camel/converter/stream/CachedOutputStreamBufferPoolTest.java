@@ -0,0 +1,198 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.converter.stream;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.util.Arrays;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.Exchange;
+import org.apache.camel.StreamCache;
+import org.apache.camel.converter.IOConverter;
+import org.apache.camel.impl.DefaultExchange;
+import org.apache.camel.impl.DefaultUnitOfWork;
+
+/**
+ * @version 
+ */
+public class CachedOutputStreamBufferPoolTest extends ContextTestSupport {
+
+    private Exchange exchange;
+
+    @Override
+    protected CamelContext createCamelContext() throws Exception {
+        CamelContext context = super.createCamelContext();
+        context.setStreamCaching(true);
+        context.getStreamCachingStrategy().setSpoolDirectory("target/cachedir");
+        context.getStreamCachingStrategy().setSpoolThreshold(1000);
+        context.getStreamCachingStrategy().setBufferSize(64);
+        context.getStreamCachingStrategy().setBufferPoolSize(4);
+        return context;
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        deleteDirectory("target/cachedir");
+        super.setUp();
+
+        exchange = new DefaultExchange(context);
+        exchange.setUnitOfWork(new DefaultUnitOfWork(exchange));
+    }
+
+    @Override
+    public boolean isUseRouteBuilder() {
+        return false;
+    }
+
+    private static byte[] data(int length) {
+        byte[] answer = new byte[length];
+        for (int i = 0; i < length; i++) {
+            answer[i] = (byte) i;
+        }
+        return answer;
+    }
+
+    private StreamCacheBufferPool pool() {
+        return context.getStreamCachingStrategy().getBufferPool();
+    }
+
+    public void testCacheInChunks() throws Exception {
+        context.start();
+        byte[] data = data(200);
+
+        CachedOutputStream cos = new CachedOutputStream(exchange);
+        cos.write(data, 0, 10);
+        cos.write(data[10]);
+        cos.write(data, 11, 189);
+        assertEquals(4, pool().getInUse());
+
+        StreamCache cache = cos.newStreamCache();
+        assertTrue("Should get the ChunkedInputStreamCache", cache instanceof ChunkedInputStreamCache);
+        assertTrue(cache.inMemory());
+        assertEquals(200, cache.length());
+
+        assertArrayEquals(data, IOConverter.toBytes((InputStream) cache));
+        cache.reset();
+        assertArrayEquals(data, IOConverter.toBytes((InputStream) cache));
+
+        // write the chunks without reading the stream
+        cache.reset();
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        cache.writeTo(bos);
+        assertArrayEquals(data, bos.toByteArray());
+
+        // the chunks are returned to the pool when the exchange is done
+        exchange.getUnitOfWork().done(exchange);
+        assertEquals(0, pool().getInUse());
+        assertEquals(4, pool().getAvailable());
+
+        try {
+            ((InputStream) cache).read();
+            fail("Should have thrown an exception");
+        } catch (Exception e) {
+            // the chunks has been released
+        }
+    }
+
+    public void testReuseChunks() throws Exception {
+        context.start();
+
+        for (int i = 0; i < 3; i++) {
+            Exchange exchange = new DefaultExchange(context);
+            exchange.setUnitOfWork(new DefaultUnitOfWork(exchange));
+            CachedOutputStream cos = new CachedOutputStream(exchange);
+            cos.write(data(100));
+            assertArrayEquals(data(100), IOConverter.toBytes(cos.getInputStream()));
+            exchange.getUnitOfWork().done(exchange);
+        }
+
+        assertEquals(0, pool().getInUse());
+        assertEquals(6, pool().getAcquiredCounter());
+        assertEquals(2, pool().getAllocatedCounter());
+    }
+
+    public void testCopyReleasedWhenAllExchangesDone() throws Exception {
+        context.start();
+
+        CachedOutputStream cos = new CachedOutputStream(exchange);
+        cos.write(data(100));
+        StreamCache cache = cos.newStreamCache();
+
+        Exchange copy = new DefaultExchange(context);
+        copy.setUnitOfWork(new DefaultUnitOfWork(copy));
+        StreamCache other = cache.copy(copy);
+
+        exchange.getUnitOfWork().done(exchange);
+        assertEquals(2, pool().getInUse());
+        assertArrayEquals(data(100), IOConverter.toBytes((InputStream) other));
+
+        copy.getUnitOfWork().done(copy);
+        assertEquals(0, pool().getInUse());
+    }
+
+    public void testSpoolReleasesChunks() throws Exception {
+        context.start();
+        byte[] data = data(1500);
+
+        CachedOutputStream cos = new CachedOutputStream(exchange);
+        cos.write(data, 0, 900);
+        assertEquals(15, pool().getInUse());
+        cos.write(data, 900, 600);
+        assertEquals(0, pool().getInUse());
+
+        String[] files = new File("target/cachedir").list();
+        assertEquals("we should have a temp file", 1, files.length);
+
+        StreamCache cache = cos.newStreamCache();
+        assertTrue("Should get the FileInputStreamCache", cache instanceof FileInputStreamCache);
+        assertArrayEquals(data, IOConverter.toBytes((InputStream) cache));
+        ((InputStream) cache).close();
+        exchange.getUnitOfWork().done(exchange);
+    }
+
+    public void testDirectChunks() throws Exception {
+        context.getStreamCachingStrategy().setBufferPoolDirect(true);
+        context.start();
+        assertTrue(pool().isDirect());
+        byte[] data = data(150);
+
+        CachedOutputStream cos = new CachedOutputStream(exchange);
+        cos.write(data);
+        StreamCache cache = cos.newStreamCache();
+
+        // read some of the stream and then write the remainder
+        InputStream is = (InputStream) cache;
+        byte[] start = new byte[70];
+        assertEquals(70, is.read(start));
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        cache.writeTo(bos);
+        assertEquals(80, bos.size());
+        assertEquals(data[70], bos.toByteArray()[0]);
+
+        cache.reset();
+        assertArrayEquals(data, IOConverter.toBytes(is));
+        exchange.getUnitOfWork().done(exchange);
+        assertEquals(0, pool().getInUse());
+    }
+
+    private static void assertArrayEquals(byte[] expected, byte[] actual) {
+        assertTrue("The content should be equal", Arrays.equals(expected, actual));
+    }
+}
@@ -0,0 +1,108 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.impl;
+
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectOutputStream;
+import java.math.BigDecimal;
+import java.util.Date;
+
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.Exchange;
+
+/**
+ * @version 
+ */
+public class BinaryExchangeHolderCodecTest extends ContextTestSupport {
+
+    public void testEncodeDecode() throws Exception {
+        Date now = new Date();
+        Exchange exchange = new DefaultExchange(context);
+        exchange.getIn().setBody("Hello World");
+        exchange.getIn().setHeader("foo", 123);
+        exchange.getIn().setHeader("bar", 456L);
+        exchange.getIn().setHeader("baz", true);
+        exchange.getIn().setHeader("date", now);
+        exchange.getIn().setHeader("amount", new BigDecimal("12.34"));
+        exchange.getIn().setHeader("letter", 'C');
+        exchange.getOut().setBody(new byte[]{1, 2, 3});
+        exchange.getOut().setHeader("beer", "Carlsberg");
+        exchange.setProperty("skipped", "not included");
+        exchange.setException(new IllegalArgumentException("Damn"));
+
+        DefaultExchangeHolder holder = DefaultExchangeHolder.marshal(exchange, false);
+        DefaultExchangeHolder.addProperty(holder, Exchange.AGGREGATED_SIZE, 5);
+
+        byte[] data = BinaryExchangeHolderCodec.encode(holder, false);
+        assertTrue(BinaryExchangeHolderCodec.isEncoded(data));
+
+        Exchange answer = new DefaultExchange(context);
+        DefaultExchangeHolder.unmarshal(answer, BinaryExchangeHolderCodec.decode(context, data));
+
+        assertEquals(exchange.getExchangeId(), answer.getExchangeId());
+        assertEquals("Hello World", answer.getIn().getBody());
+        assertEquals(123, answer.getIn().getHeader("foo"));
+        assertEquals(456L, answer.getIn().getHeader("bar"));
+        assertEquals(Boolean.TRUE, answer.getIn().getHeader("baz"));
+        assertEquals(now, answer.getIn().getHeader("date"));
+        assertEquals(new BigDecimal("12.34"), answer.getIn().getHeader("amount"));
+        assertEquals('C', answer.getIn().getHeader("letter"));
+        assertEquals(3, answer.getOut().getBody(byte[].class).length);
+        assertEquals("Carlsberg", answer.getOut().getHeader("beer"));
+        assertNull(answer.getProperty("skipped"));
+        assertEquals(5, answer.getProperty(Exchange.AGGREGATED_SIZE));
+        assertIsInstanceOf(IllegalArgumentException.class, answer.getException());
+        assertEquals("Damn", answer.getException().getMessage());
+    }
+
+    public void testCompress() throws Exception {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            sb.append("Hello World ").append(i).append('\n');
+        }
+        Exchange exchange = new DefaultExchange(context);
+        exchange.getIn().setBody(sb.toString());
+
+        DefaultExchangeHolder holder = DefaultExchangeHolder.marshal(exchange);
+        byte[] plain = BinaryExchangeHolderCodec.encode(holder, false);
+        byte[] compressed = BinaryExchangeHolderCodec.encode(holder, true);
+        assertTrue("Should be compressed", compressed.length < plain.length / 2);
+
+        Exchange answer = new DefaultExchange(context);
+        DefaultExchangeHolder.unmarshal(answer, BinaryExchangeHolderCodec.decode(context, compressed));
+        assertEquals(sb.toString(), answer.getIn().getBody());
+    }
+
+    public void testSmallerThanJavaSerialization() throws Exception {
+        Exchange exchange = new DefaultExchange(context);
+        exchange.getIn().setBody("Hello World");
+        exchange.getIn().setHeader("foo", 123);
+
+        DefaultExchangeHolder holder = DefaultExchangeHolder.marshal(exchange);
+
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        ObjectOutputStream oos = new ObjectOutputStream(bos);
+        oos.writeObject(holder);
+        oos.close();
+        byte[] serialized = bos.toByteArray();
+
+        byte[] data = BinaryExchangeHolderCodec.encode(holder, false);
+        assertTrue("Should be smaller than Java serialization", data.length < serialized.length);
+        assertFalse(BinaryExchangeHolderCodec.isEncoded(serialized));
+    }
+
+}
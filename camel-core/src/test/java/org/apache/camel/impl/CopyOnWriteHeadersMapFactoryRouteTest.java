@@ -0,0 +1,69 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.impl;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+import org.apache.camel.util.CopyOnWriteCaseInsensitiveMap;
+import org.apache.camel.util.toolbox.AggregationStrategies;
+
+public class CopyOnWriteHeadersMapFactoryRouteTest extends ContextTestSupport {
+
+    @Override
+    protected CamelContext createCamelContext() throws Exception {
+        CamelContext context = super.createCamelContext();
+        context.setHeadersMapFactory(new CopyOnWriteHeadersMapFactory());
+        return context;
+    }
+
+    public void testMulticastHeaders() throws Exception {
+        MockEndpoint a = getMockEndpoint("mock:a");
+        a.expectedHeaderReceived("foo", "a");
+        a.expectedHeaderReceived("bar", 123);
+        MockEndpoint b = getMockEndpoint("mock:b");
+        b.expectedHeaderReceived("foo", "b");
+        b.expectedHeaderReceived("bar", 123);
+        MockEndpoint result = getMockEndpoint("mock:result");
+        result.expectedHeaderReceived("foo", "start");
+
+        template.sendBodyAndHeader("direct:start", "Hello World", "Foo", "start");
+
+        assertMockEndpointsSatisfied();
+
+        assertIsInstanceOf(CopyOnWriteCaseInsensitiveMap.class, a.getReceivedExchanges().get(0).getIn().getHeaders());
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from("direct:start")
+                    .setHeader("bar", constant(123))
+                    .multicast(AggregationStrategies.useOriginal()).parallelProcessing()
+                        .to("direct:a", "direct:b")
+                    .end()
+                    .to("mock:result");
+
+                from("direct:a").setHeader("FOO", constant("a")).to("mock:a");
+                from("direct:b").setHeader("foo", constant("b")).to("mock:b");
+            }
+        };
+    }
+}
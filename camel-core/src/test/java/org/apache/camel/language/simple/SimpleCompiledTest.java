@@ -0,0 +1,155 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.language.simple;
+
+import org.apache.camel.Expression;
+import org.apache.camel.LanguageTestSupport;
+import org.apache.camel.component.bean.MethodNotFoundException;
+import org.apache.camel.language.bean.RuntimeBeanExpressionException;
+import org.apache.camel.language.simple.ast.CompiledOgnlExpression;
+
+/**
+ * @version
+ */
+public class SimpleCompiledTest extends LanguageTestSupport {
+
+    private SimpleLanguage simple;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        simple = new SimpleLanguage();
+        simple.setCamelContext(context);
+        simple.setCompiled(true);
+        simple.start();
+    }
+
+    public void testCompiledBodyOgnl() throws Exception {
+        Animal tiger = new Animal("Tony the Tiger", 13);
+        Animal camel = new Animal("Camel", 6);
+        camel.setFriend(tiger);
+        exchange.getIn().setBody(camel);
+
+        Expression exp = simple.createExpression("${body.friend.name}");
+        assertIsInstanceOf(CompiledOgnlExpression.class, exp);
+        assertEquals("Tony the Tiger", exp.evaluate(exchange, String.class));
+
+        assertEquals("Camel", simple.createExpression("${in.body.name}").evaluate(exchange, String.class));
+        assertEquals(Integer.valueOf(6), simple.createExpression("${body.age}").evaluate(exchange, Integer.class));
+        assertEquals(Boolean.TRUE, simple.createExpression("${body.friend.dangerous}").evaluate(exchange, Boolean.class));
+        assertEquals("Hello Camel", simple.createExpression("Hello ${body.name}").evaluate(exchange, String.class));
+
+        // the same expression can be used with another type of body
+        exchange.getIn().setBody(new Tiger("Hobbes"));
+        assertEquals("Hobbes", simple.createExpression("${body.name}").evaluate(exchange, String.class));
+    }
+
+    public void testCompiledPredicate() throws Exception {
+        exchange.getIn().setBody(new Animal("Camel", 6));
+
+        assertTrue(simple.createPredicate("${body.age} > 5").matches(exchange));
+        assertFalse(simple.createPredicate("${body.name} == 'Tiger'").matches(exchange));
+    }
+
+    public void testCompiledNullSafe() throws Exception {
+        exchange.getIn().setBody(new Animal("Camel", 6));
+
+        assertNull(simple.createExpression("${body.friend?.name}").evaluate(exchange, String.class));
+        try {
+            // without null safe the interpreted expression is used to report the problem
+            simple.createExpression("${body.friend.name}").evaluate(exchange, String.class);
+            fail("Should have thrown exception");
+        } catch (RuntimeBeanExpressionException e) {
+            assertTrue(e.getMessage().contains("last method returned null"));
+        }
+    }
+
+    public void testCompiledMethodWithoutParameters() throws Exception {
+        exchange.getIn().setBody("Hello World");
+
+        // methods without parameters are compiled the same way as getters
+        Expression exp = simple.createExpression("${body.toUpperCase}");
+        assertIsInstanceOf(CompiledOgnlExpression.class, exp);
+        assertEquals("HELLO WORLD", exp.evaluate(exchange, String.class));
+        assertEquals(Integer.valueOf(11), simple.createExpression("${body.length}").evaluate(exchange, Integer.class));
+    }
+
+    public void testNotCompiled() throws Exception {
+        exchange.getIn().setBody(new Animal("Camel", 6));
+
+        // method calls with parameters is not compiled, as only plain property or method names can be bound to a getter
+        Expression exp = simple.createExpression("${body.name.substring(1)}");
+        assertFalse(exp instanceof CompiledOgnlExpression);
+        assertEquals("amel", exp.evaluate(exchange, String.class));
+
+        // no such method so the interpreted expression reports the problem
+        try {
+            simple.createExpression("${body.unknown}").evaluate(exchange, String.class);
+            fail("Should have thrown exception");
+        } catch (RuntimeBeanExpressionException e) {
+            assertIsInstanceOf(MethodNotFoundException.class, e.getCause());
+        }
+    }
+
+    @Override
+    protected String getLanguageName() {
+        return "simple";
+    }
+
+    public static final class Animal {
+        private final String name;
+        private final int age;
+        private Animal friend;
+
+        public Animal(String name, int age) {
+            this.name = name;
+            this.age = age;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getAge() {
+            return age;
+        }
+
+        public Animal getFriend() {
+            return friend;
+        }
+
+        public void setFriend(Animal friend) {
+            this.friend = friend;
+        }
+
+        public boolean isDangerous() {
+            return name.contains("Tiger");
+        }
+    }
+
+    public static final class Tiger {
+        private final String name;
+
+        public Tiger(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+}
@@ -64,6 +64,12 @@ public class ManagedSplitterTest extends ManagementTestSupport {
         String exp = (String) mbeanServer.getAttribute(on, "Expression");
         assertEquals("${body}", exp);
 
+        Integer lookAhead = (Integer) mbeanServer.getAttribute(on, "LookAhead");
+        assertEquals(0, lookAhead.intValue());
+
+        Integer pending = (Integer) mbeanServer.getAttribute(on, "PendingExchanges");
+        assertEquals(0, pending.intValue());
+
         String xml = (String) mbeanServer.invoke(on, "dumpProcessorAsXml", null, null);
         assertTrue(xml.contains("<split"));
         assertTrue(xml.contains("</split>"));
@@ -75,7 +81,7 @@ public class ManagedSplitterTest extends ManagementTestSupport {
 
         data = (TabularData) mbeanServer.invoke(on, "explain", new Object[]{true}, new String[]{"boolean"});
         assertNotNull(data);
-        assertEquals(16, data.size());
+        assertEquals(18, data.size());
 
         String json = (String) mbeanServer.invoke(on, "informationJson", null, null);
         assertNotNull(json);
@@ -0,0 +1,128 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.management;
+
+import java.io.StringReader;
+import java.util.Set;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.xml.bind.JAXBContext;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.ManagementStatisticsLevel;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.util.RouteStatDump;
+
+/**
+ * @version 
+ */
+public class ManagedStatisticsLevelExtendedPercentilesTest extends ManagementTestSupport {
+
+    @Override
+    protected CamelContext createCamelContext() throws Exception {
+        CamelContext context = super.createCamelContext();
+
+        // the percentiles are recorded with the extended level
+        context.getManagementStrategy().getManagementAgent().setStatisticsLevel(ManagementStatisticsLevel.Extended);
+        return context;
+    }
+
+    public void testPercentiles() throws Exception {
+        // JMX tests dont work well on AIX CI servers (hangs them)
+        if (isPlatform("aix")) {
+            return;
+        }
+
+        getMockEndpoint("mock:result").expectedMessageCount(10);
+
+        for (int i = 0; i < 10; i++) {
+            template.sendBody("direct:start", "Hello World");
+        }
+
+        assertMockEndpointsSatisfied();
+
+        MBeanServer mbeanServer = getMBeanServer();
+        ObjectName on = ObjectName.getInstance("org.apache.camel:context=camel-1,type=routes,name=\"foo\"");
+
+        assertEquals(Boolean.TRUE, mbeanServer.getAttribute(on, "PercentileStatisticsEnabled"));
+        Long min = (Long) mbeanServer.getAttribute(on, "MinProcessingTime");
+        Long max = (Long) mbeanServer.getAttribute(on, "MaxProcessingTime");
+        Long p50 = (Long) mbeanServer.getAttribute(on, "P50ProcessingTime");
+        Long p99 = (Long) mbeanServer.getAttribute(on, "P99ProcessingTime");
+        Long p999 = (Long) mbeanServer.getAttribute(on, "P999ProcessingTime");
+        assertTrue("Should be delayed, was " + p50, p50 >= 20);
+        assertTrue(p50 >= min);
+        assertTrue(p50 <= p99);
+        assertTrue(p99 <= p999);
+        // the percentiles have a precision of 1/64 of the value
+        assertTrue(p999 <= max + max / 64);
+
+        Set<ObjectName> set = mbeanServer.queryNames(new ObjectName("*:type=processors,name=\"delay\",*"), null);
+        assertEquals(1, set.size());
+        Long processorP50 = (Long) mbeanServer.getAttribute(set.iterator().next(), "P50ProcessingTime");
+        assertTrue("Should be delayed, was " + processorP50, processorP50 >= 20);
+
+        String xml = (String) mbeanServer.invoke(on, "dumpRouteStatsAsXml", new Object[]{false, true}, new String[]{"boolean", "boolean"});
+        log.info(xml);
+
+        RouteStatDump dump = (RouteStatDump) JAXBContext.newInstance(RouteStatDump.class).createUnmarshaller().unmarshal(new StringReader(xml));
+        assertEquals(p50, dump.getP50ProcessingTime());
+        assertEquals(p999, dump.getP999ProcessingTime());
+        assertEquals(2, dump.getProcessorStats().size());
+        assertNotNull(dump.getProcessorStats().get(0).getP99ProcessingTime());
+
+        // reset the statistics also resets the percentiles
+        mbeanServer.invoke(on, "reset", null, null);
+        assertEquals(0L, mbeanServer.getAttribute(on, "P99ProcessingTime"));
+    }
+
+    public void testPercentilesNotRecordedByDefault() throws Exception {
+        // JMX tests dont work well on AIX CI servers (hangs them)
+        if (isPlatform("aix")) {
+            return;
+        }
+
+        context.getManagementStrategy().getManagementAgent().setStatisticsLevel(ManagementStatisticsLevel.Default);
+        context.stopRoute("foo");
+        context.removeRoute("foo");
+        context.addRoutes(createRouteBuilder());
+
+        template.sendBody("direct:start", "Hello World");
+
+        MBeanServer mbeanServer = getMBeanServer();
+        ObjectName on = ObjectName.getInstance("org.apache.camel:context=camel-1,type=routes,name=\"foo\"");
+
+        assertEquals(Boolean.FALSE, mbeanServer.getAttribute(on, "PercentileStatisticsEnabled"));
+        assertEquals(0L, mbeanServer.getAttribute(on, "P50ProcessingTime"));
+
+        String xml = (String) mbeanServer.invoke(on, "dumpStatsAsXml", new Object[]{false}, new String[]{"boolean"});
+        assertFalse(xml.contains("p50ProcessingTime"));
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from("direct:start").routeId("foo")
+                        .delay(20).id("delay")
+                        .to("mock:result");
+            }
+        };
+    }
+
+}
@@ -82,6 +82,15 @@ public class ManagedStreamCachingStrategyTest extends ManagementTestSupport {
 
         Boolean remove = (Boolean) mbeanServer.getAttribute(name, "RemoveSpoolDirectoryWhenStopping");
         assertEquals(Boolean.TRUE, remove);
+
+        Integer poolSize = (Integer) mbeanServer.getAttribute(name, "BufferPoolSize");
+        assertEquals(0, poolSize.intValue());
+
+        Integer inUse = (Integer) mbeanServer.getAttribute(name, "BufferPoolInUse");
+        assertEquals(0, inUse.intValue());
+
+        counter = (Long) mbeanServer.getAttribute(name, "BufferPoolAcquiredCounter");
+        assertEquals(0, counter.longValue());
     }
 
     @Override
@@ -0,0 +1,111 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.management.mbean;
+
+import junit.framework.TestCase;
+
+/**
+ * @version 
+ */
+public class StatisticHistogramTest extends TestCase {
+
+    public void testEmpty() {
+        StatisticHistogram histogram = new StatisticHistogram();
+        assertEquals(0, histogram.getValue());
+        assertFalse(histogram.isUpdated());
+        assertEquals(0, histogram.getValueAtPercentile(99));
+    }
+
+    public void testPercentiles() {
+        StatisticHistogram histogram = new StatisticHistogram();
+        for (int i = 1; i <= 100; i++) {
+            histogram.updateValue(i);
+        }
+        assertEquals(100, histogram.getValue());
+        assertTrue(histogram.isUpdated());
+        // small values are counted exactly
+        assertEquals(50, histogram.getValueAtPercentile(50));
+        assertEquals(99, histogram.getValueAtPercentile(99));
+        assertEquals(100, histogram.getValueAtPercentile(99.9));
+        assertEquals(100, histogram.getValueAtPercentile(100));
+        assertEquals(1, histogram.getValueAtPercentile(0));
+    }
+
+    public void testPrecision() {
+        StatisticHistogram histogram = new StatisticHistogram();
+        for (long value : new long[]{127, 128, 1000, 12345, 1000000}) {
+            histogram.reset();
+            histogram.updateValue(value);
+            long answer = histogram.getValueAtPercentile(50);
+            assertTrue("Value " + answer + " should be at least " + value, answer >= value);
+            assertTrue("Value " + answer + " should be within 1/64 of " + value, answer - value <= value / 64);
+        }
+    }
+
+    public void testBuckets() {
+        for (long value = 0; value < 100000; value++) {
+            int index = StatisticHistogram.index(value);
+            assertTrue(value <= StatisticHistogram.highestEquivalentValue(index));
+            assertTrue(index == 0 || value > StatisticHistogram.highestEquivalentValue(index - 1));
+        }
+    }
+
+    public void testAboveHighestTrackableValue() {
+        StatisticHistogram histogram = new StatisticHistogram(1000);
+        histogram.updateValue(10);
+        histogram.updateValue(Long.MAX_VALUE);
+        histogram.updateValue(-5);
+        assertEquals(3, histogram.getValue());
+        assertEquals(0, histogram.getValueAtPercentile(10));
+        assertEquals(10, histogram.getValueAtPercentile(50));
+        assertTrue(histogram.getValueAtPercentile(100) >= 1000);
+    }
+
+    public void testIntervalSnapshot() {
+        StatisticHistogram histogram = new StatisticHistogram();
+        for (int i = 0; i < 100; i++) {
+            histogram.updateValue(10);
+        }
+        StatisticHistogram.Snapshot first = histogram.snapshot();
+        for (int i = 0; i < 100; i++) {
+            histogram.updateValue(20);
+        }
+        StatisticHistogram.Snapshot interval = histogram.snapshot().since(first);
+        assertEquals(100, interval.getCount());
+        assertEquals(20, interval.getValueAtPercentile(1));
+        assertEquals(10, first.getValueAtPercentile(100));
+    }
+
+    public void testConcurrentUpdates() throws Exception {
+        final StatisticHistogram histogram = new StatisticHistogram();
+        Thread[] threads = new Thread[8];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(new Runnable() {
+                public void run() {
+                    for (int j = 0; j < 10000; j++) {
+                        histogram.updateValue(j % 200);
+                    }
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(80000, histogram.getValue());
+    }
+}
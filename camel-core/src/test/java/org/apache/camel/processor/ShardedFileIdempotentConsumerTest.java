@@ -0,0 +1,147 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.processor;
+
+import java.io.File;
+
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+import org.apache.camel.processor.idempotent.ShardedFileIdempotentRepository;
+
+/**
+ * @version
+ */
+public class ShardedFileIdempotentConsumerTest extends ContextTestSupport {
+
+    private File store = new File("target/idempotentshardedstore");
+    private ShardedFileIdempotentRepository repo;
+
+    @Override
+    protected void setUp() throws Exception {
+        deleteDirectory(store);
+        repo = new ShardedFileIdempotentRepository(store);
+        repo.setShards(4);
+
+        super.setUp();
+    }
+
+    public void testDuplicateMessagesAreFilteredOut() throws Exception {
+        MockEndpoint mock = getMockEndpoint("mock:result");
+        mock.expectedBodiesReceived("one", "two", "three");
+
+        template.sendBodyAndHeader("direct:start", "one", "messageId", "1");
+        template.sendBodyAndHeader("direct:start", "two", "messageId", "2");
+        template.sendBodyAndHeader("direct:start", "one", "messageId", "1");
+        template.sendBodyAndHeader("direct:start", "two", "messageId", "2");
+        template.sendBodyAndHeader("direct:start", "three", "messageId", "3");
+
+        assertMockEndpointsSatisfied();
+
+        assertEquals(3, repo.getSize());
+        assertEquals(4, store.list().length);
+    }
+
+    public void testReloadAfterRestart() throws Exception {
+        repo.add("A");
+        repo.add("B");
+        repo.add("C");
+        repo.remove("B");
+
+        repo.stop();
+        repo.start();
+
+        assertEquals(2, repo.getSize());
+        assertTrue(repo.contains("A"));
+        assertFalse(repo.contains("B"));
+        assertTrue(repo.contains("C"));
+    }
+
+    public void testChangeNumberOfShards() throws Exception {
+        for (int i = 0; i < 100; i++) {
+            repo.add("key" + i);
+        }
+        repo.stop();
+
+        repo.setShards(3);
+        repo.start();
+
+        assertEquals(100, repo.getSize());
+        for (int i = 0; i < 100; i++) {
+            assertTrue(repo.contains("key" + i));
+        }
+        // the log file of the shard no longer in use is deleted
+        assertEquals(3, store.list().length);
+    }
+
+    public void testCompact() throws Exception {
+        repo.setCompactionThreshold(10);
+
+        for (int i = 0; i < 100; i++) {
+            repo.add("key" + i);
+        }
+        for (int i = 0; i < 90; i++) {
+            repo.remove("key" + i);
+        }
+        long before = directorySize();
+
+        assertEquals(4, repo.compact());
+        assertTrue("Store should be smaller after compaction", directorySize() < before);
+        // nothing more to compact
+        assertEquals(0, repo.compact());
+
+        // and its still working after compaction
+        assertTrue(repo.add("key0"));
+        repo.stop();
+        repo.start();
+        assertEquals(11, repo.getSize());
+        assertTrue(repo.contains("key0"));
+        assertTrue(repo.contains("key99"));
+        assertFalse(repo.contains("key1"));
+    }
+
+    public void testClear() throws Exception {
+        repo.add("A");
+        repo.add("B");
+
+        repo.clear();
+        assertEquals(0, repo.getSize());
+
+        repo.stop();
+        repo.start();
+        assertEquals(0, repo.getSize());
+        assertTrue(repo.add("A"));
+    }
+
+    private long directorySize() {
+        long answer = 0;
+        for (File file : store.listFiles()) {
+            answer += file.length();
+        }
+        return answer;
+    }
+
+    protected RouteBuilder createRouteBuilder() {
+        return new RouteBuilder() {
+            public void configure() {
+                from("direct:start")
+                    .idempotentConsumer(header("messageId"), repo)
+                    .to("mock:result");
+            }
+        };
+    }
+}
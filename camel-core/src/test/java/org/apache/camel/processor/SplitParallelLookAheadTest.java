@@ -0,0 +1,109 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.processor;
+
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.Exchange;
+import org.apache.camel.Processor;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.processor.aggregate.AggregationStrategy;
+
+/**
+ * @version 
+ */
+public class SplitParallelLookAheadTest extends ContextTestSupport {
+
+    private static final int COUNT = 200;
+    private static final int LOOK_AHEAD = 5;
+
+    private final AtomicInteger taken = new AtomicInteger();
+    private final AtomicInteger aggregated = new AtomicInteger();
+    private final AtomicInteger maxAhead = new AtomicInteger();
+    private final AtomicInteger maxPending = new AtomicInteger();
+
+    public void testSplitParallelLookAhead() throws Exception {
+        getMockEndpoint("mock:result").expectedBodiesReceived(COUNT);
+
+        template.sendBody("direct:start", "Hello");
+
+        assertMockEndpointsSatisfied();
+        assertEquals(COUNT, taken.get());
+        assertEquals(COUNT, aggregated.get());
+        // the sub message being aggregated is no longer pending
+        assertTrue("Split " + maxAhead.get() + " ahead", maxAhead.get() <= LOOK_AHEAD + 1);
+        assertTrue("Pending " + maxPending.get(), maxPending.get() <= LOOK_AHEAD);
+        assertEquals(0, context.getProcessor("mysplit", Splitter.class).getPendingExchanges());
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from("direct:start")
+                    .split(method(SplitParallelLookAheadTest.this, "split"), new CountStrategy())
+                            .parallelProcessing().streaming().lookAhead(LOOK_AHEAD).id("mysplit")
+                        .process(new Processor() {
+                            public void process(Exchange exchange) throws Exception {
+                                int pending = context.getProcessor("mysplit", Splitter.class).getPendingExchanges();
+                                int max = maxPending.get();
+                                while (pending > max && !maxPending.compareAndSet(max, pending)) {
+                                    max = maxPending.get();
+                                }
+                                Thread.sleep(2);
+                            }
+                        })
+                    .end()
+                    .transform(header("count"))
+                    .to("mock:result");
+            }
+        };
+    }
+
+    public Iterator<Integer> split() {
+        return new Iterator<Integer>() {
+            public boolean hasNext() {
+                return taken.get() < COUNT;
+            }
+
+            public Integer next() {
+                int ahead = taken.incrementAndGet() - aggregated.get();
+                if (ahead > maxAhead.get()) {
+                    maxAhead.set(ahead);
+                }
+                return taken.get();
+            }
+
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    private class CountStrategy implements AggregationStrategy {
+
+        public Exchange aggregate(Exchange oldExchange, Exchange newExchange) {
+            int count = aggregated.incrementAndGet();
+            Exchange answer = oldExchange != null ? oldExchange : newExchange;
+            answer.getIn().setHeader("count", count);
+            return answer;
+        }
+    }
+}
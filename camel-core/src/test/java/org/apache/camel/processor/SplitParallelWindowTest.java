@@ -0,0 +1,198 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.processor;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.camel.AsyncCallback;
+import org.apache.camel.AsyncProcessor;
+import org.apache.camel.CamelExecutionException;
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.Exchange;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.processor.aggregate.AggregationStrategy;
+import org.apache.camel.util.AsyncProcessorHelper;
+
+/**
+ * @version 
+ */
+public class SplitParallelWindowTest extends ContextTestSupport {
+
+    private static final String BODY = "a,b,c,d,e,f,g,h,i,j";
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private ScheduledExecutorService scheduler;
+
+    public void testSplitParallelWindowOrdered() throws Exception {
+        getMockEndpoint("mock:result").expectedBodiesReceived("A+B+C+D+E+F+G+H+I+J");
+
+        template.sendBody("direct:ordered", BODY);
+
+        assertMockEndpointsSatisfied();
+        assertEquals(0, inFlight.get());
+        // a single thread is used for starting the sub messages, so the window is only filled
+        // when the thread is not blocked while the sub messages are in flight
+        assertEquals(3, maxInFlight.get());
+    }
+
+    public void testSplitParallelWindowStreaming() throws Exception {
+        getMockEndpoint("mock:result").expectedMessageCount(1);
+
+        template.sendBody("direct:streaming", BODY);
+
+        assertMockEndpointsSatisfied();
+        String body = getMockEndpoint("mock:result").getReceivedExchanges().get(0).getIn().getBody(String.class);
+        assertEquals(19, body.length());
+        for (char c = 'A'; c <= 'J'; c++) {
+            assertTrue("Should contain " + c + " in " + body, body.indexOf(c) >= 0);
+        }
+        assertTrue(maxInFlight.get() <= 4);
+    }
+
+    public void testSplitParallelWindowStopOnException() throws Exception {
+        getMockEndpoint("mock:result").expectedMessageCount(0);
+
+        try {
+            template.sendBody("direct:stop", "a,b,kaboom,d,e,f,g,h,i,j");
+            fail("Should have thrown an exception");
+        } catch (CamelExecutionException e) {
+            assertIsInstanceOf(IllegalArgumentException.class, e.getCause().getCause());
+            assertEquals("Forced", e.getCause().getCause().getMessage());
+        }
+
+        assertMockEndpointsSatisfied();
+    }
+
+    public void testMulticastParallelWindow() throws Exception {
+        getMockEndpoint("mock:result").expectedBodiesReceived("A+B+C");
+
+        template.sendBody("direct:multicast", "x");
+
+        assertMockEndpointsSatisfied();
+        assertEquals(2, maxInFlight.get());
+    }
+
+    public void testRecipientListParallelWindow() throws Exception {
+        getMockEndpoint("mock:result").expectedBodiesReceived("A+B+C");
+
+        template.sendBodyAndHeader("direct:recipientList", "x", "recipients", "direct:a,direct:b,direct:c");
+
+        assertMockEndpointsSatisfied();
+        assertEquals(2, maxInFlight.get());
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        super.tearDown();
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        scheduler = context.getExecutorServiceManager().newSingleThreadScheduledExecutor(this, "DelayReply");
+        final ExecutorService single = context.getExecutorServiceManager().newSingleThreadExecutor(this, "ParallelWindow");
+        final AsyncProcessor reply = new DelayedReplyProcessor();
+
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from("direct:ordered")
+                    .split(body().tokenize(","), new JoinStrategy()).parallelProcessing().executorService(single).parallelWindow(3)
+                        .process(reply)
+                    .end()
+                    .to("mock:result");
+
+                from("direct:streaming")
+                    .split(body().tokenize(","), new JoinStrategy()).parallelProcessing().streaming().parallelWindow(4)
+                        .process(reply)
+                    .end()
+                    .to("mock:result");
+
+                from("direct:stop")
+                    .split(body().tokenize(","), new JoinStrategy()).parallelProcessing().stopOnException().parallelWindow(2)
+                        .process(reply)
+                    .end()
+                    .to("mock:result");
+
+                from("direct:multicast")
+                    .multicast(new JoinStrategy()).parallelProcessing().parallelWindow(2)
+                        .to("direct:a", "direct:b", "direct:c")
+                    .end()
+                    .to("mock:result");
+
+                from("direct:recipientList")
+                    .recipientList(header("recipients")).aggregationStrategy(new JoinStrategy()).parallelProcessing().parallelWindow(2)
+                    .to("mock:result");
+
+                from("direct:a").setBody(constant("a")).process(reply);
+                from("direct:b").setBody(constant("b")).process(reply);
+                from("direct:c").setBody(constant("c")).process(reply);
+            }
+        };
+    }
+
+    /**
+     * Replies asynchronously with the upper cased body, where the earlier letters take the longer time.
+     */
+    private class DelayedReplyProcessor implements AsyncProcessor {
+
+        public void process(Exchange exchange) throws Exception {
+            AsyncProcessorHelper.process(this, exchange);
+        }
+
+        public boolean process(final Exchange exchange, final AsyncCallback callback) {
+            final String body = exchange.getIn().getBody(String.class);
+            int current = inFlight.incrementAndGet();
+            int max = maxInFlight.get();
+            while (current > max && !maxInFlight.compareAndSet(max, current)) {
+                max = maxInFlight.get();
+            }
+
+            long delay = body.length() == 1 ? ('k' - body.charAt(0)) * 5 : 5;
+            scheduler.schedule(new Runnable() {
+                public void run() {
+                    if ("kaboom".equals(body)) {
+                        exchange.setException(new IllegalArgumentException("Forced"));
+                    } else {
+                        exchange.getIn().setBody(body.toUpperCase());
+                    }
+                    inFlight.decrementAndGet();
+                    callback.done(false);
+                }
+            }, delay, TimeUnit.MILLISECONDS);
+            return false;
+        }
+    }
+
+    private static class JoinStrategy implements AggregationStrategy {
+
+        public Exchange aggregate(Exchange oldExchange, Exchange newExchange) {
+            if (oldExchange == null) {
+                return newExchange;
+            }
+            String body = oldExchange.getIn().getBody(String.class);
+            oldExchange.getIn().setBody(body + "+" + newExchange.getIn().getBody(String.class));
+            return oldExchange;
+        }
+    }
+}
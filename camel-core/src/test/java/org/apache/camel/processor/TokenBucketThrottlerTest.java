@@ -0,0 +1,140 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.processor;
+
+import java.util.concurrent.ScheduledExecutorService;
+
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+
+/**
+ * @version 
+ */
+public class TokenBucketThrottlerTest extends ContextTestSupport {
+
+    protected boolean canTest() {
+        // skip test on windows as it does not run well there
+        return !isPlatform("windows");
+    }
+
+    public void testTokenBucket() throws Exception {
+        if (!canTest()) {
+            return;
+        }
+
+        MockEndpoint result = getMockEndpoint("mock:result");
+        result.expectedMessageCount(30);
+
+        long start = System.currentTimeMillis();
+        for (int i = 0; i < 30; i++) {
+            template.sendBody("seda:start", "Message " + i);
+        }
+        assertMockEndpointsSatisfied();
+        long elapsed = System.currentTimeMillis() - start;
+
+        // a burst of 10 and then one message per 50 millis
+        assertTrue("Should take at least 900 millis, was " + elapsed, elapsed >= 900);
+    }
+
+    public void testTokenBucketPerCorrelationKey() throws Exception {
+        if (!canTest()) {
+            return;
+        }
+
+        MockEndpoint result = getMockEndpoint("mock:result");
+        result.expectedMessageCount(20);
+        result.setResultWaitTime(1000);
+
+        // each key has its own bucket of 2 tokens
+        for (int i = 0; i < 10; i++) {
+            template.sendBodyAndHeader("direct:key", "Message " + i, "key", "key" + i);
+            template.sendBodyAndHeader("direct:key", "Message " + i, "key", "key" + i);
+        }
+        assertMockEndpointsSatisfied();
+
+        TokenBucketThrottler throttler = context.getProcessor("keyThrottle", TokenBucketThrottler.class);
+        assertEquals(10, throttler.getBucketsSize());
+        assertEquals(2, throttler.getCurrentMaximumRequestsPerPeriod());
+
+        // the third message for the same key must wait for the next period
+        result.reset();
+        result.expectedMessageCount(1);
+        result.setResultWaitTime(300);
+        template.sendBodyAndHeader("seda:key", "Message", "key", "key0");
+        result.assertIsNotSatisfied();
+        result.setResultWaitTime(5000);
+        assertMockEndpointsSatisfied();
+    }
+
+    public void testTokenBucketRejectExecution() throws Exception {
+        if (!canTest()) {
+            return;
+        }
+
+        getMockEndpoint("mock:result").expectedMessageCount(2);
+        getMockEndpoint("mock:error").expectedMessageCount(4);
+
+        for (int i = 0; i < 6; i++) {
+            template.sendBody("direct:reject", "Message " + i);
+        }
+        assertMockEndpointsSatisfied();
+    }
+
+    public void testTokenBucketDoesNotBlockThreads() throws Exception {
+        if (!canTest()) {
+            return;
+        }
+
+        MockEndpoint result = getMockEndpoint("mock:result");
+        result.expectedMessageCount(200);
+
+        // the throttler has a single thread, but the second message of each of the 100 keys is throttled concurrently
+        for (int i = 0; i < 200; i++) {
+            template.asyncSendBody("seda:single?size=1000", i % 100);
+        }
+        long start = System.currentTimeMillis();
+        assertMockEndpointsSatisfied();
+        long elapsed = System.currentTimeMillis() - start;
+        assertTrue("Should not wait for the keys one by one, was " + elapsed, elapsed < 5000);
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        final ScheduledExecutorService single = context.getExecutorServiceManager().newSingleThreadScheduledExecutor(this, "TokenBucket");
+
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                errorHandler(deadLetterChannel("mock:error"));
+
+                from("seda:start").throttle(10).timePeriodMillis(500).tokenBucket().to("log:result", "mock:result");
+
+                from("direct:key").to("seda:key");
+                from("seda:key?concurrentConsumers=10")
+                    .throttle(2).timePeriodMillis(2000).tokenBucket().correlationExpression(header("key")).id("keyThrottle")
+                        .to("mock:result");
+
+                from("direct:reject").throttle(2).timePeriodMillis(10000).tokenBucket().rejectExecution(true).to("mock:result");
+
+                from("seda:single?size=1000&concurrentConsumers=5")
+                    .throttle(1).timePeriodMillis(500).tokenBucket().correlationExpression(body()).executorService(single)
+                        .to("mock:result");
+            }
+        };
+    }
+}
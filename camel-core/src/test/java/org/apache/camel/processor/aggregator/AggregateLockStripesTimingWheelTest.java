@@ -0,0 +1,90 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.processor.aggregator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.Exchange;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+import org.apache.camel.processor.BodyInAggregatingStrategy;
+
+/**
+ * @version 
+ */
+public class AggregateLockStripesTimingWheelTest extends ContextTestSupport {
+
+    private final int groups = 1000;
+    private final int parts = 10;
+    private final String uri = "direct:start";
+    private final AtomicInteger completedParts = new AtomicInteger();
+
+    public void testAggregateLockStripesTimingWheel() throws Exception {
+        ExecutorService service = Executors.newFixedThreadPool(20);
+        List<Callable<Object>> tasks = new ArrayList<Callable<Object>>();
+        for (int i = 0; i < groups * parts; i++) {
+            final int id = i % groups;
+            final int count = i;
+            tasks.add(new Callable<Object>() {
+                public Object call() throws Exception {
+                    template.sendBodyAndHeader(uri, "" + count, "id", id);
+                    return null;
+                }
+            });
+        }
+
+        MockEndpoint mock = getMockEndpoint("mock:result");
+        mock.expectedMinimumMessageCount(groups);
+        mock.expectedPropertyReceived(Exchange.AGGREGATED_COMPLETED_BY, "timeout");
+
+        // the timeouts of the groups are put and removed concurrently under different lock stripes
+        service.invokeAll(tasks);
+        service.shutdownNow();
+
+        // every part is completed by a timeout, so no timeout of a group is lost
+        long deadline = System.currentTimeMillis() + 20000;
+        while (completedParts.get() < groups * parts && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(groups * parts, completedParts.get());
+        assertMockEndpointsSatisfied();
+
+        // and no group is completed twice
+        Thread.sleep(200);
+        assertEquals(groups * parts, completedParts.get());
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from("direct:start")
+                        .aggregate(header("id"), new BodyInAggregatingStrategy())
+                            .completionTimeout(200).completionTimeoutCheckerInterval(10).completionTimeoutTimingWheel().lockStripes(16)
+                        .process(exchange -> completedParts.addAndGet(exchange.getIn().getBody(String.class).split("\\+").length))
+                        .to("mock:result");
+            }
+        };
+    }
+}
@@ -0,0 +1,122 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.processor.idempotent;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.apache.camel.TestSupport;
+
+/**
+ * @version
+ */
+public class HashedMemoryIdempotentRepositoryTest extends TestSupport {
+
+    public void testAddContainsRemove() throws Exception {
+        HashedMemoryIdempotentRepository repo = new HashedMemoryIdempotentRepository(10);
+
+        assertTrue(repo.add("A"));
+        assertTrue(repo.add("B"));
+        assertFalse(repo.add("A"));
+        assertTrue(repo.contains("A"));
+        assertTrue(repo.contains("B"));
+        assertFalse(repo.contains("C"));
+        assertEquals(2, repo.getCacheSize());
+
+        assertTrue(repo.remove("A"));
+        assertFalse(repo.remove("A"));
+        assertFalse(repo.contains("A"));
+        assertTrue(repo.contains("B"));
+        assertEquals(1, repo.getCacheSize());
+
+        repo.clear();
+        assertEquals(0, repo.getCacheSize());
+        assertFalse(repo.contains("B"));
+    }
+
+    public void testEvictOldest() throws Exception {
+        HashedMemoryIdempotentRepository repo = new HashedMemoryIdempotentRepository(3);
+
+        repo.add("A");
+        repo.add("B");
+        repo.add("C");
+        repo.add("D");
+
+        assertFalse(repo.contains("A"));
+        assertTrue(repo.contains("B"));
+        assertTrue(repo.contains("C"));
+        assertTrue(repo.contains("D"));
+        assertEquals(3, repo.getCacheSize());
+        assertEquals(1, repo.getEvicted());
+
+        // a removed key which is added again is not evicted by its old entry
+        repo.remove("B");
+        repo.add("B");
+        repo.add("E");
+        assertTrue(repo.contains("B"));
+        assertFalse(repo.contains("C"));
+        assertTrue(repo.contains("D"));
+        assertTrue(repo.contains("E"));
+        assertEquals(3, repo.getCacheSize());
+    }
+
+    public void testExpireAfter() throws Exception {
+        HashedMemoryIdempotentRepository repo = new HashedMemoryIdempotentRepository(10);
+        repo.setExpireAfter(200);
+
+        repo.add("A");
+        assertTrue(repo.contains("A"));
+
+        Thread.sleep(300);
+        repo.add("B");
+        assertFalse(repo.contains("A"));
+        assertTrue(repo.contains("B"));
+        assertEquals(1, repo.getCacheSize());
+    }
+
+    public void testManyKeys() throws Exception {
+        HashedMemoryIdempotentRepository repo = new HashedMemoryIdempotentRepository(10000);
+
+        Random random = new Random(42);
+        Set<String> keys = new HashSet<>();
+        while (keys.size() < 10000) {
+            keys.add(Long.toHexString(random.nextLong()));
+        }
+        for (String key : keys) {
+            assertTrue(repo.add(key));
+        }
+        for (String key : keys) {
+            assertTrue(repo.contains(key));
+        }
+        assertEquals(10000, repo.getCacheSize());
+
+        // remove every other key which moves keys around in the table
+        int i = 0;
+        for (String key : keys) {
+            if (i++ % 2 == 0) {
+                assertTrue(repo.remove(key));
+            }
+        }
+        i = 0;
+        for (String key : keys) {
+            assertEquals(i++ % 2 != 0, repo.contains(key));
+        }
+        assertEquals(5000, repo.getCacheSize());
+        assertEquals(0, repo.getEvicted());
+    }
+}
@@ -0,0 +1,230 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.support;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.TestCase;
+
+import static org.awaitility.Awaitility.await;
+
+/**
+ * @version 
+ */
+public class HashedWheelTimeoutMapTest extends TestCase {
+
+    private ScheduledExecutorService executor = new ScheduledThreadPoolExecutor(1);
+    private long clock = 1000000;
+    private final List<String> evicted = new ArrayList<String>();
+    private HashedWheelTimeoutMap<String, Integer> map;
+
+    public void testHashedWheelTimeoutMapPurge() throws Exception {
+        HashedWheelTimeoutMap<String, Integer> map = new HashedWheelTimeoutMap<String, Integer>(executor, 100);
+        map.start();
+        assertEquals(0, map.size());
+
+        map.put("A", 123, 50);
+        assertEquals(1, map.size());
+
+        // now it should be gone
+        await().atMost(2, TimeUnit.SECONDS).untilAsserted(() -> assertEquals(0, map.size()));
+
+        map.stop();
+    }
+
+    public void testHashedWheelTimeoutMapGetRemove() throws Exception {
+        HashedWheelTimeoutMap<String, Integer> map = newManualMap(100);
+
+        map.put("A", 123, 50);
+        map.put("B", 456, 50);
+        assertEquals(2, map.size());
+        assertEquals(2, map.getKeys().length);
+
+        assertEquals(123, (int) map.get("A"));
+        assertEquals(123, (int) map.remove("A"));
+        assertEquals(null, map.get("A"));
+        assertEquals(1, map.size());
+
+        // replace B and then only the new entry expires
+        assertEquals(456, (int) map.put("B", 789, 500));
+        assertEquals(789, (int) map.putIfAbsent("B", 0, 10));
+
+        advance(300);
+        assertEquals(1, map.size());
+        assertTrue(evicted.isEmpty());
+
+        advance(300);
+        assertEquals(0, map.size());
+        assertEquals("[B=789]", evicted.toString());
+    }
+
+    public void testExpiredInCorrectOrder() throws Exception {
+        HashedWheelTimeoutMap<String, Integer> map = newManualMap(10);
+
+        map.put("A", 1, 50);
+        map.put("B", 2, 30);
+        map.put("C", 3, 40);
+        map.put("D", 4, 20);
+        map.put("E", 5, 45);
+        // is not expired
+        map.put("F", 6, 800);
+
+        clock += 250;
+        map.purge();
+
+        assertEquals("[D=4, B=2, C=3, E=5, A=1]", evicted.toString());
+        assertEquals(1, map.size());
+    }
+
+    public void testGetExtendsTimeout() throws Exception {
+        HashedWheelTimeoutMap<String, Integer> map = newManualMap(10);
+
+        map.put("A", 1, 100);
+        for (int i = 0; i < 10; i++) {
+            advance(50);
+            assertEquals(1, (int) map.get("A"));
+        }
+        assertTrue(evicted.isEmpty());
+
+        advance(150);
+        assertEquals("[A=1]", evicted.toString());
+    }
+
+    public void testExpiredNotEvicted() throws Exception {
+        HashedWheelTimeoutMap<String, Integer> map = newManualMap(10);
+
+        map.put("A", 1, 90);
+        map.put("gold", 9, 110);
+        map.put("C", 3, 120);
+
+        advance(250);
+        assertEquals("[A=1, C=3]", evicted.toString());
+
+        // and keep the gold in the map, which is tried again
+        assertEquals(1, map.size());
+        advance(100);
+        assertEquals(1, map.size());
+        assertEquals(Integer.valueOf(9), map.get("gold"));
+    }
+
+    public void testCascadeCoarserWheels() throws Exception {
+        HashedWheelTimeoutMap<String, Integer> map = newManualMap(1);
+
+        // the timeouts are in the first, second, third and fourth wheel
+        long[] timeouts = {200, 1000, 70000, 20000000};
+        for (int i = 0; i < timeouts.length; i++) {
+            map.put("T" + i, i, timeouts[i]);
+        }
+
+        long elapsed = 0;
+        for (int i = 0; i < timeouts.length; i++) {
+            // advance close to the timeout and it must not expire yet
+            long step = timeouts[i] - elapsed - 1;
+            clock += step;
+            elapsed += step;
+            map.purge();
+            assertEquals("Should not expire T" + i, i, evicted.size());
+
+            clock += 2;
+            elapsed += 2;
+            map.purge();
+            assertEquals("Should expire T" + i, i + 1, evicted.size());
+            assertEquals("T" + i + "=" + i, evicted.get(i));
+        }
+        assertEquals(0, map.size());
+    }
+
+    public void testManyEntries() throws Exception {
+        HashedWheelTimeoutMap<String, Integer> map = newManualMap(10);
+
+        for (int i = 0; i < 10000; i++) {
+            map.put("K" + i, i, 10 + i);
+        }
+        for (int i = 0; i < 10000; i += 2) {
+            map.remove("K" + i);
+        }
+        advance(5000);
+        // about half of the remaining entries has expired
+        assertTrue("Size was " + map.size(), map.size() > 2400 && map.size() < 2600);
+        advance(6000);
+        assertEquals(0, map.size());
+        assertEquals(5000, evicted.size());
+    }
+
+    public void testConcurrentPutRemove() throws Exception {
+        final HashedWheelTimeoutMap<String, Integer> map = newManualMap(10);
+
+        // the entries are linked into the same slots by many threads at the same time
+        List<Thread> threads = new ArrayList<Thread>();
+        for (int t = 0; t < 8; t++) {
+            final int thread = t;
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 20000; i++) {
+                    String key = thread + "-" + i;
+                    map.put(key, i, 10 + i % 100);
+                    if (i % 2 == 0) {
+                        map.remove(key);
+                    }
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(80000, map.size());
+
+        advance(200);
+        assertEquals(0, map.size());
+        assertEquals(80000, evicted.size());
+    }
+
+    private HashedWheelTimeoutMap<String, Integer> newManualMap(long tick) {
+        // the map is not started so it is purged manually using a fake clock
+        map = new HashedWheelTimeoutMap<String, Integer>(executor, tick) {
+            @Override
+            public boolean onEviction(String key, Integer value) {
+                // do not evict special key
+                if ("gold".equals(key)) {
+                    return false;
+                }
+                evicted.add(key + "=" + value);
+                return true;
+            }
+
+            @Override
+            protected long currentTime() {
+                return clock;
+            }
+        };
+        return map;
+    }
+
+    private void advance(long millis) {
+        // the map is purged for each tick of 10 millis
+        for (long i = 0; i < millis; i += 10) {
+            clock += 10;
+            map.purge();
+        }
+    }
+}
@@ -0,0 +1,197 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.util;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Scanner;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.Exchange;
+import org.apache.camel.TestSupport;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.apache.camel.impl.DefaultExchange;
+
+/**
+ *
+ */
+public class ByteTokenIteratorTest extends TestSupport {
+
+    private static final String[] INPUTS = {"", ",", ",,", ",,,", "a", "a,", ",a", ",,a", "a,,", "a,b,c", "a,,b", ",a,", ",,a,,",
+        "ABC,DEF,GHI,JKL,MNO,PQR,STU,VW", "ABCDEFGHIJKLMNOPQRSTUVWXYZ,0123456789", "å,ø,æ,€,Ω", "a,b,c,d,e,f,g,"};
+
+    private CamelContext context;
+    private Exchange exchange;
+
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        context = new DefaultCamelContext();
+        context.start();
+        exchange = new DefaultExchange(context);
+    }
+
+    @Override
+    public void tearDown() throws Exception {
+        context.stop();
+        super.tearDown();
+    }
+
+    private static ReadableByteChannel channel(String s) {
+        return Channels.newChannel(new ByteArrayInputStream(s.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static List<Object> toList(Iterator<?> it) {
+        List<Object> answer = new ArrayList<Object>();
+        while (it.hasNext()) {
+            answer.add(it.next());
+        }
+        return answer;
+    }
+
+    private static List<Object> scan(String s, String token) {
+        Scanner scanner = new Scanner(s);
+        scanner.useDelimiter(token);
+        return toList(scanner);
+    }
+
+    public void testSameAsScanner() throws Exception {
+        for (String token : new String[]{",", ",,", "€"}) {
+            for (String input : INPUTS) {
+                String s = input.replace(",", token);
+                // use a small buffer to read the input in several chunks
+                for (int size : new int[]{3, 4, 7, 64}) {
+                    ByteTokenIterator it = new ByteTokenIterator(channel(s), token, StandardCharsets.UTF_8, size);
+                    assertEquals("Input: " + s + " with buffer size: " + size, scan(s, token), toList(it));
+                }
+            }
+        }
+    }
+
+    public void testSameAsGroupTokenIterator() throws Exception {
+        for (String input : INPUTS) {
+            for (int group = 1; group <= 3; group++) {
+                for (boolean skipFirst : new boolean[]{false, true}) {
+                    if (skipFirst && scan(input, ",").size() < 2) {
+                        // the group token iterator fails if there is only the part to skip
+                        continue;
+                    }
+                    Scanner scanner = new Scanner(input);
+                    scanner.useDelimiter(",");
+                    List<Object> expected = toList(new GroupTokenIterator(exchange, scanner, ",", group, skipFirst));
+
+                    ByteTokenIterator it = new ByteTokenIterator(channel(input), ",", StandardCharsets.UTF_8, 4);
+                    assertEquals("Input: " + input + " grouped by: " + group, expected, toList(it.group(group, skipFirst)));
+                }
+            }
+        }
+    }
+
+    public void testLongParts() throws Exception {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            sb.append("line").append(i).append("\r\n");
+            if (i % 100 == 0) {
+                // a part larger than the buffer
+                for (int j = 0; j < 200; j++) {
+                    sb.append("x");
+                }
+                sb.append("\r\n");
+            }
+        }
+        String s = sb.toString();
+
+        ByteTokenIterator it = new ByteTokenIterator(channel(s), "\r\n", StandardCharsets.UTF_8, 16);
+        assertEquals(scan(s, "\r\n"), toList(it));
+    }
+
+    public void testIsSupported() throws Exception {
+        assertTrue(ByteTokenIterator.isSupported("\n", StandardCharsets.UTF_8));
+        assertTrue(ByteTokenIterator.isSupported("</order>", StandardCharsets.ISO_8859_1));
+        assertTrue(ByteTokenIterator.isSupported(",", StandardCharsets.US_ASCII));
+        // regular expressions
+        assertFalse(ByteTokenIterator.isSupported("\\s+", StandardCharsets.UTF_8));
+        assertFalse(ByteTokenIterator.isSupported("a|b", StandardCharsets.UTF_8));
+        assertFalse(ByteTokenIterator.isSupported(".", StandardCharsets.UTF_8));
+        // the bytes of the token depends on where the token is in UTF-16
+        assertFalse(ByteTokenIterator.isSupported("\n", StandardCharsets.UTF_16));
+        assertFalse(ByteTokenIterator.isSupported("€", StandardCharsets.ISO_8859_1));
+        assertFalse(ByteTokenIterator.isSupported("", StandardCharsets.UTF_8));
+    }
+
+    public void testMalformedInput() throws Exception {
+        byte[] data = {'a', ',', (byte) 0xc3, 'x', ',', 'b'};
+        ByteTokenIterator it = new ByteTokenIterator(Channels.newChannel(new ByteArrayInputStream(data)), ",", StandardCharsets.UTF_8);
+
+        // malformed input is replaced as the scanner does
+        List<Object> parts = toList(it);
+        assertEquals(Arrays.asList("a", "\uFFFDx", "b"), parts);
+
+        Scanner scanner = new Scanner(new ByteArrayInputStream(data), "UTF-8");
+        scanner.useDelimiter(",");
+        assertEquals(toList(scanner), parts);
+    }
+
+    public void testClose() throws Exception {
+        ReadableByteChannel channel = channel("a,b,c");
+        ByteTokenIterator it = new ByteTokenIterator(channel, ",", Charset.forName("UTF-8"));
+        assertEquals("a", it.next());
+        it.close();
+        assertFalse(channel.isOpen());
+        assertFalse(it.hasNext());
+    }
+
+    public void testAutoClose() throws Exception {
+        ReadableByteChannel channel = channel("a,b");
+        ByteTokenIterator it = new ByteTokenIterator(channel, ",", StandardCharsets.UTF_8);
+        assertEquals(2, toList(it).size());
+        assertFalse(channel.isOpen());
+    }
+
+    public void testBufferSizedFromInput() throws Exception {
+        exchange.setProperty(Exchange.CHARSET_NAME, "UTF-8");
+        File file = new File("target/bytetokeniterator/input.txt");
+        file.getParentFile().mkdirs();
+
+        for (String input : INPUTS) {
+            byte[] data = input.getBytes(StandardCharsets.UTF_8);
+            ByteTokenIterator it = ObjectHelper.getByteTokenIterator(exchange, new ByteArrayInputStream(data), ",");
+            assertEquals(data.length + 1, it.getBufferCapacity());
+            assertEquals("Input: " + input, scan(input, ","), toList(it));
+
+            Files.write(file.toPath(), data);
+            it = ObjectHelper.getByteTokenIterator(exchange, file, ",");
+            assertEquals(data.length + 1, it.getBufferCapacity());
+            assertEquals("Input: " + input, scan(input, ","), toList(it));
+        }
+
+        // the size of a stream which is not a byte array stream is not known
+        ByteTokenIterator it = ObjectHelper.getByteTokenIterator(exchange, new BufferedInputStream(new ByteArrayInputStream(new byte[10])), ",");
+        assertEquals(ByteTokenIterator.DEFAULT_BUFFER_SIZE, it.getBufferCapacity());
+        it.close();
+    }
+}
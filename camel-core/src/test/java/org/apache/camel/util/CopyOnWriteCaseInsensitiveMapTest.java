@@ -0,0 +1,164 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+/**
+ * @version
+ */
+public class CopyOnWriteCaseInsensitiveMapTest extends TestCase {
+
+    public void testLookupCaseAgnostic() {
+        Map<String, Object> map = new CopyOnWriteCaseInsensitiveMap();
+        assertNull(map.get("foo"));
+
+        map.put("foo", "cheese");
+
+        assertEquals("cheese", map.get("foo"));
+        assertEquals("cheese", map.get("Foo"));
+        assertEquals("cheese", map.get("FOO"));
+        assertTrue(map.containsKey("fOO"));
+
+        // keeps the case of the first key
+        map.put("FOO", "cake");
+        assertEquals(1, map.size());
+        assertEquals("cake", map.get("foo"));
+        assertEquals("[foo]", map.keySet().toString());
+
+        assertEquals("cake", map.remove("Foo"));
+        assertTrue(map.isEmpty());
+        assertNull(map.get("foo"));
+    }
+
+    public void testInsertionOrder() {
+        Map<String, Object> map = new CopyOnWriteCaseInsensitiveMap();
+        map.put("c", 1);
+        map.put("A", 2);
+        map.put("b", 3);
+        map.remove("a");
+        map.put("d", 4);
+
+        assertEquals("{c=1, b=3, d=4}", map.toString());
+    }
+
+    public void testCopyOnWrite() {
+        CopyOnWriteCaseInsensitiveMap map = new CopyOnWriteCaseInsensitiveMap();
+        map.put("foo", "cheese");
+        map.put("bar", "beer");
+
+        Map<String, Object> copy = new CopyOnWriteCaseInsensitiveMap(map);
+        assertEquals(map, copy);
+
+        copy.put("FOO", "cake");
+        copy.remove("bar");
+        copy.put("baz", "wine");
+        assertEquals("cheese", map.get("foo"));
+        assertEquals("beer", map.get("bar"));
+        assertNull(map.get("baz"));
+        assertEquals(2, map.size());
+        assertEquals("{foo=cake, baz=wine}", copy.toString());
+
+        // changing the original does not change the copy
+        Map<String, Object> copy2 = new CopyOnWriteCaseInsensitiveMap(map);
+        map.clear();
+        assertEquals("{foo=cheese, bar=beer}", copy2.toString());
+    }
+
+    public void testIteratorRemoveAndSetValue() {
+        CopyOnWriteCaseInsensitiveMap map = new CopyOnWriteCaseInsensitiveMap();
+        for (int i = 0; i < 20; i++) {
+            map.put("key" + i, i);
+        }
+        Map<String, Object> copy = new CopyOnWriteCaseInsensitiveMap(map);
+
+        Iterator<Map.Entry<String, Object>> it = copy.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<String, Object> entry = it.next();
+            int value = (Integer) entry.getValue();
+            if (value % 2 == 0) {
+                it.remove();
+            } else {
+                entry.setValue(value * 10);
+            }
+        }
+
+        assertEquals(10, copy.size());
+        assertEquals(20, map.size());
+        assertEquals(10, copy.get("KEY1"));
+        assertNull(copy.get("key2"));
+        assertEquals(1, map.get("key1"));
+        assertEquals(2, map.get("key2"));
+    }
+
+    public void testSameAsCaseInsensitiveMap() {
+        Random random = new Random(42);
+        Map<String, Object> expected = new CaseInsensitiveMap();
+        Map<String, Object> map = new CopyOnWriteCaseInsensitiveMap();
+        List<Map<String, Object>> copies = new ArrayList<Map<String, Object>>();
+
+        for (int i = 0; i < 10000; i++) {
+            String key = (random.nextBoolean() ? "Key" : "kEY") + random.nextInt(100);
+            int op = random.nextInt(10);
+            if (op < 6) {
+                assertEquals(expected.put(key, i), map.put(key, i));
+            } else if (op < 9) {
+                assertEquals(expected.remove(key), map.remove(key));
+            } else {
+                copies.add(new CopyOnWriteCaseInsensitiveMap(map));
+                copies.add(new CaseInsensitiveMap(expected));
+            }
+            assertEquals(expected.size(), map.size());
+            assertEquals(expected.get(key), map.get(key));
+        }
+        assertEquals(expected, map);
+
+        for (int i = 0; i < copies.size(); i += 2) {
+            assertEquals(copies.get(i + 1), copies.get(i));
+        }
+    }
+
+    public void testSerialization() throws Exception {
+        CopyOnWriteCaseInsensitiveMap map = new CopyOnWriteCaseInsensitiveMap();
+        map.put("foo", "cheese");
+        map.put("bar", 123);
+
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        ObjectOutputStream out = new ObjectOutputStream(bos);
+        out.writeObject(map);
+        out.close();
+
+        ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bos.toByteArray()));
+        @SuppressWarnings("unchecked")
+        Map<String, Object> answer = (Map<String, Object>) in.readObject();
+
+        assertEquals("cheese", answer.get("FOO"));
+        assertEquals(123, answer.get("Bar"));
+        answer.put("baz", "wine");
+        assertEquals(3, answer.size());
+    }
+}
@@ -0,0 +1,215 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.util.concurrent;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import junit.framework.TestCase;
+
+/**
+ * @version
+ */
+public class MpmcArrayBlockingQueueTest extends TestCase {
+
+    public void testOfferAndPoll() throws Exception {
+        MpmcArrayBlockingQueue<String> queue = new MpmcArrayBlockingQueue<String>(3);
+
+        assertTrue(queue.isEmpty());
+        assertTrue(queue.offer("A"));
+        assertTrue(queue.offer("B"));
+        assertTrue(queue.offer("C"));
+        assertFalse("Queue should be full", queue.offer("D"));
+        assertEquals(3, queue.size());
+        assertEquals(0, queue.remainingCapacity());
+        assertEquals("A", queue.peek());
+
+        assertEquals("A", queue.poll());
+        assertTrue(queue.offer("D"));
+        assertEquals("B", queue.poll());
+        assertEquals("C", queue.poll());
+        assertEquals("D", queue.poll());
+        assertNull(queue.poll());
+        assertNull(queue.poll(50, TimeUnit.MILLISECONDS));
+        assertFalse(queue.offer("E", 50, TimeUnit.MILLISECONDS) && queue.offer("F", 50, TimeUnit.MILLISECONDS)
+            && queue.offer("G", 50, TimeUnit.MILLISECONDS) && queue.offer("H", 50, TimeUnit.MILLISECONDS));
+    }
+
+    public void testRemoveAndDrain() throws Exception {
+        MpmcArrayBlockingQueue<String> queue = new MpmcArrayBlockingQueue<String>(10);
+        for (int i = 0; i < 5; i++) {
+            queue.put("" + i);
+        }
+
+        assertTrue(queue.remove("2"));
+        assertFalse(queue.remove("2"));
+        assertFalse(queue.contains("2"));
+        assertTrue(queue.contains("3"));
+
+        List<String> drained = new ArrayList<String>();
+        assertEquals(3, queue.drainTo(drained, 3));
+        assertEquals("[0, 1, 3]", drained.toString());
+        assertEquals(1, queue.drainTo(drained));
+        assertEquals("[0, 1, 3, 4]", drained.toString());
+        assertTrue(queue.isEmpty());
+    }
+
+    public void testTakeWaitsForProducer() throws Exception {
+        final MpmcArrayBlockingQueue<String> queue = new MpmcArrayBlockingQueue<String>(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            executor.submit(() -> {
+                Thread.sleep(100);
+                queue.put("A");
+                // blocks until the consumer has taken A
+                queue.put("B");
+                return null;
+            });
+
+            assertEquals("A", queue.take());
+            assertEquals("B", queue.poll(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    public void testCapacityOne() throws Exception {
+        MpmcArrayBlockingQueue<String> queue = new MpmcArrayBlockingQueue<String>(1);
+
+        assertTrue(queue.offer("A"));
+        assertFalse("Queue should be full", queue.offer("B"));
+        assertEquals("A", queue.peek());
+        assertEquals("A", queue.poll());
+        assertNull(queue.poll());
+        assertTrue(queue.offer("B"));
+        assertFalse("Queue should be full", queue.offer("C"));
+        assertEquals("B", queue.poll());
+        assertNull(queue.poll(10, TimeUnit.MILLISECONDS));
+    }
+
+    public void testCapacityOneProducerAndConsumer() throws Exception {
+        final MpmcArrayBlockingQueue<Integer> queue = new MpmcArrayBlockingQueue<Integer>(1);
+        final int messages = 10000;
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            executor.submit(() -> {
+                for (int i = 0; i < messages; i++) {
+                    queue.put(i);
+                }
+                return null;
+            });
+
+            // every element must be received once and in order
+            for (int i = 0; i < messages; i++) {
+                assertEquals(Integer.valueOf(i), queue.poll(5, TimeUnit.SECONDS));
+            }
+            assertTrue(queue.isEmpty());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    public void testIdleConsumersDoNotWakeEachOther() throws Exception {
+        final MpmcArrayBlockingQueue<String> queue = new MpmcArrayBlockingQueue<String>(10);
+        final int consumers = 8;
+        final AtomicLong cpuTime = new AtomicLong();
+        final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        ExecutorService executor = Executors.newFixedThreadPool(consumers);
+        try {
+            List<Future<String>> futures = new ArrayList<Future<String>>();
+            for (int c = 0; c < consumers; c++) {
+                futures.add(executor.submit(() -> {
+                    long start = threads.getCurrentThreadCpuTime();
+                    try {
+                        return queue.poll(1, TimeUnit.SECONDS);
+                    } finally {
+                        cpuTime.addAndGet(threads.getCurrentThreadCpuTime() - start);
+                    }
+                }));
+            }
+            // wake up one of the waiting consumers which should not wake up the others
+            Thread.sleep(200);
+            queue.put("A");
+
+            int received = 0;
+            for (Future<String> future : futures) {
+                if (future.get(5, TimeUnit.SECONDS) != null) {
+                    received++;
+                }
+            }
+            assertEquals(1, received);
+            assertTrue("Waiting consumers should be parked but used " + cpuTime.get() + " nanos of cpu time",
+                cpuTime.get() < TimeUnit.MILLISECONDS.toNanos(250));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    public void testManyProducersAndConsumers() throws Exception {
+        final MpmcArrayBlockingQueue<Integer> queue = new MpmcArrayBlockingQueue<Integer>(16);
+        final int producers = 4;
+        final int consumers = 4;
+        final int messages = 10000;
+        final ConcurrentHashMap<Integer, Boolean> received = new ConcurrentHashMap<Integer, Boolean>();
+        final AtomicInteger duplicates = new AtomicInteger();
+        final CountDownLatch latch = new CountDownLatch(producers * messages);
+
+        ExecutorService executor = Executors.newFixedThreadPool(producers + consumers);
+        try {
+            for (int p = 0; p < producers; p++) {
+                final int offset = p * messages;
+                executor.submit(() -> {
+                    for (int i = 0; i < messages; i++) {
+                        queue.put(offset + i);
+                    }
+                    return null;
+                });
+            }
+            for (int c = 0; c < consumers; c++) {
+                executor.submit(() -> {
+                    while (!Thread.currentThread().isInterrupted()) {
+                        Integer value = queue.poll(100, TimeUnit.MILLISECONDS);
+                        if (value != null) {
+                            if (received.put(value, Boolean.TRUE) != null) {
+                                duplicates.incrementAndGet();
+                            }
+                            latch.countDown();
+                        }
+                    }
+                    return null;
+                });
+            }
+
+            assertTrue("Should receive all messages", latch.await(20, TimeUnit.SECONDS));
+            assertEquals(producers * messages, received.size());
+            assertEquals(0, duplicates.get());
+            assertTrue(queue.isEmpty());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -606,6 +606,14 @@ public abstract class AbstractCamelContextFactoryBean<T extends ModelCamelContex
         if (spoolChiper != null) {
             getContext().getStreamCachingStrategy().setSpoolChiper(spoolChiper);
         }
+        Integer bufferPoolSize = CamelContextHelper.parseInteger(getContext(), streamCaching.getBufferPoolSize());
+        if (bufferPoolSize != null) {
+            getContext().getStreamCachingStrategy().setBufferPoolSize(bufferPoolSize);
+        }
+        Boolean bufferPoolDirect = CamelContextHelper.parseBoolean(getContext(), streamCaching.getBufferPoolDirect());
+        if (bufferPoolDirect != null) {
+            getContext().getStreamCachingStrategy().setBufferPoolDirect(bufferPoolDirect);
+        }
         Boolean remove = CamelContextHelper.parseBoolean(getContext(), streamCaching.getRemoveSpoolDirectoryWhenStopping());
         if (remove != null) {
             getContext().getStreamCachingStrategy().setRemoveSpoolDirectoryWhenStopping(remove);
@@ -50,6 +50,10 @@ public class CamelStreamCachingStrategyDefinition extends IdentifiedType {
     private String spoolRules;
     @XmlAttribute
     private String bufferSize;
+    @XmlAttribute
+    private String bufferPoolSize;
+    @XmlAttribute @Metadata(defaultValue = "false")
+    private String bufferPoolDirect;
     @XmlAttribute @Metadata(defaultValue = "true")
     private String removeSpoolDirectoryWhenStopping;
     @XmlAttribute
@@ -159,6 +163,33 @@ public class CamelStreamCachingStrategyDefinition extends IdentifiedType {
         this.bufferSize = bufferSize;
     }
 
+    public String getBufferPoolSize() {
+        return bufferPoolSize;
+    }
+
+    /**
+     * Sets the number of free buffers to keep in a pool of buffers shared by the in-memory stream caches.
+     * <p/>
+     * When in use the in-memory stream caches stores the content in a list of buffers from the pool,
+     * which are returned to the pool when the exchanges are completed.
+     * <p/>
+     * The default value is <tt>0</tt> which means the pool is not in use.
+     */
+    public void setBufferPoolSize(String bufferPoolSize) {
+        this.bufferPoolSize = bufferPoolSize;
+    }
+
+    public String getBufferPoolDirect() {
+        return bufferPoolDirect;
+    }
+
+    /**
+     * Sets whether the pool of buffers should use direct (off heap) buffers.
+     */
+    public void setBufferPoolDirect(String bufferPoolDirect) {
+        this.bufferPoolDirect = bufferPoolDirect;
+    }
+
     public String getRemoveSpoolDirectoryWhenStopping() {
         return removeSpoolDirectoryWhenStopping;
     }
@@ -64,6 +64,8 @@ public class CsvDataFormat extends ServiceSupport implements DataFormat, DataFor
     // Unmarshal options
     private boolean lazyLoad;
     private boolean useMaps;
+    private boolean useRecordViews;
+    private int batchSize;
     private CsvRecordConverter<?> recordConverter;
 
     private volatile CsvMarshaller marshaller;
@@ -673,6 +675,51 @@ public class CsvDataFormat extends ServiceSupport implements DataFormat, DataFor
         return this;
     }
 
+    /**
+     * Indicates whether or not the unmarshalling should produce read-only views over the parsed records instead of
+     * copying their values into new lists or maps.
+     *
+     * @return {@code true} for record views, {@code false} for copies
+     */
+    public boolean isUseRecordViews() {
+        return useRecordViews;
+    }
+
+    /**
+     * Sets whether or not the unmarshalling should produce read-only views over the parsed records instead of copying
+     * their values into new lists or maps. This avoids an extra collection per line, which matters when parsing very
+     * large files. It has no effect when a custom record converter is used.
+     *
+     * @param useRecordViews {@code true} for record views, {@code false} for copies
+     * @return Current {@code CsvDataFormat}, fluent API
+     */
+    public CsvDataFormat setUseRecordViews(boolean useRecordViews) {
+        this.useRecordViews = useRecordViews;
+        return this;
+    }
+
+    /**
+     * Gets the number of records per batch when lazily loading the records.
+     *
+     * @return Number of records per batch, {@code 0} if the records are not batched
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Sets the number of records per batch when lazily loading the records. When greater than {@code 0} the iterator
+     * returns lists of up to that many records instead of single records, so that a streaming splitter creates one
+     * exchange per batch. It is only used when {@link CsvDataFormat#isLazyLoad()} is enabled.
+     *
+     * @param batchSize Number of records per batch, {@code 0} to not batch the records
+     * @return Current {@code CsvDataFormat}, fluent API
+     */
+    public CsvDataFormat setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+        return this;
+    }
+
     /**
      * Gets the record converter to use. If {@code null} then it will use {@link CsvDataFormat#isUseMaps()} for finding
      * the proper converter.
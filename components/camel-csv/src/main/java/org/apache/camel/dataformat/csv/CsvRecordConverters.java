@@ -16,9 +16,14 @@
  */
 package org.apache.camel.dataformat.csv;
 
+import java.util.AbstractList;
+import java.util.AbstractMap;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.RandomAccess;
+import java.util.Set;
 
 import org.apache.commons.csv.CSVRecord;
 
@@ -71,4 +76,92 @@ final class CsvRecordConverters {
             return record.toMap();
         }
     }
+
+    /**
+     * Returns a converter that wraps the CSV record into a read-only list view, without copying its values.
+     *
+     * @return converter that wraps the CSV record into a list view
+     */
+    public static CsvRecordConverter<List<String>> listViewConverter() {
+        return ListViewCsvRecordConverter.SINGLETON;
+    }
+
+    private static final class ListViewCsvRecordConverter implements CsvRecordConverter<List<String>> {
+        private static final ListViewCsvRecordConverter SINGLETON = new ListViewCsvRecordConverter();
+
+        @Override
+        public List<String> convertRecord(CSVRecord record) {
+            return new CsvRecordListView(record);
+        }
+    }
+
+    /**
+     * Returns a converter that wraps the CSV record into a read-only map view, without copying its values.
+     *
+     * @return converter that wraps the CSV record into a map view
+     */
+    public static CsvRecordConverter<Map<String, String>> mapViewConverter() {
+        return MapViewCsvRecordConverter.SINGLETON;
+    }
+
+    private static final class MapViewCsvRecordConverter implements CsvRecordConverter<Map<String, String>> {
+        private static final MapViewCsvRecordConverter SINGLETON = new MapViewCsvRecordConverter();
+
+        @Override
+        public Map<String, String> convertRecord(CSVRecord record) {
+            return new CsvRecordMapView(record);
+        }
+    }
+
+    private static final class CsvRecordListView extends AbstractList<String> implements RandomAccess {
+        private final CSVRecord record;
+
+        private CsvRecordListView(CSVRecord record) {
+            this.record = record;
+        }
+
+        @Override
+        public String get(int index) {
+            if (index < 0 || index >= record.size()) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + record.size());
+            }
+            return record.get(index);
+        }
+
+        @Override
+        public int size() {
+            return record.size();
+        }
+    }
+
+    private static final class CsvRecordMapView extends AbstractMap<String, String> {
+        private final CSVRecord record;
+        private Map<String, String> map;
+
+        private CsvRecordMapView(CSVRecord record) {
+            this.record = record;
+        }
+
+        @Override
+        public String get(Object key) {
+            if (key instanceof String && record.isSet((String) key)) {
+                return record.get((String) key);
+            }
+            return null;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return key instanceof String && record.isSet((String) key);
+        }
+
+        @Override
+        public Set<Entry<String, String>> entrySet() {
+            // only build the map when all the entries are needed
+            if (map == null) {
+                map = record.toMap();
+            }
+            return Collections.unmodifiableMap(map).entrySet();
+        }
+    }
 }
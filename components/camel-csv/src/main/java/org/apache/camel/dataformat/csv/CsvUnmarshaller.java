@@ -24,6 +24,7 @@ import java.io.Reader;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 
 import org.apache.camel.Exchange;
 import org.apache.camel.util.IOHelper;
@@ -73,9 +74,9 @@ abstract class CsvUnmarshaller {
         if (dataFormat.getRecordConverter() != null) {
             return dataFormat.getRecordConverter();
         } else if (dataFormat.isUseMaps()) {
-            return CsvRecordConverters.mapConverter();
+            return dataFormat.isUseRecordViews() ? CsvRecordConverters.mapViewConverter() : CsvRecordConverters.mapConverter();
         } else {
-            return CsvRecordConverters.listConverter();
+            return dataFormat.isUseRecordViews() ? CsvRecordConverters.listViewConverter() : CsvRecordConverters.listConverter();
         }
     }
 
@@ -112,9 +113,11 @@ abstract class CsvUnmarshaller {
      */
     @SuppressWarnings("unchecked")
     private static final class StreamCsvUnmarshaller extends CsvUnmarshaller {
+        private final int batchSize;
 
         private StreamCsvUnmarshaller(CSVFormat format, CsvDataFormat dataFormat) {
             super(format, dataFormat);
+            this.batchSize = dataFormat.getBatchSize();
         }
 
         @Override
@@ -123,7 +126,8 @@ abstract class CsvUnmarshaller {
             try {
                 reader = new InputStreamReader(inputStream, IOHelper.getCharsetName(exchange));
                 CSVParser parser = new CSVParser(reader, format);
-                CsvIterator answer = new CsvIterator(parser, converter);
+                CsvIterator iterator = new CsvIterator(parser, converter);
+                Closeable answer = batchSize > 0 ? new CsvBatchIterator(iterator, batchSize) : iterator;
                 // add to UoW so we can close the iterator so it can release any resources
                 exchange.addOnCompletion(new CsvUnmarshalOnCompletion(answer));
                 return answer;
@@ -172,5 +176,48 @@ abstract class CsvUnmarshaller {
             }
         }
     }
+
+    /**
+     * This class groups the records of the CSV iterator into lists of a fixed size.
+     *
+     * @param <T> Converted type
+     */
+    private static final class CsvBatchIterator<T> implements Iterator<List<T>>, Closeable {
+        private final CsvIterator<T> iterator;
+        private final int batchSize;
+
+        private CsvBatchIterator(CsvIterator<T> iterator, int batchSize) {
+            this.iterator = iterator;
+            this.batchSize = batchSize;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return iterator.hasNext();
+        }
+
+        @Override
+        public List<T> next() {
+            if (!iterator.hasNext()) {
+                throw new NoSuchElementException();
+            }
+            // do not allocate a large batch up front as the last batch may be small
+            List<T> answer = new ArrayList<T>(Math.min(batchSize, 1024));
+            while (answer.size() < batchSize && iterator.hasNext()) {
+                answer.add(iterator.next());
+            }
+            return answer;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException("remove");
+        }
+
+        @Override
+        public void close() throws IOException {
+            iterator.close();
+        }
+    }
     //endregion
 }
@@ -27,7 +27,9 @@ import org.junit.Before;
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 
 /**
  * This class tests the common {@link CsvRecordConverter} implementations of
@@ -65,4 +67,35 @@ public class CsvRecordConvertersTest {
         assertEquals("2", map.get("B"));
         assertEquals("3", map.get("C"));
     }
+
+    @Test
+    public void shouldConvertAsListView() {
+        List<String> list = CsvRecordConverters.listViewConverter().convertRecord(record);
+
+        assertNotNull(list);
+        assertEquals(3, list.size());
+        assertEquals("1", list.get(0));
+        assertEquals("2", list.get(1));
+        assertEquals("3", list.get(2));
+        assertEquals(CsvRecordConverters.listConverter().convertRecord(record), list);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void shouldNotModifyListView() {
+        CsvRecordConverters.listViewConverter().convertRecord(record).add("4");
+    }
+
+    @Test
+    public void shouldConvertAsMapView() {
+        Map<String, String> map = CsvRecordConverters.mapViewConverter().convertRecord(record);
+
+        assertNotNull(map);
+        assertEquals("1", map.get("A"));
+        assertEquals("2", map.get("B"));
+        assertEquals("3", map.get("C"));
+        assertNull(map.get("D"));
+        assertFalse(map.containsKey("D"));
+        assertEquals(3, map.size());
+        assertEquals(CsvRecordConverters.mapConverter().convertRecord(record), map);
+    }
 }
@@ -0,0 +1,90 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.dataformat.csv;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.camel.EndpointInject;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+import org.apache.camel.test.junit4.CamelTestSupport;
+import org.junit.Test;
+
+/**
+ * This class tests the batched lazy loading of the {@link CsvDataFormat}.
+ */
+public class CsvUnmarshalBatchTest extends CamelTestSupport {
+    private static final String CSV = "A,B\n1,2\n3,4\n5,6\n7,8\n9,10\n";
+
+    @EndpointInject(uri = "mock:list")
+    private MockEndpoint list;
+
+    @EndpointInject(uri = "mock:map")
+    private MockEndpoint map;
+
+    @Test
+    public void shouldUnmarshalBatchesOfLists() throws Exception {
+        list.expectedMessageCount(3);
+
+        template.sendBody("direct:list", CSV);
+
+        assertMockEndpointsSatisfied();
+        assertEquals(Arrays.asList(Arrays.asList("A", "B"), Arrays.asList("1", "2")), list.getExchanges().get(0).getIn().getBody(List.class));
+        assertEquals(Arrays.asList(Arrays.asList("3", "4"), Arrays.asList("5", "6")), list.getExchanges().get(1).getIn().getBody(List.class));
+        assertEquals(Arrays.asList(Arrays.asList("7", "8"), Arrays.asList("9", "10")), list.getExchanges().get(2).getIn().getBody(List.class));
+    }
+
+    @Test
+    public void shouldUnmarshalBatchesOfMaps() throws Exception {
+        map.expectedMessageCount(2);
+
+        template.sendBody("direct:map", CSV);
+
+        assertMockEndpointsSatisfied();
+        List<?> first = map.getExchanges().get(0).getIn().getBody(List.class);
+        assertEquals(3, first.size());
+        assertEquals("1", ((Map<?, ?>) first.get(0)).get("A"));
+        assertEquals("6", ((Map<?, ?>) first.get(2)).get("B"));
+        List<?> second = map.getExchanges().get(1).getIn().getBody(List.class);
+        assertEquals(2, second.size());
+        assertEquals("9", ((Map<?, ?>) second.get(1)).get("A"));
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                CsvDataFormat lists = new CsvDataFormat()
+                        .setLazyLoad(true)
+                        .setUseRecordViews(true)
+                        .setBatchSize(2);
+
+                CsvDataFormat maps = new CsvDataFormat()
+                        .setLazyLoad(true)
+                        .setUseMaps(true)
+                        .setUseRecordViews(true)
+                        .setBatchSize(3);
+
+                from("direct:list").unmarshal(lists).split(body()).streaming().to("mock:list");
+                from("direct:map").unmarshal(maps).split(body()).streaming().to("mock:map");
+            }
+        };
+    }
+}
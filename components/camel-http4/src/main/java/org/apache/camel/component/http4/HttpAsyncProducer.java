@@ -0,0 +1,243 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.http4;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+
+import org.apache.camel.AsyncCallback;
+import org.apache.camel.AsyncProcessor;
+import org.apache.camel.CamelExchangeException;
+import org.apache.camel.Exchange;
+import org.apache.camel.StreamCache;
+import org.apache.camel.converter.stream.CachedOutputStream;
+import org.apache.camel.util.AsyncProcessorHelper;
+import org.apache.camel.util.IOHelper;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.entity.BasicHttpEntity;
+import org.apache.http.entity.ContentType;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.nio.ContentDecoder;
+import org.apache.http.nio.IOControl;
+import org.apache.http.nio.client.HttpAsyncClient;
+import org.apache.http.nio.client.methods.HttpAsyncMethods;
+import org.apache.http.nio.protocol.AbstractAsyncResponseConsumer;
+import org.apache.http.protocol.HttpContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An asynchronous {@link HttpProducer} which is using the non-blocking {@link HttpAsyncClient},
+ * so no Camel thread is held while waiting for the HTTP response.
+ * <p/>
+ * The request entity is streamed to the remote server, and the response entity is streamed into
+ * the stream cache as it arrives, which overflows to disk for large responses.
+ * <p/>
+ * Notice the exchange continues being routed by the I/O dispatcher thread which received the response,
+ * so any slow or blocking processing after the producer should be handed over to another thread pool,
+ * such as by using the threads EIP.
+ *
+ * @version
+ */
+public class HttpAsyncProducer extends HttpProducer implements AsyncProcessor {
+    private static final Logger LOG = LoggerFactory.getLogger(HttpAsyncProducer.class);
+    private HttpAsyncClient httpAsyncClient;
+    private Semaphore inFlightRequests;
+
+    public HttpAsyncProducer(HttpEndpoint endpoint) {
+        super(endpoint);
+    }
+
+    @Override
+    public void process(Exchange exchange) throws Exception {
+        AsyncProcessorHelper.process(this, exchange);
+    }
+
+    @Override
+    public boolean process(final Exchange exchange, final AsyncCallback callback) {
+        final HttpRequestBase httpRequest;
+        try {
+            httpRequest = prepareHttpRequest(exchange);
+        } catch (Exception e) {
+            exchange.setException(e);
+            callback.done(true);
+            return true;
+        }
+
+        // must not block the calling thread while waiting for a request to complete, so reject the request instead
+        if (inFlightRequests != null && !inFlightRequests.tryAcquire()) {
+            exchange.setException(new RejectedExecutionException("Http " + httpRequest.getMethod() + " request to " + httpRequest.getURI()
+                + " rejected as the maximum of " + getEndpoint().getMaxInFlightRequests() + " in-flight requests has been reached"));
+            callback.done(true);
+            return true;
+        }
+
+        try {
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Executing http {} method: {}", httpRequest.getMethod(), httpRequest.getURI().toString());
+            }
+            httpAsyncClient.execute(HttpAsyncMethods.create(httpRequest), new StreamCachingResponseConsumer(exchange),
+                createHttpContext(), new ResponseCallback(exchange, httpRequest, callback));
+        } catch (RuntimeException e) {
+            // the client may reject the request such as if it has been shutdown
+            releaseInFlightRequest();
+            exchange.setException(e);
+            callback.done(true);
+            return true;
+        }
+
+        // the response is processed by the I/O dispatcher thread of the client
+        return false;
+    }
+
+    @Override
+    protected void doStart() throws Exception {
+        super.doStart();
+
+        httpAsyncClient = getEndpoint().getHttpAsyncClient();
+        if (httpAsyncClient instanceof CloseableHttpAsyncClient && !((CloseableHttpAsyncClient) httpAsyncClient).isRunning()) {
+            ((CloseableHttpAsyncClient) httpAsyncClient).start();
+        }
+        if (getEndpoint().getMaxInFlightRequests() > 0) {
+            inFlightRequests = new Semaphore(getEndpoint().getMaxInFlightRequests());
+        }
+    }
+
+    private void releaseInFlightRequest() {
+        if (inFlightRequests != null) {
+            inFlightRequests.release();
+        }
+    }
+
+    public HttpAsyncClient getHttpAsyncClient() {
+        return httpAsyncClient;
+    }
+
+    public void setHttpAsyncClient(HttpAsyncClient httpAsyncClient) {
+        this.httpAsyncClient = httpAsyncClient;
+    }
+
+    /**
+     * Callback which populates the exchange from the response and continues routing the exchange.
+     */
+    private final class ResponseCallback implements FutureCallback<HttpResponse> {
+
+        private final Exchange exchange;
+        private final HttpRequestBase httpRequest;
+        private final AsyncCallback callback;
+
+        private ResponseCallback(Exchange exchange, HttpRequestBase httpRequest, AsyncCallback callback) {
+            this.exchange = exchange;
+            this.httpRequest = httpRequest;
+            this.callback = callback;
+        }
+
+        @Override
+        public void completed(HttpResponse httpResponse) {
+            try {
+                handleResponse(exchange, httpRequest, httpResponse);
+            } catch (Exception e) {
+                exchange.setException(e);
+            } finally {
+                releaseResponse(exchange, httpResponse);
+                done();
+            }
+        }
+
+        @Override
+        public void failed(Exception e) {
+            exchange.setException(e);
+            done();
+        }
+
+        @Override
+        public void cancelled() {
+            exchange.setException(new CamelExchangeException("Http " + httpRequest.getMethod() + " request to " + httpRequest.getURI() + " was cancelled", exchange));
+            done();
+        }
+
+        private void done() {
+            releaseInFlightRequest();
+            callback.done(false);
+        }
+    }
+
+    /**
+     * Consumer which writes the response entity into a {@link CachedOutputStream} as the content arrives,
+     * so the response is not buffered in memory as a whole.
+     */
+    private static final class StreamCachingResponseConsumer extends AbstractAsyncResponseConsumer<HttpResponse> {
+
+        private final Exchange exchange;
+        private HttpResponse response;
+        private CachedOutputStream cos;
+        private ByteBuffer buffer;
+
+        private StreamCachingResponseConsumer(Exchange exchange) {
+            this.exchange = exchange;
+        }
+
+        @Override
+        protected void onResponseReceived(HttpResponse response) {
+            this.response = response;
+        }
+
+        @Override
+        protected void onEntityEnclosed(HttpEntity entity, ContentType contentType) {
+            // the cache is closed when the exchange is done
+            cos = new CachedOutputStream(exchange);
+            buffer = ByteBuffer.allocate(IOHelper.DEFAULT_BUFFER_SIZE);
+        }
+
+        @Override
+        protected void onContentReceived(ContentDecoder decoder, IOControl ioctrl) throws IOException {
+            int read;
+            while ((read = decoder.read(buffer)) > 0) {
+                cos.write(buffer.array(), 0, read);
+                buffer.clear();
+            }
+        }
+
+        @Override
+        protected HttpResponse buildResult(HttpContext context) throws Exception {
+            if (cos != null) {
+                HttpEntity original = response.getEntity();
+                StreamCache cache = cos.newStreamCache();
+
+                // replace the entity with the cached content
+                BasicHttpEntity entity = new BasicHttpEntity();
+                entity.setContent((InputStream) cache);
+                entity.setContentLength(cache.length());
+                entity.setContentType(original.getContentType());
+                entity.setContentEncoding(original.getContentEncoding());
+                response.setEntity(entity);
+            }
+            return response;
+        }
+
+        @Override
+        protected void releaseResources() {
+            buffer = null;
+        }
+    }
+}
@@ -41,6 +41,7 @@ import org.apache.camel.http.common.UrlRewrite;
 import org.apache.camel.spi.HeaderFilterStrategy;
 import org.apache.camel.spi.Metadata;
 import org.apache.camel.spi.RestProducerFactory;
+import org.apache.camel.util.EndpointHelper;
 import org.apache.camel.util.FileUtil;
 import org.apache.camel.util.IntrospectionSupport;
 import org.apache.camel.util.ObjectHelper;
@@ -59,6 +60,13 @@ import org.apache.http.conn.ssl.DefaultHostnameVerifier;
 import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
 import org.apache.http.impl.client.HttpClientBuilder;
 import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.impl.nio.client.HttpAsyncClientBuilder;
+import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
+import org.apache.http.impl.nio.reactor.DefaultConnectingIOReactor;
+import org.apache.http.impl.nio.reactor.IOReactorConfig;
+import org.apache.http.nio.conn.NoopIOSessionStrategy;
+import org.apache.http.nio.conn.SchemeIOSessionStrategy;
+import org.apache.http.nio.conn.ssl.SSLIOSessionStrategy;
 import org.apache.http.protocol.HttpContext;
 import org.apache.http.ssl.SSLContexts;
 import org.slf4j.Logger;
@@ -180,6 +188,8 @@ public class HttpComponent extends HttpCommonComponent implements RestProducerFa
     @Override
     protected Endpoint createEndpoint(String uri, String remaining, Map<String, Object> parameters) throws Exception {
         Map<String, Object> httpClientParameters = new HashMap<String, Object>(parameters);
+        // the http client options are consumed when creating the blocking client, so keep a copy for the async client
+        final Map<String, Object> asyncClientOptions = IntrospectionSupport.extractProperties(new HashMap<String, Object>(parameters), "httpClient.");
         final Map<String, Object> httpClientOptions = new HashMap<>();
         final HttpClientBuilder clientBuilder = createHttpClientBuilder(uri, parameters, httpClientOptions);
         
@@ -237,8 +247,14 @@ public class HttpComponent extends HttpCommonComponent implements RestProducerFa
         String endpointUriString = endpointUri.toString();
 
         LOG.debug("Creating endpoint uri {}", endpointUriString);
+        // the async client must be prepared before the connection options are consumed by the blocking connection manager
+        HttpAsyncClientBuilder asyncClientBuilder = null;
+        if (getParameter(parameters, "useAsyncClient", Boolean.class, Boolean.FALSE)) {
+            asyncClientBuilder = createHttpAsyncClientBuilder(parameters, asyncClientOptions, sslContextParameters);
+        }
         final HttpClientConnectionManager localConnectionManager = createConnectionManager(parameters, sslContextParameters);
         HttpEndpoint endpoint = new HttpEndpoint(endpointUriString, this, clientBuilder, localConnectionManager, configurer);
+        endpoint.setAsyncClientBuilder(asyncClientBuilder);
 
         // configure the endpoint with the common configuration from the component
         if (getHttpConfiguration() != null) {
@@ -333,6 +349,61 @@ public class HttpComponent extends HttpCommonComponent implements RestProducerFa
         return clientBuilder;
     }
 
+    protected HttpAsyncClientBuilder createHttpAsyncClientBuilder(final Map<String, Object> parameters, final Map<String, Object> httpClientOptions,
+            final SSLContextParameters sslContextParameters) throws Exception {
+        HttpAsyncClientBuilder asyncClientBuilder = HttpAsyncClientBuilder.create();
+        // use the same request configuration (such as timeouts) as the blocking client
+        RequestConfig.Builder requestConfigBuilder = RequestConfig.custom();
+        IntrospectionSupport.setProperties(requestConfigBuilder, httpClientOptions);
+        asyncClientBuilder.setDefaultRequestConfig(requestConfigBuilder.build());
+
+        // the parameters must not be removed as they are used by the blocking connection manager as well
+        HostnameVerifier hostnameVerifier = x509HostnameVerifier;
+        Object verifier = parameters.get("x509HostnameVerifier");
+        if (verifier instanceof HostnameVerifier) {
+            hostnameVerifier = (HostnameVerifier) verifier;
+        } else if (verifier != null) {
+            hostnameVerifier = EndpointHelper.resolveReferenceParameter(getCamelContext(), verifier.toString(), HostnameVerifier.class);
+        }
+        int localMaxTotalConnections = getParameter(parameters, "maxTotalConnections", Integer.class, getMaxTotalConnections());
+        int localConnectionsPerRoute = getParameter(parameters, "connectionsPerRoute", Integer.class, getConnectionsPerRoute());
+        int ioThreadCount = getParameter(parameters, "ioThreadCount", Integer.class, 0);
+
+        IOReactorConfig.Builder ioReactorConfig = IOReactorConfig.custom();
+        if (ioThreadCount > 0) {
+            ioReactorConfig.setIoThreadCount(ioThreadCount);
+        }
+        PoolingNHttpClientConnectionManager connectionManager = new PoolingNHttpClientConnectionManager(
+            new DefaultConnectingIOReactor(ioReactorConfig.build()), null, createAsyncConnectionRegistry(hostnameVerifier, sslContextParameters),
+            null, null, getConnectionTimeToLive(), TimeUnit.MILLISECONDS);
+        if (localMaxTotalConnections > 0) {
+            connectionManager.setMaxTotal(localMaxTotalConnections);
+        }
+        if (localConnectionsPerRoute > 0) {
+            connectionManager.setDefaultMaxPerRoute(localConnectionsPerRoute);
+        }
+        asyncClientBuilder.setConnectionManager(connectionManager);
+        LOG.info("Created async ClientConnectionManager " + connectionManager);
+
+        return asyncClientBuilder;
+    }
+
+    protected Registry<SchemeIOSessionStrategy> createAsyncConnectionRegistry(HostnameVerifier x509HostnameVerifier, SSLContextParameters sslContextParams)
+        throws GeneralSecurityException, IOException {
+        // create the default connection registry to use
+        RegistryBuilder<SchemeIOSessionStrategy> builder = RegistryBuilder.<SchemeIOSessionStrategy>create();
+        builder.register("http", NoopIOSessionStrategy.INSTANCE);
+        builder.register("http4", NoopIOSessionStrategy.INSTANCE);
+        if (sslContextParams != null) {
+            builder.register("https", new SSLIOSessionStrategy(sslContextParams.createSSLContext(getCamelContext()), x509HostnameVerifier));
+            builder.register("https4", new SSLIOSessionStrategy(sslContextParams.createSSLContext(getCamelContext()), x509HostnameVerifier));
+        } else {
+            builder.register("https4", new SSLIOSessionStrategy(SSLContexts.createDefault(), x509HostnameVerifier));
+            builder.register("https", new SSLIOSessionStrategy(SSLContexts.createDefault(), x509HostnameVerifier));
+        }
+        return builder.build();
+    }
+
     protected Registry<ConnectionSocketFactory> createConnectionRegistry(HostnameVerifier x509HostnameVerifier, SSLContextParameters sslContextParams)
         throws GeneralSecurityException, IOException {
         // create the default connection registry to use
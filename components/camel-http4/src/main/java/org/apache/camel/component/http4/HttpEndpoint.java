@@ -41,6 +41,8 @@ import org.apache.http.conn.HttpClientConnectionManager;
 import org.apache.http.conn.ssl.DefaultHostnameVerifier;
 import org.apache.http.impl.client.BasicCookieStore;
 import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.nio.client.HttpAsyncClientBuilder;
+import org.apache.http.nio.client.HttpAsyncClient;
 import org.apache.http.protocol.HttpContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -91,6 +93,24 @@ public class HttpEndpoint extends HttpCommonEndpoint {
     @UriParam(label = "security", description = "To use a custom X509HostnameVerifier such as DefaultHostnameVerifier or NoopHostnameVerifier")
     private HostnameVerifier x509HostnameVerifier;
 
+    @UriParam(label = "producer", description = "Whether the producer should use the non-blocking HttpAsyncClient (based on NIO) instead of the blocking HttpClient."
+        + " The producer is then asynchronous and does not hold a Camel thread while waiting for the HTTP response,"
+        + " which allows many concurrent in-flight requests on a small thread pool."
+        + " Notice a custom httpClientConfigurer must also implement HttpAsyncClientConfigurer to be applied to the HttpAsyncClient,"
+        + " otherwise use the httpAsyncClient option to configure such a client yourself.")
+    private boolean useAsyncClient;
+    @UriParam(label = "producer,advanced", description = "Sets a custom HttpAsyncClient to be used by the producer when useAsyncClient is enabled")
+    private HttpAsyncClient httpAsyncClient;
+    @UriParam(label = "producer,advanced", description = "The number of I/O dispatcher threads used by the HttpAsyncClient when useAsyncClient is enabled."
+        + " By default the number of available processors is used.")
+    private int ioThreadCount;
+    @UriParam(label = "producer,advanced", description = "The maximum number of concurrent in-flight requests when useAsyncClient is enabled."
+        + " When the limit is reached then new requests are rejected with a RejectedExecutionException."
+        + " By default there is no limit, other than the connection pool (maxTotalConnections and connectionsPerRoute)"
+        + " where requests waiting for a connection are queued without holding any threads.")
+    private int maxInFlightRequests;
+    private HttpAsyncClientBuilder asyncClientBuilder;
+
     public HttpEndpoint() {
     }
 
@@ -116,6 +136,9 @@ public class HttpEndpoint extends HttpCommonEndpoint {
     }
 
     public Producer createProducer() throws Exception {
+        if (isUseAsyncClient()) {
+            return new HttpAsyncProducer(this);
+        }
         return new HttpProducer(this);
     }
 
@@ -163,16 +186,8 @@ public class HttpEndpoint extends HttpCommonEndpoint {
 
         if (!useSystemProperties) {
             // configure http proxy from camelContext
-            if (ObjectHelper.isNotEmpty(getCamelContext().getProperty("http.proxyHost")) && ObjectHelper.isNotEmpty(getCamelContext().getProperty("http.proxyPort"))) {
-                String host = getCamelContext().getProperty("http.proxyHost");
-                int port = Integer.parseInt(getCamelContext().getProperty("http.proxyPort"));
-                String scheme = getCamelContext().getProperty("http.proxyScheme");
-                // fallback and use either http or https depending on secure
-                if (scheme == null) {
-                    scheme = HttpHelper.isSecureConnection(getEndpointUri()) ? "https" : "http";
-                }
-                LOG.debug("CamelContext properties http.proxyHost, http.proxyPort, and http.proxyScheme detected. Using http proxy host: {} port: {} scheme: {}", new Object[]{host, port, scheme});
-                HttpHost proxy = new HttpHost(host, port, scheme);
+            HttpHost proxy = createProxyFromCamelContext();
+            if (proxy != null) {
                 clientBuilder.setProxy(proxy);
             }
         } else {
@@ -198,6 +213,82 @@ public class HttpEndpoint extends HttpCommonEndpoint {
         return clientBuilder.build();
     }
 
+    public synchronized HttpAsyncClient getHttpAsyncClient() {
+        if (httpAsyncClient == null) {
+            httpAsyncClient = createHttpAsyncClient();
+        }
+        return httpAsyncClient;
+    }
+
+    /**
+     * Sets a custom HttpAsyncClient to be used by the producer when useAsyncClient is enabled
+     */
+    public void setHttpAsyncClient(HttpAsyncClient httpAsyncClient) {
+        this.httpAsyncClient = httpAsyncClient;
+    }
+
+    /**
+     * Factory method to create a new {@link HttpAsyncClient} instance
+     * <p/>
+     * Producers should use the {@link #getHttpAsyncClient()} method instead.
+     */
+    protected HttpAsyncClient createHttpAsyncClient() {
+        if (asyncClientBuilder == null) {
+            // the component only prepares the builder when useAsyncClient was set in the endpoint uri
+            asyncClientBuilder = HttpAsyncClientBuilder.create();
+            if (getComponent() != null) {
+                asyncClientBuilder.setMaxConnTotal(getComponent().getMaxTotalConnections());
+                asyncClientBuilder.setMaxConnPerRoute(getComponent().getConnectionsPerRoute());
+            }
+        }
+
+        // need to use noop cookiestore when bridging as we do not want to keep cookies in memory
+        asyncClientBuilder.setDefaultCookieStore(isBridgeEndpoint() ? new NoopCookieStore() : cookieStore);
+
+        if (!useSystemProperties) {
+            // configure http proxy from camelContext
+            HttpHost proxy = createProxyFromCamelContext();
+            if (proxy != null) {
+                asyncClientBuilder.setProxy(proxy);
+            }
+        } else {
+            asyncClientBuilder.useSystemProperties();
+        }
+
+        if (isAuthenticationPreemptive()) {
+            // setup the PreemptiveAuthInterceptor here
+            asyncClientBuilder.addInterceptorFirst(new PreemptiveAuthInterceptor());
+        }
+
+        // the configurer (such as for the authentication and proxy options) must support the async client as well
+        HttpClientConfigurer configurer = getHttpClientConfigurer();
+        if (configurer instanceof HttpAsyncClientConfigurer) {
+            ((HttpAsyncClientConfigurer) configurer).configureHttpAsyncClient(asyncClientBuilder);
+        } else if (configurer != null) {
+            throw new IllegalArgumentException("The HttpClientConfigurer " + configurer + " cannot configure the HttpAsyncClient"
+                + " as it does not implement " + HttpAsyncClientConfigurer.class.getName() + "."
+                + " Configure a custom HttpAsyncClient using the httpAsyncClient option instead.");
+        }
+
+        LOG.debug("Setup the HttpAsyncClientBuilder {}", asyncClientBuilder);
+        return asyncClientBuilder.build();
+    }
+
+    private HttpHost createProxyFromCamelContext() {
+        if (ObjectHelper.isNotEmpty(getCamelContext().getProperty("http.proxyHost")) && ObjectHelper.isNotEmpty(getCamelContext().getProperty("http.proxyPort"))) {
+            String host = getCamelContext().getProperty("http.proxyHost");
+            int port = Integer.parseInt(getCamelContext().getProperty("http.proxyPort"));
+            String scheme = getCamelContext().getProperty("http.proxyScheme");
+            // fallback and use either http or https depending on secure
+            if (scheme == null) {
+                scheme = HttpHelper.isSecureConnection(getEndpointUri()) ? "https" : "http";
+            }
+            LOG.debug("CamelContext properties http.proxyHost, http.proxyPort, and http.proxyScheme detected. Using http proxy host: {} port: {} scheme: {}", new Object[]{host, port, scheme});
+            return new HttpHost(host, port, scheme);
+        }
+        return null;
+    }
+
     @Override
     public HttpComponent getComponent() {
         return (HttpComponent) super.getComponent();
@@ -212,6 +303,9 @@ public class HttpEndpoint extends HttpCommonEndpoint {
         if (httpClient instanceof Closeable) {
             IOHelper.close((Closeable)httpClient);
         }
+        if (httpAsyncClient instanceof Closeable) {
+            IOHelper.close((Closeable)httpAsyncClient);
+        }
     }
 
     // Properties
@@ -377,4 +471,57 @@ public class HttpEndpoint extends HttpCommonEndpoint {
     public void setX509HostnameVerifier(HostnameVerifier x509HostnameVerifier) {
         this.x509HostnameVerifier = x509HostnameVerifier;
     }
+
+    public boolean isUseAsyncClient() {
+        return useAsyncClient;
+    }
+
+    /**
+     * Whether the producer should use the non-blocking HttpAsyncClient (based on NIO) instead of the blocking HttpClient.
+     * The producer is then asynchronous and does not hold a Camel thread while waiting for the HTTP response,
+     * which allows many concurrent in-flight requests on a small thread pool.
+     * <p/>
+     * Notice a custom httpClientConfigurer must also implement HttpAsyncClientConfigurer to be applied to the HttpAsyncClient,
+     * otherwise use the httpAsyncClient option to configure such a client yourself.
+     */
+    public void setUseAsyncClient(boolean useAsyncClient) {
+        this.useAsyncClient = useAsyncClient;
+    }
+
+    public int getIoThreadCount() {
+        return ioThreadCount;
+    }
+
+    /**
+     * The number of I/O dispatcher threads used by the HttpAsyncClient when useAsyncClient is enabled.
+     * By default the number of available processors is used.
+     */
+    public void setIoThreadCount(int ioThreadCount) {
+        this.ioThreadCount = ioThreadCount;
+    }
+
+    public int getMaxInFlightRequests() {
+        return maxInFlightRequests;
+    }
+
+    /**
+     * The maximum number of concurrent in-flight requests when useAsyncClient is enabled.
+     * When the limit is reached then new requests are rejected with a RejectedExecutionException.
+     * By default there is no limit, other than the connection pool (maxTotalConnections and connectionsPerRoute)
+     * where requests waiting for a connection are queued without holding any threads.
+     */
+    public void setMaxInFlightRequests(int maxInFlightRequests) {
+        this.maxInFlightRequests = maxInFlightRequests;
+    }
+
+    public HttpAsyncClientBuilder getAsyncClientBuilder() {
+        return asyncClientBuilder;
+    }
+
+    /**
+     * Sets the builder used to create the HttpAsyncClient when useAsyncClient is enabled.
+     */
+    public void setAsyncClientBuilder(HttpAsyncClientBuilder asyncClientBuilder) {
+        this.asyncClientBuilder = asyncClientBuilder;
+    }
 }
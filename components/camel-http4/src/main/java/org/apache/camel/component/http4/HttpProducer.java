@@ -37,6 +37,7 @@ import java.util.Map.Entry;
 import org.apache.camel.CamelExchangeException;
 import org.apache.camel.Exchange;
 import org.apache.camel.Message;
+import org.apache.camel.StreamCache;
 import org.apache.camel.component.file.GenericFile;
 import org.apache.camel.component.http4.helper.HttpMethodHelper;
 import org.apache.camel.converter.stream.CachedOutputStream;
@@ -93,7 +94,34 @@ public class HttpProducer extends DefaultProducer {
     }
 
     public void process(Exchange exchange) throws Exception {
+        HttpRequestBase httpRequest = prepareHttpRequest(exchange);
 
+        // lets store the result in the output message.
+        HttpResponse httpResponse = null;
+        try {
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Executing http {} method: {}", httpRequest.getMethod(), httpRequest.getURI().toString());
+            }
+            httpResponse = executeMethod(httpRequest);
+            handleResponse(exchange, httpRequest, httpResponse);
+        } finally {
+            releaseResponse(exchange, httpResponse);
+        }
+    }
+
+    @Override
+    public HttpEndpoint getEndpoint() {
+        return (HttpEndpoint) super.getEndpoint();
+    }
+
+    /**
+     * Creates the HTTP request to send, with the HTTP headers, cookies and body from the given exchange.
+     *
+     * @param exchange the exchange
+     * @return the request ready to be executed
+     * @throws Exception is thrown if error creating the request
+     */
+    protected HttpRequestBase prepareHttpRequest(Exchange exchange) throws Exception {
         if (getEndpoint().isClearExpiredCookies() && !getEndpoint().isBridgeEndpoint()) {
             // create the cookies before the invocation
             getEndpoint().getCookieStore().clearExpired(new Date());
@@ -184,59 +212,68 @@ public class HttpProducer extends DefaultProducer {
             httpRequest.addHeader("Connection", HTTP.CONN_CLOSE);
         }
 
-        // lets store the result in the output message.
-        HttpResponse httpResponse = null;
-        try {
-            if (LOG.isDebugEnabled()) {
-                LOG.debug("Executing http {} method: {}", httpRequest.getMethod(), httpRequest.getURI().toString());
-            }
-            httpResponse = executeMethod(httpRequest);
-            int responseCode = httpResponse.getStatusLine().getStatusCode();
-            LOG.debug("Http responseCode: {}", responseCode);
+        return httpRequest;
+    }
+
+    /**
+     * Populates the exchange from the HTTP response received from the remote server.
+     *
+     * @param exchange the exchange
+     * @param httpRequest the request which was executed
+     * @param httpResponse the response
+     * @throws Exception is thrown if the HTTP operation failed, or error populating the response
+     */
+    protected void handleResponse(Exchange exchange, HttpRequestBase httpRequest, HttpResponse httpResponse) throws Exception {
+        Message in = exchange.getIn();
+        HeaderFilterStrategy strategy = getEndpoint().getHeaderFilterStrategy();
 
-            if (!throwException) {
-                // if we do not use failed exception then populate response for all response codes
+        int responseCode = httpResponse.getStatusLine().getStatusCode();
+        LOG.debug("Http responseCode: {}", responseCode);
+
+        if (!throwException) {
+            // if we do not use failed exception then populate response for all response codes
+            populateResponse(exchange, httpRequest, httpResponse, in, strategy, responseCode);
+        } else {
+            boolean ok = HttpHelper.isStatusCodeOk(responseCode, getEndpoint().getOkStatusCodeRange());
+            if (ok) {
+                // only populate response for OK response
                 populateResponse(exchange, httpRequest, httpResponse, in, strategy, responseCode);
             } else {
-                boolean ok = HttpHelper.isStatusCodeOk(responseCode, getEndpoint().getOkStatusCodeRange());
-                if (ok) {
-                    // only populate response for OK response
-                    populateResponse(exchange, httpRequest, httpResponse, in, strategy, responseCode);
-                } else {
-                    // operation failed so populate exception to throw
-                    throw populateHttpOperationFailedException(exchange, httpRequest, httpResponse, responseCode);
-                }
+                // operation failed so populate exception to throw
+                throw populateHttpOperationFailedException(exchange, httpRequest, httpResponse, responseCode);
             }
-        } finally {
-            final HttpResponse response = httpResponse;
-            if (httpResponse != null && getEndpoint().isDisableStreamCache()) {
-                // close the stream at the end of the exchange to ensure it gets eventually closed later
-                exchange.addOnCompletion(new SynchronizationAdapter() {
-                    @Override
-                    public void onDone(Exchange exchange) {
-                        try {
-                            EntityUtils.consume(response.getEntity());
-                        } catch (Throwable e) {
-                            // ignore
-                        }
+        }
+    }
+
+    /**
+     * Releases the response entity, either now or when the exchange is done if the stream cache is disabled.
+     *
+     * @param exchange the exchange
+     * @param httpResponse the response, may be <tt>null</tt>
+     */
+    protected void releaseResponse(Exchange exchange, final HttpResponse httpResponse) {
+        if (httpResponse != null && getEndpoint().isDisableStreamCache()) {
+            // close the stream at the end of the exchange to ensure it gets eventually closed later
+            exchange.addOnCompletion(new SynchronizationAdapter() {
+                @Override
+                public void onDone(Exchange exchange) {
+                    try {
+                        EntityUtils.consume(httpResponse.getEntity());
+                    } catch (Throwable e) {
+                        // ignore
                     }
-                });
-            } else if (httpResponse != null) {
-                // close the stream now
-                try {
-                    EntityUtils.consume(response.getEntity());
-                } catch (Throwable e) {
-                    // ignore
                 }
+            });
+        } else if (httpResponse != null) {
+            // close the stream now
+            try {
+                EntityUtils.consume(httpResponse.getEntity());
+            } catch (Throwable e) {
+                // ignore
             }
         }
     }
 
-    @Override
-    public HttpEndpoint getEndpoint() {
-        return (HttpEndpoint) super.getEndpoint();
-    }
-
     protected void populateResponse(Exchange exchange, HttpRequestBase httpRequest, HttpResponse httpResponse,
                                     Message in, HeaderFilterStrategy strategy, int responseCode) throws IOException, ClassNotFoundException {
         // We just make the out message is not create when extractResponseBody throws exception
@@ -323,6 +360,13 @@ public class HttpProducer extends DefaultProducer {
      * @throws IOException can be thrown
      */
     protected HttpResponse executeMethod(HttpUriRequest httpRequest) throws IOException {
+        return httpClient.execute(httpRequest, createHttpContext());
+    }
+
+    /**
+     * Creates the {@link HttpContext} to use when executing a request.
+     */
+    protected HttpContext createHttpContext() {
         HttpContext localContext = new BasicHttpContext();
         if (getEndpoint().isAuthenticationPreemptive()) {
             BasicScheme basicAuth = new BasicScheme();
@@ -331,7 +375,7 @@ public class HttpProducer extends DefaultProducer {
         if (httpContext != null) {
             localContext = new BasicHttpContext(httpContext);
         }
-        return httpClient.execute(httpRequest, localContext);
+        return localContext;
     }
 
     /**
@@ -395,7 +439,13 @@ public class HttpProducer extends DefaultProducer {
                 // wrap the response in a stream cache so its re-readable
                 InputStream response = null;
                 if (!ignoreResponseBody) {
-                    response = doExtractResponseBodyAsStream(is, exchange);
+                    if (is instanceof StreamCache) {
+                        // the response is already cached (eg by the async producer), so a copy is enough
+                        // as the entity stream is closed when the response is released
+                        response = (InputStream) ((StreamCache) is).copy(exchange);
+                    } else {
+                        response = doExtractResponseBodyAsStream(is, exchange);
+                    }
                 }
                 return response;
             } else {
@@ -23,11 +23,12 @@ import org.apache.http.auth.NTCredentials;
 import org.apache.http.auth.UsernamePasswordCredentials;
 import org.apache.http.impl.client.BasicCredentialsProvider;
 import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.nio.client.HttpAsyncClientBuilder;
 
 /**
  * Strategy for configuring the HttpClient with a proxy
  */
-public class ProxyHttpClientConfigurer implements HttpClientConfigurer {
+public class ProxyHttpClientConfigurer implements HttpClientConfigurer, HttpAsyncClientConfigurer {
 
     private final String host;
     private final Integer port;
@@ -55,17 +56,29 @@ public class ProxyHttpClientConfigurer implements HttpClientConfigurer {
         clientBuilder.setProxy(new HttpHost(host, port, scheme));
 
         if (username != null && password != null) {
-            Credentials defaultcreds;
-            if (domain != null) {
-                defaultcreds = new NTCredentials(username, password, ntHost, domain);
-            } else {
-                defaultcreds = new UsernamePasswordCredentials(username, password);
-            }
-            BasicCredentialsProvider credentialsProvider = new BasicCredentialsProvider();
-            credentialsProvider.setCredentials(AuthScope.ANY, defaultcreds);
-            clientBuilder.setDefaultCredentialsProvider(credentialsProvider);
+            clientBuilder.setDefaultCredentialsProvider(createCredentialsProvider());
         }
     }
 
+    public void configureHttpAsyncClient(HttpAsyncClientBuilder clientBuilder) {
+        clientBuilder.setProxy(new HttpHost(host, port, scheme));
+
+        if (username != null && password != null) {
+            clientBuilder.setDefaultCredentialsProvider(createCredentialsProvider());
+        }
+    }
+
+    private BasicCredentialsProvider createCredentialsProvider() {
+        Credentials defaultcreds;
+        if (domain != null) {
+            defaultcreds = new NTCredentials(username, password, ntHost, domain);
+        } else {
+            defaultcreds = new UsernamePasswordCredentials(username, password);
+        }
+        BasicCredentialsProvider credentialsProvider = new BasicCredentialsProvider();
+        credentialsProvider.setCredentials(AuthScope.ANY, defaultcreds);
+        return credentialsProvider;
+    }
+
 
 }
\ No newline at end of file
@@ -0,0 +1,183 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.http4;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.camel.Exchange;
+import org.apache.camel.FailedToCreateProducerException;
+import org.apache.camel.Processor;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.http4.handler.DelayedReplyHandler;
+import org.apache.camel.component.mock.MockEndpoint;
+import org.apache.camel.http.common.HttpOperationFailedException;
+import org.apache.camel.impl.JndiRegistry;
+import org.apache.camel.test.AvailablePortFinder;
+import org.apache.camel.test.junit4.CamelTestSupport;
+import org.apache.camel.util.StopWatch;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.eclipse.jetty.server.Server;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class HttpAsyncProducerTest extends CamelTestSupport {
+
+    private static final int DELAY = 100;
+
+    private static volatile int port;
+    private static Server localServer;
+    private static ScheduledExecutorService scheduler;
+
+    private final ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<Long>();
+
+    @BeforeClass
+    public static void initServer() throws Exception {
+        scheduler = Executors.newScheduledThreadPool(2);
+        port = AvailablePortFinder.getNextAvailable(24000);
+        localServer = new Server(new InetSocketAddress("127.0.0.1", port));
+        localServer.setHandler(new DelayedReplyHandler(scheduler, DELAY));
+        localServer.start();
+    }
+
+    @AfterClass
+    public static void shutdownServer() throws Exception {
+        localServer.stop();
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void testAsyncProducer() throws Exception {
+        Exchange out = template.request(getAsyncUrl("/hello"), exchange -> exchange.getIn().setBody("World"));
+
+        assertNull(out.getException());
+        assertEquals("Bye World", out.getOut().getBody(String.class));
+        assertEquals(200, out.getOut().getHeader(Exchange.HTTP_RESPONSE_CODE));
+        assertTrue(out.getOut().getHeader(Exchange.CONTENT_TYPE, String.class).startsWith("text/plain"));
+    }
+
+    @Test
+    public void testAsyncProducerThrowExceptionOnFailure() throws Exception {
+        Exchange out = template.request(getAsyncUrl("/fail"), exchange -> exchange.getIn().setBody("World"));
+
+        HttpOperationFailedException cause = assertIsInstanceOf(HttpOperationFailedException.class, out.getException());
+        assertEquals(404, cause.getStatusCode());
+    }
+
+    @Test
+    public void testMaxInFlightRequests() throws Exception {
+        List<Future<Exchange>> futures = new ArrayList<Future<Exchange>>();
+        for (int i = 0; i < 5; i++) {
+            final String body = "" + i;
+            futures.add(template.asyncSend(getAsyncUrl("/slow") + "&maxInFlightRequests=1", exchange -> exchange.getIn().setBody(body)));
+        }
+
+        // the requests exceeding the limit are rejected instead of blocking the calling thread
+        int rejected = 0;
+        for (Future<Exchange> future : futures) {
+            Exchange out = future.get(10, TimeUnit.SECONDS);
+            if (out.getException() != null) {
+                assertIsInstanceOf(RejectedExecutionException.class, out.getException());
+                rejected++;
+            } else {
+                assertTrue(out.getOut().getBody(String.class).startsWith("Bye "));
+            }
+        }
+        assertTrue("Some requests should have been rejected", rejected > 0);
+        assertTrue("Some requests should have succeeded", rejected < 5);
+    }
+
+    @Test
+    public void testHttpClientConfigurerNotSupported() throws Exception {
+        try {
+            template.requestBody(getAsyncUrl("/hello") + "&httpClientConfigurer=#myConfigurer", "World", String.class);
+            fail("Should have thrown exception");
+        } catch (FailedToCreateProducerException e) {
+            assertIsInstanceOf(IllegalArgumentException.class, e.getCause());
+        }
+    }
+
+    @Test
+    public void testAsyncProducerThroughput() throws Exception {
+        int size = 1000;
+
+        MockEndpoint mock = getMockEndpoint("mock:result");
+        mock.expectedMessageCount(size);
+        // the seda route only has 2 threads, so each call taking 100 millis would take 50 sec if the producer was blocking
+        mock.setResultWaitTime(20000);
+
+        StopWatch watch = new StopWatch();
+        for (int i = 0; i < size; i++) {
+            template.sendBodyAndHeader("seda:start", "" + i, "sent", System.nanoTime());
+        }
+        assertMockEndpointsSatisfied();
+        long taken = watch.stop();
+
+        long total = 0;
+        long max = 0;
+        for (long latency : latencies) {
+            total += latency;
+            max = Math.max(max, latency);
+        }
+        log.info("Processed {} requests in {} millis ({} requests/sec) with average latency {} millis and max latency {} millis",
+            new Object[]{size, taken, size * 1000L / Math.max(taken, 1), total / latencies.size(), max});
+    }
+
+    @Override
+    protected JndiRegistry createRegistry() throws Exception {
+        JndiRegistry registry = super.createRegistry();
+        // a configurer which only supports the blocking client
+        registry.bind("myConfigurer", new HttpClientConfigurer() {
+            @Override
+            public void configureHttpClient(HttpClientBuilder clientBuilder) {
+                clientBuilder.setUserAgent("Camel");
+            }
+        });
+        return registry;
+    }
+
+    private String getAsyncUrl(String path) {
+        return "http4://127.0.0.1:" + port + path + "?useAsyncClient=true&maxTotalConnections=200&connectionsPerRoute=200";
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from("seda:start?concurrentConsumers=2")
+                    .to(getAsyncUrl("/slow"))
+                    .process(new Processor() {
+                        @Override
+                        public void process(Exchange exchange) throws Exception {
+                            long sent = exchange.getIn().getHeader("sent", Long.class);
+                            latencies.add((System.nanoTime() - sent) / 1000000);
+                        }
+                    })
+                    .to("mock:result");
+            }
+        };
+    }
+}
@@ -0,0 +1,71 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.http4.handler;
+
+import java.io.IOException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.camel.util.IOHelper;
+import org.eclipse.jetty.server.Request;
+import org.eclipse.jetty.server.handler.AbstractHandler;
+
+/**
+ * Replies with the request body prefixed with <tt>Bye</tt> after a delay, without holding a Jetty thread
+ * while waiting, so the server can handle many concurrent slow requests.
+ */
+public class DelayedReplyHandler extends AbstractHandler {
+
+    private final ScheduledExecutorService scheduler;
+    private final long delay;
+
+    public DelayedReplyHandler(ScheduledExecutorService scheduler, long delay) {
+        this.scheduler = scheduler;
+        this.delay = delay;
+    }
+
+    @Override
+    public void handle(String target, Request baseRequest, HttpServletRequest request, final HttpServletResponse response) throws IOException, ServletException {
+        baseRequest.setHandled(true);
+        if (target.startsWith("/fail")) {
+            response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        final String body = IOHelper.loadText(request.getInputStream()).trim();
+        final AsyncContext async = request.startAsync();
+        scheduler.schedule(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    response.setStatus(HttpServletResponse.SC_OK);
+                    response.setContentType("text/plain");
+                    response.getOutputStream().write(("Bye " + body).getBytes());
+                } catch (IOException e) {
+                    // ignore
+                } finally {
+                    async.complete();
+                }
+            }
+        }, delay, TimeUnit.MILLISECONDS);
+    }
+}
@@ -28,10 +28,16 @@ import java.util.Set;
 import java.util.TimeZone;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.filter.FilteringParserDelegate;
+import com.fasterxml.jackson.core.filter.JsonPointerBasedFilter;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.MappingIterator;
 import com.fasterxml.jackson.databind.Module;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.type.CollectionType;
 import com.fasterxml.jackson.module.jaxb.JaxbAnnotationModule;
@@ -43,6 +49,7 @@ import org.apache.camel.spi.DataFormat;
 import org.apache.camel.spi.DataFormatName;
 import org.apache.camel.support.ServiceSupport;
 import org.apache.camel.util.CamelContextHelper;
+import org.apache.camel.util.IOHelper;
 import org.apache.camel.util.ObjectHelper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -75,6 +82,8 @@ public class JacksonDataFormat extends ServiceSupport implements DataFormat, Dat
     private boolean allowUnmarshallType;
     private boolean contentTypeHeader = true;
     private TimeZone timezone;
+    private boolean lazyLoad;
+    private String jsonPointer;
 
     /**
      * Use the default Jackson {@link ObjectMapper} and {@link Object}
@@ -187,11 +196,45 @@ public class JacksonDataFormat extends ServiceSupport implements DataFormat, Dat
         if (type != null) {
             clazz = exchange.getContext().getClassResolver().resolveMandatoryClass(type);
         }
+
+        JsonParser parser = null;
+        if (jsonPointer != null) {
+            // only emit the tokens of the value at the given pointer so the rest of the document is skipped while streaming
+            parser = new FilteringParserDelegate(objectMapper.getFactory().createParser(stream), new JsonPointerBasedFilter(jsonPointer), false, false);
+        }
+
+        if (lazyLoad) {
+            return unmarshalLazy(exchange, stream, parser, clazz);
+        }
+
         if (collectionType != null) {
             CollectionType collType = objectMapper.getTypeFactory().constructCollectionType(collectionType, clazz);
-            return this.objectMapper.readValue(stream, collType);
+            return parser != null ? this.objectMapper.readValue(parser, collType) : this.objectMapper.readValue(stream, collType);
         } else {
-            return this.objectMapper.readValue(stream, clazz);
+            return parser != null ? this.objectMapper.readValue(parser, clazz) : this.objectMapper.readValue(stream, clazz);
+        }
+    }
+
+    private Object unmarshalLazy(Exchange exchange, InputStream stream, JsonParser parser, Class<?> clazz) throws Exception {
+        ObjectReader reader = objectMapper.readerFor(clazz);
+        MappingIterator<Object> answer = null;
+        try {
+            if (parser != null) {
+                // position on the selected array and step into it, so the iterator returns its elements one by one
+                if (parser.nextToken() == JsonToken.START_ARRAY) {
+                    parser.clearCurrentToken();
+                }
+                answer = reader.readValues(parser);
+            } else {
+                // a top level array is unwrapped by the iterator itself
+                answer = reader.readValues(stream);
+            }
+            // make sure the stream gets closed when the exchange is done, even if the iterator is not fully consumed
+            exchange.addOnCompletion(new JacksonUnmarshalOnCompletion(answer));
+            return answer;
+        } catch (Exception e) {
+            IOHelper.close(answer, parser, stream);
+            throw e;
         }
     }
 
@@ -389,6 +432,39 @@ public class JacksonDataFormat extends ServiceSupport implements DataFormat, Dat
         this.timezone = timezone;
     }
 
+    public boolean isLazyLoad() {
+        return lazyLoad;
+    }
+
+    /**
+     * Whether the unmarshalling should produce an iterator that reads the JSON
+     * values on the fly instead of reading the entire document into memory at
+     * once. A top level JSON array is iterated element by element, otherwise
+     * the root level values are iterated in sequence. The iterator can be used
+     * with the streaming mode of the splitter to process large JSON documents.
+     * <p/>
+     * Each value is unmarshalled to the unmarshal type, the collection type is
+     * not used in lazy mode.
+     */
+    public void setLazyLoad(boolean lazyLoad) {
+        this.lazyLoad = lazyLoad;
+    }
+
+    public String getJsonPointer() {
+        return jsonPointer;
+    }
+
+    /**
+     * A <a href="https://tools.ietf.org/html/rfc6901">JSON Pointer</a> such as
+     * <tt>/data/items</tt> to select the value inside the JSON document to
+     * unmarshal. The document is only parsed up to the selected value, so
+     * together with <tt>lazyLoad</tt> the elements of a nested array can be
+     * streamed.
+     */
+    public void setJsonPointer(String jsonPointer) {
+        this.jsonPointer = jsonPointer;
+    }
+
     public String getEnableFeatures() {
         return enableFeatures;
     }
@@ -0,0 +1,42 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.jackson;
+
+import java.io.Closeable;
+
+import org.apache.camel.Exchange;
+import org.apache.camel.support.SynchronizationAdapter;
+import org.apache.camel.util.IOHelper;
+
+/**
+ * Closes the lazy iterator returned by {@link JacksonDataFormat} when the
+ * exchange is done, so the underlying stream is released even if the iterator
+ * was not fully consumed.
+ */
+public class JacksonUnmarshalOnCompletion extends SynchronizationAdapter {
+
+    private final Closeable closeable;
+
+    public JacksonUnmarshalOnCompletion(Closeable closeable) {
+        this.closeable = closeable;
+    }
+
+    @Override
+    public void onDone(Exchange exchange) {
+        IOHelper.close(closeable);
+    }
+}
@@ -0,0 +1,93 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.jackson;
+
+import java.util.Iterator;
+
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.jackson.JacksonObjectListSplitTest.DummyObject;
+import org.apache.camel.component.mock.MockEndpoint;
+import org.apache.camel.test.junit4.CamelTestSupport;
+import org.junit.Test;
+
+public class JacksonLazyLoadSplitTest extends CamelTestSupport {
+
+    @Test
+    public void testLazyLoad() throws Exception {
+        MockEndpoint mock = getMockEndpoint("mock:result");
+        mock.expectedBodiesReceived("value1", "value2", "value3");
+        mock.allMessages().body().isInstanceOf(String.class);
+
+        template.sendBody("direct:start", "[{\"dummy\": \"value1\"}, {\"dummy\": \"value2\"}, {\"dummy\": \"value3\"}]");
+
+        assertMockEndpointsSatisfied();
+    }
+
+    @Test
+    public void testLazyLoadJsonPointer() throws Exception {
+        getMockEndpoint("mock:result").expectedBodiesReceived("value1", "value2");
+
+        template.sendBody("direct:pointer", "{\"total\": 2, \"meta\": {\"items\": []}, \"data\": {\"items\": [{\"dummy\": \"value1\"}, {\"dummy\": \"value2\"}]}}");
+
+        assertMockEndpointsSatisfied();
+    }
+
+    @Test
+    public void testLazyLoadReturnsIterator() throws Exception {
+        Object body = template.requestBody("direct:iterator", "[{\"dummy\": \"value1\"}]");
+        assertIsInstanceOf(Iterator.class, body);
+    }
+
+    @Test
+    public void testJsonPointerNotLazy() throws Exception {
+        Object body = template.requestBody("direct:notLazy", "{\"data\": {\"items\": [{\"dummy\": \"value1\"}]}, \"other\": 123}");
+        assertIsInstanceOf(DummyObject.class, body);
+        assertEquals("value1", ((DummyObject) body).getDummy());
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                JacksonDataFormat format = new JacksonDataFormat(DummyObject.class);
+                format.setLazyLoad(true);
+
+                JacksonDataFormat pointer = new JacksonDataFormat(DummyObject.class);
+                pointer.setLazyLoad(true);
+                pointer.setJsonPointer("/data/items");
+
+                JacksonDataFormat notLazy = new JacksonDataFormat(DummyObject.class);
+                notLazy.setJsonPointer("/data/items/0");
+
+                from("direct:start").unmarshal(format)
+                    .split(body()).streaming()
+                        .transform(simple("${body.dummy}"))
+                        .to("mock:result");
+
+                from("direct:pointer").unmarshal(pointer)
+                    .split(body()).streaming()
+                        .transform(simple("${body.dummy}"))
+                        .to("mock:result");
+
+                from("direct:iterator").unmarshal(format);
+
+                from("direct:notLazy").unmarshal(notLazy);
+            }
+        };
+    }
+}
@@ -28,6 +28,7 @@ public final class JmsConstants {
     public static final String JMS_DELIVERY_MODE = "CamelJmsDeliveryMode";
     public static final String JMS_REQUEST_TIMEOUT = "CamelJmsRequestTimeout";
     public static final String JMS_TRANSFER_FAULT = "CamelJmsTransferFault";
+    public static final String JMS_REPLY_NODE = "CamelJmsReplyNode";
 
     private JmsConstants() {
         // utility class
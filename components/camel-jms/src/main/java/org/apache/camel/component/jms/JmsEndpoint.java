@@ -663,6 +663,16 @@ public class JmsEndpoint extends DefaultEndpoint implements AsyncEndpoint, Heade
         return getConfiguration().isReplyToSameDestinationAllowed();
     }
 
+    @ManagedAttribute
+    public String getReplyToForwardDestination() {
+        return getConfiguration().getReplyToForwardDestination();
+    }
+
+    @ManagedAttribute
+    public String getReplyToDeadLetterDestination() {
+        return getConfiguration().getReplyToDeadLetterDestination();
+    }
+
     @ManagedAttribute
     public String getReplyToDestinationSelectorName() {
         return getConfiguration().getReplyToDestinationSelectorName();
@@ -1007,6 +1017,16 @@ public class JmsEndpoint extends DefaultEndpoint implements AsyncEndpoint, Heade
         getConfiguration().setReplyToSameDestinationAllowed(replyToSameDestinationAllowed);
     }
 
+    @ManagedAttribute
+    public void setReplyToForwardDestination(String replyToForwardDestination) {
+        getConfiguration().setReplyToForwardDestination(replyToForwardDestination);
+    }
+
+    @ManagedAttribute
+    public void setReplyToDeadLetterDestination(String replyToDeadLetterDestination) {
+        getConfiguration().setReplyToDeadLetterDestination(replyToDeadLetterDestination);
+    }
+
     @ManagedAttribute
     public void setReplyToDeliveryPersistent(boolean replyToDeliveryPersistent) {
         getConfiguration().setReplyToDeliveryPersistent(replyToDeliveryPersistent);
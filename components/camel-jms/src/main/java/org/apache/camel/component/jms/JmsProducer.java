@@ -98,6 +98,17 @@ public class JmsProducer extends DefaultAsyncProducer {
                             throw new IllegalArgumentException("ReplyToType " + ReplyToType.Temporary
                                     + " is not supported when replyTo " + endpoint.getReplyTo() + " is also configured.");
                         }
+                        // the node a reply belongs to is told from the correlation id we generate
+                        if (endpoint.getReplyToType().equals(ReplyToType.SharedNoSelector.name())) {
+                            if (endpoint.isUseMessageIDAsCorrelationID()) {
+                                throw new IllegalArgumentException("ReplyToType " + ReplyToType.SharedNoSelector
+                                        + " is not supported when useMessageIDAsCorrelationID is enabled.");
+                            }
+                            if (endpoint.getReplyTo() != null && endpoint.getReplyTo().equals(endpoint.getReplyToForwardDestination())) {
+                                throw new IllegalArgumentException("ReplyToType " + ReplyToType.SharedNoSelector
+                                        + " is not supported when replyToForwardDestination is the same as replyTo " + endpoint.getReplyTo());
+                            }
+                        }
                     }
 
                     if (endpoint.getReplyTo() != null) {
@@ -209,11 +220,17 @@ public class JmsProducer extends DefaultAsyncProducer {
 
         final String originalCorrelationId = in.getHeader(correlationPropertyToUse, String.class);
 
+        // when the reply manager uses a node id then we must always generate the correlation id, as its included in it
+        // (the original correlation id is restored on the reply message)
+        final String replyToNodeId = replyManager.getReplyToNodeId();
+
         boolean generateFreshCorrId = (ObjectHelper.isEmpty(originalCorrelationId) && !msgIdAsCorrId) 
-                || (originalCorrelationId != null && originalCorrelationId.startsWith(GENERATED_CORRELATION_ID_PREFIX));
+                || (originalCorrelationId != null && originalCorrelationId.startsWith(GENERATED_CORRELATION_ID_PREFIX))
+                || replyToNodeId != null;
         if (generateFreshCorrId) {
             // we append the 'Camel-' prefix to know it was generated by us
-            in.setHeader(correlationPropertyToUse, GENERATED_CORRELATION_ID_PREFIX + getUuidGenerator().generateUuid());
+            String prefix = replyToNodeId != null ? GENERATED_CORRELATION_ID_PREFIX + replyToNodeId + "-" : GENERATED_CORRELATION_ID_PREFIX;
+            in.setHeader(correlationPropertyToUse, prefix + getUuidGenerator().generateUuid());
         }
 
         MessageCreator messageCreator = new MessageCreator() {
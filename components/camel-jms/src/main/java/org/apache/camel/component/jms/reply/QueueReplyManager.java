@@ -17,20 +17,26 @@
 package org.apache.camel.component.jms.reply;
 
 import java.math.BigInteger;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Random;
 
 import javax.jms.Destination;
 import javax.jms.JMSException;
 import javax.jms.Message;
+import javax.jms.MessageProducer;
 import javax.jms.Session;
 
 import org.apache.camel.AsyncCallback;
 import org.apache.camel.CamelContext;
 import org.apache.camel.Exchange;
 import org.apache.camel.component.jms.DefaultSpringErrorHandler;
+import org.apache.camel.component.jms.JmsConstants;
 import org.apache.camel.component.jms.ReplyToType;
 import org.springframework.jms.listener.AbstractMessageListenerContainer;
 import org.springframework.jms.listener.DefaultMessageListenerContainer;
+import org.springframework.jms.support.JmsUtils;
 import org.springframework.jms.support.destination.DestinationResolver;
 
 /**
@@ -40,8 +46,13 @@ import org.springframework.jms.support.destination.DestinationResolver;
  */
 public class QueueReplyManager extends ReplyManagerSupport {
 
+    private static final String NODE_CORRELATION_ID_PREFIX = "Camel-";
+
     private String replyToSelectorValue;
+    private String replyToNodeId;
     private MessageSelectorCreator dynamicMessageSelector;
+    private DestinationResolver forwardDestinationResolver;
+    private AbstractMessageListenerContainer forwardListenerContainer;
 
     public QueueReplyManager(CamelContext camelContext) {
         super(camelContext);
@@ -74,6 +85,10 @@ public class QueueReplyManager extends ReplyManagerSupport {
         if (handler != null) {
             correlation.remove(correlationID);
             handler.onReply(correlationID, message, session);
+        } else if (replyToNodeId != null) {
+            // without a message selector we consume the replies for the other nodes sharing the reply queue as well,
+            // so the reply message must be passed on to the node it belongs to instead of being ignored
+            forwardUnknownReply(correlationID, message, session);
         } else {
             // we could not correlate the received reply message to a matching request and therefore
             // we cannot continue routing the unknown message
@@ -83,6 +98,91 @@ public class QueueReplyManager extends ReplyManagerSupport {
         }
     }
 
+    public String getReplyToNodeId() {
+        return replyToNodeId;
+    }
+
+    /**
+     * Forwards a reply message which we could not correlate to a request from this node, to the node the reply
+     * belongs to. The node is told from the correlation id, and the message is sent to the forward destination
+     * with the node id as property, which that node selects on. If the reply belongs to this node, then the request
+     * has timed out (or the reply is a duplicate) and the reply is ignored. If the node cannot be told (or no forward
+     * destination is configured) then the reply is sent to the dead letter destination, or logged and ignored if
+     * no dead letter destination is configured either.
+     */
+    protected void forwardUnknownReply(String correlationID, Message message, Session session) {
+        String node = getNodeId(correlationID);
+        if (replyToNodeId.equals(node)) {
+            log.warn("Reply received for correlationID [{}] on reply destination [{}] which has timed out or already been processed."
+                    + " The message will be ignored: {}", new Object[]{correlationID, replyTo, message});
+            return;
+        }
+
+        String forwardTo = endpoint.getConfiguration().getReplyToForwardDestination();
+        String deadLetter = endpoint.getConfiguration().getReplyToDeadLetterDestination();
+
+        try {
+            String destinationName;
+            if (node != null && forwardTo != null) {
+                destinationName = forwardTo;
+            } else if (deadLetter != null) {
+                destinationName = deadLetter;
+            } else {
+                log.warn("Reply received for unknown correlationID [{}] on reply destination [{}]. Current correlation map size: {}. The message will be ignored: {}",
+                        new Object[]{correlationID, replyTo, correlation.size(), message});
+                return;
+            }
+
+            // the properties on a received message is read-only, so we must clear and set them again
+            Map<String, Object> properties = new LinkedHashMap<String, Object>();
+            Enumeration<?> names = message.getPropertyNames();
+            while (names.hasMoreElements()) {
+                String name = (String) names.nextElement();
+                // the JMSX properties is set by the JMS provider
+                if (!name.startsWith("JMSX")) {
+                    properties.put(name, message.getObjectProperty(name));
+                }
+            }
+            message.clearProperties();
+            for (Map.Entry<String, Object> entry : properties.entrySet()) {
+                message.setObjectProperty(entry.getKey(), entry.getValue());
+            }
+            if (node != null) {
+                message.setStringProperty(JmsConstants.JMS_REPLY_NODE, node);
+            }
+
+            Destination destination = forwardDestinationResolver.resolveDestinationName(session, destinationName, false);
+            log.debug("Forwarding reply with correlationID [{}] for node [{}] to destination [{}]", new Object[]{correlationID, node, destinationName});
+            MessageProducer producer = session.createProducer(destination);
+            try {
+                // the reply is of no use after the request has timed out, so let it expire if the node is gone
+                if (destinationName.equals(forwardTo) && endpoint.getRequestTimeout() > 0) {
+                    producer.setTimeToLive(endpoint.getRequestTimeout());
+                }
+                producer.send(message);
+            } finally {
+                JmsUtils.closeMessageProducer(producer);
+            }
+        } catch (JMSException e) {
+            log.warn("Error forwarding reply with unknown correlationID [" + correlationID + "] on reply destination [" + replyTo
+                    + "]. The message will be ignored: " + message + ". This exception is ignored.", e);
+        }
+    }
+
+    /**
+     * Gets the id of the node from a correlation id generated by the producer, or <tt>null</tt> if the correlation
+     * id was not generated by a node using a shared reply queue without a JMS message selector.
+     */
+    protected static String getNodeId(String correlationID) {
+        if (correlationID.startsWith(NODE_CORRELATION_ID_PREFIX)) {
+            int pos = correlationID.indexOf('-', NODE_CORRELATION_ID_PREFIX.length());
+            if (pos > NODE_CORRELATION_ID_PREFIX.length()) {
+                return correlationID.substring(NODE_CORRELATION_ID_PREFIX.length(), pos);
+            }
+        }
+        return null;
+    }
+
     public void setReplyToSelectorHeader(org.apache.camel.Message camelMessage, Message jmsMessage) throws JMSException {
         String replyToSelectorName = endpoint.getReplyToDestinationSelectorName();
         if (replyToSelectorName != null && replyToSelectorValue != null) {
@@ -144,6 +244,15 @@ public class QueueReplyManager extends ReplyManagerSupport {
             // shared is not as fast as temporary or exclusive, so log this so the end user may be aware of this
             log.warn("{} is using a shared reply queue, which is not as fast as alternatives."
                     + " See more detail at the section 'Request-reply over JMS' at http://camel.apache.org/jms", endpoint);
+        } else if (ReplyToType.SharedNoSelector == type) {
+            // consume all the messages on the shared reply queue and forward replies intended for the other nodes,
+            // which are told apart by the random node id we include in the correlation ids
+            replyToNodeId = new BigInteger(24 * 8, new Random()).toString(16);
+            answer = new SharedQueueMessageListenerContainer(endpoint);
+            // must use cache level consumer as there is no message selector
+            answer.setCacheLevel(DefaultMessageListenerContainer.CACHE_CONSUMER);
+            log.debug("Using shared queue: {} without message selector with node id [{}] as reply listener: {}",
+                    new Object[]{endpoint.getReplyTo(), replyToNodeId, answer});
         } else if (ReplyToType.Exclusive == type) {
             answer = new ExclusiveQueueMessageListenerContainer(endpoint);
             // must use cache level consumer for exclusive as there is no message selector
@@ -163,9 +272,55 @@ public class QueueReplyManager extends ReplyManagerSupport {
         if (resolver == null) {
             resolver = answer.getDestinationResolver();
         }
+        forwardDestinationResolver = resolver;
         answer.setDestinationResolver(new DestinationResolverDelegate(resolver));
         answer.setDestinationName(endpoint.getReplyTo());
+        configureListenerContainer(answer);
+
+        // setup a bean name which is used by Spring JMS as the thread name
+        String name = "QueueReplyManager[" + answer.getDestinationName() + "]";
+        answer.setBeanName(name);
+
+        if (answer.getConcurrentConsumers() > 1) {
+            if (ReplyToType.Shared == type) {
+                // warn if using concurrent consumer with shared reply queue as that may not work properly
+                log.warn("Using {}-{} concurrent consumer on {} with shared queue {} may not work properly with all message brokers.",
+                        new Object[]{answer.getConcurrentConsumers(), answer.getMaxConcurrentConsumers(), name, endpoint.getReplyTo()});
+            } else {
+                // log that we are using concurrent consumers
+                log.info("Using {}-{} concurrent consumers on {}",
+                        new Object[]{answer.getConcurrentConsumers(), answer.getMaxConcurrentConsumers(), name});
+            }
+        }
+
+        return answer;
+    }
 
+    /**
+     * Creates the listener container which consumes the reply messages forwarded to this node by the other nodes
+     * sharing the reply queue without a JMS message selector.
+     */
+    protected AbstractMessageListenerContainer createForwardListenerContainer() throws Exception {
+        String forwardTo = endpoint.getConfiguration().getReplyToForwardDestination();
+
+        // select only the reply messages which belongs to this node
+        String fixedMessageSelector = JmsConstants.JMS_REPLY_NODE + "='" + replyToNodeId + "'";
+        DefaultMessageListenerContainer answer = new SharedQueueMessageListenerContainer(endpoint, fixedMessageSelector);
+        // must use cache level consumer for fixed message selector
+        answer.setCacheLevel(DefaultMessageListenerContainer.CACHE_CONSUMER);
+        String replyToCacheLevelName = endpoint.getConfiguration().getReplyToCacheLevelName();
+        if (replyToCacheLevelName != null) {
+            answer.setCacheLevelName(replyToCacheLevelName);
+        }
+        answer.setDestinationResolver(forwardDestinationResolver);
+        answer.setDestinationName(forwardTo);
+        configureListenerContainer(answer);
+        answer.setBeanName("QueueReplyManager[" + forwardTo + "]");
+        log.debug("Using forward queue: {} with fixed message selector [{}] as reply listener: {}", new Object[]{forwardTo, fixedMessageSelector, answer});
+        return answer;
+    }
+
+    private void configureListenerContainer(DefaultMessageListenerContainer answer) {
         answer.setAutoStartup(true);
         answer.setIdleConsumerLimit(endpoint.getIdleConsumerLimit());
         answer.setIdleTaskExecutionLimit(endpoint.getIdleTaskExecutionLimit());
@@ -209,24 +364,36 @@ public class QueueReplyManager extends ReplyManagerSupport {
             log.debug("Using custom TaskExecutor: {} on listener container: {}", endpoint.getTaskExecutor(), answer);
             answer.setTaskExecutor(endpoint.getTaskExecutor());
         }
+    }
 
-        // setup a bean name which is used by Spring JMS as the thread name
-        String name = "QueueReplyManager[" + answer.getDestinationName() + "]";
-        answer.setBeanName(name);
+    @Override
+    protected void doStart() throws Exception {
+        super.doStart();
 
-        if (answer.getConcurrentConsumers() > 1) {
-            if (ReplyToType.Shared == type) {
-                // warn if using concurrent consumer with shared reply queue as that may not work properly
-                log.warn("Using {}-{} concurrent consumer on {} with shared queue {} may not work properly with all message brokers.",
-                        new Object[]{answer.getConcurrentConsumers(), answer.getMaxConcurrentConsumers(), name, endpoint.getReplyTo()});
-            } else {
-                // log that we are using concurrent consumers
-                log.info("Using {}-{} concurrent consumers on {}",
-                        new Object[]{answer.getConcurrentConsumers(), answer.getMaxConcurrentConsumers(), name});
+        if (replyToNodeId != null && endpoint.getConfiguration().getReplyToForwardDestination() != null) {
+            forwardListenerContainer = createForwardListenerContainer();
+            forwardListenerContainer.afterPropertiesSet();
+            log.debug("Starting forward reply listener container on endpoint: {}", endpoint);
+
+            endpoint.onListenerContainerStarting(forwardListenerContainer);
+            forwardListenerContainer.start();
+        }
+    }
+
+    @Override
+    protected void doStop() throws Exception {
+        if (forwardListenerContainer != null) {
+            log.debug("Stopping forward reply listener container on endpoint: {}", endpoint);
+            try {
+                forwardListenerContainer.stop();
+                forwardListenerContainer.destroy();
+            } finally {
+                endpoint.onListenerContainerStopped(forwardListenerContainer);
+                forwardListenerContainer = null;
             }
         }
 
-        return answer;
+        super.doStop();
     }
 
 }
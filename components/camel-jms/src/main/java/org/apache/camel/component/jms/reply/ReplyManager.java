@@ -74,6 +74,17 @@ public interface ReplyManager extends SessionAwareMessageListener {
      */
     void setReplyToSelectorHeader(org.apache.camel.Message camelMessage, Message jmsMessage) throws JMSException;
 
+    /**
+     * Gets the id of this node which must be included in the generated correlation ids, so the node the reply
+     * message belongs to can be told from its correlation id, when using a shared reply queue without a JMS
+     * message selector.
+     *
+     * @return the node id, or <tt>null</tt> if not in use
+     */
+    default String getReplyToNodeId() {
+        return null;
+    }
+
     /**
      * Register a reply
      *
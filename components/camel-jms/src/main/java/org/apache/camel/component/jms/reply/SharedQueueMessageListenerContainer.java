@@ -30,6 +30,10 @@ import org.springframework.jms.listener.DefaultMessageListenerContainer;
  * pickup the reply messages which is intended for us, so to support that we must use JMS
  * Message Selectors.
  * <p/>
+ * When using {@link org.apache.camel.component.jms.ReplyToType#SharedNoSelector} then no JMS Message Selector
+ * is used, and all the reply messages on the shared queue are consumed. The reply manager is then responsible
+ * for forwarding reply messages which is intended for another producer.
+ * <p/>
  * See more details at <a href="http://camel.apache.org/jms">camel-jms</a>.
  *
  * @see ExclusiveQueueMessageListenerContainer
@@ -52,6 +56,15 @@ public class SharedQueueMessageListenerContainer extends DefaultJmsMessageListen
         this.fixedMessageSelector = fixedMessageSelector;
     }
 
+    /**
+     * Use no JMS message selector
+     *
+     * @param endpoint the endpoint
+     */
+    public SharedQueueMessageListenerContainer(JmsEndpoint endpoint) {
+        super(endpoint, endpoint.isAllowReplyManagerQuickStop());
+    }
+
     /**
      * Use a dynamic JMS message selector
      *
@@ -0,0 +1,165 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.jms;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import javax.jms.ConnectionFactory;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.CamelExecutionException;
+import org.apache.camel.ExchangeTimedOutException;
+import org.apache.camel.FailedToCreateProducerException;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+import org.apache.camel.test.junit4.CamelTestSupport;
+import org.apache.camel.util.StopWatch;
+import org.junit.Test;
+
+import static org.apache.camel.component.jms.JmsComponent.jmsComponentAutoAcknowledge;
+
+/**
+ * Two producers (nodes) sharing the same reply queue without using a JMS message selector.
+ *
+ * @version
+ */
+public class JmsRequestReplySharedNoSelectorReplyToTest extends CamelTestSupport {
+
+    private static final String OPTIONS = "replyTo=bar&replyToType=SharedNoSelector&replyToForwardDestination=barForward"
+            + "&replyToDeadLetterDestination=dead";
+
+    private final int size = 1000;
+    private final CountDownLatch latch = new CountDownLatch(size);
+
+    @Test
+    public void testJmsRequestReplySharedNoSelectorReplyTo() throws Exception {
+        StopWatch watch = new StopWatch();
+        ExecutorService executor = Executors.newFixedThreadPool(10);
+        for (int i = 0; i < size; i++) {
+            final Integer num = i;
+            // half the requests is sent from each node
+            final String node = i % 2 == 0 ? "direct:a" : "direct:b";
+            executor.submit(new Runnable() {
+                @Override
+                public void run() {
+                    String reply = template.requestBody(node, "" + num, String.class);
+                    assertNotNull(reply);
+                    assertEquals("Hello " + num, reply);
+                    latch.countDown();
+                }
+            });
+        }
+
+        log.info("Waiting to process {} messages...", size);
+
+        // if any of the assertions above fails then the latch will not get decremented
+        assertTrue("All assertions outside the main thread above should have passed", latch.await(20, TimeUnit.SECONDS));
+
+        long delta = watch.stop();
+        log.info("Took {} millis", delta);
+
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testUnknownReplyToDeadLetter() throws Exception {
+        // make sure the reply managers are started
+        assertEquals("Hello A", template.requestBody("direct:a", "A", String.class));
+        assertEquals("Hello B", template.requestBody("direct:b", "B", String.class));
+
+        MockEndpoint mock = getMockEndpoint("mock:dead");
+        mock.expectedBodiesReceived("Bye World");
+        mock.message(0).header(JmsConstants.JMS_REPLY_NODE).isNull();
+
+        // a reply which cannot be correlated to any of the nodes ends up in the dead letter queue
+        template.sendBodyAndHeader("activemq2:queue:bar", "Bye World", "JMSCorrelationID", "unknown");
+
+        assertMockEndpointsSatisfied();
+    }
+
+    @Test
+    public void testTimedOutReplyIgnored() throws Exception {
+        // make sure the reply managers are started
+        assertEquals("Hello A", template.requestBody("direct:a", "A", String.class));
+        assertEquals("Hello B", template.requestBody("direct:b", "B", String.class));
+
+        MockEndpoint mock = getMockEndpoint("mock:dead");
+        mock.expectedMessageCount(0);
+
+        try {
+            template.requestBody("direct:slow", "C", String.class);
+            fail("Should have thrown exception");
+        } catch (CamelExecutionException e) {
+            assertIsInstanceOf(ExchangeTimedOutException.class, e.getCause());
+        }
+
+        // the late reply is routed to the node which sent the request, and is discarded as the request has timed out
+        mock.setAssertPeriod(2000);
+        assertMockEndpointsSatisfied();
+
+        assertEquals("Hello D", template.requestBody("direct:a", "D", String.class));
+    }
+
+    @Test
+    public void testUseMessageIDAsCorrelationIDNotSupported() throws Exception {
+        try {
+            template.requestBody("activemq:queue:foo?" + OPTIONS + "&useMessageIDAsCorrelationID=true", "E", String.class);
+            fail("Should have thrown exception");
+        } catch (CamelExecutionException e) {
+            FailedToCreateProducerException cause = assertIsInstanceOf(FailedToCreateProducerException.class, e.getCause());
+            assertIsInstanceOf(IllegalArgumentException.class, cause.getCause());
+        }
+    }
+
+    protected CamelContext createCamelContext() throws Exception {
+        CamelContext camelContext = super.createCamelContext();
+        ConnectionFactory connectionFactory = CamelJmsTestHelper.createConnectionFactory();
+        camelContext.addComponent("activemq", jmsComponentAutoAcknowledge(connectionFactory));
+        // use another component to simulate another node sharing the reply queue
+        camelContext.addComponent("activemq2", jmsComponentAutoAcknowledge(connectionFactory));
+        return camelContext;
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from("direct:a")
+                    .to("activemq:queue:foo?" + OPTIONS);
+
+                from("direct:b")
+                    .to("activemq2:queue:foo?" + OPTIONS);
+
+                from("direct:slow")
+                    .to("activemq:queue:slow?" + OPTIONS + "&requestTimeout=500");
+
+                from("activemq:queue:foo?concurrentConsumers=5&maxConcurrentConsumers=10")
+                    .transform(body().prepend("Hello "));
+
+                from("activemq:queue:slow")
+                    .delay(1500)
+                    .transform(body().prepend("Hello "));
+
+                from("activemq:queue:dead")
+                    .to("mock:dead");
+            }
+        };
+    }
+}
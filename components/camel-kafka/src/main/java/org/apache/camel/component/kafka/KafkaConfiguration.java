@@ -125,6 +125,12 @@ public class KafkaConfiguration implements Cloneable {
     private boolean breakOnFirstError;
     @UriParam(label = "consumer")
     private StateRepository<String, String> offsetRepository;
+    @UriParam(label = "consumer,advanced")
+    private int parallelWorkers;
+    @UriParam(label = "consumer,advanced", defaultValue = "partition", enums = "partition,key")
+    private String parallelOrdering = "partition";
+    @UriParam(label = "consumer,advanced", defaultValue = "1000")
+    private int maxInFlightRecords = 1000;
 
     //Producer Camel specific configuration properties
     @UriParam(label = "producer")
@@ -144,6 +150,8 @@ public class KafkaConfiguration implements Cloneable {
     private Integer workerPoolCoreSize = 10;
     @UriParam(label = "producer", defaultValue = "20")
     private Integer workerPoolMaxSize = 20;
+    @UriParam(label = "producer")
+    private int maxInFlightExchanges;
 
     //Async producer config
     @UriParam(label = "producer", defaultValue = "10000")
@@ -747,6 +755,51 @@ public class KafkaConfiguration implements Cloneable {
         this.breakOnFirstError = breakOnFirstError;
     }
 
+    public int getParallelWorkers() {
+        return parallelWorkers;
+    }
+
+    /**
+     * The number of worker threads each consumer hands over the polled records to, so the records
+     * can be processed in parallel while the consumer keeps polling. Records with the same ordering key
+     * (see the parallelOrdering option) are always processed in order by the same worker.
+     * Only the offsets up to the last record where all previous records have been processed are committed,
+     * which is done after each poll. Setting this option disables the Kafka auto commit.
+     * <p/>
+     * The default value is 0 which means the records are processed one by one by the consumer thread.
+     */
+    public void setParallelWorkers(int parallelWorkers) {
+        this.parallelWorkers = parallelWorkers;
+    }
+
+    public String getParallelOrdering() {
+        return parallelOrdering;
+    }
+
+    /**
+     * The key to use for preserving the order of the records when using parallel workers.
+     * With partition, all the records from the same partition are processed in order.
+     * With key, all the records with the same record key are processed in order, which allows
+     * for more parallelism as records from the same partition can be processed at the same time.
+     * Records without a key are ordered by partition.
+     */
+    public void setParallelOrdering(String parallelOrdering) {
+        this.parallelOrdering = parallelOrdering;
+    }
+
+    public int getMaxInFlightRecords() {
+        return maxInFlightRecords;
+    }
+
+    /**
+     * The maximum number of records which can be handed over to the parallel workers and not yet processed.
+     * When the limit is hit then the consumer pauses fetching from its partitions (but keeps polling
+     * so it stays in the consumer group) until the workers have caught up.
+     */
+    public void setMaxInFlightRecords(int maxInFlightRecords) {
+        this.maxInFlightRecords = maxInFlightRecords;
+    }
+
     public String getBrokers() {
         return brokers;
     }
@@ -1541,6 +1594,22 @@ public class KafkaConfiguration implements Cloneable {
         this.workerPoolMaxSize = workerPoolMaxSize;
     }
 
+    public int getMaxInFlightExchanges() {
+        return maxInFlightExchanges;
+    }
+
+    /**
+     * The maximum number of exchanges the {@link KafkaProducer} can be sending to Kafka at the same time
+     * using asynchronous non-blocking processing. When the limit is hit then the next exchange is rejected
+     * with a RejectedExecutionException, without blocking the thread routing the exchange, so the error handler
+     * of the route can retry the exchange (such as with a redelivery delay) when Kafka has caught up.
+     * <p/>
+     * The default value is 0 which means there is no limit.
+     */
+    public void setMaxInFlightExchanges(int maxInFlightExchanges) {
+        this.maxInFlightExchanges = maxInFlightExchanges;
+    }
+
     public boolean isRecordMetadata() {
         return recordMetadata;
     }
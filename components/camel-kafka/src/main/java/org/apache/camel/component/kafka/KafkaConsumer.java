@@ -20,8 +20,10 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
 import java.util.UUID;
@@ -51,6 +53,7 @@ public class KafkaConsumer extends DefaultConsumer {
     private final Long pollTimeoutMs;
     // This list helps working around the infinite loop of KAFKA-1894
     private final List<KafkaFetchRecords> tasks = new ArrayList<>();
+    private final List<ExecutorService> workers = new ArrayList<>();
 
     public KafkaConsumer(KafkaEndpoint endpoint, Processor processor) {
         super(endpoint, processor);
@@ -66,6 +69,9 @@ public class KafkaConsumer extends DefaultConsumer {
         if (ObjectHelper.isEmpty(brokers)) {
             throw new IllegalArgumentException("Brokers must be configured");
         }
+        if (endpoint.getConfiguration().getParallelWorkers() > 0 && endpoint.getConfiguration().isAllowManualCommit()) {
+            throw new IllegalArgumentException("The options parallelWorkers and allowManualCommit cannot be used at the same time");
+        }
     }
 
     Properties getProps() {
@@ -83,6 +89,11 @@ public class KafkaConsumer extends DefaultConsumer {
 
         props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, brokers);
 
+        if (endpoint.getConfiguration().getParallelWorkers() > 0) {
+            // the offsets of the records processed by the workers are committed by the consumer
+            props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, "false");
+        }
+
         if (endpoint.getConfiguration().getGroupId() != null) {
             String groupId = endpoint.getConfiguration().getGroupId();
             props.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
@@ -110,7 +121,7 @@ public class KafkaConsumer extends DefaultConsumer {
         }
 
         for (int i = 0; i < endpoint.getConfiguration().getConsumersCount(); i++) {
-            KafkaFetchRecords task = new KafkaFetchRecords(topic, pattern, i + "", getProps());
+            KafkaFetchRecords task = new KafkaFetchRecords(topic, pattern, i + "", getProps(), createWorkerPool());
             // pre-initialize task during startup so if there is any error we have it thrown asap
             task.preInit();
             executor.submit(task);
@@ -133,12 +144,33 @@ public class KafkaConsumer extends DefaultConsumer {
                 executor.shutdownNow();
             }
         }
+        for (ExecutorService worker : workers) {
+            getEndpoint().getCamelContext().getExecutorServiceManager().shutdown(worker);
+        }
+        workers.clear();
         tasks.clear();
         executor = null;
 
         super.doStop();
     }
 
+    private KafkaRecordWorkerPool createWorkerPool() {
+        int size = endpoint.getConfiguration().getParallelWorkers();
+        if (size <= 0) {
+            return null;
+        }
+
+        ExecutorService[] answer = new ExecutorService[size];
+        for (int i = 0; i < size; i++) {
+            // use a single thread per worker so records with the same ordering key are processed in order
+            answer[i] = endpoint.getCamelContext().getExecutorServiceManager()
+                .newSingleThreadExecutor(this, "KafkaConsumerWorker[" + endpoint.getConfiguration().getTopic() + "]");
+            workers.add(answer[i]);
+        }
+        boolean orderByKey = "key".equals(endpoint.getConfiguration().getParallelOrdering());
+        return new KafkaRecordWorkerPool(answer, orderByKey);
+    }
+
     class KafkaFetchRecords implements Runnable, ConsumerRebalanceListener {
 
         private org.apache.kafka.clients.consumer.KafkaConsumer consumer;
@@ -146,12 +178,14 @@ public class KafkaConsumer extends DefaultConsumer {
         private final Pattern topicPattern;
         private final String threadId;
         private final Properties kafkaProps;
+        private final KafkaRecordWorkerPool workerPool;
 
-        KafkaFetchRecords(String topicName, Pattern topicPattern, String id, Properties kafkaProps) {
+        KafkaFetchRecords(String topicName, Pattern topicPattern, String id, Properties kafkaProps, KafkaRecordWorkerPool workerPool) {
             this.topicName = topicName;
             this.topicPattern = topicPattern;
             this.threadId = topicName + "-" + "Thread " + id;
             this.kafkaProps = kafkaProps;
+            this.workerPool = workerPool;
         }
 
         @Override
@@ -217,7 +251,12 @@ public class KafkaConsumer extends DefaultConsumer {
                     consumer.subscribe(topicPattern, this);
                 } else {
                     log.info("Subscribing {} to topic {}", threadId, topicName);
-                    consumer.subscribe(Arrays.asList(topicName.split(",")));
+                    if (workerPool != null) {
+                        // need to commit the processed records when partitions are revoked
+                        consumer.subscribe(Arrays.asList(topicName.split(",")), this);
+                    } else {
+                        consumer.subscribe(Arrays.asList(topicName.split(",")));
+                    }
                 }
 
                 StateRepository<String, String> offsetRepository = endpoint.getConfiguration().getOffsetRepository();
@@ -264,6 +303,12 @@ public class KafkaConsumer extends DefaultConsumer {
                     log.trace("Polling {} from topic: {} with timeout: {}", threadId, topicName, pollTimeoutMs);
                     ConsumerRecords<Object, Object> allRecords = consumer.poll(pollTimeoutMs);
 
+                    if (workerPool != null) {
+                        // the records are processed by the workers
+                        reConnect = dispatchRecords(allRecords, offsetRepository);
+                        continue;
+                    }
+
                     for (TopicPartition partition : allRecords.partitions()) {
 
                         long partitionLastOffset = -1;
@@ -330,7 +375,13 @@ public class KafkaConsumer extends DefaultConsumer {
                     }
                 }
 
-                if (!reConnect) {
+                if (!reConnect && workerPool != null) {
+                    // wait for the workers to finish processing the records so we can commit them
+                    log.info("Waiting for {} in flight records to be processed on stop {} from topic {}", workerPool.getInFlight(), threadId, topicName);
+                    if (workerPool.awaitCompletion()) {
+                        commitProcessedOffsets(offsetRepository);
+                    }
+                } else if (!reConnect) {
                     if (isAutoCommitEnabled()) {
                         if ("async".equals(endpoint.getConfiguration().getAutoCommitOnStop())) {
                             log.info("Auto commitAsync on stop {} from topic {}", threadId, topicName);
@@ -362,6 +413,11 @@ public class KafkaConsumer extends DefaultConsumer {
             } catch (Exception e) {
                 getExceptionHandler().handleException("Error consuming " + threadId + " from kafka topic", e);
             } finally {
+                if (workerPool != null) {
+                    // any records not yet committed will be polled again
+                    workerPool.awaitCompletion();
+                    workerPool.reset();
+                }
                 log.debug("Closing {} ", threadId);
                 IOHelper.close(consumer);
             }
@@ -369,6 +425,92 @@ public class KafkaConsumer extends DefaultConsumer {
             return reConnect;
         }
 
+        private boolean dispatchRecords(ConsumerRecords<Object, Object> allRecords, StateRepository<String, String> offsetRepository) {
+            for (TopicPartition partition : allRecords.partitions()) {
+                Iterator<ConsumerRecord<Object, Object>> recordIterator = allRecords.records(partition).iterator();
+                while (!workerPool.isFailed() && recordIterator.hasNext()) {
+                    ConsumerRecord<Object, Object> record = recordIterator.next();
+                    if (log.isTraceEnabled()) {
+                        log.trace("Partition = {}, offset = {}, key = {}, value = {}", record.partition(), record.offset(), record.key(),
+                                  record.value());
+                    }
+                    Exchange exchange = endpoint.createKafkaExchange(record);
+
+                    // if not auto commit then we have additional information on the exchange
+                    if (!isAutoCommitEnabled()) {
+                        exchange.getIn().setHeader(KafkaConstants.LAST_RECORD_BEFORE_COMMIT, !recordIterator.hasNext());
+                    }
+
+                    workerPool.submit(partition, record, () -> processRecord(exchange));
+                }
+            }
+
+            if (workerPool.isFailed()) {
+                // we are failing and we should break out, so wait for the workers to finish what they are doing
+                // and commit the records processed before the failure, so we resume from there on next poll
+                log.warn("Error during processing from topic: {}. Will commit the offsets processed before the error and re-connect and start polling again.",
+                    topicName);
+                if (workerPool.awaitCompletion()) {
+                    commitProcessedOffsets(offsetRepository);
+                }
+                return true;
+            }
+
+            commitProcessedOffsets(offsetRepository);
+
+            // pause fetching if the workers cannot keep up, but continue to poll to stay in the consumer group
+            if (workerPool.getInFlight() >= endpoint.getConfiguration().getMaxInFlightRecords()) {
+                log.trace("Pausing {} from topic {} with {} records in flight", threadId, topicName, workerPool.getInFlight());
+                consumer.pause(consumer.assignment());
+            } else if (!consumer.paused().isEmpty()) {
+                log.trace("Resuming {} from topic {} with {} records in flight", threadId, topicName, workerPool.getInFlight());
+                consumer.resume(consumer.paused());
+            }
+            return false;
+        }
+
+        private boolean processRecord(Exchange exchange) {
+            try {
+                processor.process(exchange);
+            } catch (Exception e) {
+                exchange.setException(e);
+            }
+
+            if (exchange.getException() != null) {
+                // processing failed due to an unhandled exception, what should we do
+                if (endpoint.getConfiguration().isBreakOnFirstError()) {
+                    log.warn("Error during processing {} from topic: {}. Will re-connect and start polling again from the offset of this record.",
+                        exchange, topicName);
+                    return false;
+                } else {
+                    // will handle/log the exception and then continue to next
+                    getExceptionHandler().handleException("Error during processing", exchange, exchange.getException());
+                }
+            }
+            return true;
+        }
+
+        private void commitProcessedOffsets(StateRepository<String, String> offsetRepository) {
+            Map<TopicPartition, Long> offsets = workerPool.drainCommittableOffsets();
+            if (offsets.isEmpty()) {
+                return;
+            }
+
+            if (offsetRepository != null) {
+                for (Map.Entry<TopicPartition, Long> entry : offsets.entrySet()) {
+                    log.debug("Saving offset repository state {} from topic {} with offset: {}", threadId, topicName, entry.getValue());
+                    offsetRepository.setState(serializeOffsetKey(entry.getKey()), serializeOffsetValue(entry.getValue()));
+                }
+            } else {
+                Map<TopicPartition, OffsetAndMetadata> commits = new HashMap<>(offsets.size());
+                for (Map.Entry<TopicPartition, Long> entry : offsets.entrySet()) {
+                    commits.put(entry.getKey(), new OffsetAndMetadata(entry.getValue() + 1));
+                }
+                log.debug("CommitSync {} from topic {} with offsets: {}", threadId, topicName, commits);
+                consumer.commitSync(commits);
+            }
+        }
+
         private void commitOffset(StateRepository<String, String> offsetRepository, TopicPartition partition, long partitionLastOffset, boolean forceCommit) {
             if (partitionLastOffset != -1) {
                 if (offsetRepository != null) {
@@ -394,7 +536,13 @@ public class KafkaConsumer extends DefaultConsumer {
             log.debug("onPartitionsRevoked: {} from topic {}", threadId, topicName);
 
             StateRepository<String, String> offsetRepository = endpoint.getConfiguration().getOffsetRepository();
-            if (offsetRepository != null) {
+            if (workerPool != null) {
+                // the position of the consumer is ahead of the processed records, so commit what has been processed
+                if (workerPool.awaitCompletion()) {
+                    commitProcessedOffsets(offsetRepository);
+                }
+                workerPool.remove(partitions);
+            } else if (offsetRepository != null) {
                 for (TopicPartition partition : partitions) {
                     long offset = consumer.position(partition);
                     log.debug("Saving offset repository state {} from topic {} with offset: {}", threadId, topicName, offset);
@@ -21,17 +21,20 @@ import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Properties;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.camel.AsyncCallback;
 import org.apache.camel.Endpoint;
 import org.apache.camel.Exchange;
 import org.apache.camel.impl.DefaultAsyncProducer;
+import org.apache.camel.util.KeyValueHolder;
+import org.apache.camel.util.ObjectHelper;
 import org.apache.camel.util.URISupport;
 import org.apache.kafka.clients.producer.Callback;
 import org.apache.kafka.clients.producer.ProducerConfig;
@@ -46,6 +49,7 @@ public class KafkaProducer extends DefaultAsyncProducer {
     private final KafkaEndpoint endpoint;
     private ExecutorService workerPool;
     private boolean shutdownWorkerPool;
+    private Semaphore inFlightExchanges;
 
     public KafkaProducer(KafkaEndpoint endpoint) {
         super(endpoint);
@@ -111,6 +115,10 @@ public class KafkaProducer extends DefaultAsyncProducer {
             // we create a thread pool so we should also shut it down
             shutdownWorkerPool = true;
         }
+
+        if (endpoint.getConfiguration().getMaxInFlightExchanges() > 0) {
+            inFlightExchanges = new Semaphore(endpoint.getConfiguration().getMaxInFlightExchanges());
+        }
     }
 
     @Override
@@ -126,7 +134,55 @@ public class KafkaProducer extends DefaultAsyncProducer {
     }
 
     @SuppressWarnings({"unchecked", "rawtypes"})
-    protected Iterator<ProducerRecord> createRecorder(Exchange exchange) throws Exception {
+    protected Iterator<KeyValueHolder<Exchange, ProducerRecord>> createRecorder(Exchange exchange) throws Exception {
+        final String topic = resolveTopic(exchange);
+
+        Object msg = exchange.getIn().getBody();
+
+        // is the message body a list or something that contains multiple values
+        Iterator<Object> iterator = null;
+        if (msg instanceof Iterable) {
+            iterator = ((Iterable<Object>)msg).iterator();
+        } else if (msg instanceof Iterator) {
+            iterator = (Iterator<Object>)msg;
+        }
+        if (iterator != null) {
+            final Iterator<Object> msgList = iterator;
+            return new Iterator<KeyValueHolder<Exchange, ProducerRecord>>() {
+                @Override
+                public boolean hasNext() {
+                    return msgList.hasNext();
+                }
+
+                @Override
+                public KeyValueHolder<Exchange, ProducerRecord> next() {
+                    Object next = msgList.next();
+                    if (next instanceof Exchange) {
+                        // a batch of exchanges (such as grouped by the aggregator) so each exchange is its own record
+                        Exchange innerExchange = (Exchange) next;
+                        try {
+                            return new KeyValueHolder<>(innerExchange, createRecord(innerExchange, resolveTopic(innerExchange), innerExchange.getIn().getBody()));
+                        } catch (Exception e) {
+                            // the exchange in the batch should be failed as well
+                            innerExchange.setException(e);
+                            throw ObjectHelper.wrapRuntimeCamelException(e);
+                        }
+                    }
+                    return new KeyValueHolder<>(exchange, createRecord(exchange, topic, next));
+                }
+
+                @Override
+                public void remove() {
+                    msgList.remove();
+                }
+            };
+        }
+
+        ProducerRecord record = createRecord(exchange, topic, msg);
+        return Collections.singletonList(new KeyValueHolder<>(exchange, record)).iterator();
+    }
+
+    private String resolveTopic(Exchange exchange) throws Exception {
         String topic = endpoint.getConfiguration().getTopic();
 
         if (!endpoint.getConfiguration().isBridgeEndpoint()) {
@@ -156,7 +212,11 @@ public class KafkaProducer extends DefaultAsyncProducer {
             // if topic property was not received from configuration or header parameters take it from the remaining URI
             topic = URISupport.extractRemainderPath(new URI(endpoint.getEndpointUri()), true);
         }
+        return topic;
+    }
 
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private ProducerRecord createRecord(Exchange exchange, String topic, Object body) {
         // endpoint take precedence over header configuration
         final Integer partitionKey = endpoint.getConfiguration().getPartitionKey() != null
             ? endpoint.getConfiguration().getPartitionKey() : exchange.getIn().getHeader(KafkaConstants.PARTITION_KEY, Integer.class);
@@ -169,109 +229,102 @@ public class KafkaProducer extends DefaultAsyncProducer {
             ? tryConvertToSerializedType(exchange, key, endpoint.getConfiguration().getKeySerializerClass()) : null;
         final boolean hasMessageKey = messageKey != null;
 
-        Object msg = exchange.getIn().getBody();
-
-        // is the message body a list or something that contains multiple values
-        Iterator<Object> iterator = null;
-        if (msg instanceof Iterable) {
-            iterator = ((Iterable<Object>)msg).iterator();
-        } else if (msg instanceof Iterator) {
-            iterator = (Iterator<Object>)msg;
-        }
-        if (iterator != null) {
-            final Iterator<Object> msgList = iterator;
-            final String msgTopic = topic;
-            return new Iterator<ProducerRecord>() {
-                @Override
-                public boolean hasNext() {
-                    return msgList.hasNext();
-                }
-
-                @Override
-                public ProducerRecord next() {
-                    // must convert each entry of the iterator into the value according to the serializer
-                    Object next = msgList.next();
-                    Object value = tryConvertToSerializedType(exchange, next, endpoint.getConfiguration().getSerializerClass());
-
-                    if (hasPartitionKey && hasMessageKey) {
-                        return new ProducerRecord(msgTopic, partitionKey, key, value);
-                    } else if (hasMessageKey) {
-                        return new ProducerRecord(msgTopic, key, value);
-                    } else {
-                        return new ProducerRecord(msgTopic, value);
-                    }
-                }
-
-                @Override
-                public void remove() {
-                    msgList.remove();
-                }
-            };
-        }
-
-        // must convert each entry of the iterator into the value according to the serializer
-        Object value = tryConvertToSerializedType(exchange, msg, endpoint.getConfiguration().getSerializerClass());
+        // must convert the body into the value according to the serializer
+        Object value = tryConvertToSerializedType(exchange, body, endpoint.getConfiguration().getSerializerClass());
 
-        ProducerRecord record;
         if (hasPartitionKey && hasMessageKey) {
-            record = new ProducerRecord(topic, partitionKey, key, value);
+            return new ProducerRecord(topic, partitionKey, key, value);
         } else if (hasMessageKey) {
-            record = new ProducerRecord(topic, key, value);
+            return new ProducerRecord(topic, key, value);
         } else {
-            record = new ProducerRecord(topic, value);
+            return new ProducerRecord(topic, value);
         }
-        return Collections.singletonList(record).iterator();
     }
 
     @Override
     @SuppressWarnings({"unchecked", "rawtypes"})
     // Camel calls this method if the endpoint isSynchronous(), as the KafkaEndpoint creates a SynchronousDelegateProducer for it
     public void process(Exchange exchange) throws Exception {
-        Iterator<ProducerRecord> c = createRecorder(exchange);
-        List<Future<RecordMetadata>> futures = new LinkedList<Future<RecordMetadata>>();
+        Iterator<KeyValueHolder<Exchange, ProducerRecord>> c = createRecorder(exchange);
+        List<KeyValueHolder<Exchange, Future<RecordMetadata>>> futures = new ArrayList<>();
         List<RecordMetadata> recordMetadatas = new ArrayList<RecordMetadata>();
 
         if (endpoint.getConfiguration().isRecordMetadata()) {
-            if (exchange.hasOut()) {
-                exchange.getOut().setHeader(KafkaConstants.KAFKA_RECORDMETA, recordMetadatas);
-            } else {
-                exchange.getIn().setHeader(KafkaConstants.KAFKA_RECORDMETA, recordMetadatas);
-            }
+            setRecordMetadata(exchange, recordMetadatas);
         }
 
         while (c.hasNext()) {
-            ProducerRecord rec = c.next();
+            KeyValueHolder<Exchange, ProducerRecord> exrec = c.next();
+            ProducerRecord rec = exrec.getValue();
             if (log.isDebugEnabled()) {
                 log.debug("Sending message to topic: {}, partition: {}, key: {}", rec.topic(), rec.partition(), rec.key());
             }
-            futures.add(kafkaProducer.send(rec));
+            futures.add(new KeyValueHolder<>(exrec.getKey(), kafkaProducer.send(rec)));
         }
-        for (Future<RecordMetadata> f : futures) {
+        for (KeyValueHolder<Exchange, Future<RecordMetadata>> f : futures) {
             //wait for them all to be sent
-            recordMetadatas.add(f.get());
+            RecordMetadata recordMetadata = f.getValue().get();
+            recordMetadatas.add(recordMetadata);
+            if (f.getKey() != exchange && endpoint.getConfiguration().isRecordMetadata()) {
+                setRecordMetadata(f.getKey(), Collections.singletonList(recordMetadata));
+            }
         }
     }
 
     @Override
     @SuppressWarnings({"unchecked", "rawtypes"})
     public boolean process(Exchange exchange, AsyncCallback callback) {
+        if (inFlightExchanges != null) {
+            // must not block the thread routing the exchange while waiting for kafka, so reject the exchange instead
+            if (!inFlightExchanges.tryAcquire()) {
+                exchange.setException(new RejectedExecutionException("Exchange rejected as the maximum of "
+                    + endpoint.getConfiguration().getMaxInFlightExchanges() + " in-flight exchanges has been reached"));
+                callback.done(true);
+                return true;
+            }
+            final AsyncCallback delegate = callback;
+            callback = doneSync -> {
+                inFlightExchanges.release();
+                delegate.done(doneSync);
+            };
+        }
+
+        KafkaProducerCallBack cb = new KafkaProducerCallBack(exchange, callback);
         try {
-            Iterator<ProducerRecord> c = createRecorder(exchange);
-            KafkaProducerCallBack cb = new KafkaProducerCallBack(exchange, callback);
+            Iterator<KeyValueHolder<Exchange, ProducerRecord>> c = createRecorder(exchange);
             while (c.hasNext()) {
-                cb.increment();
-                ProducerRecord rec = c.next();
+                KeyValueHolder<Exchange, ProducerRecord> exrec = c.next();
+                ProducerRecord rec = exrec.getValue();
                 if (log.isDebugEnabled()) {
                     log.debug("Sending message to topic: {}, partition: {}, key: {}", rec.topic(), rec.partition(), rec.key());
                 }
-                kafkaProducer.send(rec, cb);
+                Callback recordCallback = cb;
+                if (exrec.getKey() != exchange) {
+                    // the record is from an exchange in a batch which should be completed on its own as well
+                    recordCallback = new KafkaBatchedExchangeCallBack(exrec.getKey(), cb);
+                }
+                cb.increment();
+                try {
+                    kafkaProducer.send(rec, recordCallback);
+                } catch (Exception e) {
+                    // the record was not sent so complete it as failed, and do not send any further records
+                    recordCallback.onCompletion(null, e);
+                    break;
+                }
             }
-            return cb.allSent();
         } catch (Exception ex) {
             exchange.setException(ex);
         }
-        callback.done(true);
-        return true;
+        // the callback is done when the records already sent (if any) has been acknowledged
+        return cb.allSent();
+    }
+
+    private static void setRecordMetadata(Exchange exchange, List<RecordMetadata> recordMetadatas) {
+        if (exchange.hasOut()) {
+            exchange.getOut().setHeader(KafkaConstants.KAFKA_RECORDMETA, recordMetadatas);
+        } else {
+            exchange.getIn().setHeader(KafkaConstants.KAFKA_RECORDMETA, recordMetadatas);
+        }
     }
 
     /**
@@ -302,17 +355,13 @@ public class KafkaProducer extends DefaultAsyncProducer {
         private final Exchange exchange;
         private final AsyncCallback callback;
         private final AtomicInteger count = new AtomicInteger(1);
-        private final List<RecordMetadata> recordMetadatas = new ArrayList<>();
+        private final List<RecordMetadata> recordMetadatas = Collections.synchronizedList(new ArrayList<>());
 
         KafkaProducerCallBack(Exchange exchange, AsyncCallback callback) {
             this.exchange = exchange;
             this.callback = callback;
             if (endpoint.getConfiguration().isRecordMetadata()) {
-                if (exchange.hasOut()) {
-                    exchange.getOut().setHeader(KafkaConstants.KAFKA_RECORDMETA, recordMetadatas);
-                } else {
-                    exchange.getIn().setHeader(KafkaConstants.KAFKA_RECORDMETA, recordMetadatas);
-                }
+                setRecordMetadata(exchange, recordMetadatas);
             }
         }
 
@@ -336,7 +385,9 @@ public class KafkaProducer extends DefaultAsyncProducer {
                 exchange.setException(e);
             }
 
-            recordMetadatas.add(recordMetadata);
+            if (recordMetadata != null) {
+                recordMetadatas.add(recordMetadata);
+            }
 
             if (count.decrementAndGet() == 0) {
                 // use worker pool to continue routing the exchange
@@ -352,4 +403,30 @@ public class KafkaProducer extends DefaultAsyncProducer {
         }
     }
 
+    /**
+     * Callback for a record from an exchange in a batch of exchanges, which completes the exchange
+     * before delegating to the callback of the exchange holding the batch.
+     */
+    private final class KafkaBatchedExchangeCallBack implements Callback {
+
+        private final Exchange exchange;
+        private final Callback delegate;
+
+        KafkaBatchedExchangeCallBack(Exchange exchange, Callback delegate) {
+            this.exchange = exchange;
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void onCompletion(RecordMetadata recordMetadata, Exception e) {
+            if (e != null) {
+                exchange.setException(e);
+            }
+            if (recordMetadata != null && endpoint.getConfiguration().isRecordMetadata()) {
+                setRecordMetadata(exchange, Collections.singletonList(recordMetadata));
+            }
+            delegate.onCompletion(recordMetadata, e);
+        }
+    }
+
 }
@@ -0,0 +1,209 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.kafka;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+
+/**
+ * Hands over the records polled by a Kafka consumer to a number of workers, and keeps track of
+ * which offsets can be committed.
+ * <p/>
+ * Each worker is a single threaded executor, and all the records with the same ordering key
+ * (the partition, or the record key) are processed by the same worker, so their order is preserved.
+ * As records from the same partition may complete out of order, only the offset up to the first record
+ * which has not yet been processed is reported as committable for each partition.
+ * <p/>
+ * The records must be submitted in offset order per partition from the consumer thread.
+ */
+class KafkaRecordWorkerPool {
+
+    private final ExecutorService[] workers;
+    private final boolean orderByKey;
+    private final Map<TopicPartition, PartitionOffsets> offsets = new ConcurrentHashMap<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Object idle = new Object();
+    private volatile boolean failed;
+
+    KafkaRecordWorkerPool(ExecutorService[] workers, boolean orderByKey) {
+        this.workers = workers;
+        this.orderByKey = orderByKey;
+    }
+
+    /**
+     * Submits the record to be processed by the task.
+     *
+     * @param partition the partition of the record
+     * @param record    the record
+     * @param task      the task processing the record, which returns <tt>false</tt> if the processing failed
+     *                  and the record should not be committed
+     */
+    void submit(TopicPartition partition, ConsumerRecord<?, ?> record, BooleanSupplier task) {
+        final PartitionOffsets partitionOffsets = offsets.computeIfAbsent(partition, k -> new PartitionOffsets());
+        final long offset = record.offset();
+        partitionOffsets.dispatched(offset);
+        inFlight.incrementAndGet();
+
+        ExecutorService worker = workers[workerIndex(partition, record.key())];
+        try {
+            worker.execute(() -> {
+                try {
+                    // once failed then do not process any further records as they will be polled again
+                    if (!failed) {
+                        if (task.getAsBoolean()) {
+                            partitionOffsets.completed(offset);
+                        } else {
+                            failed = true;
+                        }
+                    }
+                } finally {
+                    done();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // the worker is shutting down so the record is not processed (and not committed)
+            done();
+            throw e;
+        }
+    }
+
+    /**
+     * Whether processing any of the records failed, in which case no further records are processed.
+     */
+    boolean isFailed() {
+        return failed;
+    }
+
+    /**
+     * The number of records submitted which have not yet been processed.
+     */
+    int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Waits until all the submitted records have been processed.
+     *
+     * @return <tt>true</tt> if all the records have been processed, <tt>false</tt> if interrupted while waiting
+     */
+    boolean awaitCompletion() {
+        synchronized (idle) {
+            while (inFlight.get() > 0) {
+                try {
+                    idle.wait(1000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Gets the offsets which can be committed since last time, which is the offset of the last record in each
+     * partition where all the previous records have been processed.
+     * <p/>
+     * The offsets are regarded as committed when returned.
+     */
+    Map<TopicPartition, Long> drainCommittableOffsets() {
+        Map<TopicPartition, Long> answer = new HashMap<>();
+        for (Map.Entry<TopicPartition, PartitionOffsets> entry : offsets.entrySet()) {
+            long offset = entry.getValue().drainCommittable();
+            if (offset != -1) {
+                answer.put(entry.getKey(), offset);
+            }
+        }
+        return answer;
+    }
+
+    /**
+     * Stops keeping track of the given partitions, such as when they have been revoked from the consumer.
+     */
+    void remove(Collection<TopicPartition> partitions) {
+        partitions.forEach(offsets::remove);
+    }
+
+    /**
+     * Clears the state, to be used when the consumer re-connects and starts polling from the committed offsets.
+     * This must only be called when there are no records in flight.
+     */
+    void reset() {
+        offsets.clear();
+        failed = false;
+    }
+
+    private void done() {
+        if (inFlight.decrementAndGet() == 0) {
+            synchronized (idle) {
+                idle.notifyAll();
+            }
+        }
+    }
+
+    private int workerIndex(TopicPartition partition, Object key) {
+        int hash;
+        if (orderByKey && key != null) {
+            // byte arrays does not have a hash code based on its content
+            hash = key instanceof byte[] ? Arrays.hashCode((byte[]) key) : key.hashCode();
+        } else {
+            hash = partition.hashCode();
+        }
+        // spread the hash as the key may have poor hash codes
+        hash ^= hash >>> 16;
+        return (hash & 0x7fffffff) % workers.length;
+    }
+
+    /**
+     * Keeps track of the offsets of a partition which have been submitted but not yet processed.
+     */
+    private static final class PartitionOffsets {
+
+        private final TreeSet<Long> pending = new TreeSet<>();
+        private long lastDispatched = -1;
+        private long lastCommitted = -1;
+
+        synchronized void dispatched(long offset) {
+            pending.add(offset);
+            lastDispatched = offset;
+        }
+
+        synchronized void completed(long offset) {
+            pending.remove(offset);
+        }
+
+        synchronized long drainCommittable() {
+            long offset = pending.isEmpty() ? lastDispatched : pending.first() - 1;
+            if (offset > lastCommitted) {
+                lastCommitted = offset;
+                return offset;
+            }
+            return -1;
+        }
+    }
+}
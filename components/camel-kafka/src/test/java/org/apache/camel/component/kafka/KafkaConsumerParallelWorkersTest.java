@@ -0,0 +1,109 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.kafka;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.camel.Endpoint;
+import org.apache.camel.EndpointInject;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class KafkaConsumerParallelWorkersTest extends BaseEmbeddedKafkaTest {
+
+    public static final String TOPIC = "parallel";
+
+    @EndpointInject(uri = "kafka:" + TOPIC
+            + "?groupId=group1"
+            + "&autoOffsetReset=earliest"
+            + "&parallelWorkers=5"
+            + "&parallelOrdering=key"
+            + "&maxInFlightRecords=10"
+    )
+    private Endpoint from;
+
+    @EndpointInject(uri = "mock:result")
+    private MockEndpoint to;
+
+    private final Map<String, List<Integer>> received = new ConcurrentHashMap<>();
+
+    private org.apache.kafka.clients.producer.KafkaProducer<String, String> producer;
+
+    @Before
+    public void before() {
+        Properties props = getDefaultProperties();
+        producer = new org.apache.kafka.clients.producer.KafkaProducer<String, String>(props);
+    }
+
+    @After
+    public void after() {
+        if (producer != null) {
+            producer.close();
+        }
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from(from).routeId("foo")
+                    .delay(simple("${random(0,20)}"))
+                    .process(exchange -> {
+                        String key = exchange.getIn().getHeader(KafkaConstants.KEY, String.class);
+                        received.computeIfAbsent(key, k -> new ArrayList<>()).add(exchange.getIn().getBody(Integer.class));
+                    })
+                    .to(to);
+            }
+        };
+    }
+
+    @Test
+    public void kafkaMessagesAreProcessedInOrderPerKey() throws Exception {
+        to.expectedMessageCount(50);
+        for (int k = 0; k < 50; k++) {
+            producer.send(new ProducerRecord<String, String>(TOPIC, "key" + (k % 5), "" + k));
+        }
+        to.assertIsSatisfied();
+
+        // the messages with the same key must be processed in order
+        assertEquals(5, received.size());
+        for (List<Integer> bodies : received.values()) {
+            assertEquals(10, bodies.size());
+            for (int i = 1; i < bodies.size(); i++) {
+                assertTrue("Not in order: " + bodies, bodies.get(i - 1) < bodies.get(i));
+            }
+        }
+        to.reset();
+
+        // all messages have been committed so nothing is consumed again after restart
+        to.expectedBodiesReceived("50", "51");
+        context.stopRoute("foo");
+        context.startRoute("foo");
+        producer.send(new ProducerRecord<String, String>(TOPIC, "key0", "50"));
+        producer.send(new ProducerRecord<String, String>(TOPIC, "key0", "51"));
+        to.assertIsSatisfied();
+    }
+}
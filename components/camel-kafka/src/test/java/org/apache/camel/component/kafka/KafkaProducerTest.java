@@ -16,18 +16,22 @@
  */
 package org.apache.camel.component.kafka;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Properties;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 
 import org.apache.camel.AsyncCallback;
 import org.apache.camel.CamelContext;
 import org.apache.camel.Exchange;
 import org.apache.camel.Message;
+import org.apache.camel.RuntimeCamelException;
 import org.apache.camel.TypeConverter;
 import org.apache.camel.impl.DefaultCamelContext;
+import org.apache.camel.impl.DefaultExchange;
 import org.apache.camel.impl.DefaultHeadersMapFactory;
 import org.apache.camel.impl.DefaultMessage;
 import org.apache.kafka.clients.producer.Callback;
@@ -40,6 +44,8 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
@@ -303,6 +309,85 @@ public class KafkaProducerTest {
         assertRecordMetadataExists();
     }
 
+    @Test
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public void processAsyncSendsBatchedExchanges() throws Exception {
+        endpoint.getConfiguration().setTopic("sometopic");
+        Mockito.when(exchange.getIn()).thenReturn(in);
+        Mockito.when(exchange.getOut()).thenReturn(out);
+
+        CamelContext camel = new DefaultCamelContext();
+        Exchange first = new DefaultExchange(camel);
+        first.getIn().setBody("Hello");
+        first.getIn().setHeader(KafkaConstants.KEY, "key1");
+        Exchange second = new DefaultExchange(camel);
+        second.getIn().setBody("World");
+        second.getIn().setHeader(KafkaConstants.TOPIC, "othertopic");
+        in.setBody(Arrays.asList(first, second));
+
+        assertFalse(producer.process(exchange, callback));
+
+        ArgumentCaptor<ProducerRecord> recordCaptor = ArgumentCaptor.forClass(ProducerRecord.class);
+        ArgumentCaptor<Callback> callBackCaptor = ArgumentCaptor.forClass(Callback.class);
+        Mockito.verify(producer.getKafkaProducer(), Mockito.times(2)).send(recordCaptor.capture(), callBackCaptor.capture());
+        assertEquals("sometopic", recordCaptor.getAllValues().get(0).topic());
+        assertEquals("key1", recordCaptor.getAllValues().get(0).key());
+        assertEquals("Hello", recordCaptor.getAllValues().get(0).value());
+        assertEquals("othertopic", recordCaptor.getAllValues().get(1).topic());
+        assertEquals("World", recordCaptor.getAllValues().get(1).value());
+
+        // each exchange is completed on its own
+        callBackCaptor.getAllValues().get(0).onCompletion(new RecordMetadata(null, 0, 0, 0, new Long(0), 0, 0), null);
+        callBackCaptor.getAllValues().get(1).onCompletion(null, new ApiException("Forced"));
+        assertEquals(1, first.getIn().getHeader(KafkaConstants.KAFKA_RECORDMETA, List.class).size());
+        assertNull(first.getException());
+        assertTrue(second.getException() instanceof ApiException);
+
+        Mockito.verify(callback, Mockito.timeout(5000)).done(eq(false));
+        Mockito.verify(exchange).setException(isA(ApiException.class));
+    }
+
+    @Test
+    public void processAsyncWithMaxInFlightExchanges() throws Exception {
+        endpoint.getConfiguration().setTopic("sometopic");
+        endpoint.getConfiguration().setMaxInFlightExchanges(1);
+        Mockito.when(exchange.getIn()).thenReturn(in);
+        Mockito.when(exchange.getOut()).thenReturn(out);
+        producer.start();
+
+        assertFalse(producer.process(exchange, callback));
+
+        // the next exchange is rejected, without blocking, until the first has been acknowledged
+        assertTrue(producer.process(exchange, callback));
+        Mockito.verify(exchange).setException(isA(RejectedExecutionException.class));
+        Mockito.verify(callback).done(eq(true));
+
+        ArgumentCaptor<Callback> callBackCaptor = ArgumentCaptor.forClass(Callback.class);
+        Mockito.verify(producer.getKafkaProducer()).send(any(ProducerRecord.class), callBackCaptor.capture());
+        callBackCaptor.getValue().onCompletion(new RecordMetadata(null, 0, 0, 0, new Long(0), 0, 0), null);
+        Mockito.verify(callback, Mockito.timeout(5000)).done(eq(false));
+
+        assertFalse(producer.process(exchange, callback));
+        Mockito.verify(producer.getKafkaProducer(), Mockito.times(2)).send(any(ProducerRecord.class), any(Callback.class));
+    }
+
+    @Test
+    public void processAsyncFailsBatchedExchangeWhenCreatingRecordFails() throws Exception {
+        endpoint.getConfiguration().setTopic("sometopic");
+        Mockito.when(exchange.getIn()).thenReturn(in);
+        Mockito.when(exchange.getOut()).thenReturn(out);
+
+        Exchange inner = Mockito.mock(Exchange.class);
+        Mockito.when(inner.getIn()).thenThrow(new IllegalStateException("Forced"));
+        in.setBody(Arrays.asList(inner));
+
+        assertTrue(producer.process(exchange, callback));
+
+        Mockito.verify(inner).setException(isA(IllegalStateException.class));
+        Mockito.verify(exchange).setException(isA(RuntimeCamelException.class));
+        Mockito.verify(producer.getKafkaProducer(), Mockito.never()).send(any(ProducerRecord.class), any(Callback.class));
+    }
+
     @Test // Message and Topic Name alone
     public void processSendsMessageWithMessageTopicName() throws Exception {
         endpoint.getConfiguration().setTopic("someTopic");
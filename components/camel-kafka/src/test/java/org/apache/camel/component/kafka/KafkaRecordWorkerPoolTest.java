@@ -0,0 +1,145 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.kafka;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class KafkaRecordWorkerPoolTest {
+
+    private static final TopicPartition PARTITION = new TopicPartition("test", 0);
+
+    private ExecutorService[] workers;
+
+    @Before
+    public void before() {
+        workers = new ExecutorService[4];
+        for (int i = 0; i < workers.length; i++) {
+            workers[i] = Executors.newSingleThreadExecutor();
+        }
+    }
+
+    @After
+    public void after() {
+        for (ExecutorService worker : workers) {
+            worker.shutdownNow();
+        }
+    }
+
+    @Test
+    public void commitsOnlyContiguousProcessedOffsets() throws Exception {
+        KafkaRecordWorkerPool pool = new KafkaRecordWorkerPool(workers, true);
+
+        // the record with key a is blocked so the offsets after it must not be committed
+        CountDownLatch latch = new CountDownLatch(1);
+        pool.submit(PARTITION, record(10, "a"), () -> await(latch));
+        for (int i = 11; i < 20; i++) {
+            pool.submit(PARTITION, record(i, "b" + i), () -> true);
+        }
+
+        // wait for some of the other records to complete
+        waitUntilInFlightBelow(pool, 10);
+        // resume from the blocked record
+        assertEquals(Long.valueOf(9), pool.drainCommittableOffsets().get(PARTITION));
+
+        latch.countDown();
+        assertTrue(pool.awaitCompletion());
+
+        Map<TopicPartition, Long> offsets = pool.drainCommittableOffsets();
+        assertEquals(Long.valueOf(19), offsets.get(PARTITION));
+
+        // already committed so nothing new
+        assertTrue(pool.drainCommittableOffsets().isEmpty());
+    }
+
+    @Test
+    public void preservesOrderPerKey() throws Exception {
+        KafkaRecordWorkerPool pool = new KafkaRecordWorkerPool(workers, true);
+
+        List<Long> keyA = Collections.synchronizedList(new ArrayList<>());
+        List<Long> keyB = Collections.synchronizedList(new ArrayList<>());
+        for (int i = 0; i < 200; i++) {
+            final long offset = i;
+            List<Long> target = i % 2 == 0 ? keyA : keyB;
+            pool.submit(PARTITION, record(i, i % 2 == 0 ? "a" : "b"), () -> target.add(offset));
+        }
+        assertTrue(pool.awaitCompletion());
+
+        assertEquals(100, keyA.size());
+        assertEquals(100, keyB.size());
+        for (int i = 1; i < 100; i++) {
+            assertTrue(keyA.get(i - 1) < keyA.get(i));
+            assertTrue(keyB.get(i - 1) < keyB.get(i));
+        }
+        assertEquals(Long.valueOf(199), pool.drainCommittableOffsets().get(PARTITION));
+    }
+
+    @Test
+    public void stopsOnFailure() throws Exception {
+        KafkaRecordWorkerPool pool = new KafkaRecordWorkerPool(workers, false);
+
+        pool.submit(PARTITION, record(0, "a"), () -> true);
+        pool.submit(PARTITION, record(1, "a"), () -> true);
+        pool.submit(PARTITION, record(2, "a"), () -> false);
+        pool.submit(PARTITION, record(3, "a"), () -> true);
+        assertTrue(pool.awaitCompletion());
+
+        assertTrue(pool.isFailed());
+        // resume from the failed record
+        assertEquals(Long.valueOf(1), pool.drainCommittableOffsets().get(PARTITION));
+
+        pool.reset();
+        assertFalse(pool.isFailed());
+        assertNull(pool.drainCommittableOffsets().get(PARTITION));
+    }
+
+    private static ConsumerRecord<Object, Object> record(long offset, String key) {
+        return new ConsumerRecord<>(PARTITION.topic(), PARTITION.partition(), offset, key, "value" + offset);
+    }
+
+    private static boolean await(CountDownLatch latch) {
+        try {
+            return latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            return false;
+        }
+    }
+
+    private static void waitUntilInFlightBelow(KafkaRecordWorkerPool pool, int limit) throws InterruptedException {
+        for (int i = 0; i < 100 && pool.getInFlight() >= limit; i++) {
+            Thread.sleep(50);
+        }
+        assertTrue(pool.getInFlight() < limit);
+    }
+}
@@ -16,11 +16,16 @@
  */
 package org.apache.camel.component.leveldb;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.UnsupportedEncodingException;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.LinkedHashSet;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
 
 import org.apache.camel.CamelContext;
@@ -53,6 +58,9 @@ public class LevelDBAggregationRepository extends ServiceSupport implements Reco
     private int maximumRedeliveries;
     private String deadLetterUri;
     private boolean allowSerializedHeaders;
+    private boolean appendDelta;
+    private int maximumAppendDeltas = 100;
+    private final ConcurrentMap<String, AppendDeltaState> appendDeltaStates = new ConcurrentHashMap<String, AppendDeltaState>();
 
     /**
      * Creates an aggregation repository
@@ -101,6 +109,14 @@ public class LevelDBAggregationRepository extends ServiceSupport implements Reco
         LOG.debug("Adding key [{}] -> {}", key, exchange);
         try {
             byte[] lDbKey = keyBuilder(repositoryName, key);
+
+            if (isAppendDelta()) {
+                // only return old exchange if enabled
+                Exchange answer = isReturnOldExchange() ? get(camelContext, key) : null;
+                addAppendDelta(camelContext, key, lDbKey, exchange);
+                return answer;
+            }
+
             final Buffer exchangeBuffer = codec.marshallExchange(camelContext, exchange, allowSerializedHeaders);
 
             byte[] rc = null;
@@ -127,6 +143,44 @@ public class LevelDBAggregationRepository extends ServiceSupport implements Reco
         return null;
     }
 
+    private void addAppendDelta(final CamelContext camelContext, final String key, final byte[] lDbKey, final Exchange exchange) throws IOException {
+        Object body = exchange.hasOut() ? null : exchange.getIn().getBody();
+        AppendDeltaState state = appendDeltaStates.get(key);
+        Object delta = null;
+        if (state != null && state.getDeltas() < maximumAppendDeltas) {
+            delta = state.delta(body);
+        }
+
+        WriteBatch batch = levelDBFile.getDb().createWriteBatch();
+        try {
+            if (delta != null) {
+                // the body has only been appended to, so store the appended part together with the headers
+                Exchange copy = exchange.copy();
+                copy.setExchangeId(exchange.getExchangeId());
+                copy.getIn().setBody(delta);
+                final Buffer deltaBuffer = codec.marshallExchange(camelContext, copy, allowSerializedHeaders);
+                LOG.trace("Adding delta {} of key index {} for repository {}", new Object[]{state.getDeltas() + 1, key, repositoryName});
+                batch.put(deltaKeyBuilder(key, state.getDeltas() + 1), deltaBuffer.toByteArray());
+            } else {
+                // store the entire exchange which replaces any existing deltas
+                final Buffer exchangeBuffer = codec.marshallExchange(camelContext, exchange, allowSerializedHeaders);
+                LOG.trace("Adding key index {} for repository {}", key, repositoryName);
+                deleteDeltas(batch, key);
+                batch.put(lDbKey, exchangeBuffer.toByteArray());
+            }
+            levelDBFile.getDb().write(batch, levelDBFile.getWriteOptions());
+            LOG.trace("Added key index {}", key);
+        } finally {
+            batch.close();
+        }
+
+        if (delta != null) {
+            state.appended(body);
+        } else {
+            updateAppendDeltaState(key, body, 0, true);
+        }
+    }
+
     public Exchange get(final CamelContext camelContext, final String key) {
         Exchange answer = null;
 
@@ -137,6 +191,9 @@ public class LevelDBAggregationRepository extends ServiceSupport implements Reco
 
             if (rc != null) {
                 answer = codec.unmarshallExchange(camelContext, new Buffer(rc));
+                if (isAppendDelta()) {
+                    answer = reassembleDeltas(camelContext, key, answer);
+                }
             }
         } catch (IOException e) {
             throw new RuntimeException("Error getting key " + key + " from repository " + repositoryName, e);
@@ -146,6 +203,85 @@ public class LevelDBAggregationRepository extends ServiceSupport implements Reco
         return answer;
     }
 
+    private Exchange reassembleDeltas(final CamelContext camelContext, final String key, final Exchange exchange) throws IOException {
+        Exchange answer = exchange;
+        Object body = exchange.getIn().getBody();
+        StringBuilder text = null;
+        ByteArrayOutputStream bytes = null;
+        int deltas = 0;
+
+        byte[] prefix = deltaKeyBuilder(key);
+        DBIterator it = levelDBFile.getDb().iterator();
+        try {
+            for (it.seek(prefix); it.hasNext(); it.next()) {
+                Map.Entry<byte[], byte[]> entry = it.peekNext();
+                if (!startsWith(entry.getKey(), prefix)) {
+                    break;
+                }
+                // the latest delta holds the current headers, and its body is appended to the body
+                answer = codec.unmarshallExchange(camelContext, new Buffer(entry.getValue()));
+                Object delta = answer.getIn().getBody();
+                if (body instanceof String) {
+                    if (text == null) {
+                        text = new StringBuilder((String) body);
+                    }
+                    text.append((String) delta);
+                } else if (body instanceof byte[]) {
+                    if (bytes == null) {
+                        bytes = new ByteArrayOutputStream();
+                        bytes.write((byte[]) body);
+                    }
+                    bytes.write((byte[]) delta);
+                }
+                deltas++;
+            }
+        } finally {
+            // Make sure you close the iterator to avoid resource leaks.
+            IOHelper.close(it);
+        }
+
+        if (text != null) {
+            body = text.toString();
+            answer.getIn().setBody(body);
+        } else if (bytes != null) {
+            body = bytes.toByteArray();
+            answer.getIn().setBody(body);
+        }
+        LOG.trace("Reassembled key index {} from {} deltas", key, deltas);
+
+        // keep track of the stored body so the following adds can store only what is appended
+        updateAppendDeltaState(key, answer.hasOut() ? null : body, deltas, false);
+        return answer;
+    }
+
+    private void updateAppendDeltaState(String key, Object body, int deltas, boolean replace) {
+        AppendDeltaState state = AppendDeltaState.create(body, deltas);
+        if (state == null) {
+            appendDeltaStates.remove(key);
+        } else if (replace) {
+            appendDeltaStates.put(key, state);
+        } else {
+            appendDeltaStates.putIfAbsent(key, state);
+        }
+    }
+
+    private void deleteDeltas(WriteBatch batch, String key) {
+        byte[] prefix = deltaKeyBuilder(key);
+        DBIterator it = levelDBFile.getDb().iterator();
+        try {
+            for (it.seek(prefix); it.hasNext(); it.next()) {
+                byte[] deltaKey = it.peekNext().getKey();
+                if (!startsWith(deltaKey, prefix)) {
+                    break;
+                }
+                batch.delete(deltaKey);
+            }
+        } finally {
+            // Make sure you close the iterator to avoid resource leaks.
+            IOHelper.close(it);
+        }
+    }
+
     public void remove(final CamelContext camelContext, final String key, final Exchange exchange) {
         LOG.debug("Removing key [{}]", key);
 
@@ -161,6 +297,9 @@ public class LevelDBAggregationRepository extends ServiceSupport implements Reco
                 WriteBatch batch = levelDBFile.getDb().createWriteBatch();
                 try {
                     batch.delete(lDbKey);
+                    if (isAppendDelta()) {
+                        deleteDeltas(batch, key);
+                    }
                     LOG.trace("Removed key index {} -> {}", key, new Buffer(rc));
 
                     // add exchange to confirmed index
@@ -176,6 +315,8 @@ public class LevelDBAggregationRepository extends ServiceSupport implements Reco
 
         } catch (IOException e) {
             throw new RuntimeException("Error removing key " + key + " from repository " + repositoryName, e);
+        } finally {
+            appendDeltaStates.remove(key);
         }
     }
 
@@ -324,6 +465,10 @@ public class LevelDBAggregationRepository extends ServiceSupport implements Reco
         return repositoryName + "-completed";
     }
 
+    private String getRepositoryNameDelta() {
+        return repositoryName + "-delta";
+    }
+
     public void setRepositoryName(String repositoryName) {
         this.repositoryName = repositoryName;
     }
@@ -396,6 +541,45 @@ public class LevelDBAggregationRepository extends ServiceSupport implements Reco
         this.allowSerializedHeaders = allowSerializedHeaders;
     }
 
+    public LevelDBCamelCodec getCodec() {
+        return codec;
+    }
+
+    /**
+     * To use a custom codec for storing the exchanges, such as {@link LevelDBBinaryCamelCodec}
+     * which uses a compact binary format instead of Java serialization.
+     */
+    public void setCodec(LevelDBCamelCodec codec) {
+        this.codec = codec;
+    }
+
+    public boolean isAppendDelta() {
+        return appendDelta;
+    }
+
+    /**
+     * Whether to only store what has been appended to the message body when an aggregated exchange is updated.
+     * <p/>
+     * When the aggregation strategy appends to a <tt>String</tt> or <tt>byte[]</tt> body, then each update only stores
+     * the appended part of the body (and the headers), and the deltas are reassembled when the exchange is loaded.
+     * Any other update stores the entire exchange. This avoids storing the entire growing body on each update.
+     */
+    public void setAppendDelta(boolean appendDelta) {
+        this.appendDelta = appendDelta;
+    }
+
+    public int getMaximumAppendDeltas() {
+        return maximumAppendDeltas;
+    }
+
+    /**
+     * The maximum number of deltas stored for an aggregated exchange when using <tt>appendDelta</tt>,
+     * after which the entire exchange is stored again which replaces the deltas. The default is 100.
+     */
+    public void setMaximumAppendDeltas(int maximumAppendDeltas) {
+        this.maximumAppendDeltas = maximumAppendDeltas;
+    }
+
     @Override
     protected void doStart() throws Exception {
         // either we have a LevelDB configured or we use a provided fileName
@@ -428,6 +612,7 @@ public class LevelDBAggregationRepository extends ServiceSupport implements Reco
 
     @Override
     protected void doStop() throws Exception {
+        appendDeltaStates.clear();
         ServiceHelper.stopService(levelDBFile);
     }
 
@@ -439,6 +624,27 @@ public class LevelDBAggregationRepository extends ServiceSupport implements Reco
         }
     }
 
+    private byte[] deltaKeyBuilder(String key) {
+        return keyBuilder(getRepositoryNameDelta(), key + '\0');
+    }
+
+    private byte[] deltaKeyBuilder(String key, int delta) {
+        // zero padded so the deltas are iterated in order
+        return keyBuilder(getRepositoryNameDelta(), key + '\0' + String.format("%010d", delta));
+    }
+
+    private static boolean startsWith(byte[] value, byte[] prefix) {
+        if (value.length < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (value[i] != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     public static String asString(byte[] value) {
         if (value == null) {
             return null;
@@ -451,4 +657,82 @@ public class LevelDBAggregationRepository extends ServiceSupport implements Reco
         }
     }
 
+    /**
+     * Keeps track of the length and a hash of the stored body of an aggregated exchange, to detect whether
+     * the body of the next update has only been appended to.
+     */
+    private static final class AppendDeltaState {
+        private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+        private static final long FNV_PRIME = 0x100000001b3L;
+
+        private final boolean text;
+        private int length;
+        private long hash;
+        private int deltas;
+
+        private AppendDeltaState(boolean text, int deltas) {
+            this.text = text;
+            this.hash = FNV_OFFSET;
+            this.deltas = deltas;
+        }
+
+        static AppendDeltaState create(Object body, int deltas) {
+            if (!(body instanceof String) && !(body instanceof byte[])) {
+                return null;
+            }
+            AppendDeltaState answer = new AppendDeltaState(body instanceof String, deltas);
+            answer.hash = hash(answer.hash, body, 0, length(body));
+            answer.length = length(body);
+            return answer;
+        }
+
+        int getDeltas() {
+            return deltas;
+        }
+
+        /**
+         * Gets the part appended to the stored body, or <tt>null</tt> if the body has not only been appended to.
+         */
+        Object delta(Object body) {
+            if (text ? !(body instanceof String) : !(body instanceof byte[])) {
+                return null;
+            }
+            int newLength = length(body);
+            if (newLength <= length || hash(FNV_OFFSET, body, 0, length) != hash) {
+                return null;
+            }
+            return text ? ((String) body).substring(length) : Arrays.copyOfRange((byte[]) body, length, newLength);
+        }
+
+        /**
+         * Updates the state after the part returned by {@link #delta(Object)} has been stored.
+         */
+        void appended(Object body) {
+            int newLength = length(body);
+            hash = hash(hash, body, length, newLength);
+            length = newLength;
+            deltas++;
+        }
+
+        private static int length(Object body) {
+            return body instanceof String ? ((String) body).length() : ((byte[]) body).length;
+        }
+
+        private static long hash(long hash, Object body, int from, int to) {
+            long answer = hash;
+            if (body instanceof String) {
+                String s = (String) body;
+                for (int i = from; i < to; i++) {
+                    answer = (answer ^ s.charAt(i)) * FNV_PRIME;
+                }
+            } else {
+                byte[] bytes = (byte[]) body;
+                for (int i = from; i < to; i++) {
+                    answer = (answer ^ (bytes[i] & 0xff)) * FNV_PRIME;
+                }
+            }
+            return answer;
+        }
+    }
+
 }
@@ -0,0 +1,73 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.leveldb;
+
+import java.io.IOException;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.impl.BinaryExchangeHolderCodec;
+import org.apache.camel.impl.DefaultExchangeHolder;
+import org.fusesource.hawtbuf.Buffer;
+
+/**
+ * A {@link LevelDBCamelCodec} which stores the exchanges using the compact {@link BinaryExchangeHolderCodec}
+ * instead of Java serialization.
+ * <p/>
+ * Exchanges stored using Java serialization (before switching codec) can still be read.
+ */
+public class LevelDBBinaryCamelCodec extends LevelDBCamelCodec {
+
+    private boolean compress;
+
+    public LevelDBBinaryCamelCodec() {
+    }
+
+    public LevelDBBinaryCamelCodec(boolean compress) {
+        this.compress = compress;
+    }
+
+    public boolean isCompress() {
+        return compress;
+    }
+
+    /**
+     * Whether to compress the stored exchanges.
+     */
+    public void setCompress(boolean compress) {
+        this.compress = compress;
+    }
+
+    @Override
+    protected Buffer encode(DefaultExchangeHolder holder) throws IOException {
+        return new Buffer(BinaryExchangeHolderCodec.encode(holder, compress));
+    }
+
+    @Override
+    protected DefaultExchangeHolder decode(CamelContext camelContext, Buffer buffer) throws IOException {
+        byte[] data = buffer.toByteArray();
+        if (!BinaryExchangeHolderCodec.isEncoded(data)) {
+            // stored using java serialization
+            return super.decode(camelContext, buffer);
+        }
+        try {
+            return BinaryExchangeHolderCodec.decode(camelContext, data);
+        } catch (ClassNotFoundException e) {
+            throw new IOException(e);
+        }
+    }
+
+}
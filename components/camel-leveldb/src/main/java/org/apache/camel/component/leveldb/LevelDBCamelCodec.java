@@ -33,7 +33,7 @@ import org.fusesource.hawtbuf.codec.StringCodec;
 /**
  * @version 
  */
-public final class LevelDBCamelCodec {
+public class LevelDBCamelCodec {
 
     private Codec<String> keyCodec = new StringCodec();
     private Codec<DefaultExchangeHolder> exchangeCodec = new ObjectCodec<DefaultExchangeHolder>();
@@ -51,7 +51,6 @@ public final class LevelDBCamelCodec {
     }
 
     public Buffer marshallExchange(CamelContext camelContext, Exchange exchange, boolean allowSerializedHeaders) throws IOException {
-        DataByteArrayOutputStream baos = new DataByteArrayOutputStream();
         // use DefaultExchangeHolder to marshal to a serialized object
         DefaultExchangeHolder pe = DefaultExchangeHolder.marshal(exchange, false, allowSerializedHeaders);
         // add the aggregated size and timeout property as the only properties we want to retain
@@ -67,13 +66,11 @@ public final class LevelDBCamelCodec {
         if (exchange.getFromEndpoint() != null) {
             DefaultExchangeHolder.addProperty(pe, "CamelAggregatedFromEndpoint", exchange.getFromEndpoint().getEndpointUri());
         }
-        exchangeCodec.encode(pe, baos);
-        return baos.toBuffer();
+        return encode(pe);
     }
 
     public Exchange unmarshallExchange(CamelContext camelContext, Buffer buffer) throws IOException {
-        DataByteArrayInputStream bais = new DataByteArrayInputStream(buffer);
-        DefaultExchangeHolder pe = exchangeCodec.decode(bais);
+        DefaultExchangeHolder pe = decode(camelContext, buffer);
         Exchange answer = new DefaultExchange(camelContext);
         DefaultExchangeHolder.unmarshal(answer, pe);
         // restore the from endpoint
@@ -87,4 +84,15 @@ public final class LevelDBCamelCodec {
         return answer;
     }
 
+    protected Buffer encode(DefaultExchangeHolder holder) throws IOException {
+        DataByteArrayOutputStream baos = new DataByteArrayOutputStream();
+        exchangeCodec.encode(holder, baos);
+        return baos.toBuffer();
+    }
+
+    protected DefaultExchangeHolder decode(CamelContext camelContext, Buffer buffer) throws IOException {
+        DataByteArrayInputStream bais = new DataByteArrayInputStream(buffer);
+        return exchangeCodec.decode(bais);
+    }
+
 }
@@ -0,0 +1,123 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.leveldb;
+
+import java.io.File;
+
+import org.apache.camel.Exchange;
+import org.apache.camel.impl.DefaultExchange;
+import org.apache.camel.test.junit4.CamelTestSupport;
+import org.junit.Test;
+
+public class LevelDBAggregationRepositoryAppendDeltaTest extends CamelTestSupport {
+
+    private LevelDBFile levelDBFile;
+
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        deleteDirectory("target/data");
+        File file = new File("target/data/leveldb.dat");
+        levelDBFile = new LevelDBFile();
+        levelDBFile.setFile(file);
+    }
+
+    @Test
+    public void testAppendDelta() throws Exception {
+        LevelDBAggregationRepository repo = createRepository();
+
+        add(repo, "A", 1);
+        add(repo, "B", 2);
+        add(repo, "C", 3);
+
+        Exchange actual = repo.get(context, "foo");
+        assertEquals("ABC", actual.getIn().getBody());
+        assertEquals(3, actual.getIn().getHeader("counter"));
+
+        // a body which is not appended to stores the entire exchange
+        actual.getIn().setBody("XYZ");
+        repo.add(context, "foo", actual);
+        actual = repo.get(context, "foo");
+        assertEquals("XYZ", actual.getIn().getBody());
+
+        add(repo, "D", 4);
+        actual = repo.get(context, "foo");
+        assertEquals("XYZD", actual.getIn().getBody());
+        assertEquals(4, actual.getIn().getHeader("counter"));
+
+        repo.remove(context, "foo", actual);
+        assertNull(repo.get(context, "foo"));
+        assertEquals(0, repo.getKeys().size());
+
+        repo.stop();
+    }
+
+    @Test
+    public void testAppendDeltaRestart() throws Exception {
+        LevelDBAggregationRepository repo = createRepository();
+        add(repo, "A", 1);
+        add(repo, "B", 2);
+        repo.stop();
+
+        // load the repo again, which does not know the stored body until its loaded
+        repo = createRepository();
+        add(repo, "C", 3);
+        add(repo, "D", 4);
+
+        Exchange actual = repo.get(context, "foo");
+        assertEquals("ABCD", actual.getIn().getBody());
+        assertEquals(4, actual.getIn().getHeader("counter"));
+        repo.stop();
+    }
+
+    @Test
+    public void testAppendDeltaMaximumDeltas() throws Exception {
+        LevelDBAggregationRepository repo = createRepository();
+        repo.setMaximumAppendDeltas(2);
+
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 10; i++) {
+            add(repo, "" + i, i);
+            expected.append(i);
+        }
+
+        Exchange actual = repo.get(context, "foo");
+        assertEquals(expected.toString(), actual.getIn().getBody());
+        repo.stop();
+    }
+
+    private LevelDBAggregationRepository createRepository() throws Exception {
+        LevelDBAggregationRepository repo = new LevelDBAggregationRepository("repo1", levelDBFile);
+        repo.setCodec(new LevelDBBinaryCamelCodec());
+        repo.setAppendDelta(true);
+        repo.start();
+        return repo;
+    }
+
+    private void add(LevelDBAggregationRepository repo, String body, int counter) {
+        // aggregate the same way as the aggregator which appends to the body of the existing exchange
+        Exchange exchange = repo.get(context, "foo");
+        if (exchange == null) {
+            exchange = new DefaultExchange(context);
+            exchange.getIn().setBody(body);
+        } else {
+            exchange.getIn().setBody(exchange.getIn().getBody(String.class) + body);
+        }
+        exchange.getIn().setHeader("counter", counter);
+        repo.add(context, "foo", exchange);
+    }
+}
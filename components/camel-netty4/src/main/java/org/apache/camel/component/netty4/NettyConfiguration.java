@@ -107,6 +107,8 @@ public class NettyConfiguration extends NettyServerBootstrapConfiguration implem
     @UriParam(label = "producer,advanced")
     private boolean useByteBuf;
     @UriParam(label = "advanced")
+    private boolean retainByteBuf;
+    @UriParam(label = "advanced")
     private boolean udpByteArrayCodec;
     @UriParam(label = "common")
     private boolean reuseChannel;
@@ -627,6 +629,20 @@ public class NettyConfiguration extends NettyServerBootstrapConfiguration implem
         this.useByteBuf = useByteBuf;
     }
 
+    public boolean isRetainByteBuf() {
+        return retainByteBuf;
+    }
+
+    /**
+     * If enabled then a received {@link ByteBuf} is kept as the message body as-is (without copying) and
+     * released when the exchange is done. When such a body is written back out, the same buffer is written
+     * without copying. This allows routes such as a TCP proxy to pass payloads through without copying them.
+     * Notice the buffer must not be accessed after the exchange is done.
+     */
+    public void setRetainByteBuf(boolean retainByteBuf) {
+        this.retainByteBuf = retainByteBuf;
+    }
+
     public boolean isUdpByteArrayCodec() {
         return udpByteArrayCodec;
     }
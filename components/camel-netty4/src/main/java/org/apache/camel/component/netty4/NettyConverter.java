@@ -21,6 +21,7 @@ import java.io.InputStream;
 import java.io.ObjectInput;
 import java.io.ObjectInputStream;
 import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
 
 import javax.xml.transform.dom.DOMSource;
 import javax.xml.transform.sax.SAXSource;
@@ -76,7 +77,14 @@ public final class NettyConverter {
 
     @Converter
     public static InputStream toInputStream(ByteBuf buffer, Exchange exchange) {
-        return new ByteBufInputStream(buffer);
+        // read from a duplicate which shares the content (no copy) so the reader index of the body is kept
+        return new ByteBufInputStream(buffer.duplicate());
+    }
+
+    @Converter
+    public static ByteBuffer toNioByteBuffer(ByteBuf buffer, Exchange exchange) {
+        // exposes the readable bytes without copying when the buffer is backed by a single memory region
+        return buffer.nioBuffer();
     }
 
     @Converter
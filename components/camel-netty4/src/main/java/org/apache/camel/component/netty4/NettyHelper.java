@@ -19,13 +19,17 @@ package org.apache.camel.component.netty4;
 import java.net.InetSocketAddress;
 import java.net.SocketAddress;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufHolder;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.DefaultAddressedEnvelope;
+import io.netty.util.ReferenceCountUtil;
 
 import org.apache.camel.Exchange;
 import org.apache.camel.NoTypeConversionAvailableException;
+import org.apache.camel.support.SynchronizationAdapter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -110,6 +114,40 @@ public final class NettyHelper {
         }
     }
 
+    /**
+     * Retains the {@link ByteBuf} of the given message received from Netty, so it can be used as the message body
+     * beyond the channel handler, and releases it again when the exchange is done.
+     * <p/>
+     * Does nothing if the message is not a {@link ByteBuf} or the exchange has no unit of work.
+     *
+     * @param exchange the exchange
+     * @param msg      the message received from Netty
+     */
+    public static void retainUntilDone(Exchange exchange, Object msg) {
+        Object content = msg instanceof ByteBufHolder ? ((ByteBufHolder) msg).content() : msg;
+        if (content instanceof ByteBuf && exchange.getUnitOfWork() != null) {
+            ByteBuf buffer = ((ByteBuf) content).retain();
+            exchange.getUnitOfWork().addSynchronization(new ReleaseOnCompletion(buffer));
+        }
+    }
+
+    /**
+     * Gets the body to write to Netty. If the body is a {@link ByteBuf} retained by the exchange (see
+     * {@link #retainUntilDone(Exchange, Object)}) then a retained duplicate sharing the same content is returned,
+     * as Netty releases the buffer once written while the exchange still holds its own reference.
+     *
+     * @param exchange the exchange
+     * @param body     the body to write
+     * @return the body to write
+     */
+    public static Object retainForWrite(Exchange exchange, Object body) {
+        if (body instanceof ByteBuf && exchange.getUnitOfWork() != null
+                && exchange.getUnitOfWork().containsSynchronization(new ReleaseOnCompletion((ByteBuf) body))) {
+            return ((ByteBuf) body).retainedDuplicate();
+        }
+        return body;
+    }
+
     /**
      * Closes the given channel asynchronously
      *
@@ -125,4 +163,30 @@ public final class NettyHelper {
         }
     }
 
+    /**
+     * Releases a retained {@link ByteBuf} when the exchange is done.
+     */
+    private static final class ReleaseOnCompletion extends SynchronizationAdapter {
+        private final ByteBuf buffer;
+
+        ReleaseOnCompletion(ByteBuf buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public void onDone(Exchange exchange) {
+            ReferenceCountUtil.safeRelease(buffer);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof ReleaseOnCompletion && ((ReleaseOnCompletion) o).buffer == buffer;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(buffer);
+        }
+    }
+
 }
@@ -367,6 +367,9 @@ public class NettyProducer extends DefaultAsyncProducer {
         // if textline enabled then covert to a String which must be used for textline
         if (getConfiguration().isTextline()) {
             body = NettyHelper.getTextlineBody(body, exchange, getConfiguration().getDelimiter(), getConfiguration().isAutoAppendDelimiter());
+        } else if (getConfiguration().isRetainByteBuf()) {
+            // write the buffer as-is without copying
+            body = NettyHelper.retainForWrite(exchange, body);
         }
 
         return body;
@@ -236,6 +236,11 @@ public class ClientChannelHandler extends SimpleChannelInboundHandler<Object> {
             body = producer.getContext().getTypeConverter().mandatoryConvertTo(String.class, exchange, message);
         }
 
+        if (producer.getConfiguration().isRetainByteBuf()) {
+            // keep the received buffer as the message body until the exchange is done
+            NettyHelper.retainUntilDone(exchange, body);
+        }
+
         // set the result on either IN or OUT on the original exchange depending on its pattern
         if (ExchangeHelper.isOutCapable(exchange)) {
             NettyPayloadHelper.setOut(exchange, body);
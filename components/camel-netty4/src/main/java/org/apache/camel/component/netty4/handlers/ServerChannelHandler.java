@@ -103,6 +103,11 @@ public class ServerChannelHandler extends SimpleChannelInboundHandler<Object> {
         // we want to handle the UoW
         consumer.createUoW(exchange);
 
+        if (consumer.getConfiguration().isRetainByteBuf()) {
+            // keep the received buffer as the message body until the exchange is done
+            NettyHelper.retainUntilDone(exchange, msg);
+        }
+
         beforeProcess(exchange, ctx, msg);
 
         // process accordingly to endpoint configuration
@@ -172,6 +177,9 @@ public class ServerChannelHandler extends SimpleChannelInboundHandler<Object> {
             // if textline enabled then covert to a String which must be used for textline
             if (consumer.getConfiguration().isTextline()) {
                 body = NettyHelper.getTextlineBody(body, exchange, consumer.getConfiguration().getDelimiter(), consumer.getConfiguration().isAutoAppendDelimiter());
+            } else if (consumer.getConfiguration().isRetainByteBuf()) {
+                // write the buffer as-is without copying
+                body = NettyHelper.retainForWrite(exchange, body);
             }
 
             // we got a body to write
@@ -16,6 +16,8 @@
  */
 package org.apache.camel.component.netty4;
 
+import java.nio.ByteBuffer;
+
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.PooledByteBufAllocator;
 import org.apache.camel.impl.DefaultExchange;
@@ -62,4 +64,13 @@ public class NettyConverterTest extends CamelTestSupport {
         assertEquals(PAYLOAD, result);
     }
 
+    @Test
+    public void testConversionToNioByteBuffer() {
+        ByteBuffer result = context.getTypeConverter().convertTo(ByteBuffer.class, buf);
+        assertNotNull(result);
+        assertEquals(PAYLOAD.length(), result.remaining());
+        // should not consume the buffer
+        assertEquals(PAYLOAD.length(), buf.readableBytes());
+    }
+
 }
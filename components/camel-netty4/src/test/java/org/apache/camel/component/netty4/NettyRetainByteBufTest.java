@@ -0,0 +1,91 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.netty4;
+
+import java.io.InputStream;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import io.netty.buffer.ByteBuf;
+import org.apache.camel.Exchange;
+import org.apache.camel.Processor;
+import org.apache.camel.builder.NotifyBuilder;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.util.IOHelper;
+import org.junit.Test;
+
+/**
+ *
+ */
+public class NettyRetainByteBufTest extends BaseNettyTest {
+
+    private final List<ByteBuf> buffers = new CopyOnWriteArrayList<ByteBuf>();
+    private int port1;
+    private int port2;
+
+    @Test
+    public void testRetainByteBufProxy() throws Exception {
+        NotifyBuilder notify = new NotifyBuilder(context).whenDone(2).create();
+
+        Object body = template.requestBody("netty4:tcp://localhost:" + port1 + "?sync=true&textline=true", "Camel\n");
+        assertEquals("Camel", body);
+
+        assertTrue(notify.matches(5, TimeUnit.SECONDS));
+
+        // the request on the proxy and on the backend, and the reply on the proxy
+        assertEquals(3, buffers.size());
+        for (ByteBuf buffer : buffers) {
+            assertEquals("Buffer should be released when the exchange is done", 0, buffer.refCnt());
+        }
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                port1 = getPort();
+                port2 = getNextPort();
+
+                final Processor capture = new Processor() {
+                    public void process(Exchange exchange) throws Exception {
+                        ByteBuf buffer = exchange.getIn().getBody(ByteBuf.class);
+                        assertSame(buffer, exchange.getIn().getBody());
+                        assertTrue(buffer.refCnt() > 0);
+                        buffers.add(buffer);
+                    }
+                };
+
+                fromF("netty4:tcp://localhost:%s?sync=true&allowDefaultCodec=false&retainByteBuf=true", port1)
+                    .process(capture)
+                    .toF("netty4:tcp://localhost:%s?sync=true&allowDefaultCodec=false&retainByteBuf=true", port2)
+                    .process(capture);
+
+                fromF("netty4:tcp://localhost:%s?sync=true&allowDefaultCodec=false&retainByteBuf=true", port2)
+                    .process(capture)
+                    .process(new Processor() {
+                        public void process(Exchange exchange) throws Exception {
+                            // reading the body as a stream should not consume the buffer
+                            InputStream is = exchange.getIn().getBody(InputStream.class);
+                            assertEquals("Camel\n", IOHelper.loadText(is));
+                        }
+                    });
+            }
+        };
+    }
+}
@@ -69,7 +69,7 @@ public class JdbcCamelCodec {
         return answer;
     }
 
-    private byte[] encode(Object object) throws IOException {
+    protected byte[] encode(DefaultExchangeHolder object) throws IOException {
         ByteArrayOutputStream bytesOut = new ByteArrayOutputStream();
         ObjectOutputStream objectOut = new ObjectOutputStream(bytesOut);
         objectOut.writeObject(object);
@@ -78,7 +78,7 @@ public class JdbcCamelCodec {
         return data;
     }
 
-    private DefaultExchangeHolder decode(CamelContext camelContext, byte[] dataIn) throws IOException, ClassNotFoundException {
+    protected DefaultExchangeHolder decode(CamelContext camelContext, byte[] dataIn) throws IOException, ClassNotFoundException {
         ByteArrayInputStream bytesIn = new ByteArrayInputStream(dataIn);
 
         ObjectInputStream objectIn = null;
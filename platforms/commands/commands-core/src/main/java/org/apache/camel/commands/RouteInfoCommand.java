@@ -72,6 +72,12 @@ public class RouteInfoCommand extends AbstractRouteCommand {
             out.println(stringEscape.unescapeJava("\tMin Processing Time: " + route.getMinProcessingTime() + " ms"));
             out.println(stringEscape.unescapeJava("\tMax Processing Time: " + route.getMaxProcessingTime() + " ms"));
             out.println(stringEscape.unescapeJava("\tMean Processing Time: " + route.getMeanProcessingTime() + " ms"));
+            if (route.getP50ProcessingTime() != null) {
+                // only recorded with the extended statistics level
+                out.println(stringEscape.unescapeJava("\t50th Percentile Processing Time: " + route.getP50ProcessingTime() + " ms"));
+                out.println(stringEscape.unescapeJava("\t99th Percentile Processing Time: " + route.getP99ProcessingTime() + " ms"));
+                out.println(stringEscape.unescapeJava("\t99.9th Percentile Processing Time: " + route.getP999ProcessingTime() + " ms"));
+            }
             out.println(stringEscape.unescapeJava("\tTotal Processing Time: " + route.getTotalProcessingTime() + " ms"));
             out.println(stringEscape.unescapeJava("\tLast Processing Time: " + route.getLastProcessingTime() + " ms"));
             out.println(stringEscape.unescapeJava("\tDelta Processing Time: " + route.getDeltaProcessingTime() + " ms"));
@@ -137,6 +137,16 @@ public class CsvDataFormatConfiguration
      * collected).
      */
     private Boolean useMaps = false;
+    /**
+     * Whether the unmarshalling should produce read-only views over the parsed
+     * lines instead of copying the values into new lists or maps.
+     */
+    private Boolean useRecordViews = false;
+    /**
+     * When lazy loading the number of lines to group into a list for each
+     * iteration instead of returning the lines one by one.
+     */
+    private Integer batchSize;
     /**
      * Refers to a custom CsvRecordConverter to lookup from the registry to use.
      */
@@ -349,6 +359,22 @@ public class CsvDataFormatConfiguration
         this.useMaps = useMaps;
     }
 
+    public Boolean getUseRecordViews() {
+        return useRecordViews;
+    }
+
+    public void setUseRecordViews(Boolean useRecordViews) {
+        this.useRecordViews = useRecordViews;
+    }
+
+    public Integer getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(Integer batchSize) {
+        this.batchSize = batchSize;
+    }
+
     public String getRecordConverterRef() {
         return recordConverterRef;
     }
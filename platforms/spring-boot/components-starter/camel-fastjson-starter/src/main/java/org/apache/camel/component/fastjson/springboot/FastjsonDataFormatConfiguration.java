@@ -140,6 +140,19 @@ public class FastjsonDataFormatConfiguration
      * fastjson and xstream.
      */
     private String timezone;
+    /**
+     * Whether the unmarshalling should produce an iterator that reads the JSON
+     * values on the fly instead of reading the entire document at once. Use
+     * this together with the streaming mode of the splitter to process large
+     * JSON arrays. This option is only supported by Jackson.
+     */
+    private Boolean lazyLoad = false;
+    /**
+     * A JSON Pointer such as /data/items to select the value inside the JSON
+     * document to unmarshal for example a nested array to iterate with
+     * lazyLoad. This option is only supported by Jackson.
+     */
+    private String jsonPointer;
     /**
      * Whether the data format should set the Content-Type header with the type
      * from the data format if the data format is capable of doing so. For
@@ -284,6 +297,22 @@ public class FastjsonDataFormatConfiguration
         this.timezone = timezone;
     }
 
+    public Boolean getLazyLoad() {
+        return lazyLoad;
+    }
+
+    public void setLazyLoad(Boolean lazyLoad) {
+        this.lazyLoad = lazyLoad;
+    }
+
+    public String getJsonPointer() {
+        return jsonPointer;
+    }
+
+    public void setJsonPointer(String jsonPointer) {
+        this.jsonPointer = jsonPointer;
+    }
+
     public Boolean getContentTypeHeader() {
         return contentTypeHeader;
     }
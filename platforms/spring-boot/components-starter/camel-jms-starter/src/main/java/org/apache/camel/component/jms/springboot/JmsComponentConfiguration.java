@@ -1788,15 +1788,36 @@ public class JmsComponentConfiguration
         /**
          * Allows for explicitly specifying which kind of strategy to use for
          * replyTo queues when doing request/reply over JMS. Possible values
-         * are: Temporary, Shared, or Exclusive. By default Camel will use
-         * temporary queues. However if replyTo has been configured, then Shared
-         * is used by default. This option allows you to use exclusive queues
-         * instead of shared ones. See Camel JMS documentation for more details,
-         * and especially the notes about the implications if running in a
-         * clustered environment, and the fact that Shared reply queues has
-         * lower performance than its alternatives Temporary and Exclusive.
+         * are: Temporary, Shared, Exclusive, or SharedNoSelector. By default
+         * Camel will use temporary queues. However if replyTo has been
+         * configured, then Shared is used by default. This option allows you to
+         * use exclusive queues instead of shared ones. SharedNoSelector
+         * consumes all the messages from the shared reply queue without a JMS
+         * message selector, and reply messages which belongs to a request from
+         * another node are forwarded to that node using the
+         * replyToForwardDestination option.
+         * See Camel JMS documentation for more details, and especially the
+         * notes about the implications if running in a clustered environment,
+         * and the fact that Shared reply queues has lower performance than its
+         * alternatives Temporary and Exclusive.
          */
         private ReplyToType replyToType;
+        /**
+         * When using replyToType=SharedNoSelector, then reply messages which
+         * belongs to a request from another node are forwarded to this
+         * destination, with the CamelJmsReplyNode property set to the id of
+         * that node. Each node consumes from this destination using a JMS
+         * message selector on its own node id. This destination must be shared
+         * by all the nodes, and must not be the reply queue itself.
+         */
+        private String replyToForwardDestination;
+        /**
+         * When using replyToType=SharedNoSelector, then reply messages which
+         * cannot be correlated to a node, or cannot be forwarded, are sent to
+         * this destination. If not configured then the reply message is logged
+         * at WARN level and discarded.
+         */
+        private String replyToDeadLetterDestination;
         /**
          * Whether the JmsConsumer processes the Exchange asynchronously. If
          * enabled then the JmsConsumer may pickup the next message from the JMS
@@ -2578,6 +2599,24 @@ public class JmsComponentConfiguration
             this.replyToType = replyToType;
         }
 
+        public String getReplyToForwardDestination() {
+            return replyToForwardDestination;
+        }
+
+        public void setReplyToForwardDestination(
+                String replyToForwardDestination) {
+            this.replyToForwardDestination = replyToForwardDestination;
+        }
+
+        public String getReplyToDeadLetterDestination() {
+            return replyToDeadLetterDestination;
+        }
+
+        public void setReplyToDeadLetterDestination(
+                String replyToDeadLetterDestination) {
+            this.replyToDeadLetterDestination = replyToDeadLetterDestination;
+        }
+
         public Boolean getAsyncConsumer() {
             return asyncConsumer;
         }
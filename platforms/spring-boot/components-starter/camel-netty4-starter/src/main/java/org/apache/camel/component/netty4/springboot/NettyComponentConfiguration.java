@@ -293,6 +293,15 @@ public class NettyComponentConfiguration
          * into {@link ByteBuf} before sending it out.
          */
         private Boolean useByteBuf = false;
+        /**
+         * If enabled then a received {@link ByteBuf} is kept as the message
+         * body as-is (without copying) and released when the exchange is done.
+         * When such a body is written back out, the same buffer is written
+         * without copying. This allows routes such as a TCP proxy to pass
+         * payloads through without copying them. Notice the buffer must not be
+         * accessed after the exchange is done.
+         */
+        private Boolean retainByteBuf = false;
         /**
          * For UDP only. If enabled the using byte array codec instead of Java
          * serialization protocol.
@@ -765,6 +774,14 @@ public class NettyComponentConfiguration
             this.useByteBuf = useByteBuf;
         }
 
+        public Boolean getRetainByteBuf() {
+            return retainByteBuf;
+        }
+
+        public void setRetainByteBuf(Boolean retainByteBuf) {
+            this.retainByteBuf = retainByteBuf;
+        }
+
         public Boolean getUdpByteArrayCodec() {
             return udpByteArrayCodec;
         }
@@ -0,0 +1,137 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.itest.jmh;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.Exchange;
+import org.apache.camel.impl.BinaryExchangeHolderCodec;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.apache.camel.impl.DefaultExchange;
+import org.apache.camel.impl.DefaultExchangeHolder;
+import org.junit.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+/**
+ * Tests storing every update of an aggregation group using Java serialization, compared to the
+ * {@link BinaryExchangeHolderCodec}, and to only storing the appended part of the body (append delta),
+ * as done by the persistent aggregation repositories.
+ */
+public class AggregationCodecTest {
+
+    @Test
+    public void launchBenchmark() throws Exception {
+        Options opt = new OptionsBuilder()
+            // Specify which benchmarks to run.
+            // You can be more specific if you'd like to run only one benchmark per test.
+            .include(this.getClass().getName() + ".*")
+            // Set the following options as needed
+            .mode(Mode.AverageTime)
+            .timeUnit(TimeUnit.MILLISECONDS)
+            .warmupTime(TimeValue.seconds(1))
+            .warmupIterations(2)
+            .measurementTime(TimeValue.seconds(1))
+            .measurementIterations(2)
+            .threads(1)
+            .forks(1)
+            .shouldFailOnError(true)
+            .shouldDoGC(true)
+            .build();
+
+        new Runner(opt).run();
+    }
+
+    // The JMH samples are the best documentation for how to use it
+    // http://hg.openjdk.java.net/code-tools/jmh/file/tip/jmh-samples/src/main/java/org/openjdk/jmh/samples/
+    @State(Scope.Thread)
+    public static class BenchmarkState {
+        @Param({"1000"})
+        int groupSize;
+
+        CamelContext camel;
+        Exchange exchange;
+        String[] messages;
+
+        @Setup(Level.Trial)
+        public void initialize() throws Exception {
+            camel = new DefaultCamelContext();
+            camel.start();
+            exchange = new DefaultExchange(camel);
+            exchange.getIn().setHeader("id", 123);
+            exchange.getIn().setHeader("source", "orders");
+            messages = new String[groupSize];
+            for (int i = 0; i < groupSize; i++) {
+                messages[i] = "<order id=\"" + i + "\"><item>Camel</item><amount>" + i * 10 + "</amount></order>\n";
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void close() throws Exception {
+            camel.stop();
+        }
+    }
+
+    @Benchmark
+    public void javaSerialization(BenchmarkState state, Blackhole bh) throws IOException {
+        StringBuilder body = new StringBuilder();
+        for (String message : state.messages) {
+            body.append(message);
+            state.exchange.getIn().setBody(body.toString());
+            ByteArrayOutputStream bos = new ByteArrayOutputStream();
+            ObjectOutputStream oos = new ObjectOutputStream(bos);
+            oos.writeObject(DefaultExchangeHolder.marshal(state.exchange, false));
+            oos.close();
+            bh.consume(bos.toByteArray());
+        }
+    }
+
+    @Benchmark
+    public void binary(BenchmarkState state, Blackhole bh) throws IOException {
+        StringBuilder body = new StringBuilder();
+        for (String message : state.messages) {
+            body.append(message);
+            state.exchange.getIn().setBody(body.toString());
+            bh.consume(BinaryExchangeHolderCodec.encode(DefaultExchangeHolder.marshal(state.exchange, false), false));
+        }
+    }
+
+    @Benchmark
+    public void binaryAppendDelta(BenchmarkState state, Blackhole bh) throws IOException {
+        for (String message : state.messages) {
+            // only the appended part of the body is stored
+            state.exchange.getIn().setBody(message);
+            bh.consume(BinaryExchangeHolderCodec.encode(DefaultExchangeHolder.marshal(state.exchange, false), false));
+        }
+    }
+
+}
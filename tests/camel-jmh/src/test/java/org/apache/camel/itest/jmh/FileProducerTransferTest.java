@@ -0,0 +1,125 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.itest.jmh;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.RandomAccessFile;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.Exchange;
+import org.apache.camel.ProducerTemplate;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.apache.camel.util.FileUtil;
+import org.junit.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+/**
+ * Tests the throughput of the file producer writing a file body, which is transferred using file channels,
+ * compared to writing a stream body, which is copied through a buffer on the heap.
+ */
+public class FileProducerTransferTest {
+
+    @Test
+    public void launchBenchmark() throws Exception {
+        Options opt = new OptionsBuilder()
+            // Specify which benchmarks to run.
+            // You can be more specific if you'd like to run only one benchmark per test.
+            .include(this.getClass().getName() + ".*")
+            // Set the following options as needed
+            .mode(Mode.AverageTime)
+            .timeUnit(TimeUnit.MILLISECONDS)
+            .warmupTime(TimeValue.seconds(1))
+            .warmupIterations(2)
+            .measurementTime(TimeValue.seconds(1))
+            .measurementIterations(2)
+            .threads(1)
+            .forks(1)
+            .shouldFailOnError(true)
+            .shouldDoGC(true)
+            .build();
+
+        new Runner(opt).run();
+    }
+
+    // The JMH samples are the best documentation for how to use it
+    // http://hg.openjdk.java.net/code-tools/jmh/file/tip/jmh-samples/src/main/java/org/openjdk/jmh/samples/
+    @State(Scope.Thread)
+    public static class BenchmarkState {
+        @Param({"1024", "1048576", "1073741824"})
+        long size;
+
+        File directory = new File("target/file-transfer");
+        File source;
+        CamelContext camel;
+        ProducerTemplate producer;
+
+        @Setup(Level.Trial)
+        public void initialize() throws Exception {
+            FileUtil.removeDir(directory);
+            directory.mkdirs();
+            source = new File(directory, "source-" + size + ".dat");
+            try (RandomAccessFile file = new RandomAccessFile(source, "rw")) {
+                byte[] data = new byte[(int) Math.min(size, 1024 * 1024)];
+                for (int i = 0; i < data.length; i++) {
+                    data[i] = (byte) i;
+                }
+                for (long written = 0; written < size; written += data.length) {
+                    file.write(data, 0, (int) Math.min(data.length, size - written));
+                }
+            }
+
+            camel = new DefaultCamelContext();
+            camel.disableJMX();
+            camel.start();
+            producer = camel.createProducerTemplate();
+        }
+
+        @TearDown(Level.Trial)
+        public void close() throws Exception {
+            producer.stop();
+            camel.stop();
+            FileUtil.removeDir(directory);
+        }
+    }
+
+    @Benchmark
+    public void fileBody(BenchmarkState state) throws Exception {
+        state.producer.sendBodyAndHeader("file:target/file-transfer/out", state.source, Exchange.FILE_NAME, "file.dat");
+    }
+
+    @Benchmark
+    public void streamBody(BenchmarkState state) throws Exception {
+        // a buffered stream is not a file stream so its copied using the stream
+        state.producer.sendBodyAndHeader("file:target/file-transfer/out", new BufferedInputStream(new FileInputStream(state.source)),
+            Exchange.FILE_NAME, "stream.dat");
+    }
+
+}
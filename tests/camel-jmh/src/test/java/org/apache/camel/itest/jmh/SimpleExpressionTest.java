@@ -22,6 +22,7 @@ import org.apache.camel.CamelContext;
 import org.apache.camel.Exchange;
 import org.apache.camel.impl.DefaultCamelContext;
 import org.apache.camel.impl.DefaultExchange;
+import org.apache.camel.language.simple.SimpleLanguage;
 import org.apache.camel.spi.Language;
 import org.junit.Test;
 import org.openjdk.jmh.annotations.Benchmark;
@@ -39,7 +40,7 @@ import org.openjdk.jmh.runner.options.OptionsBuilder;
 import org.openjdk.jmh.runner.options.TimeValue;
 
 /**
- * Tests a Simple expression
+ * Tests a Simple expression, both interpreted and compiled
  */
 public class SimpleExpressionTest {
 
@@ -71,8 +72,11 @@ public class SimpleExpressionTest {
     public static class BenchmarkState {
         CamelContext camel;
         String expression = "Hello ${body}";
+        String ognlExpression = "Hello ${body.customer.name}";
         Exchange exchange;
+        Exchange ognlExchange;
         Language simple;
+        SimpleLanguage compiled;
 
         @Setup(Level.Trial)
         public void initialize() {
@@ -81,7 +85,13 @@ public class SimpleExpressionTest {
                 camel.start();
                 exchange = new DefaultExchange(camel);
                 exchange.getIn().setBody("World");
+                ognlExchange = new DefaultExchange(camel);
+                ognlExchange.getIn().setBody(new Order(new Customer("World")));
                 simple = camel.resolveLanguage("simple");
+                compiled = new SimpleLanguage();
+                compiled.setCamelContext(camel);
+                compiled.setCompiled(true);
+                compiled.start();
 
             } catch (Exception e) {
                 // ignore
@@ -109,4 +119,58 @@ public class SimpleExpressionTest {
         bh.consume(out);
     }
 
+    @Benchmark
+    @Measurement(batchSize = 1000)
+    public void simpleExpressionCompiled(BenchmarkState state, Blackhole bh) {
+        String out = state.compiled.createExpression(state.expression).evaluate(state.exchange, String.class);
+        if (!out.equals("Hello World")) {
+            throw new IllegalArgumentException("Evaluation failed");
+        }
+        bh.consume(out);
+    }
+
+    @Benchmark
+    @Measurement(batchSize = 1000)
+    public void simpleOgnlExpression(BenchmarkState state, Blackhole bh) {
+        String out = state.simple.createExpression(state.ognlExpression).evaluate(state.ognlExchange, String.class);
+        if (!out.equals("Hello World")) {
+            throw new IllegalArgumentException("Evaluation failed");
+        }
+        bh.consume(out);
+    }
+
+    @Benchmark
+    @Measurement(batchSize = 1000)
+    public void simpleOgnlExpressionCompiled(BenchmarkState state, Blackhole bh) {
+        String out = state.compiled.createExpression(state.ognlExpression).evaluate(state.ognlExchange, String.class);
+        if (!out.equals("Hello World")) {
+            throw new IllegalArgumentException("Evaluation failed");
+        }
+        bh.consume(out);
+    }
+
+    public static final class Order {
+        private final Customer customer;
+
+        public Order(Customer customer) {
+            this.customer = customer;
+        }
+
+        public Customer getCustomer() {
+            return customer;
+        }
+    }
+
+    public static final class Customer {
+        private final String name;
+
+        public Customer(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+
 }
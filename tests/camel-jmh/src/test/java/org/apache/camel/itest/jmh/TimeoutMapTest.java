@@ -0,0 +1,118 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.itest.jmh;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.camel.TimeoutMap;
+import org.apache.camel.support.DefaultTimeoutMap;
+import org.apache.camel.support.HashedWheelTimeoutMap;
+import org.junit.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+/**
+ * Tests the {@link DefaultTimeoutMap} which scans all entries when purging, compared to the {@link HashedWheelTimeoutMap},
+ * when there are many pending entries (such as aggregation groups waiting for the completion timeout).
+ */
+public class TimeoutMapTest {
+
+    @Test
+    public void launchBenchmark() throws Exception {
+        Options opt = new OptionsBuilder()
+            // Specify which benchmarks to run.
+            // You can be more specific if you'd like to run only one benchmark per test.
+            .include(this.getClass().getName() + ".*")
+            // Set the following options as needed
+            .mode(Mode.AverageTime)
+            .timeUnit(TimeUnit.MICROSECONDS)
+            .warmupTime(TimeValue.seconds(1))
+            .warmupIterations(2)
+            .measurementTime(TimeValue.seconds(1))
+            .measurementIterations(2)
+            .threads(1)
+            .forks(1)
+            .shouldFailOnError(true)
+            .shouldDoGC(true)
+            .build();
+
+        new Runner(opt).run();
+    }
+
+    // The JMH samples are the best documentation for how to use it
+    // http://hg.openjdk.java.net/code-tools/jmh/file/tip/jmh-samples/src/main/java/org/openjdk/jmh/samples/
+    @State(Scope.Thread)
+    public static class BenchmarkState {
+        @Param({"1000", "100000", "1000000"})
+        int size;
+
+        ScheduledExecutorService executor;
+        TimeoutMap<String, String> defaultMap;
+        TimeoutMap<String, String> wheelMap;
+        int counter;
+
+        @Setup(Level.Trial)
+        public void initialize() {
+            // the maps are not started as the benchmark purges
+            executor = Executors.newSingleThreadScheduledExecutor();
+            defaultMap = new DefaultTimeoutMap<String, String>(executor, 1000);
+            wheelMap = new HashedWheelTimeoutMap<String, String>(executor, 1000);
+            for (int i = 0; i < size; i++) {
+                String key = "key" + i;
+                // the pending entries does not expire while benchmarking
+                defaultMap.put(key, key, TimeUnit.HOURS.toMillis(1) + i);
+                wheelMap.put(key, key, TimeUnit.HOURS.toMillis(1) + i);
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void close() {
+            executor.shutdownNow();
+        }
+    }
+
+    @Benchmark
+    public void defaultTimeoutMap(BenchmarkState state, Blackhole bh) {
+        putPurgeRemove(state.defaultMap, "new" + state.counter++, bh);
+    }
+
+    @Benchmark
+    public void hashedWheelTimeoutMap(BenchmarkState state, Blackhole bh) {
+        putPurgeRemove(state.wheelMap, "new" + state.counter++, bh);
+    }
+
+    private static void putPurgeRemove(TimeoutMap<String, String> map, String key, Blackhole bh) {
+        // a new aggregation group, then the timeout checker runs, and then the group completes
+        map.put(key, key, 30000);
+        map.purge();
+        bh.consume(map.remove(key));
+    }
+
+}